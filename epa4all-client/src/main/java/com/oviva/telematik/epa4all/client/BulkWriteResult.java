@@ -0,0 +1,23 @@
+package com.oviva.telematik.epa4all.client;
+
+import de.gematik.epa.ihe.model.document.Document;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The result for a single document of a {@link Epa4AllBulkWriter}.
+ *
+ * @param outcome the outcome reported by the health record, null if the submission failed
+ * @param failure the reason the document could not be submitted at all, e.g. no account found for
+ *     the insurant or the authorization failed
+ */
+public record BulkWriteResult(
+    @NonNull String insurantId,
+    @NonNull Document document,
+    @Nullable DocumentWriteOutcome outcome,
+    @Nullable RuntimeException failure) {
+
+  public boolean stored() {
+    return outcome != null && outcome.stored();
+  }
+}
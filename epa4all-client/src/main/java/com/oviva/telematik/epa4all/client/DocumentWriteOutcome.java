@@ -0,0 +1,28 @@
+package com.oviva.telematik.epa4all.client;
+
+import de.gematik.epa.ihe.model.document.Document;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The outcome of writing a single document of a batch.
+ *
+ * @param message the errors reported by the health record for this document, for a stored document
+ *     its warnings if any
+ */
+public record DocumentWriteOutcome(
+    @NonNull Document document, @NonNull Status status, @Nullable String message) {
+
+  public enum Status {
+    STORED,
+    DUPLICATE,
+    REJECTED,
+
+    /** The document was not stored because the batch as a whole was rejected. */
+    NOT_STORED
+  }
+
+  public boolean stored() {
+    return status == Status.STORED;
+  }
+}
@@ -0,0 +1,44 @@
+package com.oviva.telematik.epa4all.client;
+
+import de.gematik.epa.ihe.model.document.Document;
+import de.gematik.epa.ihe.model.simple.AuthorInstitution;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of the {@link Epa4AllClient}, the returned futures complete once the
+ * document was submitted. Failures complete the future exceptionally with a {@link
+ * ClientException}, e.g. a {@link DuplicateDocumentClientException}.
+ *
+ * @see Epa4AllClient
+ */
+public interface Epa4AllAsyncClient {
+
+  /**
+   * @see Epa4AllClient#authorInstitution()
+   */
+  @NonNull
+  AuthorInstitution authorInstitution();
+
+  /**
+   * @see Epa4AllClient#writeDocument(String, Document)
+   */
+  @NonNull
+  CompletableFuture<Void> writeDocument(@NonNull String insurantId, @NonNull Document document);
+
+  /**
+   * @see Epa4AllClient#writeDocuments(String, List)
+   */
+  @NonNull
+  CompletableFuture<List<DocumentWriteOutcome>> writeDocuments(
+      @NonNull String insurantId, @NonNull List<Document> documents);
+
+  /**
+   * @see Epa4AllClient#replaceDocument(String, Document, UUID)
+   */
+  @NonNull
+  CompletableFuture<Void> replaceDocument(
+      @NonNull String insurantId, @NonNull Document document, @NonNull UUID documentToReplaceId);
+}
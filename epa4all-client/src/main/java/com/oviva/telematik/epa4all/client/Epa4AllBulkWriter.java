@@ -0,0 +1,46 @@
+package com.oviva.telematik.epa4all.client;
+
+import de.gematik.epa.ihe.model.document.Document;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes large numbers of documents for many insurants, e.g. for a backfill.
+ *
+ * <p>Documents are grouped by insurant, each group is written with a single authorization and
+ * submission. Groups run concurrently, limited per ePA provider. Once too many groups are pending
+ * {@link #submit(String, List)} blocks until the pipeline caught up.
+ *
+ * <pre>{@code
+ * var writer = factory.newBulkWriter(4, 100);
+ * Thread.ofVirtual().start(() -> {
+ *   try (writer) {
+ *     backfill.forEach(b -> writer.submit(b.kvnr(), b.documents()));
+ *   }
+ * });
+ * writer.results().filter(r -> !r.stored()).forEach(this::reportFailure);
+ * }</pre>
+ */
+public interface Epa4AllBulkWriter extends AutoCloseable {
+
+  /**
+   * Queues documents for an insurant. Documents for an insurant whose group did not start yet are
+   * added to that group, as long as it is not full. Otherwise they start a group of their own and
+   * count against the pending groups.
+   *
+   * @throws IllegalStateException if the writer is closed already
+   */
+  void submit(@NonNull String insurantId, @NonNull List<Document> documents);
+
+  /**
+   * The results of all submitted documents as they complete. The stream ends once the writer is
+   * closed and all submitted documents are done. It can only be consumed once.
+   */
+  @NonNull
+  Stream<BulkWriteResult> results();
+
+  /** Signals that no more documents are submitted, pending documents are still written. */
+  @Override
+  void close();
+}
@@ -3,6 +3,7 @@ package com.oviva.telematik.epa4all.client;
 import de.gematik.epa.ihe.model.document.Document;
 import de.gematik.epa.ihe.model.simple.AuthorInstitution;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
 import java.util.UUID;
 
 public interface Epa4AllClient {
@@ -21,6 +22,18 @@ public interface Epa4AllClient {
    */
   void writeDocument(@NonNull String insurantId, @NonNull Document document);
 
+  /**
+   * write several documents to an insurants electronic health record within a single submission,
+   * the author of the first document is the author of the submission
+   *
+   * @param insurantId the KVNR of the insurant (patient)
+   * @param documents the documents to write into the electronic health record
+   * @return the outcome for each document, in the order of the given documents
+   */
+  @NonNull
+  List<DocumentWriteOutcome> writeDocuments(
+      @NonNull String insurantId, @NonNull List<Document> documents);
+
   /**
    * replace a document in an insurants electronic health record
    *
@@ -3,6 +3,9 @@ package com.oviva.telematik.epa4all.client;
 import com.oviva.epa.client.KonnektorService;
 import com.oviva.telematik.epa4all.client.internal.Epa4AllClientFactory;
 import com.oviva.telematik.epa4all.client.internal.TelematikTrustRoots;
+import com.oviva.telematik.vau.epa4all.client.info.AccountEndpointIndex;
+import com.oviva.telematik.vau.epa4all.client.info.ProviderRegistry;
+import com.oviva.telematik.vau.httpclient.VauSessionStore;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.InetSocketAddress;
 import java.security.KeyStore;
@@ -17,6 +20,9 @@ public class Epa4AllClientFactoryBuilder {
 
   private Environment environment;
   private String telematikId;
+  private AccountEndpointIndex accountEndpointIndex;
+  private ProviderRegistry providerRegistry;
+  private VauSessionStore vauSessionStore;
 
   private Epa4AllClientFactoryBuilder() {}
 
@@ -56,6 +62,44 @@ public class Epa4AllClientFactoryBuilder {
     return this;
   }
 
+  /**
+   * Remembers which ePA provider hosts the account of an insurant, e.g. across restarts. The index
+   * should be shared by all factories of a process.
+   *
+   * @see AccountEndpointIndex#open(java.nio.file.Path, byte[])
+   */
+  @NonNull
+  public Epa4AllClientFactoryBuilder accountEndpointIndex(
+      AccountEndpointIndex accountEndpointIndex) {
+    this.accountEndpointIndex = accountEndpointIndex;
+    return this;
+  }
+
+  /**
+   * The ePA providers to probe for accounts, defaults to the well-known providers of the
+   * environment. The registry tracks the health of the providers and should be shared by all
+   * factories of a process.
+   *
+   * @see Epa4AllClientFactory#defaultProviderRegistry(Environment)
+   */
+  @NonNull
+  public Epa4AllClientFactoryBuilder providerRegistry(ProviderRegistry providerRegistry) {
+    this.providerRegistry = providerRegistry;
+    return this;
+  }
+
+  /**
+   * Keeps the VAU tunnels across restarts, the tunnels are saved when the factory is closed and
+   * resumed by the next factory without new handshakes.
+   *
+   * @see VauSessionStore#open(java.nio.file.Path, byte[])
+   */
+  @NonNull
+  public Epa4AllClientFactoryBuilder vauSessionStore(VauSessionStore vauSessionStore) {
+    this.vauSessionStore = vauSessionStore;
+    return this;
+  }
+
   @NonNull
   public Epa4AllClientFactory build() {
     Objects.requireNonNull(konnektorService, "konnektorService must be set");
@@ -65,7 +109,14 @@ public class Epa4AllClientFactoryBuilder {
     Objects.requireNonNull(actualTrustStore, "trustStore must be set");
 
     return Epa4AllClientFactory.create(
-        konnektorService, konnektorProxyAddress, environment, actualTrustStore, telematikId);
+        konnektorService,
+        konnektorProxyAddress,
+        environment,
+        actualTrustStore,
+        telematikId,
+        accountEndpointIndex,
+        providerRegistry,
+        vauSessionStore);
   }
 
   private KeyStore determineTrustStore(boolean isPu, KeyStore providedTrustStore) {
@@ -0,0 +1,13 @@
+package com.oviva.telematik.epa4all.client;
+
+/** The account of the insurant is not known, because not all ePA providers could be asked. */
+public class ProviderUnavailableClientException extends ClientException {
+
+  public ProviderUnavailableClientException(String message) {
+    super(message);
+  }
+
+  public ProviderUnavailableClientException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,262 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import com.oviva.telematik.epa4all.client.BulkWriteResult;
+import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.Epa4AllBulkWriter;
+import de.gematik.epa.ihe.model.document.Document;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs each insurant group on the executor. A group first looks up the account endpoint and then
+ * waits for a slot of that provider, documents submitted in the meantime are added to it until it
+ * is full. The number of groups not yet done is bounded, {@link #submit(String, List)} blocks once
+ * it is reached. Together with the size of a group this bounds the documents held in memory.
+ */
+public class BulkWriterImpl implements Epa4AllBulkWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(BulkWriterImpl.class);
+
+  private static final Object END = new Object();
+
+  // documents sent with a single ProvideAndRegister request
+  static final int DEFAULT_MAX_DOCUMENTS_PER_GROUP = 50;
+
+  private final Epa4AllClientImpl client;
+  private final Executor executor;
+  private final int concurrencyPerProvider;
+  private final int maxDocumentsPerGroup;
+
+  private final Semaphore pendingGroups;
+  private final Map<URI, Semaphore> providerSlots = new ConcurrentHashMap<>();
+  private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+  private final AtomicBoolean resultsConsumed = new AtomicBoolean();
+
+  private final Object lock = new Object();
+  private final Map<String, Group> waiting = new HashMap<>();
+  private int inFlight;
+  private boolean closed;
+
+  public BulkWriterImpl(
+      Epa4AllClientImpl client,
+      Executor executor,
+      int concurrencyPerProvider,
+      int maxPendingGroups) {
+    this(
+        client,
+        executor,
+        concurrencyPerProvider,
+        maxPendingGroups,
+        DEFAULT_MAX_DOCUMENTS_PER_GROUP);
+  }
+
+  /**
+   * @param maxDocumentsPerGroup the number of documents of an insurant sent with a single request,
+   *     more documents start another group
+   */
+  public BulkWriterImpl(
+      Epa4AllClientImpl client,
+      Executor executor,
+      int concurrencyPerProvider,
+      int maxPendingGroups,
+      int maxDocumentsPerGroup) {
+
+    if (concurrencyPerProvider < 1) {
+      throw new IllegalArgumentException("concurrencyPerProvider must be at least 1");
+    }
+    if (maxPendingGroups < 1) {
+      throw new IllegalArgumentException("maxPendingGroups must be at least 1");
+    }
+    if (maxDocumentsPerGroup < 1) {
+      throw new IllegalArgumentException("maxDocumentsPerGroup must be at least 1");
+    }
+
+    this.client = client;
+    this.executor = executor;
+    this.concurrencyPerProvider = concurrencyPerProvider;
+    this.maxDocumentsPerGroup = maxDocumentsPerGroup;
+    this.pendingGroups = new Semaphore(maxPendingGroups);
+  }
+
+  @Override
+  public void submit(@NonNull String insurantId, @NonNull List<Document> documents) {
+    for (var from = 0; from < documents.size(); from += maxDocumentsPerGroup) {
+      var to = Math.min(from + maxDocumentsPerGroup, documents.size());
+      submitGroup(insurantId, documents.subList(from, to));
+    }
+  }
+
+  private void submitGroup(String insurantId, List<Document> documents) {
+
+    if (addToWaitingGroup(insurantId, documents)) {
+      return;
+    }
+
+    try {
+      pendingGroups.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ClientException("interrupted while waiting for pending documents", e);
+    }
+
+    Group group;
+    try {
+      synchronized (lock) {
+        // the group may have been created while we were waiting
+        if (addToWaitingGroup(insurantId, documents)) {
+          pendingGroups.release();
+          return;
+        }
+        // replaces a full group, which keeps waiting for its slot
+        group = new Group(insurantId, new ArrayList<>(documents));
+        waiting.put(insurantId, group);
+        inFlight++;
+      }
+    } catch (RuntimeException e) {
+      // closed while we were waiting
+      pendingGroups.release();
+      throw e;
+    }
+
+    try {
+      executor.execute(() -> run(group));
+    } catch (RejectedExecutionException e) {
+      // documents added by other submitters in the meantime are reported as well
+      fail(group, new ClientException("bulk write rejected by executor", e));
+      pendingGroups.release();
+      synchronized (lock) {
+        inFlight--;
+        signalEndIfDone();
+      }
+    }
+  }
+
+  private boolean addToWaitingGroup(String insurantId, List<Document> documents) {
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("bulk writer already closed");
+      }
+      var group = waiting.get(insurantId);
+      if (group == null || group.documents().size() + documents.size() > maxDocumentsPerGroup) {
+        return false;
+      }
+      group.documents().addAll(documents);
+      return true;
+    }
+  }
+
+  private void run(Group group) {
+    try {
+      var endpoint = client.findEndpoint(group.insurantId());
+      var slots =
+          providerSlots.computeIfAbsent(endpoint, e -> new Semaphore(concurrencyPerProvider));
+      slots.acquire();
+      try {
+        var documents = startGroup(group);
+        client.authorize(endpoint, group.insurantId());
+        for (var outcome : client.submitDocuments(endpoint, group.insurantId(), documents)) {
+          results.add(new BulkWriteResult(group.insurantId(), outcome.document(), outcome, null));
+        }
+      } finally {
+        slots.release();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail(group, new ClientException("interrupted", e));
+    } catch (RuntimeException e) {
+      log.atDebug().setCause(e).log("bulk write failed for insurant group");
+      fail(group, e);
+    } finally {
+      pendingGroups.release();
+      synchronized (lock) {
+        inFlight--;
+        signalEndIfDone();
+      }
+    }
+  }
+
+  /** Takes the group out of the waiting groups, no more documents are added afterwards. */
+  private List<Document> startGroup(Group group) {
+    synchronized (lock) {
+      waiting.remove(group.insurantId(), group);
+      return List.copyOf(group.documents());
+    }
+  }
+
+  private void fail(Group group, RuntimeException failure) {
+    for (var document : startGroup(group)) {
+      results.add(new BulkWriteResult(group.insurantId(), document, null, failure));
+    }
+  }
+
+  @NonNull
+  @Override
+  public Stream<BulkWriteResult> results() {
+    if (!resultsConsumed.compareAndSet(false, true)) {
+      throw new IllegalStateException("results can only be consumed once");
+    }
+
+    var spliterator =
+        new Spliterators.AbstractSpliterator<BulkWriteResult>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          private boolean done;
+
+          @Override
+          public boolean tryAdvance(Consumer<? super BulkWriteResult> action) {
+            if (done) {
+              return false;
+            }
+            try {
+              var next = results.take();
+              if (next == END) {
+                done = true;
+                return false;
+              }
+              action.accept((BulkWriteResult) next);
+              return true;
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new ClientException("interrupted while waiting for results", e);
+            }
+          }
+        };
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      signalEndIfDone();
+    }
+  }
+
+  private void signalEndIfDone() {
+    if (closed && inFlight == 0) {
+      results.add(END);
+    }
+  }
+
+  private record Group(String insurantId, List<Document> documents) {}
+}
@@ -0,0 +1,85 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.DocumentWriteOutcome;
+import com.oviva.telematik.epa4all.client.Epa4AllAsyncClient;
+import com.oviva.telematik.vau.epa4all.client.Epa4AllClientException;
+import de.gematik.epa.ihe.model.document.Document;
+import de.gematik.epa.ihe.model.simple.AuthorInstitution;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Composes the steps of a submission, i.e. endpoint lookup, VAU authorization and the SOAP request,
+ * as stages of a {@link CompletableFuture}. Each stage runs on the executor, backed by virtual
+ * threads a pending request does not occupy a platform thread.
+ */
+public class Epa4AllAsyncClientImpl implements Epa4AllAsyncClient {
+
+  private final Epa4AllClientImpl client;
+  private final Executor executor;
+
+  public Epa4AllAsyncClientImpl(Epa4AllClientImpl client, Executor executor) {
+    this.client = client;
+    this.executor = executor;
+  }
+
+  @NonNull
+  @Override
+  public AuthorInstitution authorInstitution() {
+    return client.authorInstitution();
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<Void> writeDocument(
+      @NonNull String insurantId, @NonNull Document document) {
+    return authorizeForInsurant("write_document", insurantId)
+        .thenAcceptAsync(
+            endpoint -> client.submitDocument(endpoint, insurantId, document), executor);
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<List<DocumentWriteOutcome>> writeDocuments(
+      @NonNull String insurantId, @NonNull List<Document> documents) {
+    return authorizeForInsurant("write_documents", insurantId)
+        .thenApplyAsync(
+            endpoint -> client.submitDocuments(endpoint, insurantId, documents), executor);
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<Void> replaceDocument(
+      @NonNull String insurantId, @NonNull Document document, @NonNull UUID documentToReplaceId) {
+    return authorizeForInsurant("replace_document", insurantId)
+        .thenAcceptAsync(
+            endpoint ->
+                client.submitReplacement(endpoint, insurantId, document, documentToReplaceId),
+            executor);
+  }
+
+  private CompletableFuture<URI> authorizeForInsurant(String event, String insurantId) {
+    return CompletableFuture.supplyAsync(
+            () -> {
+              Logs.log(event);
+              return client.findEndpoint(insurantId);
+            },
+            executor)
+        .thenApplyAsync(
+            endpoint -> {
+              try {
+                client.authorize(endpoint, insurantId);
+              } catch (Epa4AllClientException e) {
+                // futures only fail with client exceptions, the cause tells what went wrong
+                throw new ClientException("failed to authorize", e);
+              }
+              return endpoint;
+            },
+            executor);
+  }
+}
@@ -4,15 +4,21 @@ import com.oviva.epa.client.KonnektorService;
 import com.oviva.epa.client.model.SmcbCard;
 import com.oviva.telematik.epa4all.client.ClientException;
 import com.oviva.telematik.epa4all.client.Environment;
+import com.oviva.telematik.epa4all.client.Epa4AllAsyncClient;
+import com.oviva.telematik.epa4all.client.Epa4AllBulkWriter;
 import com.oviva.telematik.epa4all.client.Epa4AllClient;
 import com.oviva.telematik.epaapi.ClientConfiguration;
 import com.oviva.telematik.epaapi.SoapClientFactory;
 import com.oviva.telematik.vau.epa4all.client.Epa4AllClientException;
 import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
 import com.oviva.telematik.vau.epa4all.client.authz.internal.*;
+import com.oviva.telematik.vau.epa4all.client.info.AccountEndpointIndex;
 import com.oviva.telematik.vau.epa4all.client.info.InformationService;
+import com.oviva.telematik.vau.epa4all.client.info.ProviderRegistry;
+import com.oviva.telematik.vau.httpclient.VauSessionStore;
 import com.oviva.telematik.vau.httpclient.internal.DowngradeHttpClient;
 import com.oviva.telematik.vau.httpclient.internal.JavaHttpClient;
+import com.oviva.telematik.vau.proxy.TunnelListener;
 import com.oviva.telematik.vau.proxy.VauProxy;
 import java.net.InetSocketAddress;
 import java.net.ProxySelector;
@@ -20,6 +26,7 @@ import java.net.http.HttpClient;
 import java.security.*;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import javax.net.ssl.SSLContext;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
@@ -36,12 +43,17 @@ public class Epa4AllClientFactory implements AutoCloseable {
 
   private static final String LOCALHOST = "127.0.0.1";
 
+  // the ePA user session ends after 20 minutes, refresh it well before
+  private static final Duration SESSION_LIFETIME = Duration.ofMinutes(20);
+  private static final Duration SESSION_REFRESH_AHEAD = Duration.ofMinutes(3);
+
   private static final Logger log = LoggerFactory.getLogger(Epa4AllClientFactory.class);
   private final VauProxy proxyServer;
   private final SoapClientFactory client;
   private final AuthorizationService authorizationService;
   private final InformationService informationService;
   private final SmcbCard card;
+  private final SessionKeeper sessionKeeper;
 
   public Epa4AllClientFactory(
       VauProxy proxyServer,
@@ -54,6 +66,8 @@ public class Epa4AllClientFactory implements AutoCloseable {
     this.authorizationService = authorizationService;
     this.informationService = informationService;
     this.card = card;
+    this.sessionKeeper =
+        new SessionKeeper(authorizationService, SESSION_LIFETIME, SESSION_REFRESH_AHEAD);
   }
 
   public static Epa4AllClientFactory create(
@@ -61,16 +75,30 @@ public class Epa4AllClientFactory implements AutoCloseable {
       InetSocketAddress konnektorProxyAddress,
       Environment environment,
       KeyStore tiTrustStore,
-      String telematikId) {
+      String telematikId,
+      AccountEndpointIndex accountEndpointIndex,
+      ProviderRegistry providerRegistry,
+      VauSessionStore vauSessionStore) {
 
     var telematikSslContext = SslContextBuilder.buildSslContext(tiTrustStore);
     var outerHttpClientTelematik =
         buildOuterHttpClientWithTlsContext(konnektorProxyAddress, telematikSslContext);
 
-    var informationService = buildInformationService(environment, outerHttpClientTelematik);
+    var informationService =
+        buildInformationService(
+            environment, outerHttpClientTelematik, accountEndpointIndex, providerRegistry);
+
+    // the sessions are kept by the factory, which needs the proxy to be running already
+    var tunnelListener = new SessionKeeperTunnelListener();
 
     var proxyServer =
-        buildVauProxy(environment, konnektorProxyAddress, tiTrustStore, telematikSslContext);
+        buildVauProxy(
+            environment,
+            konnektorProxyAddress,
+            tiTrustStore,
+            telematikSslContext,
+            vauSessionStore,
+            tunnelListener);
 
     var serverInfo = proxyServer.start();
     var vauProxyServerListener = serverInfo.listenAddress();
@@ -92,12 +120,48 @@ public class Epa4AllClientFactory implements AutoCloseable {
             new ClientConfiguration(
                 new InetSocketAddress(LOCALHOST, vauProxyServerListener.getPort())));
 
-    return new Epa4AllClientFactory(
-        proxyServer, client, authorizationService, informationService, card);
+    var factory =
+        new Epa4AllClientFactory(
+            proxyServer, client, authorizationService, informationService, card);
+    tunnelListener.attach(factory.sessionKeeper);
+    return factory;
   }
 
   public Epa4AllClient newClient() {
-    return new Epa4AllClientImpl(informationService, authorizationService, card, client);
+    return newClientImpl();
+  }
+
+  private Epa4AllClientImpl newClientImpl() {
+    return new Epa4AllClientImpl(
+        informationService, authorizationService, card, client, sessionKeeper);
+  }
+
+  /** Creates a non-blocking client, each step of a request runs on its own virtual thread. */
+  public Epa4AllAsyncClient newAsyncClient() {
+    var threadFactory = Thread.ofVirtual().name("epa4all-async-", 0).factory();
+    return newAsyncClient(command -> threadFactory.newThread(command).start());
+  }
+
+  /** Creates a non-blocking client running the steps of a request on the given executor. */
+  public Epa4AllAsyncClient newAsyncClient(Executor executor) {
+    return new Epa4AllAsyncClientImpl(newClientImpl(), executor);
+  }
+
+  /**
+   * Creates a writer for large numbers of documents, each insurant group runs on its own virtual
+   * thread.
+   *
+   * @param concurrencyPerProvider the number of insurant groups written concurrently to a single
+   *     ePA provider
+   * @param maxPendingGroups the number of insurant groups accepted before submitting blocks
+   */
+  public Epa4AllBulkWriter newBulkWriter(int concurrencyPerProvider, int maxPendingGroups) {
+    var threadFactory = Thread.ofVirtual().name("epa4all-bulk-", 0).factory();
+    return new BulkWriterImpl(
+        newClientImpl(),
+        command -> threadFactory.newThread(command).start(),
+        concurrencyPerProvider,
+        maxPendingGroups);
   }
 
   private static AuthorizationService buildAuthorizationService(
@@ -163,17 +227,42 @@ public class Epa4AllClientFactory implements AutoCloseable {
       Environment environment,
       InetSocketAddress konnektorProxyAddress,
       KeyStore trustStore,
-      SSLContext sslContext) {
+      SSLContext sslContext,
+      VauSessionStore vauSessionStore,
+      TunnelListener tunnelListener) {
 
     var isPu = environment == Environment.PU;
     var xUserAgent = isPu ? "GEMOvivepa4fA734EBIP/0.1.0" : "GEMOvivepa4fA1d5W8sR/0.1.0";
     return new VauProxy(
         new VauProxy.Configuration(
-            konnektorProxyAddress, 0, isPu, xUserAgent, sslContext, trustStore));
+            konnektorProxyAddress,
+            0,
+            isPu,
+            xUserAgent,
+            sslContext,
+            trustStore,
+            null,
+            vauSessionStore,
+            null,
+            null),
+        tunnelListener);
   }
 
   private static InformationService buildInformationService(
-      Environment environment, HttpClient outerHttpClient) {
+      Environment environment,
+      HttpClient outerHttpClient,
+      AccountEndpointIndex accountEndpointIndex,
+      ProviderRegistry providerRegistry) {
+
+    if (providerRegistry == null) {
+      providerRegistry = defaultProviderRegistry(environment);
+    }
+
+    return new InformationService(outerHttpClient, providerRegistry, accountEndpointIndex);
+  }
+
+  /** The well-known ePA providers of the given environment. */
+  public static ProviderRegistry defaultProviderRegistry(Environment environment) {
 
     var providers =
         List.of(InformationService.EpaProvider.IBM, InformationService.EpaProvider.BITMARCK);
@@ -184,7 +273,9 @@ public class Epa4AllClientFactory implements AutoCloseable {
           case RU -> InformationService.Environment.DEV;
         };
 
-    return new InformationService(outerHttpClient, informationServiceEnvironment, providers);
+    return ProviderRegistry.newBuilder()
+        .providers(informationServiceEnvironment, providers)
+        .build();
   }
 
   private static com.oviva.telematik.vau.httpclient.HttpClient buildInnerHttpClient(
@@ -228,6 +319,7 @@ public class Epa4AllClientFactory implements AutoCloseable {
 
   @Override
   public void close() {
+    sessionKeeper.close();
     proxyServer.stop();
   }
 }
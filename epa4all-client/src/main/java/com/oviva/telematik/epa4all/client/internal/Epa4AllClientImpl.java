@@ -2,16 +2,21 @@ package com.oviva.telematik.epa4all.client.internal;
 
 import com.oviva.epa.client.model.SmcbCard;
 import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.DocumentWriteOutcome;
 import com.oviva.telematik.epa4all.client.DuplicateDocumentClientException;
 import com.oviva.telematik.epa4all.client.Epa4AllClient;
 import com.oviva.telematik.epa4all.client.NotAuthorizedClientException;
+import com.oviva.telematik.epa4all.client.ProviderUnavailableClientException;
 import com.oviva.telematik.epaapi.*;
 import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
 import com.oviva.telematik.vau.epa4all.client.info.InformationService;
 import de.gematik.epa.ihe.model.document.Document;
 import de.gematik.epa.ihe.model.simple.AuthorInstitution;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public class Epa4AllClientImpl implements Epa4AllClient {
 
@@ -19,17 +24,31 @@ public class Epa4AllClientImpl implements Epa4AllClient {
   private final AuthorizationService authorizationService;
   private final SmcbCard card;
   private final SoapClientFactory soapClientFactory;
+  private final SessionKeeper sessionKeeper;
 
   public Epa4AllClientImpl(
       InformationService informationService,
       AuthorizationService authorizationService,
       SmcbCard card,
       SoapClientFactory soapClientFactory) {
+    this(informationService, authorizationService, card, soapClientFactory, null);
+  }
+
+  /**
+   * @param sessionKeeper keeps sessions authorized across requests, if null each request authorizes
+   */
+  public Epa4AllClientImpl(
+      InformationService informationService,
+      AuthorizationService authorizationService,
+      SmcbCard card,
+      SoapClientFactory soapClientFactory,
+      SessionKeeper sessionKeeper) {
 
     this.informationService = informationService;
     this.authorizationService = authorizationService;
     this.card = card;
     this.soapClientFactory = soapClientFactory;
+    this.sessionKeeper = sessionKeeper;
 
     Logs.log(
         "create_client",
@@ -48,25 +67,121 @@ public class Epa4AllClientImpl implements Epa4AllClient {
   public void writeDocument(@NonNull String insurantId, @NonNull Document document) {
 
     Logs.log("write_document");
+    var endpoint = authorizeForInsurant(insurantId);
+    submitDocument(endpoint, insurantId, document);
+  }
+
+  @NonNull
+  @Override
+  public List<DocumentWriteOutcome> writeDocuments(
+      @NonNull String insurantId, @NonNull List<Document> documents) {
+
+    if (documents.isEmpty()) {
+      throw new IllegalArgumentException("no documents");
+    }
+
+    Logs.log("write_documents", new Logs.Attr("count", String.valueOf(documents.size())));
+    var endpoint = authorizeForInsurant(insurantId);
+    return submitDocuments(endpoint, insurantId, documents);
+  }
+
+  @Override
+  public void replaceDocument(
+      @NonNull String insurantId, @NonNull Document document, @NonNull UUID documentToReplaceId) {
+
+    Logs.log("replace_document");
+    var endpoint = authorizeForInsurant(insurantId);
+    submitReplacement(endpoint, insurantId, document, documentToReplaceId);
+  }
+
+  /**
+   * @return the account endpoint of the insurant, the VAU tunnel to it is authorized
+   */
+  URI authorizeForInsurant(String insurantId) {
+    var endpoint = findEndpoint(insurantId);
+    authorize(endpoint, insurantId);
+    return endpoint;
+  }
+
+  void authorize(URI endpoint, String insurantId) {
+    if (sessionKeeper != null) {
+      sessionKeeper.ensureAuthorized(endpoint, insurantId);
+      return;
+    }
+    authorizationService.authorizeVauWithSmcB(endpoint, insurantId);
+  }
+
+  private NotAuthorizedClientException notAuthorized(
+      URI endpoint, String insurantId, NotAuthorizedDocumentException e) {
+    if (sessionKeeper != null) {
+      // e.g. the session expired early, the next request authorizes again
+      sessionKeeper.invalidate(endpoint, insurantId);
+    }
+    return new NotAuthorizedClientException("PHR not authorized", e);
+  }
+
+  URI findEndpoint(String insurantId) {
+    var account = informationService.findAccount(insurantId);
+    return switch (account.status()) {
+      case FOUND -> account.endpoint();
+      case NOT_FOUND ->
+          throw new ClientException("endpoint for KVNR %s not found".formatted(insurantId));
+      case UNREACHABLE ->
+          throw new ProviderUnavailableClientException(
+              "endpoint for KVNR %s unknown, ePA providers unavailable".formatted(insurantId));
+    };
+  }
+
+  void submitDocument(URI endpoint, String insurantId, Document document) {
     try {
-      var phrService = openPhrServiceForInsurant(insurantId);
+      var phrService = openPhrService(endpoint);
       phrService.writeDocument(insurantId, document);
     } catch (DuplicateDocumentException e) {
       throw new DuplicateDocumentClientException("duplicate document", e);
     } catch (NotAuthorizedDocumentException e) {
-      throw new NotAuthorizedClientException("PHR not authorized", e);
+      throw notAuthorized(endpoint, insurantId, e);
     } catch (WriteDocumentException e) {
       throw new ClientException("failed to write document", e);
     }
   }
 
-  @Override
-  public void replaceDocument(
-      @NonNull String insurantId, @NonNull Document document, @NonNull UUID documentToReplaceId) {
+  List<DocumentWriteOutcome> submitDocuments(
+      URI endpoint, String insurantId, List<Document> documents) {
+    try {
+      var phrService = openPhrService(endpoint);
+      return phrService.writeDocuments(insurantId, documents).stream()
+          .map(Epa4AllClientImpl::toDocumentWriteOutcome)
+          .toList();
+    } catch (NotAuthorizedDocumentException e) {
+      throw notAuthorized(endpoint, insurantId, e);
+    } catch (WriteDocumentException e) {
+      throw new ClientException("failed to write documents", e);
+    }
+  }
 
-    Logs.log("replace_document");
+  private static DocumentWriteOutcome toDocumentWriteOutcome(DocumentOutcome outcome) {
+    var status =
+        switch (outcome.status()) {
+          case STORED -> DocumentWriteOutcome.Status.STORED;
+          case DUPLICATE -> DocumentWriteOutcome.Status.DUPLICATE;
+          case REJECTED -> DocumentWriteOutcome.Status.REJECTED;
+          case NOT_STORED -> DocumentWriteOutcome.Status.NOT_STORED;
+        };
+
+    var message =
+        outcome.errors().isEmpty()
+            ? null
+            : outcome.errors().stream()
+                .map(WriteDocumentException.Error::toString)
+                .collect(Collectors.joining(", "));
+
+    return new DocumentWriteOutcome(outcome.document(), status, message);
+  }
+
+  void submitReplacement(
+      URI endpoint, String insurantId, Document document, UUID documentToReplaceId) {
     try {
-      var phrService = openPhrServiceForInsurant(insurantId);
+      var phrService = openPhrService(endpoint);
       phrService.replaceDocument(insurantId, document, documentToReplaceId);
     } catch (DuplicateDocumentException e) {
       throw new DuplicateDocumentClientException("duplicate document", e);
@@ -75,15 +190,7 @@ public class Epa4AllClientImpl implements Epa4AllClient {
     }
   }
 
-  private PhrService openPhrServiceForInsurant(String insurantId) {
-
-    var endpoint =
-        informationService
-            .findAccountEndpoint(insurantId)
-            .orElseThrow(
-                () -> new ClientException("endpoint for KVNR %s not found".formatted(insurantId)));
-
-    authorizationService.authorizeVauWithSmcB(endpoint, insurantId);
+  private PhrService openPhrService(URI endpoint) {
 
     var phrEndpoint =
         UriMangle.downgradeHttpsUri(endpoint)
@@ -0,0 +1,254 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the user sessions of the VAU tunnels authorized. A tunnel is specific to a provider and an
+ * insurant, so is its authorization.
+ *
+ * <p>Requests only authorize inline if there is no valid session yet. Shortly before a session
+ * expires it is authorized again in the background, as long as it was used since its last
+ * authorization. Sessions not used in the meantime are dropped instead.
+ */
+public class SessionKeeper implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionKeeper.class);
+
+  private final AuthorizationService authorizationService;
+  private final Duration sessionLifetime;
+  private final Duration refreshAhead;
+  private final Clock clock;
+  private final ScheduledExecutorService scheduler;
+  private final Executor executor;
+
+  private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+
+  /**
+   * @param sessionLifetime how long an authorization is valid
+   * @param refreshAhead how long before the expiry a session is authorized again
+   */
+  public SessionKeeper(
+      AuthorizationService authorizationService, Duration sessionLifetime, Duration refreshAhead) {
+    this(
+        authorizationService,
+        sessionLifetime,
+        refreshAhead,
+        Clock.systemUTC(),
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("session-keeper").daemon().factory()),
+        virtualThreads());
+  }
+
+  SessionKeeper(
+      AuthorizationService authorizationService,
+      Duration sessionLifetime,
+      Duration refreshAhead,
+      Clock clock,
+      ScheduledExecutorService scheduler,
+      Executor executor) {
+
+    if (sessionLifetime == null || !sessionLifetime.isPositive()) {
+      throw new IllegalArgumentException("sessionLifetime must be positive");
+    }
+    if (refreshAhead == null
+        || refreshAhead.isNegative()
+        || refreshAhead.compareTo(sessionLifetime) >= 0) {
+      throw new IllegalArgumentException(
+          "refreshAhead must not be negative and shorter than sessionLifetime");
+    }
+
+    this.authorizationService = authorizationService;
+    this.sessionLifetime = sessionLifetime;
+    this.refreshAhead = refreshAhead;
+    this.clock = clock;
+    this.scheduler = scheduler;
+    this.executor = executor;
+  }
+
+  private static Executor virtualThreads() {
+    var threadFactory = Thread.ofVirtual().name("session-refresh-", 0).factory();
+    return command -> threadFactory.newThread(command).start();
+  }
+
+  /** Returns right away if the session is still authorized, authorizes it otherwise. */
+  public void ensureAuthorized(URI endpoint, String insurantId) {
+
+    var key = new Key(endpoint, insurantId);
+    var slot = slots.computeIfAbsent(key, k -> new Slot());
+
+    if (slot.isValid(clock.instant())) {
+      slot.lastUsed = clock.instant();
+      return;
+    }
+
+    slot.lock.lock();
+    try {
+      // another request may have authorized in the meantime
+      if (slot.isValid(clock.instant())) {
+        slot.lastUsed = clock.instant();
+        return;
+      }
+      authorize(key, slot);
+    } finally {
+      slot.lock.unlock();
+    }
+  }
+
+  /**
+   * Authorizes the session again right away, e.g. because its VAU tunnel was replaced. Requests for
+   * the session wait until it is authorized.
+   */
+  public void reauthorize(URI endpoint, String insurantId) {
+
+    var key = new Key(endpoint, insurantId);
+    var slot = slots.computeIfAbsent(key, k -> new Slot());
+
+    // requests must not pass with the session of the lost tunnel
+    slot.session = null;
+
+    slot.lock.lock();
+    try {
+      if (slot.isValid(clock.instant())) {
+        // authorized by a request in the meantime
+        return;
+      }
+      authorize(key, slot);
+    } finally {
+      slot.lock.unlock();
+    }
+  }
+
+  /** Forgets the session, e.g. after the health record rejected it. */
+  public void invalidate(URI endpoint, String insurantId) {
+    var slot = slots.get(new Key(endpoint, insurantId));
+    if (slot != null) {
+      slot.session = null;
+    }
+  }
+
+  /**
+   * Takes over a session authorized by a previous process, e.g. whose VAU tunnel was resumed after
+   * a restart. It is kept like a session authorized by this process, requests do not authorize it
+   * again.
+   *
+   * @param authorizedUntil until when the session is authorized, ignored if null or expired
+   */
+  public void resume(URI endpoint, String insurantId, Instant authorizedUntil) {
+
+    var now = clock.instant();
+    if (authorizedUntil == null || !now.isBefore(authorizedUntil)) {
+      return;
+    }
+
+    var key = new Key(endpoint, insurantId);
+    var slot = slots.computeIfAbsent(key, k -> new Slot());
+
+    slot.lock.lock();
+    try {
+      if (slot.isValid(now)) {
+        return;
+      }
+      // not trusted beyond the lifetime of a session authorized right now
+      var maxExpiry = now.plus(sessionLifetime);
+      var expiresAt = authorizedUntil.isBefore(maxExpiry) ? authorizedUntil : maxExpiry;
+      keep(key, slot, new Session(now, expiresAt));
+    } finally {
+      slot.lock.unlock();
+    }
+  }
+
+  /**
+   * @return until when the session is authorized, null if it is not
+   */
+  public Instant authorizedUntil(URI endpoint, String insurantId) {
+    var slot = slots.get(new Key(endpoint, insurantId));
+    if (slot == null || !slot.isValid(clock.instant())) {
+      return null;
+    }
+    var session = slot.session;
+    return session != null ? session.expiresAt() : null;
+  }
+
+  private void authorize(Key key, Slot slot) {
+    var authorizedAt = clock.instant();
+    authorizationService.authorizeVauWithSmcB(key.endpoint(), key.insurantId());
+    keep(key, slot, new Session(authorizedAt, authorizedAt.plus(sessionLifetime)));
+  }
+
+  /** Makes the session the current one and schedules its refresh. */
+  private void keep(Key key, Slot slot, Session session) {
+    slot.session = session;
+
+    var refreshAt = session.expiresAt().minus(refreshAhead);
+    var delay = Duration.between(clock.instant(), refreshAt);
+    scheduler.schedule(
+        () -> executor.execute(() -> refresh(key, slot, session)),
+        Math.max(0, delay.toMillis()),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void refresh(Key key, Slot slot, Session session) {
+
+    if (slot.session != session) {
+      // invalidated or authorized again in the meantime
+      return;
+    }
+
+    var lastUsed = slot.lastUsed;
+    if (lastUsed == null || lastUsed.isBefore(session.authorizedAt())) {
+      log.atDebug().addKeyValue("endpoint", key.endpoint()).log("dropping idle session");
+      slots.remove(key, slot);
+      return;
+    }
+
+    if (!slot.lock.tryLock()) {
+      // a request is authorizing right now
+      return;
+    }
+    try {
+      authorize(key, slot);
+      log.atDebug().addKeyValue("endpoint", key.endpoint()).log("refreshed session");
+    } catch (RuntimeException e) {
+      // the session stays valid until it expires, afterwards requests authorize inline again
+      log.atWarn()
+          .addKeyValue("endpoint", key.endpoint())
+          .setCause(e)
+          .log("failed to refresh session with '{}'", key.endpoint());
+    } finally {
+      slot.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  private record Key(URI endpoint, String insurantId) {}
+
+  private record Session(Instant authorizedAt, Instant expiresAt) {}
+
+  private static class Slot {
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Session session;
+    private volatile Instant lastUsed;
+
+    boolean isValid(Instant now) {
+      var current = session;
+      return current != null && now.isBefore(current.expiresAt());
+    }
+  }
+}
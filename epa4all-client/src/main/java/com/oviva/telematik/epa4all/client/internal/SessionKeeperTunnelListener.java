@@ -0,0 +1,66 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import com.oviva.telematik.vau.proxy.TunnelListener;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the {@link SessionKeeper} in line with the tunnels of the VAU proxy. The proxy starts and
+ * resumes the tunnels of a previous process before the keeper exists, their authorizations are
+ * handed over once it is attached.
+ */
+class SessionKeeperTunnelListener implements TunnelListener {
+
+  private final Object lock = new Object();
+  private final List<Resumed> resumed = new ArrayList<>();
+  private SessionKeeper keeper;
+
+  void attach(SessionKeeper keeper) {
+    List<Resumed> pending;
+    synchronized (lock) {
+      this.keeper = keeper;
+      pending = List.copyOf(resumed);
+      resumed.clear();
+    }
+    for (var r : pending) {
+      keeper.resume(r.endpoint(), r.insurantId(), r.authorizedUntil());
+    }
+  }
+
+  @Override
+  public void tunnelReplaced(URI endpoint, String insurantId) {
+    var current = keeper();
+    if (current != null) {
+      current.reauthorize(endpoint, insurantId);
+    }
+  }
+
+  @Override
+  public void tunnelResumed(URI endpoint, String insurantId, Instant authorizedUntil) {
+    SessionKeeper current;
+    synchronized (lock) {
+      current = keeper;
+      if (current == null) {
+        resumed.add(new Resumed(endpoint, insurantId, authorizedUntil));
+        return;
+      }
+    }
+    current.resume(endpoint, insurantId, authorizedUntil);
+  }
+
+  @Override
+  public Instant authorizedUntil(URI endpoint, String insurantId) {
+    var current = keeper();
+    return current != null ? current.authorizedUntil(endpoint, insurantId) : null;
+  }
+
+  private SessionKeeper keeper() {
+    synchronized (lock) {
+      return keeper;
+    }
+  }
+
+  private record Resumed(URI endpoint, String insurantId, Instant authorizedUntil) {}
+}
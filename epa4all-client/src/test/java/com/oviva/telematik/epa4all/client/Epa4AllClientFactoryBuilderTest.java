@@ -53,6 +53,9 @@ class Epa4AllClientFactoryBuilderTest {
                       isNull(),
                       eq(Environment.RU),
                       eq(providedTrustStore),
+                      isNull(),
+                      isNull(),
+                      isNull(),
                       isNull()))
           .thenReturn(mock(Epa4AllClientFactory.class));
 
@@ -89,6 +92,9 @@ class Epa4AllClientFactoryBuilderTest {
                       isNull(),
                       eq(Environment.RU),
                       eq(ruTrustStore),
+                      isNull(),
+                      isNull(),
+                      isNull(),
                       isNull()))
           .thenReturn(mock(Epa4AllClientFactory.class));
 
@@ -122,6 +128,9 @@ class Epa4AllClientFactoryBuilderTest {
                       isNull(),
                       eq(Environment.PU),
                       eq(puTrustStore),
+                      isNull(),
+                      isNull(),
+                      isNull(),
                       isNull()))
           .thenReturn(mock(Epa4AllClientFactory.class));
 
@@ -152,7 +161,10 @@ class Epa4AllClientFactoryBuilderTest {
                       eq(proxy),
                       eq(Environment.RU),
                       eq(trustStore),
-                      eq(telematikId)))
+                      eq(telematikId),
+                      isNull(),
+                      isNull(),
+                      isNull()))
           .thenReturn(mock(Epa4AllClientFactory.class));
 
       var result =
@@ -0,0 +1,282 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.oviva.telematik.epa4all.client.BulkWriteResult;
+import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.DocumentWriteOutcome;
+import de.gematik.epa.ihe.model.document.Document;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BulkWriterImplTest {
+
+  private static final URI PROVIDER_A = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final URI PROVIDER_B = URI.create("https://epa-as-2.dev.epa4all.de");
+
+  private static final AtomicInteger DOCUMENT_COUNTER = new AtomicInteger();
+
+  private final Epa4AllClientImpl client = mock(Epa4AllClientImpl.class);
+  private final Executor executor = command -> Thread.ofVirtual().start(command);
+
+  @Test
+  void writesAllDocuments() {
+    when(client.findEndpoint("A1")).thenReturn(PROVIDER_A);
+    when(client.findEndpoint("B1")).thenReturn(PROVIDER_B);
+    when(client.submitDocuments(any(), any(), anyList())).thenAnswer(i -> stored(i.getArgument(2)));
+
+    var d1 = document();
+    var d2 = document();
+    var d3 = document();
+
+    var writer = new BulkWriterImpl(client, executor, 2, 10);
+    writer.submit("A1", List.of(d1, d2));
+    writer.submit("B1", List.of(d3));
+    writer.close();
+
+    var results = writer.results().toList();
+
+    assertEquals(3, results.size());
+    assertTrue(results.stream().allMatch(BulkWriteResult::stored));
+    verify(client).authorize(PROVIDER_A, "A1");
+    verify(client).authorize(PROVIDER_B, "B1");
+    verify(client).submitDocuments(PROVIDER_A, "A1", List.of(d1, d2));
+  }
+
+  @Test
+  void groupsDocumentsOfWaitingInsurant() throws Exception {
+    when(client.findEndpoint(any())).thenReturn(PROVIDER_A);
+
+    var firstStarted = new CountDownLatch(1);
+    var releaseFirst = new CountDownLatch(1);
+    when(client.submitDocuments(any(), eq("A1"), anyList()))
+        .thenAnswer(
+            i -> {
+              firstStarted.countDown();
+              assertTrue(releaseFirst.await(10, TimeUnit.SECONDS));
+              return stored(i.getArgument(2));
+            });
+    when(client.submitDocuments(any(), eq("A2"), anyList()))
+        .thenAnswer(i -> stored(i.getArgument(2)));
+
+    var d1 = document();
+    var d2 = document();
+    var d3 = document();
+
+    // a single slot for the provider, the second insurant has to wait
+    var writer = new BulkWriterImpl(client, executor, 1, 10);
+    writer.submit("A1", List.of(d1));
+    assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+    writer.submit("A2", List.of(d2));
+    writer.submit("A2", List.of(d3));
+    releaseFirst.countDown();
+    writer.close();
+
+    assertEquals(3, writer.results().count());
+    verify(client, times(1)).authorize(PROVIDER_A, "A2");
+    verify(client).submitDocuments(PROVIDER_A, "A2", List.of(d2, d3));
+  }
+
+  @Test
+  void capsDocumentsOfWaitingInsurant() throws Exception {
+    when(client.findEndpoint(any())).thenReturn(PROVIDER_A);
+
+    var firstStarted = new CountDownLatch(1);
+    var releaseFirst = new CountDownLatch(1);
+    when(client.submitDocuments(any(), eq("A1"), anyList()))
+        .thenAnswer(
+            i -> {
+              firstStarted.countDown();
+              assertTrue(releaseFirst.await(10, TimeUnit.SECONDS));
+              return stored(i.getArgument(2));
+            });
+    var groupSizes = new CopyOnWriteArrayList<Integer>();
+    when(client.submitDocuments(any(), eq("A2"), anyList()))
+        .thenAnswer(
+            i -> {
+              List<Document> documents = i.getArgument(2);
+              groupSizes.add(documents.size());
+              return stored(documents);
+            });
+
+    // the first insurant holds the only slot, a group of the second one holds two documents
+    var writer = new BulkWriterImpl(client, executor, 1, 2, 2);
+    writer.submit("A1", List.of(document()));
+    assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+    var producer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  for (var i = 0; i < 5; i++) {
+                    writer.submit("A2", List.of(document()));
+                  }
+                  writer.close();
+                });
+
+    // the waiting group is full, the producer is blocked until a group is done
+    assertFalse(producer.join(java.time.Duration.ofMillis(200)));
+
+    releaseFirst.countDown();
+    assertTrue(producer.join(java.time.Duration.ofSeconds(10)));
+    assertEquals(6, writer.results().count());
+    assertEquals(5, groupSizes.stream().mapToInt(Integer::intValue).sum());
+    assertTrue(groupSizes.stream().allMatch(s -> s <= 2), "group too large: " + groupSizes);
+  }
+
+  @Test
+  void splitsLargeSubmissions() {
+    when(client.findEndpoint(any())).thenReturn(PROVIDER_A);
+    when(client.submitDocuments(any(), any(), anyList())).thenAnswer(i -> stored(i.getArgument(2)));
+
+    var documents = List.of(document(), document(), document());
+    var writer = new BulkWriterImpl(client, executor, 1, 10, 2);
+    writer.submit("A1", documents);
+    writer.close();
+
+    assertEquals(3, writer.results().count());
+    verify(client).submitDocuments(PROVIDER_A, "A1", documents.subList(2, 3));
+  }
+
+  @Test
+  void limitsConcurrencyPerProvider() {
+    when(client.findEndpoint(any())).thenReturn(PROVIDER_A);
+
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    when(client.submitDocuments(any(), any(), anyList()))
+        .thenAnswer(
+            i -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              Thread.sleep(20);
+              running.decrementAndGet();
+              return stored(i.getArgument(2));
+            });
+
+    var writer = new BulkWriterImpl(client, executor, 2, 50);
+    for (var i = 0; i < 20; i++) {
+      writer.submit("KVNR" + i, List.of(document()));
+    }
+    writer.close();
+
+    assertEquals(20, writer.results().count());
+    assertTrue(maxRunning.get() <= 2, "max concurrency exceeded: " + maxRunning.get());
+  }
+
+  @Test
+  void appliesBackpressure() throws Exception {
+    when(client.findEndpoint(any())).thenReturn(PROVIDER_A);
+
+    var release = new CountDownLatch(1);
+    when(client.submitDocuments(any(), any(), anyList()))
+        .thenAnswer(
+            i -> {
+              assertTrue(release.await(10, TimeUnit.SECONDS));
+              return stored(i.getArgument(2));
+            });
+
+    var writer = new BulkWriterImpl(client, executor, 1, 1);
+    writer.submit("A1", List.of(document()));
+
+    var producer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  writer.submit("A2", List.of(document()));
+                  writer.close();
+                });
+
+    // the producer is blocked as long as the first group is pending
+    assertFalse(producer.join(java.time.Duration.ofMillis(200)));
+
+    release.countDown();
+    assertTrue(producer.join(java.time.Duration.ofSeconds(10)));
+    assertEquals(2, writer.results().count());
+  }
+
+  @Test
+  void reportsFailures() {
+    when(client.findEndpoint("A1"))
+        .thenThrow(new ClientException("endpoint for KVNR A1 not found"));
+    when(client.findEndpoint("B1")).thenReturn(PROVIDER_B);
+    when(client.submitDocuments(any(), any(), anyList())).thenAnswer(i -> stored(i.getArgument(2)));
+
+    var failing = document();
+    var writer = new BulkWriterImpl(client, executor, 1, 10);
+    writer.submit("A1", List.of(failing));
+    writer.submit("B1", List.of(document()));
+    writer.close();
+
+    var results = writer.results().toList();
+
+    assertEquals(2, results.size());
+    var failed = results.stream().filter(r -> r.failure() != null).toList();
+    assertEquals(1, failed.size());
+    assertEquals("A1", failed.get(0).insurantId());
+    assertEquals(failing, failed.get(0).document());
+    assertFalse(failed.get(0).stored());
+    verify(client, never()).authorize(any(), eq("A1"));
+  }
+
+  @Test
+  void rejectedByExecutor_reportsFailuresAndReleasesPermit() {
+    Executor rejecting =
+        command -> {
+          throw new RejectedExecutionException("shut down");
+        };
+
+    var writer = new BulkWriterImpl(client, rejecting, 1, 1);
+    writer.submit("A1", List.of(document()));
+    // blocks forever if the first group kept its permit
+    assertTimeoutPreemptively(
+        java.time.Duration.ofSeconds(10), () -> writer.submit("B1", List.of(document())));
+    writer.close();
+
+    var results = writer.results().toList();
+
+    assertEquals(2, results.size());
+    assertTrue(results.stream().allMatch(r -> r.failure() instanceof ClientException));
+    verifyNoInteractions(client);
+  }
+
+  @Test
+  void submitAfterClose_throws() {
+    var writer = new BulkWriterImpl(client, executor, 1, 1);
+    writer.close();
+
+    var documents = List.of(document());
+    assertThrows(IllegalStateException.class, () -> writer.submit("A1", documents));
+    assertEquals(0, writer.results().count());
+  }
+
+  @Test
+  void invalidConfiguration_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new BulkWriterImpl(client, executor, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new BulkWriterImpl(client, executor, 1, 0));
+    assertThrows(
+        IllegalArgumentException.class, () -> new BulkWriterImpl(client, executor, 1, 1, 0));
+  }
+
+  private static List<DocumentWriteOutcome> stored(List<Document> documents) {
+    return documents.stream()
+        .map(d -> new DocumentWriteOutcome(d, DocumentWriteOutcome.Status.STORED, null))
+        .toList();
+  }
+
+  private static Document document() {
+    var content = new byte[] {(byte) DOCUMENT_COUNTER.incrementAndGet()};
+    return new Document(content, null, null);
+  }
+}
@@ -0,0 +1,125 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.oviva.epa.client.model.SmcbCard;
+import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.DuplicateDocumentClientException;
+import com.oviva.telematik.epaapi.SoapClientFactory;
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationException;
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
+import com.oviva.telematik.vau.epa4all.client.info.AccountLookup;
+import com.oviva.telematik.vau.epa4all.client.info.InformationService;
+import de.gematik.epa.ihe.model.document.Document;
+import de.gematik.epa.ihe.model.simple.ByteArray;
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class Epa4AllAsyncClientImplTest {
+
+  private static final String INSURANT_ID = "X123456789";
+  private static final URI ENDPOINT_URI = URI.create("https://epa.example.com");
+  private static final AccountLookup NOT_FOUND =
+      new AccountLookup(AccountLookup.Status.NOT_FOUND, null);
+
+  @Mock private InformationService informationService;
+  @Mock private AuthorizationService authorizationService;
+  @Mock private SmcbCard card;
+  @Mock private SoapClientFactory soapClientFactory;
+
+  private Epa4AllAsyncClientImpl client;
+
+  @BeforeEach
+  void setUp() {
+    var threadFactory = Thread.ofVirtual().factory();
+    Executor executor = command -> threadFactory.newThread(command).start();
+    client = new Epa4AllAsyncClientImpl(clientImpl(), executor);
+  }
+
+  @Test
+  void writeDocument_success() throws Exception {
+
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(found(ENDPOINT_URI));
+
+    var impl = spy(clientImpl());
+    doNothing().when(impl).submitDocument(any(), any(), any());
+    client = new Epa4AllAsyncClientImpl(impl, Runnable::run);
+
+    var document = document();
+    client.writeDocument(INSURANT_ID, document).get(10, TimeUnit.SECONDS);
+
+    var inOrder = inOrder(informationService, authorizationService, impl);
+    inOrder.verify(informationService).findAccount(INSURANT_ID);
+    inOrder.verify(authorizationService).authorizeVauWithSmcB(ENDPOINT_URI, INSURANT_ID);
+    inOrder.verify(impl).submitDocument(ENDPOINT_URI, INSURANT_ID, document);
+  }
+
+  @Test
+  void writeDocument_endpointNotFound() {
+
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(NOT_FOUND);
+
+    var future = client.writeDocument(INSURANT_ID, document());
+
+    var e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    var cause = assertInstanceOf(ClientException.class, e.getCause());
+    assertEquals("endpoint for KVNR X123456789 not found", cause.getMessage());
+    verifyNoInteractions(authorizationService, soapClientFactory);
+  }
+
+  @Test
+  void replaceDocument_authorizationFails() {
+
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(found(ENDPOINT_URI));
+    doThrow(new AuthorizationException("denied"))
+        .when(authorizationService)
+        .authorizeVauWithSmcB(ENDPOINT_URI, INSURANT_ID);
+
+    var future = client.replaceDocument(INSURANT_ID, document(), UUID.randomUUID());
+
+    var e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    var cause = assertInstanceOf(ClientException.class, e.getCause());
+    assertInstanceOf(AuthorizationException.class, cause.getCause());
+    verifyNoInteractions(soapClientFactory);
+  }
+
+  @Test
+  void writeDocument_submitFails() {
+
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(found(ENDPOINT_URI));
+
+    var impl = spy(clientImpl());
+    doThrow(new DuplicateDocumentClientException("duplicate document", null))
+        .when(impl)
+        .submitDocument(any(), any(), any());
+    client = new Epa4AllAsyncClientImpl(impl, Runnable::run);
+
+    var future = client.writeDocument(INSURANT_ID, document());
+
+    var e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+    assertInstanceOf(DuplicateDocumentClientException.class, e.getCause());
+  }
+
+  private static AccountLookup found(URI endpoint) {
+    return new AccountLookup(AccountLookup.Status.FOUND, endpoint);
+  }
+
+  private Epa4AllClientImpl clientImpl() {
+    return new Epa4AllClientImpl(informationService, authorizationService, card, soapClientFactory);
+  }
+
+  private Document document() {
+    return new Document((ByteArray) null, null, null);
+  }
+}
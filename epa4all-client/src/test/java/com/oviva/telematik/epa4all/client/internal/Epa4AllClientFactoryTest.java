@@ -189,7 +189,9 @@ class Epa4AllClientFactoryTest {
       // When & Then
       assertThrows(
           Epa4AllClientException.class,
-          () -> Epa4AllClientFactory.create(ks, proxyAddr, Environment.RU, trustStore, null));
+          () ->
+              Epa4AllClientFactory.create(
+                  ks, proxyAddr, Environment.RU, trustStore, null, null, null, null));
     }
   }
 
@@ -216,7 +218,8 @@ class Epa4AllClientFactoryTest {
 
       // When
       var result =
-          Epa4AllClientFactory.create(ks, proxyAddr, Environment.RU, trustStore, "test-id");
+          Epa4AllClientFactory.create(
+              ks, proxyAddr, Environment.RU, trustStore, "test-id", null, null, null);
 
       // Then
       assertNotNull(result);
@@ -248,7 +251,9 @@ class Epa4AllClientFactoryTest {
           .thenReturn(SSLContext.getDefault());
 
       // When
-      var result = Epa4AllClientFactory.create(ks, proxyAddr, Environment.RU, trustStore, "id-2");
+      var result =
+          Epa4AllClientFactory.create(
+              ks, proxyAddr, Environment.RU, trustStore, "id-2", null, null, null);
 
       // Then
       assertNotNull(result);
@@ -6,8 +6,10 @@ import static org.mockito.Mockito.*;
 
 import com.oviva.epa.client.model.SmcbCard;
 import com.oviva.telematik.epa4all.client.ClientException;
+import com.oviva.telematik.epa4all.client.ProviderUnavailableClientException;
 import com.oviva.telematik.epaapi.SoapClientFactory;
 import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
+import com.oviva.telematik.vau.epa4all.client.info.AccountLookup;
 import com.oviva.telematik.vau.epa4all.client.info.InformationService;
 import de.gematik.epa.ihe.model.Author;
 import de.gematik.epa.ihe.model.document.Document;
@@ -16,7 +18,6 @@ import de.gematik.epa.ihe.model.simple.AuthorInstitution;
 import de.gematik.epa.ihe.model.simple.ByteArray;
 import java.net.URI;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import oasis.names.tc.ebxml_regrep.xsd.rs._3.RegistryResponseType;
 import org.apache.cxf.endpoint.Client;
@@ -43,14 +44,15 @@ class Epa4AllClientImplTest {
   private static final String TELEMATIK_ID = "1-2-3-TelematikId";
   private static final URI HTTPS_ENDPOINT_URI = URI.create("https://epa.example.com");
   private static final URI HTTP_ENDPOINT_URI = URI.create("http://epa.example.com");
+  private static final AccountLookup NOT_FOUND =
+      new AccountLookup(AccountLookup.Status.NOT_FOUND, null);
 
   @Test
   void writeDocument_success() {
 
     // Given
 
-    when(informationService.findAccountEndpoint(INSURANT_ID))
-        .thenReturn(Optional.of(HTTPS_ENDPOINT_URI));
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(found(HTTPS_ENDPOINT_URI));
     doNothing().when(authorizationService).authorizeVauWithSmcB(HTTPS_ENDPOINT_URI, INSURANT_ID);
 
     var regRes = mockRegistryResponseType();
@@ -105,7 +107,7 @@ class Epa4AllClientImplTest {
   @Test
   void writeDocument_shouldThrowExceptionWhenEndpointNotFound() {
     // Given
-    when(informationService.findAccountEndpoint(INSURANT_ID)).thenReturn(Optional.empty());
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(NOT_FOUND);
 
     // When & Then
     var exception =
@@ -116,10 +118,25 @@ class Epa4AllClientImplTest {
     assertEquals("endpoint for KVNR X123456789 not found", exception.getMessage());
   }
 
+  @Test
+  void writeDocument_providersUnavailable_throwsUnavailable() {
+    when(informationService.findAccount(INSURANT_ID))
+        .thenReturn(new AccountLookup(AccountLookup.Status.UNREACHABLE, null));
+
+    var exception =
+        assertThrows(
+            ProviderUnavailableClientException.class,
+            () -> client.writeDocument(INSURANT_ID, mockDocument()));
+
+    assertEquals(
+        "endpoint for KVNR X123456789 unknown, ePA providers unavailable", exception.getMessage());
+    verifyNoInteractions(authorizationService);
+  }
+
   @Test
   void replaceDocument_shouldThrowExceptionWhenEndpointNotFound() {
     // Given
-    when(informationService.findAccountEndpoint(INSURANT_ID)).thenReturn(Optional.empty());
+    when(informationService.findAccount(INSURANT_ID)).thenReturn(NOT_FOUND);
     var documentToReplaceId = UUID.randomUUID();
 
     // When & Then
@@ -132,6 +149,19 @@ class Epa4AllClientImplTest {
     assertEquals("endpoint for KVNR X123456789 not found", exception.getMessage());
   }
 
+  @Test
+  void writeDocuments_requiresDocuments() {
+    var documents = List.<Document>of();
+
+    assertThrows(
+        IllegalArgumentException.class, () -> client.writeDocuments(INSURANT_ID, documents));
+    verifyNoInteractions(informationService, authorizationService);
+  }
+
+  private static AccountLookup found(URI endpoint) {
+    return new AccountLookup(AccountLookup.Status.FOUND, endpoint);
+  }
+
   private Document mockDocument() {
     return new Document((ByteArray) null, null, null);
   }
@@ -0,0 +1,227 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationException;
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationService;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SessionKeeperTest {
+
+  private static final URI ENDPOINT = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final String INSURANT_ID = "X123456789";
+
+  private final AuthorizationService authorizationService = mock(AuthorizationService.class);
+  private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+  private final List<Runnable> scheduled = new ArrayList<>();
+  private final MutableClock clock = new MutableClock();
+
+  private final SessionKeeper keeper =
+      new SessionKeeper(
+          authorizationService,
+          Duration.ofMinutes(20),
+          Duration.ofMinutes(3),
+          clock,
+          scheduler,
+          Runnable::run);
+
+  {
+    when(scheduler.schedule(any(Runnable.class), anyLong(), any()))
+        .thenAnswer(
+            i -> {
+              scheduled.add(i.getArgument(0));
+              return null;
+            });
+  }
+
+  @Test
+  void ensureAuthorized_authorizesOnce() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    clock.advance(Duration.ofMinutes(10));
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    verify(authorizationService, times(1)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+    verify(scheduler)
+        .schedule(
+            any(Runnable.class), eq(Duration.ofMinutes(17).toMillis()), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void ensureAuthorized_perInsurant() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    keeper.ensureAuthorized(ENDPOINT, "Y987654321");
+
+    verify(authorizationService).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+    verify(authorizationService).authorizeVauWithSmcB(ENDPOINT, "Y987654321");
+  }
+
+  @Test
+  void usedSession_isRefreshedInBackground() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    clock.advance(Duration.ofMinutes(5));
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    clock.advance(Duration.ofMinutes(12));
+    scheduled.getFirst().run();
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+
+    // past the original expiry, the refreshed session is still valid
+    clock.advance(Duration.ofMinutes(5));
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void idleSession_isDropped() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    clock.advance(Duration.ofMinutes(17));
+    scheduled.getFirst().run();
+    verify(authorizationService, times(1)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+
+    clock.advance(Duration.ofMinutes(5));
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void failedRefresh_keepsSessionUntilExpiry() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    doThrow(new AuthorizationException("IDP down"))
+        .when(authorizationService)
+        .authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+    clock.advance(Duration.ofMinutes(17));
+    scheduled.getFirst().run();
+
+    clock.advance(Duration.ofMinutes(1));
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void invalidate_authorizesAgain() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    keeper.invalidate(ENDPOINT, INSURANT_ID);
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void reauthorize_authorizesRightAway() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    keeper.reauthorize(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(2)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void failedReauthorize_requestsAuthorizeAgain() {
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    doThrow(new AuthorizationException("IDP down"))
+        .doNothing()
+        .when(authorizationService)
+        .authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+    assertThrows(AuthorizationException.class, () -> keeper.reauthorize(ENDPOINT, INSURANT_ID));
+
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    verify(authorizationService, times(3)).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void resume_skipsAuthorization() {
+    keeper.resume(ENDPOINT, INSURANT_ID, clock.instant().plus(Duration.ofMinutes(10)));
+
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    verifyNoInteractions(authorizationService);
+    assertEquals(
+        clock.instant().plus(Duration.ofMinutes(10)),
+        keeper.authorizedUntil(ENDPOINT, INSURANT_ID));
+    verify(scheduler)
+        .schedule(
+            any(Runnable.class), eq(Duration.ofMinutes(7).toMillis()), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void resume_expired_authorizesOnUse() {
+    keeper.resume(ENDPOINT, INSURANT_ID, clock.instant().minus(Duration.ofMinutes(1)));
+
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+
+    verify(authorizationService).authorizeVauWithSmcB(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void resume_cappedAtSessionLifetime() {
+    keeper.resume(ENDPOINT, INSURANT_ID, clock.instant().plus(Duration.ofHours(5)));
+
+    assertEquals(
+        clock.instant().plus(Duration.ofMinutes(20)),
+        keeper.authorizedUntil(ENDPOINT, INSURANT_ID));
+  }
+
+  @Test
+  void authorizedUntil_unknownOrExpired_isNull() {
+    assertNull(keeper.authorizedUntil(ENDPOINT, INSURANT_ID));
+
+    keeper.ensureAuthorized(ENDPOINT, INSURANT_ID);
+    clock.advance(Duration.ofMinutes(20));
+
+    assertNull(keeper.authorizedUntil(ENDPOINT, INSURANT_ID));
+  }
+
+  @Test
+  void invalidConfiguration_throws() {
+    var lifetime = Duration.ofMinutes(1);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SessionKeeper(authorizationService, Duration.ZERO, Duration.ZERO));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SessionKeeper(authorizationService, lifetime, lifetime));
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
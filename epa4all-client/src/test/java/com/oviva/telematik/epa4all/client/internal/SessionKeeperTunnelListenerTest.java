@@ -0,0 +1,56 @@
+package com.oviva.telematik.epa4all.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class SessionKeeperTunnelListenerTest {
+
+  private static final URI ENDPOINT = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final String INSURANT_ID = "X123456789";
+  private static final Instant AUTHORIZED_UNTIL = Instant.parse("2025-01-01T10:20:00Z");
+
+  private final SessionKeeper keeper = mock(SessionKeeper.class);
+  private final SessionKeeperTunnelListener listener = new SessionKeeperTunnelListener();
+
+  @Test
+  void tunnelResumed_beforeAttach_handedOverOnAttach() {
+    listener.tunnelResumed(ENDPOINT, INSURANT_ID, AUTHORIZED_UNTIL);
+    verifyNoInteractions(keeper);
+
+    listener.attach(keeper);
+
+    verify(keeper).resume(ENDPOINT, INSURANT_ID, AUTHORIZED_UNTIL);
+  }
+
+  @Test
+  void tunnelResumed_afterAttach() {
+    listener.attach(keeper);
+
+    listener.tunnelResumed(ENDPOINT, INSURANT_ID, AUTHORIZED_UNTIL);
+
+    verify(keeper).resume(ENDPOINT, INSURANT_ID, AUTHORIZED_UNTIL);
+  }
+
+  @Test
+  void tunnelReplaced_reauthorizes() {
+    listener.tunnelReplaced(ENDPOINT, INSURANT_ID);
+    listener.attach(keeper);
+    listener.tunnelReplaced(ENDPOINT, INSURANT_ID);
+
+    verify(keeper, times(1)).reauthorize(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void authorizedUntil_fromKeeper() {
+    assertNull(listener.authorizedUntil(ENDPOINT, INSURANT_ID));
+
+    when(keeper.authorizedUntil(ENDPOINT, INSURANT_ID)).thenReturn(AUTHORIZED_UNTIL);
+    listener.attach(keeper);
+
+    assertEquals(AUTHORIZED_UNTIL, listener.authorizedUntil(ENDPOINT, INSURANT_ID));
+  }
+}
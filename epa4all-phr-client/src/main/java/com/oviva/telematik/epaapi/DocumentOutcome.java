@@ -0,0 +1,27 @@
+package com.oviva.telematik.epaapi;
+
+import de.gematik.epa.ihe.model.document.Document;
+import java.util.List;
+
+/**
+ * The outcome of a single document within a submission set.
+ *
+ * @param errors the registry errors related to this document, only warnings for {@link
+ *     Status#STORED}. For {@link Status#NOT_STORED} the errors of the submission set that could not
+ *     be attributed to a document
+ */
+public record DocumentOutcome(
+    Document document, Status status, List<WriteDocumentException.Error> errors) {
+
+  public enum Status {
+    STORED,
+    DUPLICATE,
+    REJECTED,
+
+    /**
+     * The document itself is fine, it was not stored as the registry rejected the submission set as
+     * a whole.
+     */
+    NOT_STORED
+  }
+}
@@ -13,6 +13,8 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import ihe.iti.xds_b._2007.ProvideAndRegisterDocumentSetRequestType;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import oasis.names.tc.ebxml_regrep.xsd.rs._3.RegistryErrorList;
 import oasis.names.tc.ebxml_regrep.xsd.rs._3.RegistryResponseType;
 import org.apache.cxf.frontend.ClientProxy;
@@ -23,6 +25,10 @@ public class PhrService {
 
   private static final String REGISTRY_STATUS_SUCCESS =
       "urn:oasis:names:tc:ebxml-regrep:ResponseStatusType:Success";
+  private static final String REGISTRY_STATUS_PARTIAL_SUCCESS =
+      "urn:ihe:iti:2007:ResponseStatusType:PartialSuccess";
+  private static final String REGISTRY_SEVERITY_WARNING =
+      "urn:oasis:names:tc:ebxml-regrep:ErrorSeverityType:Warning";
 
   private final IDocumentManagementPortType documentManagementPort;
 
@@ -44,6 +50,106 @@ public class PhrService {
     // actual requestId is always null, no use in returning it
   }
 
+  /**
+   * Writes all documents within a single submission set, i.e. one request instead of one per
+   * document. The author of the first document is the author of the submission set.
+   *
+   * @return the outcome for each document, in the order of the given documents
+   * @throws NotAuthorizedDocumentException if the insurant did not permit access at all
+   */
+  public List<DocumentOutcome> writeDocuments(String insurantId, List<Document> documents) {
+
+    if (documents.isEmpty()) {
+      throw new IllegalArgumentException("no documents");
+    }
+
+    var metadata = getSubmissionSetMetadata(documents.getFirst().documentMetadata());
+    var docSubmissionRequest =
+        new DocumentSubmissionRequest(
+            new InsurantAdapter(insurantId), List.copyOf(documents), metadata);
+
+    var req = LibIheXdsMain.convertDocumentSubmissionRequest(docSubmissionRequest);
+
+    var res = callWriteDocument(insurantId, req);
+    return toOutcomes(documents, res);
+  }
+
+  private List<DocumentOutcome> toOutcomes(List<Document> documents, RegistryResponseType res) {
+
+    var errors = toErrors(res);
+    if (REGISTRY_STATUS_SUCCESS.equals(res.getStatus())) {
+      // the registry may still report warnings
+      return documents.stream()
+          .map(
+              d ->
+                  new DocumentOutcome(
+                      d,
+                      DocumentOutcome.Status.STORED,
+                      errors.stream().filter(e -> isLocatedAt(e, d)).toList()))
+          .toList();
+    }
+
+    if (errors.stream().anyMatch(e -> "NotEntitled".equals(e.errorCode()))) {
+      throw new NotAuthorizedDocumentException("not authorized", errors);
+    }
+
+    // warnings do not keep a document from being stored
+    var documentErrors = new ArrayList<List<WriteDocumentException.Error>>(documents.size());
+    var unattributed = new ArrayList<>(errors);
+    for (var document : documents) {
+      var located = errors.stream().filter(e -> isLocatedAt(e, document)).toList();
+      unattributed.removeAll(located);
+      documentErrors.add(located);
+    }
+
+    // submission sets are atomic, unless the registry explicitly reports a partial success none
+    // of the documents was stored
+    var partialSuccess = REGISTRY_STATUS_PARTIAL_SUCCESS.equals(res.getStatus());
+
+    var outcomes = new ArrayList<DocumentOutcome>(documents.size());
+    for (var i = 0; i < documents.size(); i++) {
+      var document = documents.get(i);
+      var located = documentErrors.get(i);
+      if (located.stream().anyMatch(e -> "XDSDuplicateDocument".equals(e.errorCode()))) {
+        outcomes.add(new DocumentOutcome(document, DocumentOutcome.Status.DUPLICATE, located));
+      } else if (located.stream().anyMatch(PhrService::isErrorSeverity)) {
+        outcomes.add(new DocumentOutcome(document, DocumentOutcome.Status.REJECTED, located));
+      } else if (partialSuccess) {
+        outcomes.add(new DocumentOutcome(document, DocumentOutcome.Status.STORED, located));
+      } else {
+        outcomes.add(
+            new DocumentOutcome(
+                document, DocumentOutcome.Status.NOT_STORED, List.copyOf(unattributed)));
+      }
+    }
+    return outcomes;
+  }
+
+  private static boolean isErrorSeverity(WriteDocumentException.Error error) {
+    // the severity is optional, without it the entry is an error
+    return !REGISTRY_SEVERITY_WARNING.equals(error.severity());
+  }
+
+  /**
+   * The registry references the affected object by its unique ID or entry UUID. Unique IDs are
+   * OIDs, the ID must match as a whole, '1.2.3.1' is not located at '1.2.3.10'.
+   */
+  private boolean isLocatedAt(WriteDocumentException.Error error, Document document) {
+    var metadata = document.documentMetadata();
+    return Stream.of(metadata.uniqueId(), metadata.entryUUID())
+        .filter(id -> id != null && !id.isBlank())
+        .map(PhrService::wholeIdPattern)
+        .anyMatch(
+            id ->
+                (error.location() != null && id.matcher(error.location()).find())
+                    || (error.codeContext() != null && id.matcher(error.codeContext()).find()));
+  }
+
+  private static Pattern wholeIdPattern(String id) {
+    // neither part of a longer OID nor a longer word, a trailing full stop ends a sentence
+    return Pattern.compile("(?<![\\w.])" + Pattern.quote(id) + "(?!\\w|\\.\\w)");
+  }
+
   private RegistryResponseType callWriteDocument(
       String insurantId, ProvideAndRegisterDocumentSetRequestType req) {
     try {
@@ -110,20 +216,7 @@ public class PhrService {
     if (REGISTRY_STATUS_SUCCESS.equals(res.getStatus())) {
       return;
     }
-    var errors =
-        Optional.ofNullable(res.getRegistryErrorList())
-            .map(RegistryErrorList::getRegistryError)
-            .stream()
-            .flatMap(Collection::stream)
-            .map(
-                e ->
-                    new WriteDocumentException.Error(
-                        e.getValue(),
-                        e.getCodeContext(),
-                        e.getErrorCode(),
-                        e.getSeverity(),
-                        e.getLocation()))
-            .toList();
+    var errors = toErrors(res);
 
     if (errors.stream().anyMatch(e -> e.errorCode().equals("XDSDuplicateDocument"))) {
       throw new DuplicateDocumentException("duplicate document", errors);
@@ -137,6 +230,22 @@ public class PhrService {
         "writing document failed, status='%s'".formatted(res.getStatus()), errors);
   }
 
+  private List<WriteDocumentException.Error> toErrors(RegistryResponseType res) {
+    return Optional.ofNullable(res.getRegistryErrorList())
+        .map(RegistryErrorList::getRegistryError)
+        .stream()
+        .flatMap(Collection::stream)
+        .map(
+            e ->
+                new WriteDocumentException.Error(
+                    e.getValue(),
+                    e.getCodeContext(),
+                    e.getErrorCode(),
+                    e.getSeverity(),
+                    e.getLocation()))
+        .toList();
+  }
+
   /**
    * Convert the UUID to a valid object identity in the context of IHE <a
    * href="https://wiki.ihe.net/index.php/Creating_Unique_IDs_-_OID_and_UUID">Creating Unique IDs -
@@ -5,8 +5,10 @@ import jakarta.xml.ws.soap.SOAPBinding;
 import java.net.URI;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.cxf.endpoint.Client;
 import org.apache.cxf.ext.logging.LoggingFeature;
 import org.apache.cxf.ext.logging.event.EventType;
@@ -17,19 +19,53 @@ import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.apache.cxf.transport.http.HTTPConduit;
 import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
 import org.apache.cxf.ws.addressing.WSAddressingFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 import telematik.ws.phr.wsdl.IDocumentManagementPortType;
 
 public class SoapClientFactory {
 
+  private static final Logger log = LoggerFactory.getLogger(SoapClientFactory.class);
+
+  // never called, keeps the JAXB context and service model cached by CXF alive
+  private static final URI WARM_UP_ADDRESS = URI.create("http://localhost/warm-up");
+  private static volatile IDocumentManagementPortType warmUpPort;
+
   private final ClientConfiguration configuration;
 
+  // port proxies are thread safe with a thread local request context and expensive to create
+  private final Map<URI, IDocumentManagementPortType> documentManagementPorts =
+      new ConcurrentHashMap<>();
+
   public SoapClientFactory(ClientConfiguration configuration) {
     this.configuration = configuration;
   }
 
+  /**
+   * Builds the JAXB context of the IHE/XDS schemas, the CXF bus and the service model of the
+   * document management port up front, otherwise the first request pays for it. Calling it more
+   * than once has no effect.
+   */
+  public static synchronized void warmUp() {
+    if (warmUpPort != null) {
+      return;
+    }
+    var start = System.nanoTime();
+    warmUpPort =
+        new SoapClientFactory(new ClientConfiguration(null))
+            .getClientProxyImpl(IDocumentManagementPortType.class, WARM_UP_ADDRESS);
+    log.atInfo().log(
+        "warmed up document management client in {}ms",
+        Duration.ofNanos(System.nanoTime() - start).toMillis());
+  }
+
+  /**
+   * @return the port for the endpoint, created once and re-used for all later requests
+   */
   public IDocumentManagementPortType getIDocumentManagementPort(URI endpointAddress) {
-    return getClientProxyImpl(IDocumentManagementPortType.class, endpointAddress);
+    return documentManagementPorts.computeIfAbsent(
+        endpointAddress, e -> getClientProxyImpl(IDocumentManagementPortType.class, e));
   }
 
   private <T> T getClientProxyImpl(Class<T> portType, URI endpointAddress) {
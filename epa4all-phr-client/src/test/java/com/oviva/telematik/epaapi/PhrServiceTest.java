@@ -2,6 +2,7 @@ package com.oviva.telematik.epaapi;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -179,4 +180,210 @@ class PhrServiceTest {
 
     assertEquals("no author", exception.getMessage());
   }
+
+  @Test
+  void writeDocuments_successful() {
+    var first = documentWithUniqueId("1.2.3.1");
+    var second = documentWithUniqueId("1.2.3.2");
+
+    try (var libIheXdsMainMock = mockStatic(LibIheXdsMain.class);
+        var clientProxyMock = mockStatic(ClientProxy.class)) {
+
+      libIheXdsMainMock
+          .when(() -> LibIheXdsMain.convertDocumentSubmissionRequest(any()))
+          .thenReturn(convertedRequest);
+      clientProxyMock
+          .when(() -> ClientProxy.getClient(documentManagementPort))
+          .thenReturn(clientMock);
+      when(clientMock.getRequestContext()).thenReturn(new HashMap<>());
+
+      var response = new RegistryResponseType();
+      response.setStatus("urn:oasis:names:tc:ebxml-regrep:ResponseStatusType:Success");
+      when(documentManagementPort.documentRepositoryProvideAndRegisterDocumentSetB(
+              convertedRequest))
+          .thenReturn(response);
+
+      var outcomes = phrService.writeDocuments(insurantId, List.of(first, second));
+
+      // a single submission for all documents
+      verify(documentManagementPort, times(1))
+          .documentRepositoryProvideAndRegisterDocumentSetB(any());
+      libIheXdsMainMock.verify(
+          () ->
+              LibIheXdsMain.convertDocumentSubmissionRequest(
+                  argThat(r -> r.documents().equals(List.of(first, second)))));
+
+      assertEquals(2, outcomes.size());
+      assertEquals(first, outcomes.get(0).document());
+      assertEquals(DocumentOutcome.Status.STORED, outcomes.get(0).status());
+      assertEquals(second, outcomes.get(1).document());
+      assertEquals(DocumentOutcome.Status.STORED, outcomes.get(1).status());
+    }
+  }
+
+  @Test
+  void writeDocuments_attributesErrorsToDocuments() {
+    var first = documentWithUniqueId("1.2.3.1");
+    var second = documentWithUniqueId("1.2.3.2");
+    var third = documentWithUniqueId("1.2.3.3");
+
+    try (var libIheXdsMainMock = mockStatic(LibIheXdsMain.class);
+        var clientProxyMock = mockStatic(ClientProxy.class)) {
+
+      libIheXdsMainMock
+          .when(() -> LibIheXdsMain.convertDocumentSubmissionRequest(any()))
+          .thenReturn(convertedRequest);
+      clientProxyMock
+          .when(() -> ClientProxy.getClient(documentManagementPort))
+          .thenReturn(clientMock);
+      when(clientMock.getRequestContext()).thenReturn(new HashMap<>());
+
+      var response = new RegistryResponseType();
+      response.setStatus("urn:oasis:names:tc:ebxml-regrep:ResponseStatusType:Failure");
+      var errorList = new RegistryErrorList();
+      errorList.getRegistryError().add(registryError("XDSDuplicateDocument", "1.2.3.1"));
+      errorList.getRegistryError().add(registryError("XDSRegistryMetadataError", "1.2.3.2"));
+      response.setRegistryErrorList(errorList);
+      when(documentManagementPort.documentRepositoryProvideAndRegisterDocumentSetB(
+              convertedRequest))
+          .thenReturn(response);
+
+      var outcomes = phrService.writeDocuments(insurantId, List.of(first, second, third));
+
+      assertEquals(DocumentOutcome.Status.DUPLICATE, outcomes.get(0).status());
+      assertEquals("XDSDuplicateDocument", outcomes.get(0).errors().get(0).errorCode());
+      assertEquals(DocumentOutcome.Status.REJECTED, outcomes.get(1).status());
+      assertEquals("XDSRegistryMetadataError", outcomes.get(1).errors().get(0).errorCode());
+      assertEquals(DocumentOutcome.Status.NOT_STORED, outcomes.get(2).status());
+      assertTrue(outcomes.get(2).errors().isEmpty());
+    }
+  }
+
+  @Test
+  void writeDocuments_matchesWholeUniqueIds() {
+    var first = documentWithUniqueId("1.2.3.1");
+    var second = documentWithUniqueId("1.2.3.10");
+
+    try (var libIheXdsMainMock = mockStatic(LibIheXdsMain.class);
+        var clientProxyMock = mockStatic(ClientProxy.class)) {
+
+      libIheXdsMainMock
+          .when(() -> LibIheXdsMain.convertDocumentSubmissionRequest(any()))
+          .thenReturn(convertedRequest);
+      clientProxyMock
+          .when(() -> ClientProxy.getClient(documentManagementPort))
+          .thenReturn(clientMock);
+      when(clientMock.getRequestContext()).thenReturn(new HashMap<>());
+
+      var response = new RegistryResponseType();
+      response.setStatus("urn:ihe:iti:2007:ResponseStatusType:PartialSuccess");
+      var errorList = new RegistryErrorList();
+      var error = registryError("XDSRegistryMetadataError", null);
+      error.setCodeContext("invalid metadata in document 1.2.3.10.");
+      errorList.getRegistryError().add(error);
+      response.setRegistryErrorList(errorList);
+      when(documentManagementPort.documentRepositoryProvideAndRegisterDocumentSetB(
+              convertedRequest))
+          .thenReturn(response);
+
+      var outcomes = phrService.writeDocuments(insurantId, List.of(first, second));
+
+      assertEquals(DocumentOutcome.Status.STORED, outcomes.get(0).status());
+      assertTrue(outcomes.get(0).errors().isEmpty());
+      assertEquals(DocumentOutcome.Status.REJECTED, outcomes.get(1).status());
+      assertEquals("XDSRegistryMetadataError", outcomes.get(1).errors().get(0).errorCode());
+    }
+  }
+
+  @Test
+  void writeDocuments_warningKeepsDocumentStored() {
+    var first = documentWithUniqueId("1.2.3.1");
+    var second = documentWithUniqueId("1.2.3.2");
+
+    try (var libIheXdsMainMock = mockStatic(LibIheXdsMain.class);
+        var clientProxyMock = mockStatic(ClientProxy.class)) {
+
+      libIheXdsMainMock
+          .when(() -> LibIheXdsMain.convertDocumentSubmissionRequest(any()))
+          .thenReturn(convertedRequest);
+      clientProxyMock
+          .when(() -> ClientProxy.getClient(documentManagementPort))
+          .thenReturn(clientMock);
+      when(clientMock.getRequestContext()).thenReturn(new HashMap<>());
+
+      var response = new RegistryResponseType();
+      response.setStatus("urn:ihe:iti:2007:ResponseStatusType:PartialSuccess");
+      var errorList = new RegistryErrorList();
+      var warning = registryError("XDSExtraMetadataNotSaved", "1.2.3.1");
+      warning.setSeverity("urn:oasis:names:tc:ebxml-regrep:ErrorSeverityType:Warning");
+      errorList.getRegistryError().add(warning);
+      errorList.getRegistryError().add(registryError("XDSRegistryMetadataError", "1.2.3.2"));
+      response.setRegistryErrorList(errorList);
+      when(documentManagementPort.documentRepositoryProvideAndRegisterDocumentSetB(
+              convertedRequest))
+          .thenReturn(response);
+
+      var outcomes = phrService.writeDocuments(insurantId, List.of(first, second));
+
+      assertEquals(DocumentOutcome.Status.STORED, outcomes.get(0).status());
+      assertEquals("XDSExtraMetadataNotSaved", outcomes.get(0).errors().get(0).errorCode());
+      assertEquals(DocumentOutcome.Status.REJECTED, outcomes.get(1).status());
+    }
+  }
+
+  @Test
+  void writeDocuments_notEntitled() {
+    var first = documentWithUniqueId("1.2.3.1");
+
+    try (var libIheXdsMainMock = mockStatic(LibIheXdsMain.class);
+        var clientProxyMock = mockStatic(ClientProxy.class)) {
+
+      libIheXdsMainMock
+          .when(() -> LibIheXdsMain.convertDocumentSubmissionRequest(any()))
+          .thenReturn(convertedRequest);
+      clientProxyMock
+          .when(() -> ClientProxy.getClient(documentManagementPort))
+          .thenReturn(clientMock);
+      when(clientMock.getRequestContext()).thenReturn(new HashMap<>());
+
+      var response = new RegistryResponseType();
+      response.setStatus("urn:oasis:names:tc:ebxml-regrep:ResponseStatusType:Failure");
+      var errorList = new RegistryErrorList();
+      errorList.getRegistryError().add(registryError("NotEntitled", null));
+      response.setRegistryErrorList(errorList);
+      when(documentManagementPort.documentRepositoryProvideAndRegisterDocumentSetB(
+              convertedRequest))
+          .thenReturn(response);
+
+      var documents = List.of(first);
+      assertThrows(
+          NotAuthorizedDocumentException.class,
+          () -> phrService.writeDocuments(insurantId, documents));
+    }
+  }
+
+  @Test
+  void writeDocuments_requiresDocuments() {
+    var documents = List.<Document>of();
+    assertThrows(
+        IllegalArgumentException.class, () -> phrService.writeDocuments(insurantId, documents));
+  }
+
+  private Document documentWithUniqueId(String uniqueId) {
+    var metadata = mock(DocumentMetadata.class);
+    lenient().when(metadata.author()).thenReturn(List.of(mock(Author.class)));
+    lenient().when(metadata.uniqueId()).thenReturn(uniqueId);
+    var doc = mock(Document.class);
+    lenient().when(doc.documentMetadata()).thenReturn(metadata);
+    return doc;
+  }
+
+  private RegistryError registryError(String errorCode, String location) {
+    var error = new RegistryError();
+    error.setErrorCode(errorCode);
+    error.setSeverity("urn:oasis:names:tc:ebxml-regrep:ErrorSeverityType:Error");
+    error.setCodeContext(errorCode);
+    error.setLocation(location);
+    return error;
+  }
 }
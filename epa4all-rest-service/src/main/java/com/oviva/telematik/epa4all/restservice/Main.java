@@ -3,6 +3,8 @@ package com.oviva.telematik.epa4all.restservice;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oviva.epa.client.KonnektorService;
 import com.oviva.epa.client.KonnektorServiceBuilder;
+import com.oviva.epa.client.MultiKonnektorService;
+import com.oviva.epa.client.MultiKonnektorServiceBuilder;
 import com.oviva.epa.client.konn.KonnektorConnectionFactory;
 import com.oviva.epa.client.konn.KonnektorConnectionFactoryBuilder;
 import com.oviva.telematik.epa4all.client.ClientException;
@@ -12,6 +14,7 @@ import com.oviva.telematik.epa4all.client.NotAuthorizedClientException;
 import com.oviva.telematik.epa4all.client.internal.TelematikTrustRoots;
 import com.oviva.telematik.epa4all.restservice.cfg.ConfigProvider;
 import com.oviva.telematik.epa4all.restservice.cfg.EnvConfigProvider;
+import com.oviva.telematik.epaapi.SoapClientFactory;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
 import io.undertow.server.HttpHandler;
@@ -42,6 +45,9 @@ public class Main implements AutoCloseable {
 
   private final ConfigProvider configProvider;
   private Undertow server;
+  private MultiKonnektorService multiKonnektorService;
+  private final List<KonnektorConnectionFactory> konnektorFactories = new ArrayList<>();
+  private volatile boolean ready;
 
   public Main(ConfigProvider configProvider) {
     this.configProvider = configProvider;
@@ -74,6 +80,35 @@ public class Main implements AutoCloseable {
 
     var actualPort = listenerAddress().getPort();
     logger.atInfo().log("server ready at http://{}:{}/", host, actualPort);
+
+    Thread.ofVirtual().name("warm-up").start(this::warmUp);
+  }
+
+  /**
+   * Builds the SOAP clients and connects to the Konnektors up front, the first request would pay
+   * for it otherwise. Afterwards the service reports to be ready, also if parts of it failed.
+   */
+  void warmUp() {
+    var start = System.nanoTime();
+    try {
+      SoapClientFactory.warmUp();
+    } catch (RuntimeException e) {
+      logger.atWarn().setCause(e).log("failed to warm up document management client");
+    }
+    for (var factory : konnektorFactories) {
+      try {
+        // the connection and its service proxies are cached by the factory
+        factory.connect();
+      } catch (RuntimeException e) {
+        logger.atWarn().setCause(e).log("failed to connect to konnektor during warm-up");
+      }
+    }
+    ready = true;
+    logger.atInfo().log("warm-up completed in {}ms", (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public boolean isReady() {
+    return ready;
   }
 
   public void awaitTermination() {
@@ -97,20 +132,42 @@ public class Main implements AutoCloseable {
     if (server != null) {
       server.stop();
     }
+    if (multiKonnektorService != null) {
+      multiKonnektorService.close();
+    }
   }
 
   private Epa4allClientService buildClientService(Config config) {
-    var konnektorFactory = buildFactory(config);
+    var konnektorServiceFactory = buildKonnektorServiceFactory(config);
 
     var proxySocket =
         config.proxyAddress() != null
             ? new InetSocketAddress(config.proxyAddress(), config.proxyPort())
             : null;
     return new Epa4allClientService(
-        () -> buildKonnektorService(konnektorFactory, config),
-        proxySocket,
-        config.environment(),
-        config.telematikId());
+        konnektorServiceFactory, proxySocket, config.environment(), config.telematikId());
+  }
+
+  private Epa4allClientService.KonnektorServiceFactory buildKonnektorServiceFactory(Config config) {
+
+    if (config.konnektors().size() == 1) {
+      var konnektorFactory = buildFactory(config, config.konnektors().getFirst());
+      return () -> buildKonnektorService(konnektorFactory, config);
+    }
+
+    var builder = MultiKonnektorServiceBuilder.newBuilder();
+    for (var k : config.konnektors()) {
+      var konnektorFactory = buildFactory(config, k);
+      builder.addKonnektor(
+          k.name(),
+          () -> buildKonnektorService(konnektorFactory, config),
+          k.weight(),
+          k.telematikIds());
+    }
+
+    var multi = builder.build();
+    multiKonnektorService = multi;
+    return () -> multi;
   }
 
   private KonnektorService buildKonnektorService(
@@ -124,14 +181,17 @@ public class Main implements AutoCloseable {
         .build();
   }
 
-  private KonnektorConnectionFactory buildFactory(Config cfg) {
-    return KonnektorConnectionFactoryBuilder.newBuilder()
-        .clientKeys(cfg.clientKeys())
-        .konnektorUri(cfg.konnektorUri())
-        .konnektorServername(cfg.konnektorServername())
-        .proxyServer(cfg.proxyAddress(), cfg.proxyPort())
-        .trustManagers(cfg.konnektorTruststores())
-        .build();
+  private KonnektorConnectionFactory buildFactory(Config cfg, KonnektorConfig konnektor) {
+    var factory =
+        KonnektorConnectionFactoryBuilder.newBuilder()
+            .clientKeys(cfg.clientKeys())
+            .konnektorUri(konnektor.uri())
+            .konnektorServername(konnektor.servername())
+            .proxyServer(cfg.proxyAddress(), cfg.proxyPort())
+            .trustManagers(cfg.konnektorTruststores())
+            .build();
+    konnektorFactories.add(factory);
+    return factory;
   }
 
   private List<TrustManager> loadTelematikTrustManagers(Environment env) {
@@ -141,6 +201,13 @@ public class Main implements AutoCloseable {
     };
   }
 
+  /**
+   * A single Konnektor, with more than one Konnektor configured requests for a card are spread over
+   * all Konnektors serving it.
+   */
+  record KonnektorConfig(
+      String name, URI uri, String servername, int weight, Set<String> telematikIds) {}
+
   record Config(
       URI konnektorUri,
       String konnektorServername,
@@ -155,7 +222,8 @@ public class Main implements AutoCloseable {
       String address,
       int port,
       Environment environment,
-      String telematikId) {}
+      String telematikId,
+      List<KonnektorConfig> konnektors) {}
 
   private Config loadConfig(ConfigProvider configProvider) {
 
@@ -169,8 +237,6 @@ public class Main implements AutoCloseable {
     var address = configProvider.get("address").orElse("0.0.0.0");
     var port = configProvider.get("port").map(Integer::parseInt).orElse(8080);
 
-    var uri = mustLoad("konnektor.uri").map(URI::create).orElseThrow();
-
     var servername =
         configProvider
             .get("konnektor.servername")
@@ -182,6 +248,9 @@ public class Main implements AutoCloseable {
             // aufzulösen.
             .orElse("konnektor.konlan");
 
+    var konnektors = loadKonnektors(servername);
+    var uri = konnektors.getFirst().uri();
+
     var konnektorTrustStorePassword =
         configProvider
             .get("konnektor.truststore.password")
@@ -243,7 +312,52 @@ public class Main implements AutoCloseable {
         address,
         port,
         environment,
-        telematikId);
+        telematikId,
+        konnektors);
+  }
+
+  /**
+   * Either a single Konnektor configured by <code>konnektor.uri</code> or a comma separated list of
+   * names in <code>konnektors</code>, each configured by <code>konnektor.&lt;name&gt;.uri
+   * </code>, <code>.servername</code>, <code>.weight</code> and <code>.telematik_ids</code>.
+   */
+  private List<KonnektorConfig> loadKonnektors(String defaultServername) {
+
+    var names = configProvider.get("konnektors").map(Main::splitList).orElse(List.of());
+    if (names.isEmpty()) {
+      var uri = mustLoad("konnektor.uri").map(URI::create).orElseThrow();
+      return List.of(new KonnektorConfig("default", uri, defaultServername, 1, Set.of()));
+    }
+
+    return names.stream()
+        .map(
+            name -> {
+              var prefix = "konnektor." + name + ".";
+              var uri = mustLoad(prefix + "uri").map(URI::create).orElseThrow();
+              var servername =
+                  configProvider
+                      .get(prefix + "servername")
+                      .map(String::strip)
+                      .filter(s -> !s.isBlank())
+                      .orElse(defaultServername);
+              var weight = configProvider.get(prefix + "weight").map(Integer::parseInt).orElse(1);
+              var telematikIds =
+                  configProvider
+                      .get(prefix + "telematik_ids")
+                      .map(Main::splitList)
+                      .map(Set::copyOf)
+                      .orElse(Set.of());
+              return new KonnektorConfig(name, uri, servername, weight, telematikIds);
+            })
+        .toList();
+  }
+
+  private static List<String> splitList(String value) {
+    return Arrays.stream(value.split(","))
+        .map(String::strip)
+        .filter(s -> !s.isBlank())
+        .distinct()
+        .toList();
   }
 
   private Optional<String> mustLoad(String key) {
@@ -280,6 +394,12 @@ public class Main implements AutoCloseable {
                             ex.setStatusCode(503).endExchange();
                           }
                         })
+                    .get(
+                        "/ready",
+                        ex -> {
+                          // the service works before, the first requests are just slower
+                          ex.setStatusCode(ready ? 200 : 503).endExchange();
+                        })
                     .post(
                         "/documents",
                         ex -> {
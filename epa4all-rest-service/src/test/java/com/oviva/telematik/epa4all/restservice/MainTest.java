@@ -14,8 +14,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyStore;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -140,6 +142,54 @@ class MainTest {
     assertEquals("configuration for 'konnektor.uri' not found", ex.getCause().getMessage());
   }
 
+  @Test
+  void loadConfig_multipleKonnektors() throws Exception {
+    var keystore = createEmptyPkcs12(tempDir.resolve("keys-multi.p12"), "0000");
+
+    var cfg =
+        mapProvider(
+            Map.of(
+                "konnektors", "primary, secondary",
+                "konnektor.primary.uri", "https://konn-a:443",
+                "konnektor.primary.weight", "3",
+                "konnektor.primary.telematik_ids", "TID-1, TID-2",
+                "konnektor.secondary.uri", "https://konn-b:443",
+                "konnektor.secondary.servername", "konn-b.konlan",
+                "credentials.path", keystore.toString()));
+
+    var main = new Main(cfg);
+    var result = invokeLoadConfig(main, cfg);
+
+    assertEquals(URI.create("https://konn-a:443"), result.konnektorUri());
+    assertEquals(
+        List.of(
+            new Main.KonnektorConfig(
+                "primary",
+                URI.create("https://konn-a:443"),
+                "konnektor.konlan",
+                3,
+                Set.of("TID-1", "TID-2")),
+            new Main.KonnektorConfig(
+                "secondary", URI.create("https://konn-b:443"), "konn-b.konlan", 1, Set.of())),
+        result.konnektors());
+  }
+
+  @Test
+  void loadConfig_multipleKonnektors_missingUri_throws() {
+    var keystore = createEmptyPkcs12(tempDir.resolve("keys-multi-missing.p12"), "0000");
+    var cfg =
+        mapProvider(
+            Map.of(
+                "konnektors", "primary",
+                "konnektor.uri", "https://konn:443",
+                "credentials.path", keystore.toString()));
+    var main = new Main(cfg);
+
+    var ex = assertThrows(InvocationTargetException.class, () -> invokeLoadConfig(main, cfg));
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+    assertEquals("configuration for 'konnektor.primary.uri' not found", ex.getCause().getMessage());
+  }
+
   @Test
   void loadConfig_blankTelematikId_becomesNull() throws Exception {
     var keystore = createEmptyPkcs12(tempDir.resolve("keys-blank-tid.p12"), "0000");
@@ -216,6 +266,16 @@ class MainTest {
     assertNull(proxy);
   }
 
+  @Test
+  void warmUp_becomesReady() {
+    var main = new Main(mapProvider(Map.of()));
+    assertFalse(main.isReady());
+
+    main.warmUp();
+
+    assertTrue(main.isReady());
+  }
+
   private static ConfigProvider mapProvider(Map<String, String> values) {
     var map = new HashMap<>(values);
     return name -> Optional.ofNullable(map.get(name));
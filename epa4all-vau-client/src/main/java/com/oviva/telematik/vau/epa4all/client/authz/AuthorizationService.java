@@ -11,6 +11,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,34 +43,58 @@ public class AuthorizationService {
   private final java.net.http.HttpClient outerHttpClient;
   private final AuthnChallengeResponder authnChallengeResponder;
   private final AuthnClientAttester authnClientAttester;
+  private final Executor executor;
 
   public AuthorizationService(
       HttpClient innerHttpClient,
       java.net.http.HttpClient outerHttpClient,
       AuthnChallengeResponder authnChallengeResponder,
       AuthnClientAttester authnClientAttester) {
+    this(
+        innerHttpClient,
+        outerHttpClient,
+        authnChallengeResponder,
+        authnClientAttester,
+        Futures.virtualThreads("authorization-"));
+  }
+
+  /**
+   * @param executor runs the steps of an authorization not depending on each other concurrently
+   */
+  public AuthorizationService(
+      HttpClient innerHttpClient,
+      java.net.http.HttpClient outerHttpClient,
+      AuthnChallengeResponder authnChallengeResponder,
+      AuthnClientAttester authnClientAttester,
+      Executor executor) {
     this.innerHttpClient = innerHttpClient;
     this.outerHttpClient = outerHttpClient;
     this.authnChallengeResponder = authnChallengeResponder;
     this.authnClientAttester = authnClientAttester;
+    this.executor = executor;
   }
 
   public void authorizeVauWithSmcB(URI vauEndpoint, String insurantId) {
 
-    var nonceRes = getNonce(vauEndpoint, insurantId);
-    var nonce = nonceRes.nonce();
+    // the nonce is only needed for the client attestation at the very end, fetch it while the
+    // IDP is busy with the authorization request
+    var nonce =
+        CompletableFuture.supplyAsync(() -> getNonce(vauEndpoint, insurantId).nonce(), executor);
 
     var authRes = sendAuthorizationRequestSmcB(vauEndpoint, insurantId);
 
     // A_20663-01 & A_20665-01
     var challengeResponse = authnChallengeResponder.challengeResponse(authRes.challenge());
 
+    // signing after the challenge response, the SMC-B signs one at a time anyway
+    var signedClientAttest =
+        nonce.thenApplyAsync(n -> authnClientAttester.attestClient(n).serialize(), executor);
+
     var idpBaseUri = challengeResponse.issuer();
     var authorizationCode =
         exchangeEncryptedSignedChallenge(idpBaseUri, challengeResponse.response());
 
-    var signedClientAttest = authnClientAttester.attestClient(nonce);
-    var signedClientAttestB64 = signedClientAttest.serialize();
+    var signedClientAttestB64 = Futures.join(signedClientAttest);
 
     if (log.isDebugEnabled()) {
       log.atDebug().log(
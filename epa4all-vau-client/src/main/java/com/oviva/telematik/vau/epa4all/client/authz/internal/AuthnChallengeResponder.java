@@ -26,6 +26,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,11 +37,21 @@ public class AuthnChallengeResponder {
 
   private final SignatureService signatureService;
   private final OidcClient oidcClient;
+  private final Executor executor;
   private final Logger log = LoggerFactory.getLogger(AuthnChallengeResponder.class);
 
   public AuthnChallengeResponder(SignatureService signatureService, OidcClient oidcClient) {
+    this(signatureService, oidcClient, Futures.virtualThreads("authn-challenge-"));
+  }
+
+  /**
+   * @param executor runs the IDP fetches not depending on each other concurrently
+   */
+  public AuthnChallengeResponder(
+      SignatureService signatureService, OidcClient oidcClient, Executor executor) {
     this.signatureService = signatureService;
     this.oidcClient = oidcClient;
+    this.executor = executor;
   }
 
   public record Response(URI issuer, String response) {}
@@ -46,11 +59,21 @@ public class AuthnChallengeResponder {
   public Response challengeResponse(String challenge) {
 
     // A_20663-01
-    var parsedChallenge = parseAndValidateChallenge(challenge);
+    var parsedChallenge = parseChallenge(challenge);
     var iss = issuerUriFromChallenge(parsedChallenge);
 
+    // the discovery document and the keys only depend on the issuer, fetch them while the
+    // challenge is verified and signed
+    var discoveryDocument =
+        CompletableFuture.supplyAsync(() -> oidcClient.fetchOidcDiscoveryDocument(iss), executor);
+    var idpSigKey =
+        discoveryDocument.thenApplyAsync(d -> oidcClient.fetchJwk(d.uriPukIdpSig()), executor);
+    var idpEncKey = discoveryDocument.thenApplyAsync(this::fetchIdpEncKey, executor);
+
+    validateChallenge(parsedChallenge, Futures.join(idpSigKey));
+
     // A_20665-01
-    var jweResponse = encryptAndSignChallenge(iss, parsedChallenge);
+    var jweResponse = encryptAndSignChallenge(parsedChallenge, () -> Futures.join(idpEncKey));
 
     return new Response(iss, jweResponse.serialize());
   }
@@ -63,27 +86,12 @@ public class AuthnChallengeResponder {
     }
   }
 
-  private SignedJWT parseAndValidateChallenge(String challenge) {
-    // A_20663-01
-
-    var parsedChallengeJwt = parseChallenge(challenge);
-    validateChallenge(parsedChallengeJwt);
-
-    return parsedChallengeJwt;
-  }
-
-  private void validateChallenge(SignedJWT challenge) {
+  private void validateChallenge(SignedJWT challenge, JWK idpSigKey) {
 
     try {
       // Note: The challenge contains the URL to the keys, so is anyways in control of it. Not sure
       // what validating the signature adds.
-      var claims = challenge.getJWTClaimsSet();
-      var iss = claims.getIssuer();
-
-      var discoveryDocument = oidcClient.fetchOidcDiscoveryDocument(URI.create(iss));
-      var jwk = oidcClient.fetchJwk(discoveryDocument.uriPukIdpSig());
-
-      var jwsKeySelector = keySelector(jwk);
+      var jwsKeySelector = keySelector(idpSigKey);
 
       var jwtProcessor = new DefaultJWTProcessor<>();
       jwtProcessor.setJWSVerifierFactory(new BrainpoolJwsVerifier.Factory());
@@ -95,7 +103,7 @@ public class AuthnChallengeResponder {
       // validate signature of challenge A_20663-01
       jwtProcessor.process(challenge, null);
 
-    } catch (ParseException | BadJOSEException | JOSEException e) {
+    } catch (BadJOSEException | JOSEException e) {
       throw new AuthorizationException("failed to verify challenge signature", e);
     }
   }
@@ -130,6 +138,12 @@ public class AuthnChallengeResponder {
   }
 
   public JWEObject encryptAndSignChallenge(URI iss, @NonNull SignedJWT challenge) {
+    return encryptAndSignChallenge(
+        challenge, () -> fetchIdpEncKey(oidcClient.fetchOidcDiscoveryDocument(iss)));
+  }
+
+  private JWEObject encryptAndSignChallenge(
+      @NonNull SignedJWT challenge, Supplier<JWK> idpEncKeySupplier) {
     // https://gemspec.gematik.de/docs/gemSpec/gemSpec_IDP_Dienst/gemSpec_IDP_Dienst_V1.7.0/#7.3
 
     var expiry = expiryFromChallengeBody(challenge);
@@ -138,7 +152,7 @@ public class AuthnChallengeResponder {
     try {
 
       // https://gemspec.gematik.de/docs/gemILF/gemILF_PS_ePA/gemILF_PS_ePA_V3.2.3/#A_20667-02
-      var idpEncKey = fetchIdpEncKey(iss);
+      var idpEncKey = idpEncKeySupplier.get();
 
       if (!(idpEncKey instanceof BP256ECKey bp256ECKey)) {
         throw new AuthorizationException(
@@ -165,15 +179,13 @@ public class AuthnChallengeResponder {
     }
   }
 
-  private JWK fetchIdpEncKey(URI issuer) {
+  private JWK fetchIdpEncKey(OidcClient.OidcDiscoveryResponse discoveryDocument) {
 
     // examples:
     // RU: https://idp-ref.zentral.idp.splitdns.ti-dienste.de/.well-known/openid-configuration
     // PU: https://idp.zentral.idp.splitdns.ti-dienste.de/.well-known/openid-configuration
 
     // we do not verify the document much here, we just want the links
-    var discoveryDocument = oidcClient.fetchOidcDiscoveryDocument(issuer);
-
     var encKeyUri = discoveryDocument.uriPukIdpEnc();
     if (encKeyUri == null) {
       throw new AuthorizationException("no uri_puk_idp_enc found in discovery document");
@@ -0,0 +1,30 @@
+package com.oviva.telematik.vau.epa4all.client.authz.internal;
+
+import com.oviva.telematik.vau.epa4all.client.authz.AuthorizationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/** Helpers to run independent authorization steps concurrently. */
+public class Futures {
+
+  private Futures() {}
+
+  /** An executor starting a virtual thread per task, the steps are mostly waiting for I/O. */
+  public static Executor virtualThreads(String namePrefix) {
+    var threadFactory = Thread.ofVirtual().name(namePrefix, 0).factory();
+    return command -> threadFactory.newThread(command).start();
+  }
+
+  /** Waits for the step and rethrows its failure as is, the same way a direct call would. */
+  public static <T> T join(CompletableFuture<T> step) {
+    try {
+      return step.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new AuthorizationException("authorization step failed", e.getCause());
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers which ePA provider hosts the account of an insurant, so a restart does not have to
+ * probe all providers again.
+ *
+ * <p>The index is an append-only file with one line per change: <code>
+ * &lt;key&gt; &lt;endpoint&gt; &lt;epoch millis&gt;</code>, the endpoint <code>-</code> marks a
+ * removed entry. The key is an HMAC-SHA256 of the KVNR with a secret provided by the application.
+ * Superseded lines are compacted away when the index is opened.
+ *
+ * <p>The file is pseudonymised only: whoever knows the secret can tell which provider hosts the
+ * account of a given KVNR. The file and the secret have to be protected like plain KVNRs, the file
+ * is created readable by its owner only.
+ *
+ * <p>The index is a hint only, a cached endpoint is still probed before it is used.
+ */
+public class AccountEndpointIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(AccountEndpointIndex.class);
+
+  private static final String REMOVED = "-";
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final int MIN_KEY_LENGTH = 32;
+
+  public record Entry(URI endpoint, Instant discoveredAt) {}
+
+  private final Path file;
+  private final SecretKey key;
+  private final Clock clock;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private AccountEndpointIndex(Path file, SecretKey key, Clock clock) {
+    this.file = file;
+    this.key = key;
+    this.clock = clock;
+  }
+
+  /**
+   * Opens the index, the file is created if it does not exist yet.
+   *
+   * @param key the HMAC key for the KVNRs, at least 32 bytes, e.g. from a secret shared by all
+   *     instances of a deployment
+   */
+  public static AccountEndpointIndex open(Path file, byte[] key) {
+    return open(file, key, Clock.systemUTC());
+  }
+
+  static AccountEndpointIndex open(Path file, byte[] key, Clock clock) {
+    if (file == null) {
+      throw new IllegalArgumentException("file must not be null");
+    }
+    if (key == null || key.length < MIN_KEY_LENGTH) {
+      throw new IllegalArgumentException("key must be at least %d bytes".formatted(MIN_KEY_LENGTH));
+    }
+    var index = new AccountEndpointIndex(file, new SecretKeySpec(key, HMAC_ALGORITHM), clock);
+    try {
+      index.load();
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to load account endpoint index " + file, e);
+    }
+    return index;
+  }
+
+  public Optional<Entry> lookup(String insurantId) {
+    return Optional.ofNullable(entries.get(key(insurantId)));
+  }
+
+  public void put(String insurantId, URI endpoint) {
+    var key = key(insurantId);
+    var entry = new Entry(endpoint, clock.instant());
+    var previous = entries.put(key, entry);
+    if (previous != null && previous.endpoint().equals(endpoint)) {
+      return;
+    }
+    append(key, endpoint.toString(), entry.discoveredAt());
+  }
+
+  public void remove(String insurantId) {
+    var key = key(insurantId);
+    if (entries.remove(key) != null) {
+      append(key, REMOVED, clock.instant());
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private void load() throws IOException {
+    if (Files.notExists(file)) {
+      var parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      createPrivateFile(file);
+      return;
+    }
+
+    var lines = 0;
+    try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines++;
+        var parts = line.split(" ");
+        if (parts.length != 3) {
+          // e.g. a line only partially written on a crash
+          log.atDebug().log("skipping malformed line {} in account endpoint index", lines);
+          continue;
+        }
+        if (REMOVED.equals(parts[1])) {
+          entries.remove(parts[0]);
+          continue;
+        }
+        try {
+          var discoveredAt = Instant.ofEpochMilli(Long.parseLong(parts[2]));
+          entries.put(parts[0], new Entry(URI.create(parts[1]), discoveredAt));
+        } catch (IllegalArgumentException e) {
+          log.atDebug().log("skipping malformed line {} in account endpoint index", lines);
+        }
+      }
+    }
+
+    if (lines > entries.size()) {
+      compact();
+    }
+    log.atInfo().log("loaded {} entries from account endpoint index {}", entries.size(), file);
+  }
+
+  private synchronized void compact() throws IOException {
+    var lines = new ArrayList<String>(entries.size());
+    entries.forEach(
+        (key, entry) ->
+            lines.add(line(key, entry.endpoint().toString(), entry.discoveredAt()).strip()));
+
+    var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.deleteIfExists(tmp);
+    createPrivateFile(tmp);
+    Files.write(tmp, lines, StandardCharsets.UTF_8);
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private synchronized void append(String key, String endpoint, Instant at) {
+    try {
+      Files.writeString(
+          file, line(key, endpoint, at), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      // the index is an optimization only, without it we probe all providers again
+      log.atWarn().setCause(e).log("failed to update account endpoint index {}", file);
+    }
+  }
+
+  private static String line(String key, String endpoint, Instant at) {
+    return "%s %s %d%n".formatted(key, endpoint, at.toEpochMilli());
+  }
+
+  private String key(String insurantId) {
+    try {
+      // not thread-safe, cheap to create compared to the lookups it saves
+      var mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(key);
+      return HexFormat.of().formatHex(mac.doFinal(insurantId.getBytes(StandardCharsets.UTF_8)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HMAC-SHA256 not available", e);
+    }
+  }
+
+  private static void createPrivateFile(Path path) throws IOException {
+    try {
+      Files.createFile(
+          path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } catch (UnsupportedOperationException e) {
+      Files.createFile(path);
+    }
+  }
+}
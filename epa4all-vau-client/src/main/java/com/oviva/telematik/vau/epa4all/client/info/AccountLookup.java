@@ -0,0 +1,30 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * The result of looking up the account of a single insurant.
+ *
+ * @param endpoint the endpoint hosting the account, null unless {@link Status#FOUND}
+ */
+public record AccountLookup(Status status, URI endpoint) {
+
+  public enum Status {
+    FOUND,
+
+    /** All providers answered, none hosts an account for the insurant. */
+    NOT_FOUND,
+
+    /** No provider hosts the account as far as known, but not all providers could be asked. */
+    UNREACHABLE
+  }
+
+  static AccountLookup found(URI endpoint) {
+    return new AccountLookup(Status.FOUND, endpoint);
+  }
+
+  public Optional<URI> endpointIfFound() {
+    return Optional.ofNullable(endpoint);
+  }
+}
@@ -5,59 +5,246 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class InformationService {
 
   private static final Logger log = LoggerFactory.getLogger(InformationService.class);
+  private static final int DEFAULT_CONCURRENCY_PER_PROVIDER = 8;
+
   private final HttpClient outerHttpClient;
 
-  private final List<URI> epaEndpoints;
+  private final ProviderRegistry providers;
+  private final AccountEndpointIndex index;
 
   public InformationService(
       java.net.http.HttpClient outerHttpClient,
       Environment environment,
       List<EpaProvider> providers) {
+    this(outerHttpClient, environment, providers, null);
+  }
+
+  /**
+   * @param index remembers the provider of an insurant across restarts, may be null
+   */
+  public InformationService(
+      java.net.http.HttpClient outerHttpClient,
+      Environment environment,
+      List<EpaProvider> providers,
+      AccountEndpointIndex index) {
+    this(
+        outerHttpClient,
+        ProviderRegistry.newBuilder().providers(environment, providers).build(),
+        index);
+  }
+
+  /**
+   * @param providers the providers to probe, shared registries share the health of the providers
+   * @param index remembers the provider of an insurant across restarts, may be null
+   */
+  public InformationService(
+      java.net.http.HttpClient outerHttpClient,
+      ProviderRegistry providers,
+      AccountEndpointIndex index) {
 
     this.outerHttpClient = outerHttpClient;
-    epaEndpoints = providers.stream().map(p -> deriveEndpoint(environment, p)).toList();
+    this.providers = providers;
+    this.index = index;
   }
 
   public Optional<URI> findAccountEndpoint(String insurantId) {
-    for (URI epaEndpoint : epaEndpoints) {
-      if (hasActiveAccount(insurantId, epaEndpoint)) {
-        return Optional.of(epaEndpoint);
+    return findAccount(insurantId).endpointIfFound();
+  }
+
+  /**
+   * Looks up the account of the insurant, telling an account not found apart from providers not
+   * reachable right now.
+   */
+  public AccountLookup findAccount(String insurantId) {
+    return lookup(insurantId, Map.of());
+  }
+
+  /**
+   * @see #findAccountEndpoints(Collection, int)
+   */
+  public Map<String, AccountLookup> findAccountEndpoints(Collection<String> insurantIds) {
+    return findAccountEndpoints(insurantIds, DEFAULT_CONCURRENCY_PER_PROVIDER);
+  }
+
+  /**
+   * Looks up the accounts of many insurants concurrently, duplicates are looked up once. All
+   * requests share the connections of the HTTP client.
+   *
+   * @param concurrencyPerProvider the maximum number of concurrent requests to a single provider
+   * @return the result for each distinct insurant, in the order of the given insurants
+   */
+  public Map<String, AccountLookup> findAccountEndpoints(
+      Collection<String> insurantIds, int concurrencyPerProvider) {
+
+    if (concurrencyPerProvider < 1) {
+      throw new IllegalArgumentException("concurrencyPerProvider must be at least 1");
+    }
+
+    var limits = new HashMap<URI, Semaphore>();
+    providers.endpoints().forEach(e -> limits.put(e, new Semaphore(concurrencyPerProvider)));
+
+    var lookups = new LinkedHashMap<String, Future<AccountLookup>>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (var insurantId : new LinkedHashSet<>(insurantIds)) {
+        lookups.put(insurantId, executor.submit(() -> lookup(insurantId, limits)));
+      }
+
+      var results = new LinkedHashMap<String, AccountLookup>();
+      for (var e : lookups.entrySet()) {
+        results.put(e.getKey(), awaitLookup(e.getValue()));
       }
+      return results;
     }
-    return Optional.empty();
   }
 
-  private boolean hasActiveAccount(String insurantId, URI endpoint) {
+  private AccountLookup awaitLookup(Future<AccountLookup> lookup) {
+    try {
+      return lookup.get();
+    } catch (ExecutionException e) {
+      log.atDebug().setCause(e.getCause()).log("account lookup failed");
+      return new AccountLookup(AccountLookup.Status.UNREACHABLE, null);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while looking up accounts", e);
+    }
+  }
+
+  private AccountLookup lookup(String insurantId, Map<URI, Semaphore> limits) {
+
+    var cached = lookupIndex(insurantId);
+    if (cached.isPresent()) {
+      var status = probe(insurantId, cached.get(), limits);
+      if (status == AccountStatus.ACTIVE) {
+        return AccountLookup.found(cached.get());
+      }
+      log.atDebug()
+          .addKeyValue("endpoint", cached.get())
+          .log("cached ePA account endpoint answered {}, probing all providers", status);
+      if (status == AccountStatus.NO_ACCOUNT) {
+        // e.g. the insurant switched to another health insurance
+        index.remove(insurantId);
+      }
+    }
+
+    var anyUnreachable = false;
+    for (URI epaEndpoint : providers.probeOrder()) {
+      if (cached.isPresent() && cached.get().equals(epaEndpoint)) {
+        continue;
+      }
+      var status = probe(insurantId, epaEndpoint, limits);
+      if (status == AccountStatus.ACTIVE) {
+        if (index != null) {
+          index.put(insurantId, epaEndpoint);
+        }
+        return AccountLookup.found(epaEndpoint);
+      }
+      anyUnreachable |= status == AccountStatus.UNREACHABLE;
+    }
+    return new AccountLookup(
+        anyUnreachable ? AccountLookup.Status.UNREACHABLE : AccountLookup.Status.NOT_FOUND, null);
+  }
+
+  private Optional<URI> lookupIndex(String insurantId) {
+    if (index == null) {
+      return Optional.empty();
+    }
+    // only endpoints still configured, the index may stem from another environment
+    return index
+        .lookup(insurantId)
+        .map(AccountEndpointIndex.Entry::endpoint)
+        .filter(providers.endpoints()::contains);
+  }
+
+  private enum AccountStatus {
+    ACTIVE,
+    NO_ACCOUNT,
+
+    /** The provider answered but refused the request, e.g. for a malformed KVNR. */
+    REJECTED,
+    UNREACHABLE
+  }
+
+  private AccountStatus probe(String insurantId, URI endpoint, Map<URI, Semaphore> limits) {
+    if (!providers.isAvailable(endpoint)) {
+      // the provider failed recently, don't wait for it to time out again
+      return AccountStatus.UNREACHABLE;
+    }
+
+    var limit = limits.get(endpoint);
+    if (limit == null) {
+      return probe(insurantId, endpoint);
+    }
+    try {
+      limit.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return AccountStatus.UNREACHABLE;
+    }
+    try {
+      return probe(insurantId, endpoint);
+    } finally {
+      limit.release();
+    }
+  }
+
+  private AccountStatus probe(String insurantId, URI endpoint) {
     var req =
         HttpRequest.newBuilder(endpoint.resolve("/information/api/v1/ehr"))
             .headers("x-useragent", "Oviva/0.0.1", "x-insurantid", insurantId)
             .GET()
             .build();
 
+    var start = System.nanoTime();
     try {
       var res = outerHttpClient.send(req, HttpResponse.BodyHandlers.discarding());
       // status code mapping according to API spec
-      return res.statusCode() == 204;
+      var status =
+          switch (res.statusCode()) {
+            case 204 -> AccountStatus.ACTIVE;
+            case 404, 409 -> AccountStatus.NO_ACCOUNT;
+            default -> res.statusCode() >= 500 ? AccountStatus.UNREACHABLE : AccountStatus.REJECTED;
+          };
+      switch (status) {
+        case UNREACHABLE -> providers.recordFailure(endpoint);
+        case REJECTED ->
+            // an answer specific to the request, it says nothing about the provider's health
+            log.atDebug()
+                .addKeyValue("endpoint", endpoint)
+                .log("ePA account endpoint '{}' answered {}", endpoint, res.statusCode());
+        default -> providers.recordSuccess(endpoint, Duration.ofNanos(System.nanoTime() - start));
+      }
+      return status;
     } catch (IOException e) {
       log.atDebug()
           .addKeyValue("endpoint", endpoint)
           .setCause(e)
           .log("failed to reach ePA account endpoint '{}'", endpoint);
+      providers.recordFailure(endpoint);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
     }
-    return false;
+    return AccountStatus.UNREACHABLE;
   }
 
-  private static URI deriveEndpoint(Environment environment, EpaProvider provider) {
+  static URI deriveEndpoint(Environment environment, EpaProvider provider) {
     return URI.create(
         "https://epa-as-%d.%s.epa4all.de".formatted(provider.id(), environment.identifier()));
   }
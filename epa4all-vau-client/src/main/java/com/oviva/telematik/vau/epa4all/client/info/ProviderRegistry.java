@@ -0,0 +1,200 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ePA provider endpoints to probe for accounts, along with their health as observed from past
+ * probes.
+ *
+ * <p>Providers are probed fastest first. A provider failing {@code failureThreshold} probes in a
+ * row is considered unhealthy and skipped until its cool-down passed. Afterwards it gets probed
+ * again, a single further failure starts the next cool-down.
+ *
+ * <p>A registry should be shared by all services of a process, otherwise each of them has to learn
+ * the health of the providers on its own.
+ */
+public class ProviderRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(ProviderRegistry.class);
+
+  // weight of the latest latency sample in the moving average
+  private static final double LATENCY_SMOOTHING = 0.3;
+
+  private final Map<URI, ProviderHealth> providers;
+  private final Duration coolDown;
+  private final int failureThreshold;
+  private final Clock clock;
+
+  private ProviderRegistry(
+      List<URI> endpoints, Duration coolDown, int failureThreshold, Clock clock) {
+    this.coolDown = coolDown;
+    this.failureThreshold = failureThreshold;
+    this.clock = clock;
+
+    var health = new LinkedHashMap<URI, ProviderHealth>();
+    endpoints.forEach(e -> health.put(e, new ProviderHealth()));
+    this.providers = health;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** All configured endpoints, in the configured order. */
+  public List<URI> endpoints() {
+    return List.copyOf(providers.keySet());
+  }
+
+  /**
+   * All configured endpoints in the order they should be probed: available providers by their
+   * average latency, providers in their cool-down last.
+   */
+  public List<URI> probeOrder() {
+    var now = clock.instant();
+    var ordered = new ArrayList<>(providers.keySet());
+    ordered.sort(
+        Comparator.comparing((URI e) -> !providers.get(e).isAvailable(now))
+            .thenComparingDouble(e -> providers.get(e).averageLatencyNanos()));
+    return ordered;
+  }
+
+  /**
+   * @return false if the provider is unhealthy and still in its cool-down
+   */
+  public boolean isAvailable(URI endpoint) {
+    var health = providers.get(endpoint);
+    return health == null || health.isAvailable(clock.instant());
+  }
+
+  /** Records a probe the provider answered, regardless of whether the insurant has an account. */
+  public void recordSuccess(URI endpoint, Duration latency) {
+    var health = providers.get(endpoint);
+    if (health != null && health.success(latency)) {
+      log.atInfo().addKeyValue("endpoint", endpoint).log("ePA provider '{}' recovered", endpoint);
+    }
+  }
+
+  /** Records a probe the provider failed to answer, e.g. a timeout or a server error. */
+  public void recordFailure(URI endpoint) {
+    var health = providers.get(endpoint);
+    if (health == null) {
+      return;
+    }
+    var unhealthyUntil = health.failure(clock.instant(), failureThreshold, coolDown);
+    if (unhealthyUntil != null) {
+      log.atWarn()
+          .addKeyValue("endpoint", endpoint)
+          .log("ePA provider '{}' is unhealthy, skipping it until {}", endpoint, unhealthyUntil);
+    }
+  }
+
+  private static class ProviderHealth {
+
+    private double averageLatencyNanos;
+    private int consecutiveFailures;
+    private Instant unhealthyUntil;
+
+    synchronized boolean isAvailable(Instant now) {
+      return unhealthyUntil == null || !now.isBefore(unhealthyUntil);
+    }
+
+    synchronized double averageLatencyNanos() {
+      return averageLatencyNanos;
+    }
+
+    /**
+     * @return true if the provider was unhealthy before
+     */
+    synchronized boolean success(Duration latency) {
+      var sample = (double) latency.toNanos();
+      averageLatencyNanos =
+          averageLatencyNanos == 0
+              ? sample
+              : LATENCY_SMOOTHING * sample + (1 - LATENCY_SMOOTHING) * averageLatencyNanos;
+
+      var recovered = unhealthyUntil != null;
+      consecutiveFailures = 0;
+      unhealthyUntil = null;
+      return recovered;
+    }
+
+    /**
+     * @return the end of the cool-down if this failure started one, null otherwise
+     */
+    synchronized Instant failure(Instant now, int threshold, Duration coolDown) {
+      consecutiveFailures++;
+      if (consecutiveFailures < threshold || !isAvailable(now)) {
+        return null;
+      }
+      unhealthyUntil = now.plus(coolDown);
+      return unhealthyUntil;
+    }
+  }
+
+  public static class Builder {
+
+    private static final Duration DEFAULT_COOL_DOWN = Duration.ofSeconds(30);
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+
+    private final List<URI> endpoints = new ArrayList<>();
+    private Duration coolDown = DEFAULT_COOL_DOWN;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private Clock clock = Clock.systemUTC();
+
+    private Builder() {}
+
+    public Builder endpoint(URI endpoint) {
+      this.endpoints.add(Objects.requireNonNull(endpoint, "endpoint must not be null"));
+      return this;
+    }
+
+    /** Adds the well-known endpoints of the given providers. */
+    public Builder providers(
+        InformationService.Environment environment,
+        List<InformationService.EpaProvider> providers) {
+      providers.forEach(p -> endpoint(InformationService.deriveEndpoint(environment, p)));
+      return this;
+    }
+
+    /** How long an unhealthy provider is skipped. */
+    public Builder coolDown(Duration coolDown) {
+      this.coolDown = coolDown;
+      return this;
+    }
+
+    /** The number of failed probes in a row after which a provider is considered unhealthy. */
+    public Builder failureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+      return this;
+    }
+
+    Builder clock(Clock clock) {
+      this.clock = clock;
+      return this;
+    }
+
+    public ProviderRegistry build() {
+      if (endpoints.isEmpty()) {
+        throw new IllegalArgumentException("at least one endpoint must be configured");
+      }
+      if (coolDown == null || coolDown.isNegative()) {
+        throw new IllegalArgumentException("coolDown must not be negative");
+      }
+      if (failureThreshold < 1) {
+        throw new IllegalArgumentException("failureThreshold must be at least 1");
+      }
+      return new ProviderRegistry(List.copyOf(endpoints), coolDown, failureThreshold, clock);
+    }
+  }
+}
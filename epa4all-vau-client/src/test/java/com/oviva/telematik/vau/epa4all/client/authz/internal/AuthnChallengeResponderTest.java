@@ -3,6 +3,8 @@ package com.oviva.telematik.vau.epa4all.client.authz.internal;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.nimbusds.jose.JOSEObjectType;
@@ -110,6 +112,39 @@ class AuthnChallengeResponderTest {
 
     // payload contains nested signed JWT reference as second layer: ciphertext cannot be inspected,
     // but our NJWT is inside the encrypted payload per implementation
+
+    // the discovery document is shared by the signature and encryption key lookups
+    verify(oidcClient, times(1)).fetchOidcDiscoveryDocument(iss);
+  }
+
+  @Test
+  void challengeResponse_encKeyFetchFails_throwsOriginalException() throws Exception {
+    var iss = URI.create("https://idp.example.test");
+    var discovery =
+        new OidcClient.OidcDiscoveryResponse(
+            iss,
+            Instant.now(),
+            Instant.now().plusSeconds(600),
+            URI.create("https://jwks.example.test/puk_idp_enc"),
+            URI.create("https://jwks.example.test/puk_idp_sig"),
+            URI.create("https://jwks.example.test/jwks.json"));
+    when(oidcClient.fetchOidcDiscoveryDocument(iss)).thenReturn(discovery);
+
+    var bpKeyPair = generateBrainpoolP256KeyPair();
+    var bpPubJwk = BP256ECKey.fromPublicKey((ECPublicKey) bpKeyPair.getPublic());
+    when(oidcClient.fetchJwk(discovery.uriPukIdpSig())).thenReturn(bpPubJwk);
+    var failure = new AuthorizationException("Failed to fetch JWK Set");
+    when(oidcClient.fetchJwk(discovery.uriPukIdpEnc())).thenThrow(failure);
+    when(signatureService.authSign(any(byte[].class))).thenReturn("sig".getBytes());
+
+    var challenge =
+        createSignedChallengeJwt(
+            iss.toString(), Instant.now().plusSeconds(300), (ECPrivateKey) bpKeyPair.getPrivate());
+    var serialized = challenge.serialize();
+
+    var e =
+        assertThrows(AuthorizationException.class, () -> responder.challengeResponse(serialized));
+    assertSame(failure, e);
   }
 
   @Test
@@ -0,0 +1,140 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AccountEndpointIndexTest {
+
+  private static final URI IBM = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final URI BITMARCK = URI.create("https://epa-as-2.dev.epa4all.de");
+
+  private static final byte[] KEY = new byte[32];
+
+  private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+  @TempDir Path dir;
+
+  @Test
+  void open_createsFile() {
+    var file = dir.resolve("sub/index");
+
+    var index = AccountEndpointIndex.open(file, KEY, clock);
+
+    assertTrue(Files.exists(file));
+    assertEquals(0, index.size());
+    assertTrue(index.lookup("X123456789").isEmpty());
+  }
+
+  @Test
+  void put_survivesReopen() {
+    var file = dir.resolve("index");
+
+    var index = AccountEndpointIndex.open(file, KEY, clock);
+    index.put("X123456789", IBM);
+    index.put("Y123456789", BITMARCK);
+
+    var reopened = AccountEndpointIndex.open(file, KEY, clock);
+
+    assertEquals(2, reopened.size());
+    var entry = reopened.lookup("X123456789").orElseThrow();
+    assertEquals(IBM, entry.endpoint());
+    assertEquals(clock.instant(), entry.discoveredAt());
+    assertEquals(BITMARCK, reopened.lookup("Y123456789").orElseThrow().endpoint());
+  }
+
+  @Test
+  void remove_survivesReopen() {
+    var file = dir.resolve("index");
+
+    var index = AccountEndpointIndex.open(file, KEY, clock);
+    index.put("X123456789", IBM);
+    index.remove("X123456789");
+
+    assertTrue(index.lookup("X123456789").isEmpty());
+    assertTrue(AccountEndpointIndex.open(file, KEY, clock).lookup("X123456789").isEmpty());
+  }
+
+  @Test
+  void open_compactsSupersededLines() throws IOException {
+    var file = dir.resolve("index");
+
+    var index = AccountEndpointIndex.open(file, KEY, clock);
+    index.put("X123456789", IBM);
+    index.put("X123456789", BITMARCK);
+    index.put("Y123456789", IBM);
+    index.remove("Y123456789");
+    assertEquals(4, Files.readAllLines(file).size());
+
+    var reopened = AccountEndpointIndex.open(file, KEY, clock);
+
+    assertEquals(BITMARCK, reopened.lookup("X123456789").orElseThrow().endpoint());
+    assertEquals(1, Files.readAllLines(file).size());
+  }
+
+  @Test
+  void put_sameEndpoint_doesNotAppend() throws IOException {
+    var file = dir.resolve("index");
+
+    var index = AccountEndpointIndex.open(file, KEY, clock);
+    index.put("X123456789", IBM);
+    index.put("X123456789", IBM);
+
+    assertEquals(1, Files.readAllLines(file).size());
+  }
+
+  @Test
+  void file_doesNotContainKvnr() throws IOException {
+    var file = dir.resolve("index");
+
+    AccountEndpointIndex.open(file, KEY, clock).put("X123456789", IBM);
+
+    assertFalse(Files.readString(file).contains("X123456789"));
+  }
+
+  @Test
+  void lookup_otherKey_findsNothing() {
+    var file = dir.resolve("index");
+    AccountEndpointIndex.open(file, KEY, clock).put("X123456789", IBM);
+
+    var otherKey = new byte[32];
+    otherKey[0] = 1;
+    var reopened = AccountEndpointIndex.open(file, otherKey, clock);
+
+    assertEquals(1, reopened.size());
+    assertTrue(reopened.lookup("X123456789").isEmpty());
+  }
+
+  @Test
+  void open_shortKey_throws() {
+    var file = dir.resolve("index");
+    var key = new byte[16];
+
+    assertThrows(IllegalArgumentException.class, () -> AccountEndpointIndex.open(file, key));
+  }
+
+  @Test
+  void open_skipsMalformedLines() throws IOException {
+    var file = dir.resolve("index");
+    AccountEndpointIndex.open(file, KEY, clock).put("X123456789", IBM);
+    Files.writeString(
+        file,
+        "garbage\nabc def\n",
+        StandardCharsets.UTF_8,
+        java.nio.file.StandardOpenOption.APPEND);
+
+    var reopened = AccountEndpointIndex.open(file, KEY, clock);
+
+    assertEquals(1, reopened.size());
+    assertEquals(IBM, reopened.lookup("X123456789").orElseThrow().endpoint());
+  }
+}
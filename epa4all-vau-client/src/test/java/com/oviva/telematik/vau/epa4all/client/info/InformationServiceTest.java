@@ -0,0 +1,257 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InformationServiceTest {
+
+  private static final String KVNR = "X123456789";
+  private static final URI IBM = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final URI BITMARCK = URI.create("https://epa-as-2.dev.epa4all.de");
+  private static final byte[] INDEX_KEY = new byte[32];
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+
+  @TempDir Path dir;
+
+  @Test
+  void findAccountEndpoint_probesProvidersInOrder() throws Exception {
+    respond(IBM, 404);
+    respond(BITMARCK, 204);
+
+    var service = newService(null);
+
+    assertEquals(Optional.of(BITMARCK), service.findAccountEndpoint(KVNR));
+    verify(httpClient, times(2)).send(any(), any());
+  }
+
+  @Test
+  void findAccountEndpoint_notFound() throws Exception {
+    respond(IBM, 404);
+    respond(BITMARCK, 404);
+
+    var index = AccountEndpointIndex.open(dir.resolve("index"), INDEX_KEY);
+    var service = newService(index);
+
+    assertTrue(service.findAccountEndpoint(KVNR).isEmpty());
+    assertTrue(index.lookup(KVNR).isEmpty());
+  }
+
+  @Test
+  void findAccountEndpoint_indexedEndpointIsProbedFirst() throws Exception {
+    respond(BITMARCK, 204);
+
+    var index = AccountEndpointIndex.open(dir.resolve("index"), INDEX_KEY);
+    index.put(KVNR, BITMARCK);
+    var service = newService(index);
+
+    assertEquals(Optional.of(BITMARCK), service.findAccountEndpoint(KVNR));
+    verify(httpClient, times(1)).send(any(), any());
+    verify(httpClient, never()).send(argThat(r -> r.uri().getHost().equals(IBM.getHost())), any());
+  }
+
+  @Test
+  void findAccountEndpoint_discoveryIsIndexed() throws Exception {
+    respond(IBM, 404);
+    respond(BITMARCK, 204);
+
+    var file = dir.resolve("index");
+    newService(AccountEndpointIndex.open(file, INDEX_KEY)).findAccountEndpoint(KVNR);
+
+    // e.g. after a restart
+    var reopened = AccountEndpointIndex.open(file, INDEX_KEY);
+    assertEquals(BITMARCK, reopened.lookup(KVNR).orElseThrow().endpoint());
+  }
+
+  @Test
+  void findAccountEndpoint_indexedEndpointWithoutRecord_reprobes() throws Exception {
+    respond(IBM, 204);
+    respond(BITMARCK, 404);
+
+    var index = AccountEndpointIndex.open(dir.resolve("index"), INDEX_KEY);
+    index.put(KVNR, BITMARCK);
+    var service = newService(index);
+
+    assertEquals(Optional.of(IBM), service.findAccountEndpoint(KVNR));
+    assertEquals(IBM, index.lookup(KVNR).orElseThrow().endpoint());
+    verify(httpClient, times(2)).send(any(), any());
+  }
+
+  @Test
+  void findAccountEndpoint_indexedEndpointUnreachable_keepsEntry() throws Exception {
+    when(httpClient.send(
+            argThat(r -> r != null && r.uri().getHost().equals(BITMARCK.getHost())), any()))
+        .thenThrow(new IOException("connection refused"));
+    respond(IBM, 404);
+
+    var index = AccountEndpointIndex.open(dir.resolve("index"), INDEX_KEY);
+    index.put(KVNR, BITMARCK);
+    var service = newService(index);
+
+    assertTrue(service.findAccountEndpoint(KVNR).isEmpty());
+    assertEquals(BITMARCK, index.lookup(KVNR).orElseThrow().endpoint());
+  }
+
+  @Test
+  void findAccountEndpoints_deduplicates() throws Exception {
+    respond(IBM, 204);
+
+    var service = newService(null);
+    var results = service.findAccountEndpoints(List.of(KVNR, "Y987654321", KVNR));
+
+    assertEquals(List.of(KVNR, "Y987654321"), List.copyOf(results.keySet()));
+    assertEquals(AccountLookup.found(IBM), results.get(KVNR));
+    verify(httpClient, times(2)).send(any(), any());
+  }
+
+  @Test
+  void findAccountEndpoints_reportsPerInsurant() throws Exception {
+    var notFound = mock(HttpResponse.class);
+    when(notFound.statusCode()).thenReturn(404);
+    when(httpClient.send(any(), any()))
+        .thenAnswer(
+            i -> {
+              HttpRequest req = i.getArgument(0);
+              var insurantId = req.headers().firstValue("x-insurantid").orElseThrow();
+              if (insurantId.equals("A1") && req.uri().getHost().equals(IBM.getHost())) {
+                throw new IOException("connection reset");
+              }
+              return notFound;
+            });
+
+    var service = newService(null);
+    var results = service.findAccountEndpoints(List.of("A1", "B1"));
+
+    assertEquals(AccountLookup.Status.UNREACHABLE, results.get("A1").status());
+    assertEquals(AccountLookup.Status.NOT_FOUND, results.get("B1").status());
+    assertTrue(results.get("B1").endpointIfFound().isEmpty());
+  }
+
+  @Test
+  void findAccountEndpoints_limitsConcurrencyPerProvider() throws Exception {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var res = mock(HttpResponse.class);
+    when(res.statusCode()).thenReturn(204);
+    when(httpClient.send(any(), any()))
+        .thenAnswer(
+            i -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              Thread.sleep(10);
+              running.decrementAndGet();
+              return res;
+            });
+
+    var insurantIds = IntStream.range(0, 30).mapToObj(i -> "KVNR" + i).toList();
+    var results = newService(null).findAccountEndpoints(insurantIds, 3);
+
+    assertEquals(30, results.size());
+    assertTrue(results.values().stream().allMatch(r -> r.status() == AccountLookup.Status.FOUND));
+    assertTrue(maxRunning.get() <= 3, "max concurrency exceeded: " + maxRunning.get());
+  }
+
+  @Test
+  void findAccountEndpoints_invalidConcurrency_throws() {
+    var service = newService(null);
+    var insurantIds = List.of(KVNR);
+    assertThrows(
+        IllegalArgumentException.class, () -> service.findAccountEndpoints(insurantIds, 0));
+  }
+
+  @Test
+  void findAccountEndpoint_unhealthyProviderIsSkipped() throws Exception {
+    when(httpClient.send(argThat(r -> r != null && r.uri().getHost().equals(IBM.getHost())), any()))
+        .thenThrow(new IOException("connect timed out"));
+    respond(BITMARCK, 204);
+
+    var registry =
+        ProviderRegistry.newBuilder()
+            .endpoint(IBM)
+            .endpoint(BITMARCK)
+            .failureThreshold(1)
+            .coolDown(Duration.ofMinutes(1))
+            .build();
+    var service = new InformationService(httpClient, registry, null);
+
+    assertEquals(Optional.of(BITMARCK), service.findAccountEndpoint(KVNR));
+    assertFalse(registry.isAvailable(IBM));
+
+    assertEquals(Optional.of(BITMARCK), service.findAccountEndpoint("Y987654321"));
+    verify(httpClient, times(1)).send(argThat(r -> r.uri().getHost().equals(IBM.getHost())), any());
+  }
+
+  @Test
+  void findAccount_clientErrorDoesNotTripProvider() throws Exception {
+    respond(IBM, 400);
+    respond(BITMARCK, 403);
+
+    var registry =
+        ProviderRegistry.newBuilder()
+            .endpoint(IBM)
+            .endpoint(BITMARCK)
+            .failureThreshold(1)
+            .coolDown(Duration.ofMinutes(1))
+            .build();
+    var service = new InformationService(httpClient, registry, null);
+
+    assertEquals(AccountLookup.Status.NOT_FOUND, service.findAccount(KVNR).status());
+    assertTrue(registry.isAvailable(IBM));
+    assertTrue(registry.isAvailable(BITMARCK));
+  }
+
+  @Test
+  void findAccount_serverErrorTripsProvider() throws Exception {
+    respond(IBM, 503);
+    respond(BITMARCK, 404);
+
+    var registry =
+        ProviderRegistry.newBuilder()
+            .endpoint(IBM)
+            .endpoint(BITMARCK)
+            .failureThreshold(1)
+            .coolDown(Duration.ofMinutes(1))
+            .build();
+    var service = new InformationService(httpClient, registry, null);
+
+    assertEquals(AccountLookup.Status.UNREACHABLE, service.findAccount(KVNR).status());
+    assertFalse(registry.isAvailable(IBM));
+
+    // while cooling down the provider is not asked, the account stays unknown
+    assertEquals(AccountLookup.Status.UNREACHABLE, service.findAccount(KVNR).status());
+    verify(httpClient, times(1)).send(argThat(r -> r.uri().getHost().equals(IBM.getHost())), any());
+  }
+
+  private InformationService newService(AccountEndpointIndex index) {
+    return new InformationService(
+        httpClient,
+        InformationService.Environment.DEV,
+        List.of(InformationService.EpaProvider.IBM, InformationService.EpaProvider.BITMARCK),
+        index);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void respond(URI endpoint, int status) throws Exception {
+    var res = mock(HttpResponse.class);
+    when(res.statusCode()).thenReturn(status);
+    when(httpClient.send(
+            argThat((HttpRequest r) -> r != null && r.uri().getHost().equals(endpoint.getHost())),
+            any()))
+        .thenReturn(res);
+  }
+}
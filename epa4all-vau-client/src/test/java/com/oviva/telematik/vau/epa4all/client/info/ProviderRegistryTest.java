@@ -0,0 +1,131 @@
+package com.oviva.telematik.vau.epa4all.client.info;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProviderRegistryTest {
+
+  private static final URI IBM = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final URI BITMARCK = URI.create("https://epa-as-2.dev.epa4all.de");
+
+  private final MutableClock clock = new MutableClock();
+
+  @Test
+  void endpoints_fromProviders() {
+    var registry =
+        ProviderRegistry.newBuilder()
+            .providers(
+                InformationService.Environment.DEV,
+                List.of(
+                    InformationService.EpaProvider.IBM, InformationService.EpaProvider.BITMARCK))
+            .build();
+
+    assertEquals(List.of(IBM, BITMARCK), registry.endpoints());
+    assertEquals(List.of(IBM, BITMARCK), registry.probeOrder());
+  }
+
+  @Test
+  void probeOrder_fastestFirst() {
+    var registry = newRegistry(3);
+
+    registry.recordSuccess(IBM, Duration.ofMillis(800));
+    registry.recordSuccess(BITMARCK, Duration.ofMillis(50));
+
+    assertEquals(List.of(BITMARCK, IBM), registry.probeOrder());
+  }
+
+  @Test
+  void unhealthyProvider_skippedDuringCoolDown() {
+    var registry = newRegistry(2);
+
+    registry.recordFailure(IBM);
+    assertTrue(registry.isAvailable(IBM));
+
+    registry.recordFailure(IBM);
+    assertFalse(registry.isAvailable(IBM));
+    assertEquals(List.of(BITMARCK, IBM), registry.probeOrder());
+
+    clock.advance(Duration.ofSeconds(31));
+    assertTrue(registry.isAvailable(IBM));
+
+    // still failing, the next cool-down starts right away
+    registry.recordFailure(IBM);
+    assertFalse(registry.isAvailable(IBM));
+  }
+
+  @Test
+  void success_resetsFailures() {
+    var registry = newRegistry(2);
+
+    registry.recordFailure(IBM);
+    registry.recordSuccess(IBM, Duration.ofMillis(10));
+    registry.recordFailure(IBM);
+
+    assertTrue(registry.isAvailable(IBM));
+  }
+
+  @Test
+  void unknownEndpoint_isIgnored() {
+    var registry = newRegistry(1);
+    var other = URI.create("https://epa.example.com");
+
+    registry.recordFailure(other);
+
+    assertTrue(registry.isAvailable(other));
+    assertEquals(List.of(IBM, BITMARCK), registry.endpoints());
+  }
+
+  @Test
+  void build_invalidConfiguration_throws() {
+    var empty = ProviderRegistry.newBuilder();
+    assertThrows(IllegalArgumentException.class, empty::build);
+
+    var noThreshold = ProviderRegistry.newBuilder().endpoint(IBM).failureThreshold(0);
+    assertThrows(IllegalArgumentException.class, noThreshold::build);
+
+    var negativeCoolDown =
+        ProviderRegistry.newBuilder().endpoint(IBM).coolDown(Duration.ofSeconds(-1));
+    assertThrows(IllegalArgumentException.class, negativeCoolDown::build);
+  }
+
+  private ProviderRegistry newRegistry(int failureThreshold) {
+    return ProviderRegistry.newBuilder()
+        .endpoint(IBM)
+        .endpoint(BITMARCK)
+        .coolDown(Duration.ofSeconds(30))
+        .failureThreshold(failureThreshold)
+        .clock(clock)
+        .build();
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(java.time.ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
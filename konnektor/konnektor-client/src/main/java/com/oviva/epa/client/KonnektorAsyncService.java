@@ -0,0 +1,33 @@
+package com.oviva.epa.client;
+
+import com.oviva.epa.client.model.*;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of the {@link KonnektorService}, the returned futures complete once the
+ * Konnektor answered. Failures complete the future exceptionally with a {@link KonnektorException}.
+ *
+ * @see KonnektorService
+ */
+public interface KonnektorAsyncService {
+
+  @NonNull
+  CompletableFuture<List<SmcbCard>> listSmcbCards();
+
+  /**
+   * @see KonnektorService#authSignRsaPss(String, byte[])
+   */
+  @NonNull
+  CompletableFuture<byte[]> authSignRsaPss(@NonNull String cardHandle, byte[] bytesToSign);
+
+  /**
+   * @see KonnektorService#authSignEcdsa(String, byte[])
+   */
+  @NonNull
+  CompletableFuture<byte[]> authSignEcdsa(@NonNull String cardHandle, byte[] bytesToSign);
+
+  @NonNull
+  CompletableFuture<PinStatus> verifySmcPin(@NonNull String cardHandle);
+}
@@ -0,0 +1,14 @@
+package com.oviva.epa.client;
+
+import com.oviva.epa.client.model.KonnektorEvent;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Receives events pushed by the Konnektor. Listeners are called on the receiver thread and should
+ * return quickly, e.g. by invalidating a cache entry.
+ */
+@FunctionalInterface
+public interface KonnektorEventListener {
+
+  void onEvent(@NonNull KonnektorEvent event);
+}
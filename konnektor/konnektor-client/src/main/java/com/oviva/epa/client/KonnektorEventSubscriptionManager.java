@@ -0,0 +1,24 @@
+package com.oviva.epa.client;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+/**
+ * Subscribes to Konnektor events and keeps the subscription alive. Events are received on an
+ * embedded endpoint and handed to the registered listeners.
+ *
+ * <p>Use this to invalidate cached card and PIN information as soon as the Konnektor reports a
+ * change, instead of polling.
+ */
+public interface KonnektorEventSubscriptionManager extends AutoCloseable {
+
+  void addListener(@NonNull KonnektorEventListener listener);
+
+  void removeListener(@NonNull KonnektorEventListener listener);
+
+  /** Starts the event receiver and subscribes at the Konnektor. */
+  void start();
+
+  /** Unsubscribes at the Konnektor and stops the event receiver. */
+  @Override
+  void close();
+}
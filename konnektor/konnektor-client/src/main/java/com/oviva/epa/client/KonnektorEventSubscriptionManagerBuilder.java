@@ -0,0 +1,121 @@
+package com.oviva.epa.client;
+
+import com.oviva.epa.client.internal.KonnektorEventSubscriptionManagerImpl;
+import com.oviva.epa.client.internal.svc.model.KonnektorContext;
+import com.oviva.epa.client.konn.KonnektorConnectionFactory;
+import com.oviva.epa.client.model.KonnektorEvent;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+
+public class KonnektorEventSubscriptionManagerBuilder {
+
+  private static final Duration DEFAULT_RENEWAL_INTERVAL = Duration.ofMinutes(10);
+
+  private KonnektorConnectionFactory connectionFactory;
+  private String workplaceId = "a";
+  private String mandantId = "m";
+  private String clientSystemId = "c";
+  private String userId = "admin";
+
+  private InetSocketAddress bindAddress;
+  private URI eventTo;
+  private String topic = KonnektorEvent.TOPIC_CARD;
+  private Duration defaultRenewalInterval = DEFAULT_RENEWAL_INTERVAL;
+
+  private KonnektorEventSubscriptionManagerBuilder() {}
+
+  public static KonnektorEventSubscriptionManagerBuilder newBuilder() {
+    return new KonnektorEventSubscriptionManagerBuilder();
+  }
+
+  public KonnektorEventSubscriptionManagerBuilder connectionFactory(
+      KonnektorConnectionFactory connectionFactory) {
+    this.connectionFactory = connectionFactory;
+    return this;
+  }
+
+  public KonnektorEventSubscriptionManagerBuilder workplaceId(String workplace) {
+    this.workplaceId = workplace;
+    return this;
+  }
+
+  public KonnektorEventSubscriptionManagerBuilder mandantId(String mandantId) {
+    this.mandantId = mandantId;
+    return this;
+  }
+
+  public KonnektorEventSubscriptionManagerBuilder clientSystemId(String clientSystemId) {
+    this.clientSystemId = clientSystemId;
+    return this;
+  }
+
+  public KonnektorEventSubscriptionManagerBuilder userId(String userId) {
+    this.userId = userId;
+    return this;
+  }
+
+  /** The local address the event receiver listens on. */
+  public KonnektorEventSubscriptionManagerBuilder bindAddress(InetSocketAddress bindAddress) {
+    this.bindAddress = bindAddress;
+    return this;
+  }
+
+  /**
+   * The address the Konnektor pushes events to, e.g. <code>cetp://10.0.0.2:8585</code>. Must
+   * resolve to the {@link #bindAddress(InetSocketAddress)} from the Konnektor's point of view.
+   */
+  public KonnektorEventSubscriptionManagerBuilder eventTo(URI eventTo) {
+    this.eventTo = eventTo;
+    return this;
+  }
+
+  /**
+   * The topic to subscribe to, subtopics are included. Defaults to <code>CARD</code> which covers
+   * card insertion, removal and PIN changes.
+   */
+  public KonnektorEventSubscriptionManagerBuilder topic(String topic) {
+    this.topic = topic;
+    return this;
+  }
+
+  /** How often the subscription is renewed if the Konnektor does not report its lifetime. */
+  public KonnektorEventSubscriptionManagerBuilder defaultRenewalInterval(Duration interval) {
+    this.defaultRenewalInterval = interval;
+    return this;
+  }
+
+  public KonnektorEventSubscriptionManager build() {
+
+    if (connectionFactory == null) {
+      throw new IllegalArgumentException("konnektor connection factory required");
+    }
+
+    if (bindAddress == null) {
+      throw new IllegalArgumentException("bindAddress required");
+    }
+
+    if (eventTo == null) {
+      throw new IllegalArgumentException("eventTo required");
+    }
+
+    if (topic == null || topic.isBlank()) {
+      throw new IllegalArgumentException("topic required");
+    }
+
+    if (defaultRenewalInterval == null || !defaultRenewalInterval.isPositive()) {
+      throw new IllegalArgumentException("defaultRenewalInterval must be positive");
+    }
+
+    var ctx = new KonnektorContext(mandantId, clientSystemId, workplaceId, userId);
+    return new KonnektorEventSubscriptionManagerImpl(
+        connectionFactory,
+        ctx,
+        bindAddress,
+        eventTo.toString(),
+        topic,
+        defaultRenewalInterval,
+        Clock.systemUTC());
+  }
+}
@@ -1,9 +1,12 @@
 package com.oviva.epa.client;
 
 import com.oviva.epa.client.internal.ExceptionMappedKonnektorService;
+import com.oviva.epa.client.internal.ExecutorKonnektorAsyncService;
 import com.oviva.epa.client.internal.KonnektorServiceImpl;
 import com.oviva.epa.client.internal.svc.model.KonnektorContext;
 import com.oviva.epa.client.konn.KonnektorConnection;
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 public class KonnektorServiceBuilder {
 
@@ -12,6 +15,8 @@ public class KonnektorServiceBuilder {
   private String mandantId = "m";
   private String clientSystemId = "c";
   private String userId = "admin";
+  private Executor executor = null;
+  private Duration slowCallThreshold = KonnektorServiceImpl.DEFAULT_SLOW_CALL_THRESHOLD;
 
   private KonnektorServiceBuilder() {}
 
@@ -44,6 +49,35 @@ public class KonnektorServiceBuilder {
     return this;
   }
 
+  /**
+   * The executor running the calls of a {@link KonnektorAsyncService}, by default each call runs on
+   * its own virtual thread.
+   */
+  public KonnektorServiceBuilder executor(Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Konnektor operations taking longer than the threshold are logged as slow calls, the latency of
+   * all operations is recorded as OpenTelemetry histogram regardless.
+   */
+  public KonnektorServiceBuilder slowCallThreshold(Duration slowCallThreshold) {
+    this.slowCallThreshold = slowCallThreshold;
+    return this;
+  }
+
+  public KonnektorAsyncService buildAsync() {
+    var svc = build();
+    var exec = executor != null ? executor : virtualThreadExecutor();
+    return new ExecutorKonnektorAsyncService(svc, exec);
+  }
+
+  private static Executor virtualThreadExecutor() {
+    var threadFactory = Thread.ofVirtual().name("konnektor-async-", 0).factory();
+    return command -> threadFactory.newThread(command).start();
+  }
+
   public KonnektorService build() {
 
     if (connection == null) {
@@ -62,8 +96,12 @@ public class KonnektorServiceBuilder {
       throw new IllegalArgumentException("clientSystemId required");
     }
 
+    if (slowCallThreshold == null || slowCallThreshold.isNegative()) {
+      throw new IllegalArgumentException("slowCallThreshold must not be negative");
+    }
+
     var ctx = new KonnektorContext(mandantId, clientSystemId, workplaceId, userId);
-    var svc = new KonnektorServiceImpl(connection, ctx);
+    var svc = new KonnektorServiceImpl(connection, ctx, slowCallThreshold);
     return new ExceptionMappedKonnektorService(svc);
   }
 }
@@ -0,0 +1,24 @@
+package com.oviva.epa.client;
+
+import com.oviva.epa.client.model.KonnektorHealth;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+
+/**
+ * A {@link KonnektorService} backed by several redundant Konnektors.
+ *
+ * <p>Card handles are only valid on the Konnektor that issued them, the cards returned by this
+ * service are therefore identified by their telematik ID: {@link
+ * com.oviva.epa.client.model.SmcbCard#handle()} is the telematik ID of the card. Calls for a card
+ * are spread over all healthy Konnektors the card is reachable through and fail over to the next
+ * one if a Konnektor is unreachable.
+ */
+public interface MultiKonnektorService extends KonnektorService, AutoCloseable {
+
+  @NonNull
+  List<KonnektorHealth> health();
+
+  /** Stops the background health probing. */
+  @Override
+  void close();
+}
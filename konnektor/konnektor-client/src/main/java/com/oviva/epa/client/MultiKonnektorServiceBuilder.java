@@ -0,0 +1,98 @@
+package com.oviva.epa.client;
+
+import com.oviva.epa.client.internal.MultiKonnektorServiceImpl;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class MultiKonnektorServiceBuilder {
+
+  private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+  private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+  private static final Duration DEFAULT_PROBE_INTERVAL = Duration.ofSeconds(30);
+
+  private final List<MultiKonnektorServiceImpl.Member> members = new ArrayList<>();
+  private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+  private Duration openDuration = DEFAULT_OPEN_DURATION;
+  private Duration probeInterval = DEFAULT_PROBE_INTERVAL;
+
+  private MultiKonnektorServiceBuilder() {}
+
+  public static MultiKonnektorServiceBuilder newBuilder() {
+    return new MultiKonnektorServiceBuilder();
+  }
+
+  /**
+   * Adds a Konnektor.
+   *
+   * @param name a unique name, used in logs and health reports
+   * @param service provides the service for the Konnektor, called for each request so that a
+   *     rebuilt connection is picked up
+   * @param weight the relative share of signing requests the Konnektor receives, at least 1
+   * @param telematikIds the cards reachable through this Konnektor, empty to use all cards the
+   *     Konnektor reports
+   */
+  @NonNull
+  public MultiKonnektorServiceBuilder addKonnektor(
+      @NonNull String name,
+      @NonNull Supplier<KonnektorService> service,
+      int weight,
+      @NonNull Set<String> telematikIds) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("weight must be at least 1");
+    }
+    if (members.stream().anyMatch(m -> m.name().equals(name))) {
+      throw new IllegalArgumentException("duplicate konnektor name: " + name);
+    }
+    members.add(
+        new MultiKonnektorServiceImpl.Member(name, service, weight, Set.copyOf(telematikIds)));
+    return this;
+  }
+
+  /** Consecutive connection failures after which a Konnektor is taken out of rotation. */
+  @NonNull
+  public MultiKonnektorServiceBuilder failureThreshold(int failureThreshold) {
+    this.failureThreshold = failureThreshold;
+    return this;
+  }
+
+  /** How long a failed Konnektor is taken out of rotation before it is tried again. */
+  @NonNull
+  public MultiKonnektorServiceBuilder openDuration(@NonNull Duration openDuration) {
+    this.openDuration = openDuration;
+    return this;
+  }
+
+  /** How often all Konnektors are probed in the background, {@link Duration#ZERO} disables it. */
+  @NonNull
+  public MultiKonnektorServiceBuilder probeInterval(@NonNull Duration probeInterval) {
+    this.probeInterval = probeInterval;
+    return this;
+  }
+
+  public MultiKonnektorService build() {
+
+    if (members.isEmpty()) {
+      throw new IllegalArgumentException("at least one konnektor required");
+    }
+
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be at least 1");
+    }
+
+    if (openDuration.isNegative() || probeInterval.isNegative()) {
+      throw new IllegalArgumentException("durations must not be negative");
+    }
+
+    var svc =
+        new MultiKonnektorServiceImpl(members, failureThreshold, openDuration, Clock.systemUTC());
+    if (probeInterval.isPositive()) {
+      svc.startProbing(probeInterval);
+    }
+    return svc;
+  }
+}
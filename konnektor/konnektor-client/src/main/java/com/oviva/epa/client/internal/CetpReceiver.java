@@ -0,0 +1,176 @@
+package com.oviva.epa.client.internal;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+
+/**
+ * Minimal receiver for the Connector Event Transport Protocol (CETP) the Konnektor uses to push
+ * events to a subscribed client system.
+ *
+ * <p>Each frame consists of the ASCII magic <code>CETP</code>, the length of the message as a 4
+ * byte big endian integer and the XML encoded <code>Event</code>. A connection may carry multiple
+ * frames.
+ */
+public class CetpReceiver implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(CetpReceiver.class);
+
+  private static final byte[] MAGIC = "CETP".getBytes(StandardCharsets.US_ASCII);
+  private static final int MAX_MESSAGE_LENGTH = 1024 * 1024;
+
+  private static final JAXBContext JAXB_CONTEXT = newJaxbContext();
+  private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+  private final InetSocketAddress bindAddress;
+  private final Consumer<Event> onEvent;
+
+  private ServerSocket serverSocket;
+
+  public CetpReceiver(InetSocketAddress bindAddress, Consumer<Event> onEvent) {
+    this.bindAddress = bindAddress;
+    this.onEvent = onEvent;
+  }
+
+  public synchronized void start() throws IOException {
+    if (serverSocket != null) {
+      throw new IllegalStateException("receiver already started");
+    }
+    serverSocket = new ServerSocket();
+    serverSocket.bind(bindAddress);
+
+    var s = serverSocket;
+    Thread.ofVirtual().name("cetp-accept").start(() -> acceptLoop(s));
+    log.atInfo().log("CETP event receiver listening on {}", s.getLocalSocketAddress());
+  }
+
+  /**
+   * @return the port the receiver is bound to, useful when binding to an ephemeral port
+   */
+  public synchronized int port() {
+    if (serverSocket == null) {
+      throw new IllegalStateException("receiver not started");
+    }
+    return serverSocket.getLocalPort();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (serverSocket == null) {
+      return;
+    }
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      log.atDebug().setCause(e).log("failed to close CETP server socket");
+    }
+    serverSocket = null;
+  }
+
+  private void acceptLoop(ServerSocket s) {
+    while (!s.isClosed()) {
+      try {
+        var socket = s.accept();
+        Thread.ofVirtual().name("cetp-connection").start(() -> handleConnection(socket));
+      } catch (SocketException e) {
+        // closed
+        return;
+      } catch (IOException e) {
+        log.atWarn().setCause(e).log("failed to accept CETP connection");
+      }
+    }
+  }
+
+  private void handleConnection(Socket socket) {
+    try (socket;
+        var in = socket.getInputStream()) {
+      Event event;
+      while ((event = readFrame(in)) != null) {
+        dispatch(event);
+      }
+    } catch (IOException e) {
+      log.atWarn()
+          .setCause(e)
+          .log("failed to read CETP frame from {}", socket.getRemoteSocketAddress());
+    }
+  }
+
+  private void dispatch(Event event) {
+    try {
+      onEvent.accept(event);
+    } catch (RuntimeException e) {
+      log.atWarn().setCause(e).log("failed to handle konnektor event {}", event.getTopic());
+    }
+  }
+
+  /**
+   * Reads a single CETP frame.
+   *
+   * @return the decoded event or null if the stream ended before a new frame
+   */
+  static Event readFrame(InputStream is) throws IOException {
+    var in = new DataInputStream(is);
+
+    var magic = new byte[MAGIC.length];
+    var first = in.read();
+    if (first < 0) {
+      return null;
+    }
+    magic[0] = (byte) first;
+    in.readFully(magic, 1, magic.length - 1);
+    if (!Arrays.equals(MAGIC, magic)) {
+      throw new IOException("not a CETP frame, bad magic");
+    }
+
+    var length = in.readInt();
+    if (length < 0 || length > MAX_MESSAGE_LENGTH) {
+      throw new IOException("invalid CETP message length: %d".formatted(length));
+    }
+
+    var message = new byte[length];
+    try {
+      in.readFully(message);
+    } catch (EOFException e) {
+      throw new IOException("truncated CETP frame", e);
+    }
+
+    try {
+      var reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(message));
+      return JAXB_CONTEXT.createUnmarshaller().unmarshal(reader, Event.class).getValue();
+    } catch (JAXBException | XMLStreamException e) {
+      throw new IOException("invalid CETP event message", e);
+    }
+  }
+
+  private static XMLInputFactory newXmlInputFactory() {
+    // events arrive from the network, no DTDs or external entities
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  private static JAXBContext newJaxbContext() {
+    try {
+      return JAXBContext.newInstance(Event.class);
+    } catch (JAXBException e) {
+      throw new IllegalStateException("failed to initialize JAXB context for events", e);
+    }
+  }
+}
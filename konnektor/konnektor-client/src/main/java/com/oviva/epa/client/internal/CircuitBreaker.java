@@ -0,0 +1,88 @@
+package com.oviva.epa.client.internal;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A minimal circuit breaker. After <code>failureThreshold</code> consecutive failures the circuit
+ * opens and rejects requests for <code>openDuration</code>. Afterwards a single trial request is
+ * let through, its outcome closes or re-opens the circuit.
+ *
+ * <p>Every permitted request must record exactly one outcome, or release its trial if it was not
+ * sent after all.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final Clock clock;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures = 0;
+  private Instant openedAt;
+  private boolean trialInFlight = false;
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be at least 1");
+    }
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.clock = clock;
+  }
+
+  public synchronized boolean allowRequest() {
+    return switch (state) {
+      case CLOSED -> true;
+      case OPEN -> {
+        if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+          yield false;
+        }
+        state = State.HALF_OPEN;
+        trialInFlight = true;
+        yield true;
+      }
+      case HALF_OPEN -> {
+        if (trialInFlight) {
+          yield false;
+        }
+        trialInFlight = true;
+        yield true;
+      }
+    };
+  }
+
+  public synchronized void recordSuccess() {
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+    trialInFlight = false;
+  }
+
+  /**
+   * Gives back a permit without an outcome, e.g. the request was not sent after all. A half-open
+   * circuit stays half-open and admits the next trial.
+   */
+  public synchronized void releaseTrial() {
+    trialInFlight = false;
+  }
+
+  public synchronized void recordFailure() {
+    consecutiveFailures++;
+    trialInFlight = false;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = clock.instant();
+    }
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+}
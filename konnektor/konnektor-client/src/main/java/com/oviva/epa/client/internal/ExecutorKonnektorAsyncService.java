@@ -0,0 +1,50 @@
+package com.oviva.epa.client.internal;
+
+import com.oviva.epa.client.KonnektorAsyncService;
+import com.oviva.epa.client.KonnektorService;
+import com.oviva.epa.client.model.*;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the calls of a blocking {@link KonnektorService} on an {@link Executor}. Backed by virtual
+ * threads a pending Konnektor call does not occupy a platform thread.
+ */
+public class ExecutorKonnektorAsyncService implements KonnektorAsyncService {
+
+  private final KonnektorService delegate;
+  private final Executor executor;
+
+  public ExecutorKonnektorAsyncService(KonnektorService delegate, Executor executor) {
+    this.delegate = delegate;
+    this.executor = executor;
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<List<SmcbCard>> listSmcbCards() {
+    return CompletableFuture.supplyAsync(delegate::listSmcbCards, executor);
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<byte[]> authSignRsaPss(@NonNull String cardHandle, byte[] bytesToSign) {
+    return CompletableFuture.supplyAsync(
+        () -> delegate.authSignRsaPss(cardHandle, bytesToSign), executor);
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<byte[]> authSignEcdsa(@NonNull String cardHandle, byte[] bytesToSign) {
+    return CompletableFuture.supplyAsync(
+        () -> delegate.authSignEcdsa(cardHandle, bytesToSign), executor);
+  }
+
+  @NonNull
+  @Override
+  public CompletableFuture<PinStatus> verifySmcPin(@NonNull String cardHandle) {
+    return CompletableFuture.supplyAsync(() -> delegate.verifySmcPin(cardHandle), executor);
+  }
+}
@@ -0,0 +1,247 @@
+package com.oviva.epa.client.internal;
+
+import com.oviva.epa.client.KonnektorEventListener;
+import com.oviva.epa.client.KonnektorEventSubscriptionManager;
+import com.oviva.epa.client.internal.svc.EventServiceClient;
+import com.oviva.epa.client.internal.svc.model.KonnektorContext;
+import com.oviva.epa.client.konn.KonnektorConnectionFactory;
+import com.oviva.epa.client.model.KonnektorEvent;
+import com.oviva.epa.client.model.KonnektorException;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.xml.datatype.XMLGregorianCalendar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+
+/**
+ * Keeps a single Konnektor subscription alive and dispatches the received events.
+ *
+ * <p>The subscription is renewed once half of its lifetime passed. If the Konnektor does not know
+ * the subscription anymore, e.g. after a restart, or the renewal fails, a new subscription is
+ * created.
+ */
+public class KonnektorEventSubscriptionManagerImpl implements KonnektorEventSubscriptionManager {
+
+  private static final Logger log =
+      LoggerFactory.getLogger(KonnektorEventSubscriptionManagerImpl.class);
+
+  private static final Duration MIN_RENEWAL_DELAY = Duration.ofSeconds(30);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+  private final KonnektorConnectionFactory connectionFactory;
+  private final KonnektorContext context;
+  private final String eventTo;
+  private final String topic;
+  private final Duration defaultRenewalInterval;
+  private final Clock clock;
+
+  private final CetpReceiver receiver;
+  private final List<KonnektorEventListener> listeners = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("konnektor-subscription").daemon().factory());
+
+  private final Object lock = new Object();
+  private String subscriptionId;
+  private ScheduledFuture<?> renewal;
+  private boolean closed;
+
+  public KonnektorEventSubscriptionManagerImpl(
+      KonnektorConnectionFactory connectionFactory,
+      KonnektorContext context,
+      InetSocketAddress bindAddress,
+      String eventTo,
+      String topic,
+      Duration defaultRenewalInterval,
+      Clock clock) {
+    this.connectionFactory = connectionFactory;
+    this.context = context;
+    this.eventTo = eventTo;
+    this.topic = topic;
+    this.defaultRenewalInterval = defaultRenewalInterval;
+    this.clock = clock;
+    this.receiver = new CetpReceiver(bindAddress, this::onEvent);
+  }
+
+  @Override
+  public void addListener(@NonNull KonnektorEventListener listener) {
+    listeners.add(Objects.requireNonNull(listener));
+  }
+
+  @Override
+  public void removeListener(@NonNull KonnektorEventListener listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public void start() {
+    try {
+      receiver.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to start konnektor event receiver", e);
+    }
+
+    try {
+      subscribe();
+    } catch (RuntimeException e) {
+      receiver.close();
+      scheduler.shutdownNow();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    String id;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      id = subscriptionId;
+      subscriptionId = null;
+      cancelRenewal();
+    }
+
+    scheduler.shutdownNow();
+
+    if (id != null) {
+      try {
+        eventServiceClient().unsubscribe(id);
+      } catch (RuntimeException e) {
+        log.atWarn().setCause(e).log("failed to unsubscribe from konnektor events, id={}", id);
+      }
+    }
+
+    receiver.close();
+  }
+
+  /** The port the event receiver listens on. */
+  public int port() {
+    return receiver.port();
+  }
+
+  void subscribe() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+
+      var response = eventServiceClient().subscribe(eventTo, topic);
+      subscriptionId = response.getSubscriptionID();
+      if (subscriptionId == null) {
+        throw new KonnektorException("konnektor returned no subscription id");
+      }
+
+      log.atInfo().log(
+          "subscribed to konnektor events, topic={} eventTo={} id={}",
+          topic,
+          eventTo,
+          subscriptionId);
+      scheduleRenewal(renewalDelay(response.getTerminationTime()));
+    }
+  }
+
+  void renew() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+
+      try {
+        var id = subscriptionId;
+        var renewed =
+            eventServiceClient().renewSubscriptions(List.of(id)).stream()
+                .filter(r -> id.equals(r.getSubscriptionID()))
+                .findFirst();
+
+        if (renewed.isEmpty()) {
+          log.atInfo().log("konnektor subscription {} not renewed, subscribing again", id);
+          subscribe();
+          return;
+        }
+
+        scheduleRenewal(renewalDelay(renewed.get().getTerminationTime()));
+      } catch (RuntimeException e) {
+        log.atWarn().setCause(e).log("failed to renew konnektor subscription, subscribing again");
+        resubscribe();
+      }
+    }
+  }
+
+  private void resubscribe() {
+    try {
+      subscribe();
+    } catch (RuntimeException e) {
+      log.atWarn().setCause(e).log("failed to subscribe to konnektor events, retrying");
+      cancelRenewal();
+      renewal =
+          scheduler.schedule(this::resubscribe, RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void scheduleRenewal(Duration delay) {
+    cancelRenewal();
+    renewal = scheduler.schedule(this::renew, delay.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void cancelRenewal() {
+    if (renewal != null) {
+      renewal.cancel(false);
+      renewal = null;
+    }
+  }
+
+  Duration renewalDelay(XMLGregorianCalendar terminationTime) {
+    if (terminationTime == null) {
+      return defaultRenewalInterval;
+    }
+
+    var expiresAt = terminationTime.toGregorianCalendar().toInstant();
+    var halfLifetime = Duration.between(Instant.now(clock), expiresAt).dividedBy(2);
+    if (halfLifetime.compareTo(MIN_RENEWAL_DELAY) < 0) {
+      return MIN_RENEWAL_DELAY;
+    }
+    return halfLifetime;
+  }
+
+  void onEvent(Event event) {
+    var parameters = new LinkedHashMap<String, String>();
+    if (event.getMessage() != null) {
+      for (var p : event.getMessage().getParameter()) {
+        if (p.getKey() != null && p.getValue() != null) {
+          parameters.put(p.getKey(), p.getValue());
+        }
+      }
+    }
+
+    var konnektorEvent = new KonnektorEvent(event.getTopic(), parameters);
+    log.atDebug().log("received konnektor event {}", konnektorEvent);
+
+    for (var listener : listeners) {
+      try {
+        listener.onEvent(konnektorEvent);
+      } catch (RuntimeException e) {
+        log.atWarn().setCause(e).log("konnektor event listener failed, topic={}", event.getTopic());
+      }
+    }
+  }
+
+  private EventServiceClient eventServiceClient() {
+    return new EventServiceClient(connectionFactory.connect().eventService(), context);
+  }
+}
@@ -0,0 +1,97 @@
+package com.oviva.epa.client.internal;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import java.time.Duration;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the latency and the faults of the Konnektor operations, tagged by operation and card
+ * handle. Calls slower than the threshold are logged as well.
+ *
+ * <p>A handful of SMC-B cards are plugged into a Konnektor, the card handle is therefore fine as an
+ * attribute and shows which card is the bottleneck.
+ */
+final class KonnektorOperationMetrics {
+
+  private static final Logger log = LoggerFactory.getLogger(KonnektorOperationMetrics.class);
+
+  private static final String INSTRUMENTATION_SCOPE = "com.oviva.epa.client";
+
+  static final AttributeKey<String> OPERATION = AttributeKey.stringKey("konnektor.operation");
+  static final AttributeKey<String> CARD_HANDLE = AttributeKey.stringKey("konnektor.card_handle");
+  static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+  private final DoubleHistogram duration;
+  private final LongCounter faults;
+  private final Duration slowCallThreshold;
+
+  KonnektorOperationMetrics(Meter meter, Duration slowCallThreshold) {
+    this.duration =
+        meter
+            .histogramBuilder("konnektor.client.operation.duration")
+            .setDescription("Duration of Konnektor operations")
+            .setUnit("s")
+            .build();
+    this.faults =
+        meter
+            .counterBuilder("konnektor.client.operation.faults")
+            .setDescription("Konnektor operations that failed with a fault or transport error")
+            .setUnit("{fault}")
+            .build();
+    this.slowCallThreshold = slowCallThreshold;
+  }
+
+  static KonnektorOperationMetrics global(Duration slowCallThreshold) {
+    return new KonnektorOperationMetrics(
+        GlobalOpenTelemetry.getMeter(INSTRUMENTATION_SCOPE), slowCallThreshold);
+  }
+
+  /**
+   * Runs and measures a single Konnektor operation.
+   *
+   * @param operation the name of the operation as in the WSDL, e.g. <code>GetCards</code>
+   * @param cardHandle the card the operation is addressed to, null if none
+   */
+  <T> T record(String operation, String cardHandle, Supplier<T> call) {
+    var start = System.nanoTime();
+    String errorType = null;
+    try {
+      return call.get();
+    } catch (RuntimeException e) {
+      errorType = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      var elapsed = Duration.ofNanos(System.nanoTime() - start);
+      var attributes = attributes(operation, cardHandle);
+
+      duration.record(elapsed.toNanos() / 1_000_000_000.0, attributes);
+      if (errorType != null) {
+        faults.add(1, attributes.toBuilder().put(ERROR_TYPE, errorType).build());
+      }
+
+      if (elapsed.compareTo(slowCallThreshold) > 0) {
+        log.atWarn()
+            .log(
+                "slow konnektor call, operation={} cardHandle={} duration={}ms failed={}",
+                operation,
+                cardHandle,
+                elapsed.toMillis(),
+                errorType != null);
+      }
+    }
+  }
+
+  private static Attributes attributes(String operation, String cardHandle) {
+    if (cardHandle == null) {
+      return Attributes.of(OPERATION, operation);
+    }
+    return Attributes.of(OPERATION, operation, CARD_HANDLE, cardHandle);
+  }
+}
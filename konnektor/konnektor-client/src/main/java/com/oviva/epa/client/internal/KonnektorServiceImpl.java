@@ -7,19 +7,40 @@ import com.oviva.epa.client.internal.svc.utils.Digest;
 import com.oviva.epa.client.konn.KonnektorConnection;
 import com.oviva.epa.client.model.*;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
 import java.util.*;
 import telematik.ws.conn.cardservice.xsd.v8_1.CardInfoType;
+import telematik.ws.conn.cardservice.xsd.v8_1.GetPinStatusResponse;
 import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
 import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
 
 public class KonnektorServiceImpl implements KonnektorService {
 
+  public static final Duration DEFAULT_SLOW_CALL_THRESHOLD = Duration.ofSeconds(2);
+
   private final EventServiceClient eventServiceClient;
   private final CardServiceClient cardServiceClient;
   private final CertificateServiceClient certificateServiceClient;
   private final AuthSignatureServiceClient authSignatureServiceClient;
+  private final KonnektorOperationMetrics metrics;
 
   public KonnektorServiceImpl(KonnektorConnection connection, KonnektorContext konnektorContext) {
+    this(connection, konnektorContext, DEFAULT_SLOW_CALL_THRESHOLD);
+  }
+
+  public KonnektorServiceImpl(
+      KonnektorConnection connection,
+      KonnektorContext konnektorContext,
+      Duration slowCallThreshold) {
+    this(connection, konnektorContext, KonnektorOperationMetrics.global(slowCallThreshold));
+  }
+
+  KonnektorServiceImpl(
+      KonnektorConnection connection,
+      KonnektorContext konnektorContext,
+      KonnektorOperationMetrics metrics) {
+
+    this.metrics = metrics;
 
     eventServiceClient = new EventServiceClient(connection.eventService(), konnektorContext);
 
@@ -35,7 +56,11 @@ public class KonnektorServiceImpl implements KonnektorService {
   @NonNull
   @Override
   public List<SmcbCard> listSmcbCards() {
-    return eventServiceClient.getSmbInfo().getCards().getCard().stream()
+    return metrics
+        .record("GetCards", null, eventServiceClient::getSmbInfo)
+        .getCards()
+        .getCard()
+        .stream()
         .filter(c -> c.getCardType() == CardTypeType.SMC_B)
         .map(this::getCardDetails)
         .toList();
@@ -45,12 +70,17 @@ public class KonnektorServiceImpl implements KonnektorService {
 
     var cardHandle = cardInfo.getCardHandle();
     var authEccCertificate =
-        certificateServiceClient.readEccAuthenticationCertificateForCard(cardHandle);
-    var pinVerified =
-        cardServiceClient.getPinStatusResponse(cardHandle, "PIN.SMC").getPinStatus()
-            == PinStatusEnum.VERIFIED;
-
-    var telematikId = certificateServiceClient.getTelematikIdForCard(cardHandle);
+        metrics.record(
+            "ReadCardCertificate",
+            cardHandle,
+            () -> certificateServiceClient.readEccAuthenticationCertificateForCard(cardHandle));
+    var pinVerified = getPinStatus(cardHandle).getPinStatus() == PinStatusEnum.VERIFIED;
+
+    var telematikId =
+        metrics.record(
+            "ReadCardCertificate",
+            cardHandle,
+            () -> certificateServiceClient.getTelematikIdForCard(cardHandle));
 
     return new SmcbCard(
         cardHandle, telematikId, cardInfo.getCardHolderName(), authEccCertificate, pinVerified);
@@ -58,17 +88,27 @@ public class KonnektorServiceImpl implements KonnektorService {
 
   @Override
   public @NonNull PinStatus verifySmcPin(@NonNull String cardHandle) {
-    var response = cardServiceClient.getPinStatusResponse(cardHandle, "PIN.SMC");
+    var response = getPinStatus(cardHandle);
     return PinStatus.valueOf(response.getPinStatus().name());
   }
 
+  private GetPinStatusResponse getPinStatus(String cardHandle) {
+    return metrics.record(
+        "GetPinStatus",
+        cardHandle,
+        () -> cardServiceClient.getPinStatusResponse(cardHandle, "PIN.SMC"));
+  }
+
   @NonNull
   @Override
   public byte[] authSignRsaPss(@NonNull String cardHandle, byte[] bytesToSign) {
     // https://gemspec.gematik.de/docs/gemSpec/gemSpec_Kon/gemSpec_Kon_V5.24.0/#4.1.13.1.1
 
     var hash = Digest.sha256(bytesToSign);
-    return authSignatureServiceClient.signAuthHashRsaPss(cardHandle, hash);
+    return metrics.record(
+        "ExternalAuthenticate",
+        cardHandle,
+        () -> authSignatureServiceClient.signAuthHashRsaPss(cardHandle, hash));
   }
 
   @NonNull
@@ -77,6 +117,9 @@ public class KonnektorServiceImpl implements KonnektorService {
     // https://gemspec.gematik.de/docs/gemSpec/gemSpec_Kon/gemSpec_Kon_V5.24.0/#4.1.13.1.1
 
     var hash = Digest.sha256(bytesToSign);
-    return authSignatureServiceClient.signAuthHashEcdsa(cardHandle, hash);
+    return metrics.record(
+        "ExternalAuthenticate",
+        cardHandle,
+        () -> authSignatureServiceClient.signAuthHashEcdsa(cardHandle, hash));
   }
 }
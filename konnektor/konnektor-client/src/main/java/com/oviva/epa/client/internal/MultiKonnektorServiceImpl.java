@@ -0,0 +1,302 @@
+package com.oviva.epa.client.internal;
+
+import com.oviva.epa.client.KonnektorService;
+import com.oviva.epa.client.MultiKonnektorService;
+import com.oviva.epa.client.model.*;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import jakarta.xml.ws.ProtocolException;
+import jakarta.xml.ws.WebServiceException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import telematik.ws.conn.exception.FaultMessageException;
+
+/**
+ * Spreads requests over several Konnektors.
+ *
+ * <p>Cards are identified by their telematik ID, every Konnektor keeps track of the cards last seen
+ * on it and the mapping to its own card handles. Requests for a card are distributed with a smooth
+ * weighted round-robin over the Konnektors the card is reachable through. A Konnektor that can not
+ * be reached counts as failure for its circuit breaker and the request is retried on the next
+ * candidate. Faults reported by a Konnektor are passed on, the Konnektor itself is healthy.
+ */
+public class MultiKonnektorServiceImpl implements MultiKonnektorService {
+
+  private static final Logger log = LoggerFactory.getLogger(MultiKonnektorServiceImpl.class);
+
+  /** Configuration of a single Konnektor. */
+  public record Member(
+      String name, Supplier<KonnektorService> service, int weight, Set<String> telematikIds) {}
+
+  private final List<Node> nodes;
+  private ScheduledExecutorService prober;
+
+  public MultiKonnektorServiceImpl(
+      List<Member> members, int failureThreshold, Duration openDuration, Clock clock) {
+    this.nodes =
+        members.stream()
+            .map(m -> new Node(m, new CircuitBreaker(failureThreshold, openDuration, clock)))
+            .toList();
+  }
+
+  public synchronized void startProbing(Duration interval) {
+    if (prober != null) {
+      return;
+    }
+    prober =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("konnektor-probe").daemon().factory());
+    prober.scheduleWithFixedDelay(this::probe, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (prober != null) {
+      prober.shutdownNow();
+      prober = null;
+    }
+  }
+
+  /**
+   * Probes all Konnektors, including the ones currently taken out of rotation, and refreshes the
+   * cards reachable through them.
+   */
+  void probe() {
+    for (var node : nodes) {
+      try {
+        refreshCards(node);
+        node.breaker().recordSuccess();
+      } catch (RuntimeException e) {
+        if (isEndpointFailure(e)) {
+          node.breaker().recordFailure();
+        }
+        log.atDebug().setCause(e).log("konnektor '{}' probe failed", node.member().name());
+      }
+    }
+  }
+
+  @NonNull
+  @Override
+  public List<KonnektorHealth> health() {
+    return nodes.stream()
+        .map(
+            n ->
+                new KonnektorHealth(
+                    n.member().name(),
+                    n.breaker().state() != CircuitBreaker.State.OPEN,
+                    Set.copyOf(n.cards().keySet())))
+        .toList();
+  }
+
+  @NonNull
+  @Override
+  public List<SmcbCard> listSmcbCards() {
+    var cards = new LinkedHashMap<String, SmcbCard>();
+    RuntimeException lastFailure = null;
+    var anyReachable = false;
+
+    for (var node : nodes) {
+      if (!node.breaker().allowRequest()) {
+        continue;
+      }
+      try {
+        var nodeCards = refreshCards(node);
+        node.breaker().recordSuccess();
+        anyReachable = true;
+        nodeCards.forEach(cards::putIfAbsent);
+      } catch (RuntimeException e) {
+        lastFailure = recordOutcome(node, e);
+      }
+    }
+
+    if (!anyReachable && lastFailure != null) {
+      throw lastFailure;
+    }
+    if (!anyReachable) {
+      throw new KonnektorException("no konnektor available");
+    }
+
+    // the telematik ID identifies a card across konnektors
+    return cards.values().stream()
+        .map(
+            c ->
+                new SmcbCard(
+                    c.telematikId(),
+                    c.telematikId(),
+                    c.holderName(),
+                    c.authEccCertificate(),
+                    c.pinVerified()))
+        .toList();
+  }
+
+  @NonNull
+  @Override
+  public byte[] authSignRsaPss(@NonNull String cardHandle, byte[] bytesToSign) {
+    return onCard(cardHandle, (svc, handle) -> svc.authSignRsaPss(handle, bytesToSign));
+  }
+
+  @NonNull
+  @Override
+  public byte[] authSignEcdsa(@NonNull String cardHandle, byte[] bytesToSign) {
+    return onCard(cardHandle, (svc, handle) -> svc.authSignEcdsa(handle, bytesToSign));
+  }
+
+  @NonNull
+  @Override
+  public PinStatus verifySmcPin(@NonNull String cardHandle) {
+    return onCard(cardHandle, KonnektorService::verifySmcPin);
+  }
+
+  private <T> T onCard(String telematikId, CardCall<T> call) {
+
+    if (nodes.stream().allMatch(n -> n.cards().isEmpty())) {
+      // nothing known yet, e.g. no probe ran so far
+      listSmcbCards();
+    }
+
+    var tried = new ArrayList<Node>();
+    RuntimeException lastFailure = null;
+
+    Node node;
+    while ((node = next(telematikId, tried)) != null) {
+      tried.add(node);
+      var card = node.cards().get(telematikId);
+      if (card == null) {
+        // card vanished in the meantime, nothing was sent to the Konnektor
+        node.breaker().releaseTrial();
+        continue;
+      }
+
+      try {
+        var result = call.apply(node.member().service().get(), card.handle());
+        node.breaker().recordSuccess();
+        return result;
+      } catch (RuntimeException e) {
+        lastFailure = recordOutcome(node, e);
+        if (!isEndpointFailure(e)) {
+          throw e;
+        }
+        log.atWarn()
+            .setCause(e)
+            .log("konnektor '{}' failed, trying next one", node.member().name());
+      }
+    }
+
+    if (lastFailure != null) {
+      throw lastFailure;
+    }
+    throw new KonnektorException(
+        "no available konnektor for card with telematikId %s".formatted(telematikId));
+  }
+
+  /**
+   * Picks the next Konnektor for the card with a smooth weighted round-robin as known from nginx,
+   * it spreads the picks evenly instead of sending bursts to the heaviest Konnektor. The returned
+   * node was admitted by its circuit breaker, the caller has to record an outcome.
+   */
+  private synchronized Node next(String telematikId, List<Node> exclude) {
+    var candidates =
+        nodes.stream()
+            .filter(n -> !exclude.contains(n))
+            .filter(n -> n.cards().containsKey(telematikId))
+            .toList();
+
+    // open circuits take part as well, their breaker admits a trial once they are due
+    var remaining = new ArrayList<>(candidates);
+    while (!remaining.isEmpty()) {
+      var total = 0;
+      Node best = null;
+      for (var n : remaining) {
+        n.currentWeight += n.member().weight();
+        total += n.member().weight();
+        if (best == null || n.currentWeight > best.currentWeight) {
+          best = n;
+        }
+      }
+      best.currentWeight -= total;
+
+      if (best.breaker().allowRequest()) {
+        return best;
+      }
+      remaining.remove(best);
+    }
+    return null;
+  }
+
+  private Map<String, SmcbCard> refreshCards(Node node) {
+    var allowed = node.member().telematikIds();
+    var cards = new LinkedHashMap<String, SmcbCard>();
+    for (var c : node.member().service().get().listSmcbCards()) {
+      if (allowed.isEmpty() || allowed.contains(c.telematikId())) {
+        cards.putIfAbsent(c.telematikId(), c);
+      }
+    }
+    node.cards = Map.copyOf(cards);
+    return cards;
+  }
+
+  private RuntimeException recordOutcome(Node node, RuntimeException e) {
+    if (isEndpointFailure(e)) {
+      node.breaker().recordFailure();
+    } else {
+      // the konnektor answered, it is reachable
+      node.breaker().recordSuccess();
+    }
+    return e;
+  }
+
+  /**
+   * @return true if the Konnektor could not be reached at all, false if it answered, e.g. with a
+   *     fault
+   */
+  static boolean isEndpointFailure(Throwable t) {
+    for (var c = t; c != null; c = c.getCause()) {
+      if (c instanceof FaultMessageException || c instanceof ProtocolException) {
+        return false;
+      }
+      if (c instanceof WebServiceException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @FunctionalInterface
+  private interface CardCall<T> {
+    T apply(KonnektorService service, String cardHandle);
+  }
+
+  private static final class Node {
+    private final Member member;
+    private final CircuitBreaker breaker;
+    private volatile Map<String, SmcbCard> cards = Map.of();
+    private int currentWeight = 0;
+
+    Node(Member member, CircuitBreaker breaker) {
+      this.member = member;
+      this.breaker = breaker;
+    }
+
+    Member member() {
+      return member;
+    }
+
+    CircuitBreaker breaker() {
+      return breaker;
+    }
+
+    Map<String, SmcbCard> cards() {
+      return cards;
+    }
+  }
+}
@@ -17,15 +17,23 @@
 package com.oviva.epa.client.internal.svc;
 
 import com.oviva.epa.client.internal.svc.model.KonnektorContext;
+import com.oviva.epa.client.konn.internal.util.KonnektorUtils;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
 import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCards;
 import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
 import telematik.ws.conn.eventservice.xsd.v6_1.ObjectFactory;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscriptionRenewal;
 
 public class EventServiceClient {
 
+  private static final Logger log = LoggerFactory.getLogger(EventServiceClient.class);
+
   private final EventServicePortType eventService;
 
   private final KonnektorContext context;
@@ -44,6 +52,56 @@ public class EventServiceClient {
     return eventService.getCards(request);
   }
 
+  /**
+   * Subscribes to events of the given topic, the Konnektor pushes them to the <code>eventTo</code>
+   * address.
+   *
+   * @param eventTo the address of the event receiver, e.g. <code>cetp://10.0.0.2:8585</code>
+   * @param topic the topic or topic prefix, e.g. <code>CARD</code>
+   */
+  public SubscribeResponse subscribe(@NonNull String eventTo, @NonNull String topic) {
+    var of = new ObjectFactory();
+
+    var subscription = of.createSubscriptionType().withEventTo(eventTo).withTopic(topic);
+    var request =
+        of.createSubscribe().withContext(context.toContext()).withSubscription(subscription);
+
+    var response = eventService.subscribe(request);
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("subscribe"));
+    return response;
+  }
+
+  /** Extends the lifetime of existing subscriptions, returns the renewed ones. */
+  public List<SubscriptionRenewal> renewSubscriptions(@NonNull List<String> subscriptionIds) {
+    var request =
+        new ObjectFactory()
+            .createRenewSubscriptions()
+            .withContext(context.toContext())
+            .withSubscriptionID(subscriptionIds);
+
+    var response = eventService.renewSubscriptions(request);
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("renewSubscriptions"));
+
+    if (response.getSubscribeRenewals() == null) {
+      return List.of();
+    }
+    return response.getSubscribeRenewals().getSubscriptionRenewal();
+  }
+
+  public void unsubscribe(@NonNull String subscriptionId) {
+    var request =
+        new ObjectFactory()
+            .createUnsubscribe()
+            .withContext(context.toContext())
+            .withSubscriptionID(subscriptionId);
+
+    var response = eventService.unsubscribe(request);
+    KonnektorUtils.logWarningIfPresent(
+        log, response.getStatus(), KonnektorUtils.warnMsgWithOperationName("unsubscribe"));
+  }
+
   private GetCards buildGetAllSmBCards() {
     final var getCardsRequest = new ObjectFactory().createGetCards();
     getCardsRequest.setCardType(CardTypeType.SM_B);
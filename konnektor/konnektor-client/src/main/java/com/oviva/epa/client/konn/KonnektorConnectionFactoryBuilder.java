@@ -11,6 +11,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -30,12 +31,17 @@ public class KonnektorConnectionFactoryBuilder {
           "TLS_ECDHE_RSA_WITH_AES_256_CBC_SHA",
           "TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA");
 
+  private static final Duration DEFAULT_CONNECTION_CACHE_TTL = Duration.ofHours(1);
+  private static final Duration DEFAULT_TLS_SESSION_TIMEOUT = Duration.ofHours(24);
+
   private URI uri = null;
   private String servername = DEFAULT_KONNEKTOR_DNS_SAN;
   private TlsConfig tlsConfig = null;
   private ProxyAddressConfig proxyAddress = null;
+  private Duration connectionCacheTtl = DEFAULT_CONNECTION_CACHE_TTL;
 
   private List<String> ciphersuites = DEFAULT_TLS_CIPHERSUITES;
+  private Duration tlsSessionTimeout = DEFAULT_TLS_SESSION_TIMEOUT;
   private List<KeyManager> keyManagers = null;
   private List<TrustManager> trustManagers = null;
 
@@ -78,6 +84,19 @@ public class KonnektorConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * How long TLS sessions with the Konnektor are kept for resumption. A resumed session skips the
+   * expensive handshake including the client certificate authentication.
+   */
+  @NonNull
+  public KonnektorConnectionFactoryBuilder tlsSessionTimeout(@NonNull Duration timeout) {
+    if (!timeout.isPositive()) {
+      throw new IllegalArgumentException("tlsSessionTimeout must be positive");
+    }
+    this.tlsSessionTimeout = timeout;
+    return this;
+  }
+
   @NonNull
   public KonnektorConnectionFactoryBuilder proxyServer(String address, int port) {
     if (address != null) {
@@ -86,6 +105,20 @@ public class KonnektorConnectionFactoryBuilder {
     return this;
   }
 
+  /**
+   * How long the Konnektor service description and the SOAP port proxies built from it are re-used
+   * before they are fetched and built again. A failing endpoint always causes a rebuild. {@link
+   * Duration#ZERO} disables caching.
+   */
+  @NonNull
+  public KonnektorConnectionFactoryBuilder connectionCacheTtl(@NonNull Duration ttl) {
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("connectionCacheTtl must not be negative");
+    }
+    this.connectionCacheTtl = ttl;
+    return this;
+  }
+
   @NonNull
   public KonnektorConnectionFactoryBuilder clientKeys(@NonNull List<KeyManager> keyManagers) {
     this.keyManagers = keyManagers;
@@ -116,10 +149,11 @@ public class KonnektorConnectionFactoryBuilder {
       var kms = Optional.ofNullable(this.keyManagers).orElse(List.of());
       var tms = Optional.ofNullable(this.trustManagers).orElse(List.of());
 
-      tlsConfig = new TlsConfig(kms, tms, ciphersuites, servername);
+      tlsConfig = new TlsConfig(kms, tms, ciphersuites, servername, tlsSessionTimeout);
     }
 
-    var cfg = new KonnektorConnectionConfiguration(uri, tlsConfig, proxyAddress);
+    var cfg =
+        new KonnektorConnectionConfiguration(uri, tlsConfig, proxyAddress, connectionCacheTtl);
     return new KonnektorConnectionFactoryImpl(cfg);
   }
 }
@@ -0,0 +1,52 @@
+package com.oviva.epa.client.konn.internal;
+
+import jakarta.xml.ws.ProtocolException;
+import jakarta.xml.ws.WebServiceException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import telematik.ws.conn.exception.FaultMessageException;
+
+/**
+ * Decorates a Konnektor port proxy and reports transport level failures, e.g. a refused connection
+ * or a timeout. Faults returned by the Konnektor itself are regular responses of a healthy endpoint
+ * and are not reported.
+ */
+final class EndpointFailureDetector implements InvocationHandler {
+
+  private final Object delegate;
+  private final Runnable onFailure;
+
+  private EndpointFailureDetector(Object delegate, Runnable onFailure) {
+    this.delegate = delegate;
+    this.onFailure = onFailure;
+  }
+
+  static <T> T wrap(Class<T> portType, T port, Runnable onFailure) {
+    return portType.cast(
+        Proxy.newProxyInstance(
+            portType.getClassLoader(),
+            new Class<?>[] {portType},
+            new EndpointFailureDetector(port, onFailure)));
+  }
+
+  static boolean isEndpointFailure(Throwable t) {
+    return t instanceof WebServiceException
+        && !(t instanceof FaultMessageException)
+        && !(t instanceof ProtocolException);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(delegate, args);
+    } catch (InvocationTargetException e) {
+      var cause = e.getCause();
+      if (isEndpointFailure(cause)) {
+        onFailure.run();
+      }
+      throw cause;
+    }
+  }
+}
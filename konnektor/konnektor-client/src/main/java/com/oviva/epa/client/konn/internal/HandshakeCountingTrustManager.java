@@ -0,0 +1,67 @@
+package com.oviva.epa.client.konn.internal;
+
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+/**
+ * Reports every server certificate validation. The server certificate is only validated on a full
+ * TLS handshake, resumed sessions skip it. Comparing this with the number of requests shows how
+ * well connections and TLS sessions are re-used.
+ */
+final class HandshakeCountingTrustManager extends X509ExtendedTrustManager {
+
+  private final X509ExtendedTrustManager delegate;
+  private final Runnable onFullHandshake;
+
+  HandshakeCountingTrustManager(X509ExtendedTrustManager delegate, Runnable onFullHandshake) {
+    this.delegate = delegate;
+    this.onFullHandshake = onFullHandshake;
+  }
+
+  @Override
+  public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+      throws CertificateException {
+    onFullHandshake.run();
+    delegate.checkServerTrusted(chain, authType, socket);
+  }
+
+  @Override
+  public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+      throws CertificateException {
+    onFullHandshake.run();
+    delegate.checkServerTrusted(chain, authType, engine);
+  }
+
+  @Override
+  public void checkServerTrusted(X509Certificate[] chain, String authType)
+      throws CertificateException {
+    onFullHandshake.run();
+    delegate.checkServerTrusted(chain, authType);
+  }
+
+  @Override
+  public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+      throws CertificateException {
+    delegate.checkClientTrusted(chain, authType, socket);
+  }
+
+  @Override
+  public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+      throws CertificateException {
+    delegate.checkClientTrusted(chain, authType, engine);
+  }
+
+  @Override
+  public void checkClientTrusted(X509Certificate[] chain, String authType)
+      throws CertificateException {
+    delegate.checkClientTrusted(chain, authType);
+  }
+
+  @Override
+  public X509Certificate[] getAcceptedIssuers() {
+    return delegate.getAcceptedIssuers();
+  }
+}
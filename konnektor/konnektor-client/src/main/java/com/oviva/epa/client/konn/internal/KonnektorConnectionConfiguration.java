@@ -17,6 +17,7 @@
 package com.oviva.epa.client.konn.internal;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.TrustManager;
@@ -24,7 +25,12 @@ import javax.net.ssl.TrustManager;
 public record KonnektorConnectionConfiguration(
 
     /** the URI to the Konnektor APIs (Fachmodule) */
-    URI uri, TlsConfig tlsConfig, ProxyAddressConfig proxyAddress) {
+    URI uri,
+    TlsConfig tlsConfig,
+    ProxyAddressConfig proxyAddress,
+
+    /* how long the connector services and port proxies are re-used, zero disables caching */
+    Duration connectionCacheTtl) {
 
   public record TlsConfig(
       List<KeyManager> keyManagers,
@@ -40,7 +46,10 @@ public record KonnektorConnectionConfiguration(
        * Subject Alternative Name (SAN) for hostname verification - usually on konnektor is only
        * reachable by IP
        */
-      String subjectAlternativeName) {}
+      String subjectAlternativeName,
+
+      /* how long TLS sessions are cached for resumption, null keeps the default of 24 hours */
+      Duration sessionTimeout) {}
 
   public record ProxyAddressConfig(String address, Integer port, boolean enabled) {}
 
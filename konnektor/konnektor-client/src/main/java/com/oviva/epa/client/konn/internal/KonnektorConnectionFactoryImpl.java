@@ -22,6 +22,8 @@ import com.oviva.epa.client.konn.KonnektorConnection;
 import com.oviva.epa.client.konn.KonnektorConnectionFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -34,10 +36,16 @@ import org.apache.cxf.ext.logging.event.EventType;
 import org.apache.cxf.ext.logging.event.LogEvent;
 import org.apache.cxf.ext.logging.slf4j.Slf4jEventSender;
 import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.interceptor.Interceptor;
 import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
 import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.message.Message;
 import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 import telematik.ws.conn.SdsApi;
 import telematik.ws.conn.authsignatureservice.wsdl.v7_4.AuthSignatureService;
@@ -51,23 +59,114 @@ import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
 import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
 import telematik.ws.conn.serviceinformation.xsd.v2_0.EndpointType;
 
-/** Uses Apache CXF to generate client implementations for the Konnektor web services. */
+/**
+ * Uses Apache CXF to generate client implementations for the Konnektor web services.
+ *
+ * <p>The connector services description (<code>connector.sds</code>) and the port proxies built
+ * from it are cached and shared between callers, CXF port proxies are thread-safe as long as their
+ * request context is not modified. The cached connection is rebuilt once its TTL expired or as soon
+ * as one of its endpoints fails on the transport level.
+ *
+ * <p>All ports share the same TLS parameters and client policy. CXF hands out one pooled HTTP
+ * client per distinct configuration, hence all Konnektor services share a single pool of keep-alive
+ * connections and a single {@link SSLContext} whose session cache allows TLS session resumption.
+ * The pool itself is the one of the JDK HTTP client, its limits are tuned with the system
+ * properties <code>jdk.httpclient.connectionPoolSize</code> and <code>
+ * jdk.httpclient.keepalive.timeout</code>.
+ */
 public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactory {
 
+  private static final Logger log = LoggerFactory.getLogger(KonnektorConnectionFactoryImpl.class);
+
   public static final String HTTPS_PROTOCOL = "https";
   private final LoggingFeature loggingFeature = newLoggingFeature();
   private final KonnektorConnectionConfiguration configuration;
+  private final Clock clock;
+  private final KonnektorTransportMetrics metrics = KonnektorTransportMetrics.global();
+  private final Interceptor<Message> requestCounter = metrics.requestCounter();
   boolean isTlsPreferred = true;
 
+  private final Object lock = new Object();
+  private SdsApi sdsApi;
+  private TLSClientParameters sharedTlsClientParameters;
+  private HTTPClientPolicy sharedClientPolicy;
+  private long generation = 0;
+  private volatile CachedConnection cached;
+
   public KonnektorConnectionFactoryImpl(KonnektorConnectionConfiguration config) {
+    this(config, Clock.systemUTC());
+  }
+
+  KonnektorConnectionFactoryImpl(KonnektorConnectionConfiguration config, Clock clock) {
     this.configuration = config;
+    this.clock = clock;
     this.isTlsPreferred = determineIfTlsPreferred();
   }
 
   @Override
   public KonnektorConnection connect() {
 
-    var connectorServices = sdsApi().getConnectorSds();
+    var current = cached;
+    if (isFresh(current)) {
+      return current.connection();
+    }
+
+    synchronized (lock) {
+      current = cached;
+      if (isFresh(current)) {
+        return current.connection();
+      }
+
+      var connectorServices = loadConnectorServices();
+
+      var thisGeneration = ++generation;
+      var connection =
+          withEndpointFailureDetection(
+              createConnection(connectorServices), () -> invalidate(thisGeneration));
+
+      var ttl = configuration.connectionCacheTtl();
+      if (ttl != null && ttl.isPositive()) {
+        cached = new CachedConnection(connection, thisGeneration, clock.instant().plus(ttl));
+      }
+      return connection;
+    }
+  }
+
+  /**
+   * Drops the cached connection, the next {@link #connect()} re-reads the connector services and
+   * builds new port proxies.
+   */
+  public void invalidate() {
+    synchronized (lock) {
+      cached = null;
+    }
+  }
+
+  private void invalidate(long failedGeneration) {
+    synchronized (lock) {
+      var current = cached;
+      if (current != null && current.generation() == failedGeneration) {
+        log.atInfo().log("konnektor endpoint failed, dropping cached connection");
+        cached = null;
+      }
+    }
+  }
+
+  private boolean isFresh(CachedConnection c) {
+    return c != null && clock.instant().isBefore(c.expiresAt());
+  }
+
+  /** Fetches the <code>connector.sds</code>, the description of all Konnektor web services. */
+  ConnectorServices loadConnectorServices() {
+    synchronized (lock) {
+      if (sdsApi == null) {
+        sdsApi = sdsApi();
+      }
+      return sdsApi.getConnectorSds();
+    }
+  }
+
+  KonnektorConnection createConnection(ConnectorServices connectorServices) {
 
     var eventService = createEventService(connectorServices);
     var cardService = createCardService(connectorServices);
@@ -78,6 +177,22 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
         eventService, cardService, certificateService, authSignatureService);
   }
 
+  private KonnektorConnection withEndpointFailureDetection(
+      KonnektorConnection connection, Runnable onFailure) {
+    return new KonnektorConnectionImpl(
+        EndpointFailureDetector.wrap(
+            EventServicePortType.class, connection.eventService(), onFailure),
+        EndpointFailureDetector.wrap(
+            CardServicePortType.class, connection.cardService(), onFailure),
+        EndpointFailureDetector.wrap(
+            CertificateServicePortType.class, connection.certificateService(), onFailure),
+        EndpointFailureDetector.wrap(
+            AuthSignatureServicePortType.class, connection.authSignatureService(), onFailure));
+  }
+
+  private record CachedConnection(
+      KonnektorConnection connection, long generation, Instant expiresAt) {}
+
   /**
    * Get the client implementation of the {@link SdsApi}, for the retrieval of the connection
    * information of the Konnektor web services.
@@ -86,19 +201,14 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
     var factoryBean = new JAXRSClientFactoryBean();
     factoryBean.setServiceClass(SdsApi.class);
     factoryBean.getFeatures().add(loggingFeature);
+    factoryBean.getOutInterceptors().add(requestCounter);
     factoryBean.setAddress(configuration.uri().toString());
 
     final SdsApi sdsApi = factoryBean.create(SdsApi.class);
 
     WebClient.client(sdsApi).accept("text/xml", "application/xml");
 
-    var sdsHttpConduit = WebClient.getConfig(sdsApi).getHttpConduit();
-
-    if (isTlsPreferred) {
-      configureTls(sdsHttpConduit);
-    }
-
-    configureProxyIfEnabled(sdsHttpConduit);
+    configureTransport(WebClient.getConfig(sdsApi).getHttpConduit());
 
     return sdsApi;
   }
@@ -129,6 +239,7 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
     jaxWsProxyFactory.setServiceClass(portType);
     jaxWsProxyFactory.setAddress(endpointAddress.toString());
     jaxWsProxyFactory.getFeatures().add(loggingFeature);
+    jaxWsProxyFactory.getOutInterceptors().add(requestCounter);
 
     if (Objects.nonNull(addConf)) {
       addConf.accept(jaxWsProxyFactory);
@@ -136,13 +247,7 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
 
     final T proxy = jaxWsProxyFactory.create(portType);
 
-    var httpConduit = (HTTPConduit) ClientProxy.getClient(proxy).getConduit();
-
-    if (isTlsPreferred) {
-      configureTls(httpConduit);
-    }
-
-    configureProxyIfEnabled(httpConduit);
+    configureTransport((HTTPConduit) ClientProxy.getClient(proxy).getConduit());
 
     return proxy;
   }
@@ -258,7 +363,24 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
         .orElse(Boolean.TRUE);
   }
 
-  private void configureTls(final HTTPConduit httpConduit) {
+  private void configureTransport(final HTTPConduit httpConduit) {
+    synchronized (lock) {
+      if (isTlsPreferred) {
+        httpConduit.setTlsClientParameters(sharedTlsClientParameters());
+      }
+      httpConduit.setClient(sharedClientPolicy());
+    }
+  }
+
+  /**
+   * The TLS parameters shared by all conduits, the same instance makes CXF re-use the same HTTP
+   * client and with it the {@link SSLContext} and its TLS session cache.
+   */
+  private TLSClientParameters sharedTlsClientParameters() {
+    if (sharedTlsClientParameters != null) {
+      return sharedTlsClientParameters;
+    }
+
     var tlsConfig =
         Objects.requireNonNull(
             configuration.tlsConfig(),
@@ -268,17 +390,46 @@ public class KonnektorConnectionFactoryImpl implements KonnektorConnectionFactor
 
     tlsParams.setKeyManagers(tlsConfig.keyManagers().toArray(new KeyManager[0]));
     tlsParams.setCipherSuites(tlsConfig.ciphersuites());
-    httpConduit.setTlsClientParameters(tlsParams);
+    tlsParams.setTrustManagers(countFullHandshakes(tlsParams.getTrustManagers()));
+    if (tlsConfig.sessionTimeout() != null) {
+      tlsParams.setSslCacheTimeout(Math.toIntExact(tlsConfig.sessionTimeout().toSeconds()));
+    }
+
+    sharedTlsClientParameters = tlsParams;
+    return tlsParams;
   }
 
-  private void configureProxyIfEnabled(HTTPConduit httpConduit) {
+  private TrustManager[] countFullHandshakes(TrustManager[] trustManagers) {
+    if (trustManagers == null) {
+      return null;
+    }
+    return Arrays.stream(trustManagers)
+        .map(
+            tm ->
+                tm instanceof X509ExtendedTrustManager x509
+                    ? new HandshakeCountingTrustManager(x509, metrics::recordFullHandshake)
+                    : tm)
+        .toArray(TrustManager[]::new);
+  }
+
+  private HTTPClientPolicy sharedClientPolicy() {
+    if (sharedClientPolicy != null) {
+      return sharedClientPolicy;
+    }
+
+    var policy = new HTTPClientPolicy();
+    policy.setConnection(ConnectionType.KEEP_ALIVE);
+
     Optional.ofNullable(configuration.proxyAddress())
         .filter(KonnektorConnectionConfiguration.ProxyAddressConfig::enabled)
         .ifPresent(
             pa -> {
-              httpConduit.getClient().setProxyServer(Objects.requireNonNull(pa.address()));
-              httpConduit.getClient().setProxyServerPort(pa.port());
+              policy.setProxyServer(Objects.requireNonNull(pa.address()));
+              policy.setProxyServerPort(pa.port());
             });
+
+    sharedClientPolicy = policy;
+    return policy;
   }
 
   private LoggingFeature newLoggingFeature() {
@@ -0,0 +1,59 @@
+package com.oviva.epa.client.konn.internal;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Counts requests sent to the Konnektor and the full TLS handshakes they caused. With pooled
+ * keep-alive connections and TLS session resumption the number of handshakes stays far below the
+ * number of requests.
+ */
+final class KonnektorTransportMetrics {
+
+  private static final String INSTRUMENTATION_SCOPE = "com.oviva.epa.client.konn";
+
+  private final LongCounter requests;
+  private final LongCounter handshakes;
+
+  KonnektorTransportMetrics(Meter meter) {
+    this.requests =
+        meter
+            .counterBuilder("konnektor.client.requests")
+            .setDescription("HTTP requests sent to the Konnektor")
+            .setUnit("{request}")
+            .build();
+    this.handshakes =
+        meter
+            .counterBuilder("konnektor.client.tls.handshakes")
+            .setDescription("Full TLS handshakes with the Konnektor, resumed sessions excluded")
+            .setUnit("{handshake}")
+            .build();
+  }
+
+  static KonnektorTransportMetrics global() {
+    return new KonnektorTransportMetrics(GlobalOpenTelemetry.getMeter(INSTRUMENTATION_SCOPE));
+  }
+
+  void recordRequest() {
+    requests.add(1);
+  }
+
+  void recordFullHandshake() {
+    handshakes.add(1);
+  }
+
+  /** An outbound interceptor recording each request sent by a CXF client. */
+  Interceptor<Message> requestCounter() {
+    return new AbstractPhaseInterceptor<>(Phase.PREPARE_SEND) {
+      @Override
+      public void handleMessage(Message message) {
+        recordRequest();
+      }
+    };
+  }
+}
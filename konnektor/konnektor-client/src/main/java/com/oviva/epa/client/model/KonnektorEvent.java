@@ -0,0 +1,42 @@
+package com.oviva.epa.client.model;
+
+import java.util.Map;
+
+/**
+ * An event pushed by the Konnektor, e.g. a card was inserted or a PIN was verified.
+ *
+ * @param topic the topic, e.g. <code>CARD/INSERTED</code> or <code>CARD/PIN/VERIFIED</code>
+ * @param parameters the key/value parameters of the event message
+ */
+public record KonnektorEvent(String topic, Map<String, String> parameters) {
+
+  public static final String TOPIC_CARD = "CARD";
+  public static final String TOPIC_CARD_INSERTED = "CARD/INSERTED";
+  public static final String TOPIC_CARD_REMOVED = "CARD/REMOVED";
+  public static final String TOPIC_CARD_PIN = "CARD/PIN";
+
+  private static final String PARAMETER_CARD_HANDLE = "CardHandle";
+
+  public KonnektorEvent {
+    parameters = Map.copyOf(parameters);
+  }
+
+  /**
+   * @return the handle of the affected card or null if the event is not about a card
+   */
+  public String cardHandle() {
+    return parameters.get(PARAMETER_CARD_HANDLE);
+  }
+
+  public boolean isCardEvent() {
+    return isTopicOrSubtopic(TOPIC_CARD);
+  }
+
+  public boolean isPinEvent() {
+    return isTopicOrSubtopic(TOPIC_CARD_PIN);
+  }
+
+  private boolean isTopicOrSubtopic(String prefix) {
+    return topic != null && (topic.equals(prefix) || topic.startsWith(prefix + "/"));
+  }
+}
@@ -0,0 +1,12 @@
+package com.oviva.epa.client.model;
+
+import java.util.Set;
+
+/**
+ * The state of one Konnektor of a {@link com.oviva.epa.client.MultiKonnektorService}.
+ *
+ * @param name the configured name of the Konnektor
+ * @param available false while the circuit breaker of the Konnektor is open
+ * @param telematikIds the SMC-B cards last seen on the Konnektor
+ */
+public record KonnektorHealth(String name, boolean available, Set<String> telematikIds) {}
@@ -0,0 +1,88 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.xml.bind.JAXBContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import telematik.ws.conn.eventservice.xsd.v6_1.Event;
+
+class CetpReceiverTest {
+
+  @Test
+  void readFrame_decodesEvent() throws Exception {
+    var frame = frame(event("CARD/INSERTED", "CardHandle", "card-1"));
+
+    var event = CetpReceiver.readFrame(new ByteArrayInputStream(frame));
+
+    assertEquals("CARD/INSERTED", event.getTopic());
+    assertEquals("card-1", event.getMessage().getParameter().get(0).getValue());
+  }
+
+  @Test
+  void readFrame_endOfStream_returnsNull() throws IOException {
+    assertNull(CetpReceiver.readFrame(new ByteArrayInputStream(new byte[0])));
+  }
+
+  @Test
+  void readFrame_badMagic_throws() {
+    var in = new ByteArrayInputStream("HTTP/1.1 200 OK".getBytes(StandardCharsets.US_ASCII));
+
+    assertThrows(IOException.class, () -> CetpReceiver.readFrame(in));
+  }
+
+  @Test
+  void readFrame_truncated_throws() throws Exception {
+    var frame = frame(event("CARD/REMOVED", "CardHandle", "card-1"));
+    var truncated = new ByteArrayInputStream(frame, 0, frame.length - 5);
+
+    assertThrows(IOException.class, () -> CetpReceiver.readFrame(truncated));
+  }
+
+  @Test
+  void receiver_dispatchesEvents() throws Exception {
+    var received = new CompletableFuture<Event>();
+    var bindAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    try (var receiver = new CetpReceiver(bindAddress, received::complete)) {
+      receiver.start();
+
+      try (var socket = new Socket(InetAddress.getLoopbackAddress(), receiver.port())) {
+        socket.getOutputStream().write(frame(event("CARD/PIN/VERIFIED", "CardHandle", "c")));
+        socket.getOutputStream().flush();
+
+        var event = received.get(5, TimeUnit.SECONDS);
+        assertEquals("CARD/PIN/VERIFIED", event.getTopic());
+      }
+    }
+  }
+
+  static Event event(String topic, String key, String value) {
+    return new Event()
+        .withTopic(topic)
+        .withMessage(
+            new Event.Message()
+                .withParameter(new Event.Message.Parameter().withKey(key).withValue(value)));
+  }
+
+  static byte[] frame(Event event) throws Exception {
+    var xml = new ByteArrayOutputStream();
+    JAXBContext.newInstance(Event.class).createMarshaller().marshal(event, xml);
+
+    var frame = new ByteArrayOutputStream();
+    var out = new DataOutputStream(frame);
+    out.write("CETP".getBytes(StandardCharsets.US_ASCII));
+    out.writeInt(xml.size());
+    out.write(xml.toByteArray());
+    return frame.toByteArray();
+  }
+}
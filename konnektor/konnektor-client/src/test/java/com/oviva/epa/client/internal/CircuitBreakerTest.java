@@ -0,0 +1,123 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final CircuitBreaker sut = new CircuitBreaker(2, Duration.ofSeconds(30), clock);
+
+  @Test
+  void opensAfterThreshold() {
+    sut.recordFailure();
+    assertEquals(CircuitBreaker.State.CLOSED, sut.state());
+
+    sut.recordFailure();
+
+    assertEquals(CircuitBreaker.State.OPEN, sut.state());
+    assertFalse(sut.allowRequest());
+  }
+
+  @Test
+  void successResetsFailures() {
+    sut.recordFailure();
+    sut.recordSuccess();
+    sut.recordFailure();
+
+    assertEquals(CircuitBreaker.State.CLOSED, sut.state());
+  }
+
+  @Test
+  void halfOpen_admitsSingleTrial() {
+    sut.recordFailure();
+    sut.recordFailure();
+
+    clock.advance(Duration.ofSeconds(30));
+
+    assertTrue(sut.allowRequest());
+    assertEquals(CircuitBreaker.State.HALF_OPEN, sut.state());
+    assertFalse(sut.allowRequest());
+  }
+
+  @Test
+  void halfOpen_failureReopens() {
+    sut.recordFailure();
+    sut.recordFailure();
+    clock.advance(Duration.ofSeconds(30));
+    assertTrue(sut.allowRequest());
+
+    sut.recordFailure();
+
+    assertEquals(CircuitBreaker.State.OPEN, sut.state());
+    assertFalse(sut.allowRequest());
+  }
+
+  @Test
+  void halfOpen_successCloses() {
+    sut.recordFailure();
+    sut.recordFailure();
+    clock.advance(Duration.ofSeconds(30));
+    assertTrue(sut.allowRequest());
+
+    sut.recordSuccess();
+
+    assertEquals(CircuitBreaker.State.CLOSED, sut.state());
+    assertTrue(sut.allowRequest());
+  }
+
+  @Test
+  void halfOpen_releaseTrial_staysHalfOpen() {
+    sut.recordFailure();
+    sut.recordFailure();
+    clock.advance(Duration.ofSeconds(30));
+    assertTrue(sut.allowRequest());
+
+    sut.releaseTrial();
+
+    assertEquals(CircuitBreaker.State.HALF_OPEN, sut.state());
+    assertTrue(sut.allowRequest(), "should admit the next trial");
+    assertFalse(sut.allowRequest());
+  }
+
+  @Test
+  void closed_releaseTrial_keepsFailures() {
+    sut.recordFailure();
+    assertTrue(sut.allowRequest());
+
+    sut.releaseTrial();
+    sut.recordFailure();
+
+    assertEquals(CircuitBreaker.State.OPEN, sut.state());
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration d) {
+      now = now.plus(d);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.oviva.epa.client.KonnektorService;
+import com.oviva.epa.client.model.KonnektorException;
+import com.oviva.epa.client.model.PinStatus;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ExecutorKonnektorAsyncServiceTest {
+
+  private final KonnektorService delegate = mock(KonnektorService.class);
+  private final AtomicInteger submitted = new AtomicInteger();
+  private final Executor executor =
+      command -> {
+        submitted.incrementAndGet();
+        command.run();
+      };
+  private final ExecutorKonnektorAsyncService sut =
+      new ExecutorKonnektorAsyncService(delegate, executor);
+
+  @Test
+  void listSmcbCards_runsOnExecutor() {
+    when(delegate.listSmcbCards()).thenReturn(List.of());
+
+    var cards = sut.listSmcbCards().join();
+
+    assertEquals(List.of(), cards);
+    assertEquals(1, submitted.get());
+  }
+
+  @Test
+  void authSignEcdsa_returnsSignature() {
+    var toSign = new byte[] {1, 2, 3};
+    var signature = new byte[] {4, 5, 6};
+    when(delegate.authSignEcdsa("card", toSign)).thenReturn(signature);
+
+    assertArrayEquals(signature, sut.authSignEcdsa("card", toSign).join());
+  }
+
+  @Test
+  void authSignRsaPss_returnsSignature() {
+    var toSign = new byte[] {1, 2, 3};
+    var signature = new byte[] {7, 8, 9};
+    when(delegate.authSignRsaPss("card", toSign)).thenReturn(signature);
+
+    assertArrayEquals(signature, sut.authSignRsaPss("card", toSign).join());
+  }
+
+  @Test
+  void verifySmcPin_failure_completesExceptionally() {
+    var failure = new KonnektorException("request failed");
+    when(delegate.verifySmcPin("card")).thenThrow(failure);
+
+    var future = sut.verifySmcPin("card");
+
+    var e = assertThrows(CompletionException.class, future::join);
+    assertSame(failure, e.getCause());
+  }
+
+  @Test
+  void verifySmcPin_returnsStatus() {
+    when(delegate.verifySmcPin("card")).thenReturn(PinStatus.VERIFIED);
+
+    assertEquals(PinStatus.VERIFIED, sut.verifySmcPin("card").join());
+  }
+}
@@ -0,0 +1,172 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.oviva.epa.client.internal.svc.model.KonnektorContext;
+import com.oviva.epa.client.konn.KonnektorConnection;
+import com.oviva.epa.client.konn.KonnektorConnectionFactory;
+import com.oviva.epa.client.model.KonnektorEvent;
+import jakarta.xml.ws.WebServiceException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import telematik.ws.conn.connectorcommon.xsd.v5_0.Status;
+import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptionsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Subscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscriptionRenewal;
+import telematik.ws.conn.eventservice.xsd.v6_1.Unsubscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.UnsubscribeResponse;
+
+class KonnektorEventSubscriptionManagerImplTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+  private final EventServicePortType eventService = mock(EventServicePortType.class);
+  private KonnektorEventSubscriptionManagerImpl sut;
+
+  @BeforeEach
+  void setUp() {
+    var connection = mock(KonnektorConnection.class);
+    when(connection.eventService()).thenReturn(eventService);
+    KonnektorConnectionFactory factory = () -> connection;
+
+    when(eventService.subscribe(any()))
+        .thenReturn(
+            new SubscribeResponse()
+                .withStatus(ok())
+                .withSubscriptionID("sub-1")
+                .withTerminationTime(xmlTime(NOW.plus(Duration.ofHours(2)))));
+    when(eventService.unsubscribe(any())).thenReturn(new UnsubscribeResponse().withStatus(ok()));
+
+    sut =
+        new KonnektorEventSubscriptionManagerImpl(
+            factory,
+            new KonnektorContext("m", "c", "w", "u"),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            "cetp://127.0.0.1:8585",
+            "CARD",
+            Duration.ofMinutes(10),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @AfterEach
+  void tearDown() {
+    sut.close();
+  }
+
+  @Test
+  void start_subscribesToTopic() {
+    sut.start();
+
+    var captor = ArgumentCaptor.forClass(Subscribe.class);
+    verify(eventService).subscribe(captor.capture());
+    assertEquals("CARD", captor.getValue().getSubscription().getTopic());
+    assertEquals("cetp://127.0.0.1:8585", captor.getValue().getSubscription().getEventTo());
+  }
+
+  @Test
+  void close_unsubscribes() {
+    sut.start();
+    sut.close();
+
+    var captor = ArgumentCaptor.forClass(Unsubscribe.class);
+    verify(eventService).unsubscribe(captor.capture());
+    assertEquals("sub-1", captor.getValue().getSubscriptionID());
+  }
+
+  @Test
+  void renew_notRenewed_subscribesAgain() {
+    sut.start();
+    when(eventService.renewSubscriptions(any()))
+        .thenReturn(new RenewSubscriptionsResponse().withStatus(ok()));
+
+    sut.renew();
+
+    verify(eventService, times(2)).subscribe(any());
+  }
+
+  @Test
+  void renew_renewed_keepsSubscription() {
+    sut.start();
+    when(eventService.renewSubscriptions(any()))
+        .thenReturn(
+            new RenewSubscriptionsResponse()
+                .withStatus(ok())
+                .withSubscribeRenewals(
+                    new RenewSubscriptionsResponse.SubscribeRenewals()
+                        .withSubscriptionRenewal(
+                            new SubscriptionRenewal()
+                                .withSubscriptionID("sub-1")
+                                .withTerminationTime(xmlTime(NOW.plus(Duration.ofHours(2)))))));
+
+    sut.renew();
+
+    verify(eventService, times(1)).subscribe(any());
+  }
+
+  @Test
+  void renew_failure_subscribesAgain() {
+    sut.start();
+    when(eventService.renewSubscriptions(any())).thenThrow(new WebServiceException("down"));
+
+    sut.renew();
+
+    verify(eventService, times(2)).subscribe(any());
+  }
+
+  @Test
+  void renewalDelay_halfOfLifetime() {
+    var delay = sut.renewalDelay(xmlTime(NOW.plus(Duration.ofHours(2))));
+
+    assertEquals(Duration.ofHours(1), delay);
+  }
+
+  @Test
+  void renewalDelay_unknownLifetime_usesDefault() {
+    assertEquals(Duration.ofMinutes(10), sut.renewalDelay(null));
+  }
+
+  @Test
+  void onEvent_notifiesListeners() {
+    var received = new ArrayList<KonnektorEvent>();
+    sut.addListener(received::add);
+    sut.addListener(
+        e -> {
+          throw new IllegalStateException("broken listener");
+        });
+
+    sut.onEvent(CetpReceiverTest.event("CARD/PIN/VERIFIED", "CardHandle", "card-1"));
+
+    assertEquals(1, received.size());
+    var event = received.get(0);
+    assertEquals("card-1", event.cardHandle());
+    assertTrue(event.isCardEvent());
+    assertTrue(event.isPinEvent());
+  }
+
+  private static Status ok() {
+    return new Status().withResult("OK");
+  }
+
+  private static XMLGregorianCalendar xmlTime(Instant instant) {
+    var calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+    calendar.setTimeInMillis(instant.toEpochMilli());
+    return DatatypeFactory.newDefaultInstance().newXMLGregorianCalendar(calendar);
+  }
+}
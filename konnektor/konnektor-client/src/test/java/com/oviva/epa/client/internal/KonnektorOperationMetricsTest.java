@@ -0,0 +1,136 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongCounterBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import jakarta.xml.ws.WebServiceException;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KonnektorOperationMetricsTest {
+
+  private final DoubleHistogram histogram = mock(DoubleHistogram.class);
+  private final LongCounter faults = mock(LongCounter.class);
+  private KonnektorOperationMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    var meter = mock(Meter.class);
+
+    var histogramBuilder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+    when(histogramBuilder.build()).thenReturn(histogram);
+    when(meter.histogramBuilder("konnektor.client.operation.duration"))
+        .thenReturn(histogramBuilder);
+
+    var counterBuilder = mock(LongCounterBuilder.class, RETURNS_SELF);
+    when(counterBuilder.build()).thenReturn(faults);
+    when(meter.counterBuilder("konnektor.client.operation.faults")).thenReturn(counterBuilder);
+
+    metrics = new KonnektorOperationMetrics(meter, Duration.ofSeconds(2));
+  }
+
+  @Test
+  void record_success() {
+    var result = metrics.record("GetPinStatus", "card-1", () -> "ok");
+
+    assertEquals("ok", result);
+    verify(histogram)
+        .record(
+            anyDouble(),
+            eq(
+                Attributes.of(
+                    KonnektorOperationMetrics.OPERATION,
+                    "GetPinStatus",
+                    KonnektorOperationMetrics.CARD_HANDLE,
+                    "card-1")));
+    verifyNoInteractions(faults);
+  }
+
+  @Test
+  void record_withoutCardHandle() {
+    metrics.record("GetCards", null, () -> "ok");
+
+    verify(histogram)
+        .record(anyDouble(), eq(Attributes.of(KonnektorOperationMetrics.OPERATION, "GetCards")));
+  }
+
+  @Test
+  void record_fault() {
+    var e = new WebServiceException("boom");
+
+    var thrown =
+        assertThrows(
+            WebServiceException.class,
+            () ->
+                metrics.record(
+                    "ExternalAuthenticate",
+                    "card-1",
+                    () -> {
+                      throw e;
+                    }));
+
+    assertEquals(e, thrown);
+    verify(histogram).record(anyDouble(), any(Attributes.class));
+    verify(faults)
+        .add(
+            eq(1L),
+            eq(
+                Attributes.of(
+                    KonnektorOperationMetrics.OPERATION,
+                    "ExternalAuthenticate",
+                    KonnektorOperationMetrics.CARD_HANDLE,
+                    "card-1",
+                    KonnektorOperationMetrics.ERROR_TYPE,
+                    "WebServiceException")));
+  }
+
+  @Test
+  void record_slowCall() {
+    var meter = mock(Meter.class, RETURNS_DEEP_STUBS);
+    var slowMetrics = new KonnektorOperationMetrics(meter, Duration.ZERO);
+
+    var result =
+        slowMetrics.record(
+            "ReadCardCertificate",
+            "card-1",
+            () -> {
+              sleep(5);
+              return 42;
+            });
+
+    assertEquals(42, result);
+  }
+
+  @Test
+  void record_durationInSeconds() {
+    metrics.record(
+        "GetPinStatus",
+        "card-1",
+        () -> {
+          sleep(20);
+          return null;
+        });
+
+    verify(histogram).record(doubleThat(d -> d >= 0.02 && d < 10), any(Attributes.class));
+    verify(faults, never()).add(anyLong(), any(Attributes.class));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package com.oviva.epa.client.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.oviva.epa.client.KonnektorService;
+import com.oviva.epa.client.model.KonnektorException;
+import com.oviva.epa.client.model.PinStatus;
+import com.oviva.epa.client.model.SmcbCard;
+import jakarta.xml.ws.WebServiceException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import telematik.ws.conn.cardservice.wsdl.v8_1.FaultMessage;
+
+class MultiKonnektorServiceImplTest {
+
+  private static final String TELEMATIK_ID = "1-SMC-B-Testkarte-883110000118001";
+  private static final byte[] TO_SIGN = new byte[] {1, 2, 3};
+
+  private final KonnektorService konnektorA = mock(KonnektorService.class);
+  private final KonnektorService konnektorB = mock(KonnektorService.class);
+
+  @Test
+  void listSmcbCards_mergesCardsByTelematikId() {
+    when(konnektorA.listSmcbCards()).thenReturn(List.of(card("a-1", TELEMATIK_ID)));
+    when(konnektorB.listSmcbCards())
+        .thenReturn(List.of(card("b-7", TELEMATIK_ID), card("b-8", "other")));
+
+    var sut = sut(1, 1);
+
+    var cards = sut.listSmcbCards();
+
+    assertEquals(2, cards.size());
+    assertEquals(TELEMATIK_ID, cards.get(0).handle());
+    assertEquals("other", cards.get(1).handle());
+  }
+
+  @Test
+  void listSmcbCards_respectsConfiguredTelematikIds() {
+    when(konnektorA.listSmcbCards())
+        .thenReturn(List.of(card("a-1", TELEMATIK_ID), card("a-2", "other")));
+
+    var sut =
+        new MultiKonnektorServiceImpl(
+            List.of(
+                new MultiKonnektorServiceImpl.Member("a", () -> konnektorA, 1, Set.of("other"))),
+            3,
+            Duration.ofSeconds(30),
+            Clock.systemUTC());
+
+    var cards = sut.listSmcbCards();
+
+    assertEquals(1, cards.size());
+    assertEquals("other", cards.get(0).telematikId());
+  }
+
+  @Test
+  void authSignEcdsa_usesKonnektorLocalHandle() {
+    when(konnektorA.listSmcbCards()).thenReturn(List.of(card("a-1", TELEMATIK_ID)));
+    when(konnektorA.authSignEcdsa("a-1", TO_SIGN)).thenReturn(new byte[] {9});
+
+    var sut =
+        new MultiKonnektorServiceImpl(
+            List.of(new MultiKonnektorServiceImpl.Member("a", () -> konnektorA, 1, Set.of())),
+            3,
+            Duration.ofSeconds(30),
+            Clock.systemUTC());
+
+    assertArrayEquals(new byte[] {9}, sut.authSignEcdsa(TELEMATIK_ID, TO_SIGN));
+  }
+
+  @Test
+  void authSignEcdsa_weightedRoundRobin() {
+    bothServeCard();
+    when(konnektorA.authSignEcdsa(any(), any())).thenReturn(new byte[] {1});
+    when(konnektorB.authSignEcdsa(any(), any())).thenReturn(new byte[] {2});
+
+    var sut = sut(2, 1);
+    sut.listSmcbCards();
+
+    for (int i = 0; i < 6; i++) {
+      sut.authSignEcdsa(TELEMATIK_ID, TO_SIGN);
+    }
+
+    verify(konnektorA, times(4)).authSignEcdsa("a-1", TO_SIGN);
+    verify(konnektorB, times(2)).authSignEcdsa("b-1", TO_SIGN);
+  }
+
+  @Test
+  void authSignEcdsa_unreachableKonnektor_failsOver() {
+    bothServeCard();
+    when(konnektorA.authSignEcdsa(any(), any()))
+        .thenThrow(new KonnektorException("failed", new WebServiceException("refused")));
+    when(konnektorB.authSignEcdsa(any(), any())).thenReturn(new byte[] {2});
+
+    var sut = sut(1, 1);
+    sut.listSmcbCards();
+
+    for (int i = 0; i < 10; i++) {
+      assertArrayEquals(new byte[] {2}, sut.authSignEcdsa(TELEMATIK_ID, TO_SIGN));
+    }
+
+    // circuit of A opened after 3 failures, it is not asked anymore
+    verify(konnektorA, times(3)).authSignEcdsa(any(), any());
+    assertFalse(sut.health().get(0).available());
+    assertTrue(sut.health().get(1).available());
+  }
+
+  @Test
+  void verifySmcPin_konnektorFault_noFailover() {
+    bothServeCard();
+    var fault = new KonnektorException("failed", new FaultMessage("card not found"));
+    when(konnektorA.verifySmcPin(any())).thenThrow(fault);
+    when(konnektorB.verifySmcPin(any())).thenThrow(fault);
+
+    var sut = sut(1, 1);
+    sut.listSmcbCards();
+
+    assertThrows(KonnektorException.class, () -> sut.verifySmcPin(TELEMATIK_ID));
+
+    verify(konnektorA, times(1)).verifySmcPin(any());
+    verify(konnektorB, never()).verifySmcPin(any());
+  }
+
+  @Test
+  void verifySmcPin_allUnreachable_throws() {
+    bothServeCard();
+    var failure = new KonnektorException("failed", new WebServiceException("refused"));
+    when(konnektorA.verifySmcPin(any())).thenThrow(failure);
+    when(konnektorB.verifySmcPin(any())).thenThrow(failure);
+
+    var sut = sut(1, 1);
+    sut.listSmcbCards();
+
+    assertThrows(KonnektorException.class, () -> sut.verifySmcPin(TELEMATIK_ID));
+  }
+
+  @Test
+  void verifySmcPin_unknownCard_throws() {
+    bothServeCard();
+
+    var sut = sut(1, 1);
+
+    var e = assertThrows(KonnektorException.class, () -> sut.verifySmcPin("unknown"));
+    assertTrue(e.getMessage().contains("unknown"));
+  }
+
+  @Test
+  void probe_restoresKonnektor() {
+    bothServeCard();
+    when(konnektorA.verifySmcPin(any()))
+        .thenThrow(new KonnektorException("failed", new WebServiceException("refused")));
+    when(konnektorB.verifySmcPin(any())).thenReturn(PinStatus.VERIFIED);
+
+    var sut = sut(1, 1);
+    sut.listSmcbCards();
+    for (int i = 0; i < 6; i++) {
+      sut.verifySmcPin(TELEMATIK_ID);
+    }
+    assertFalse(sut.health().get(0).available());
+
+    sut.probe();
+
+    assertTrue(sut.health().get(0).available());
+  }
+
+  private void bothServeCard() {
+    when(konnektorA.listSmcbCards()).thenReturn(List.of(card("a-1", TELEMATIK_ID)));
+    when(konnektorB.listSmcbCards()).thenReturn(List.of(card("b-1", TELEMATIK_ID)));
+  }
+
+  private MultiKonnektorServiceImpl sut(int weightA, int weightB) {
+    return new MultiKonnektorServiceImpl(
+        List.of(
+            new MultiKonnektorServiceImpl.Member("a", () -> konnektorA, weightA, Set.of()),
+            new MultiKonnektorServiceImpl.Member("b", () -> konnektorB, weightB, Set.of())),
+        3,
+        Duration.ofSeconds(30),
+        Clock.systemUTC());
+  }
+
+  private static SmcbCard card(String handle, String telematikId) {
+    return new SmcbCard(handle, telematikId, "Praxis", null, true);
+  }
+}
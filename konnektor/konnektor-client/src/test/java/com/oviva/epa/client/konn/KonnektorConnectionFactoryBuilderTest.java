@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.TrustManager;
@@ -89,6 +90,28 @@ class KonnektorConnectionFactoryBuilderTest {
         builder, builder.clientKeysFromP12(resourcePath(TEST_KEYSTORE), TEST_KEYSTORE_PASSWORD));
   }
 
+  @Test
+  void connectionCacheTtl_returnsSameBuilder() {
+    var builder = KonnektorConnectionFactoryBuilder.newBuilder();
+
+    assertSame(builder, builder.connectionCacheTtl(Duration.ofMinutes(5)));
+  }
+
+  @Test
+  void connectionCacheTtl_negative_throwsIllegalArgumentException() {
+    var builder = KonnektorConnectionFactoryBuilder.newBuilder();
+    var ttl = Duration.ofSeconds(-1);
+
+    assertThrows(IllegalArgumentException.class, () -> builder.connectionCacheTtl(ttl));
+  }
+
+  @Test
+  void tlsSessionTimeout_zero_throwsIllegalArgumentException() {
+    var builder = KonnektorConnectionFactoryBuilder.newBuilder();
+
+    assertThrows(IllegalArgumentException.class, () -> builder.tlsSessionTimeout(Duration.ZERO));
+  }
+
   // --- proxyServer ---
 
   @Test
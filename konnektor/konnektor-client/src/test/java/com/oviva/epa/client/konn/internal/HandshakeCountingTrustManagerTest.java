@@ -0,0 +1,49 @@
+package com.oviva.epa.client.konn.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import org.junit.jupiter.api.Test;
+
+class HandshakeCountingTrustManagerTest {
+
+  private final X509ExtendedTrustManager delegate = mock(X509ExtendedTrustManager.class);
+  private final AtomicInteger handshakes = new AtomicInteger();
+  private final HandshakeCountingTrustManager sut =
+      new HandshakeCountingTrustManager(delegate, handshakes::incrementAndGet);
+
+  @Test
+  void checkServerTrusted_countsAndDelegates() throws CertificateException {
+    var chain = new X509Certificate[0];
+    var engine = mock(SSLEngine.class);
+
+    sut.checkServerTrusted(chain, "ECDHE_ECDSA", engine);
+
+    assertEquals(1, handshakes.get());
+    verify(delegate).checkServerTrusted(chain, "ECDHE_ECDSA", engine);
+  }
+
+  @Test
+  void checkServerTrusted_untrusted_stillCountsAndThrows() throws CertificateException {
+    var chain = new X509Certificate[0];
+    doThrow(new CertificateException("untrusted")).when(delegate).checkServerTrusted(chain, "RSA");
+
+    assertThrows(CertificateException.class, () -> sut.checkServerTrusted(chain, "RSA"));
+    assertEquals(1, handshakes.get());
+  }
+
+  @Test
+  void checkClientTrusted_doesNotCount() throws CertificateException {
+    var chain = new X509Certificate[0];
+
+    sut.checkClientTrusted(chain, "RSA");
+
+    assertEquals(0, handshakes.get());
+    verify(delegate).checkClientTrusted(chain, "RSA");
+  }
+}
@@ -3,10 +3,32 @@ package com.oviva.epa.client.konn.internal;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.oviva.epa.client.konn.KonnektorConnection;
+import jakarta.xml.ws.WebServiceException;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.transport.http.HTTPConduit;
 import org.junit.jupiter.api.Test;
+import telematik.ws.conn.authsignatureservice.wsdl.v7_4.AuthSignatureServicePortType;
+import telematik.ws.conn.cardservice.wsdl.v8_1.CardServicePortType;
+import telematik.ws.conn.cardservice.wsdl.v8_1.FaultMessage;
+import telematik.ws.conn.cardservice.xsd.v8_1.GetPinStatus;
+import telematik.ws.conn.certificateservice.wsdl.v6_0.CertificateServicePortType;
+import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
+import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.EndpointType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.ServiceType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.ServicesType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.VersionType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.VersionsType;
 
 class KonnektorConnectionFactoryImplTest {
 
@@ -74,8 +96,239 @@ class KonnektorConnectionFactoryImplTest {
     assertEquals(0, params.getTrustManagers().length);
   }
 
+  @Test
+  void connect_withinTtl_reusesConnection() {
+    var clock = new MutableClock();
+    var factory = new CountingFactory(buildConfig(Duration.ofMinutes(10)), clock);
+
+    var first = factory.connect();
+    clock.advance(Duration.ofMinutes(9));
+    var second = factory.connect();
+
+    assertSame(first, second);
+    assertEquals(1, factory.sdsLoads);
+    assertEquals(1, factory.connectionsCreated);
+  }
+
+  @Test
+  void connect_afterTtl_rebuildsConnection() {
+    var clock = new MutableClock();
+    var factory = new CountingFactory(buildConfig(Duration.ofMinutes(10)), clock);
+
+    var first = factory.connect();
+    clock.advance(Duration.ofMinutes(10));
+    var second = factory.connect();
+
+    assertNotSame(first, second);
+    assertEquals(2, factory.sdsLoads);
+    assertEquals(2, factory.connectionsCreated);
+  }
+
+  @Test
+  void connect_zeroTtl_alwaysRebuildsConnection() {
+    var factory = new CountingFactory(buildConfig(Duration.ZERO), new MutableClock());
+
+    factory.connect();
+    factory.connect();
+
+    assertEquals(2, factory.connectionsCreated);
+  }
+
+  @Test
+  void connect_afterTransportFailure_rebuildsConnection() {
+    var factory = new CountingFactory(buildConfig(Duration.ofMinutes(10)), new MutableClock());
+    factory.pinStatusFailure = new WebServiceException("connection refused");
+
+    var first = factory.connect();
+    var cardService = first.cardService();
+    var request = new GetPinStatus();
+    assertThrows(WebServiceException.class, () -> cardService.getPinStatus(request));
+
+    var second = factory.connect();
+
+    assertNotSame(first, second);
+    assertEquals(2, factory.sdsLoads);
+  }
+
+  @Test
+  void connect_afterKonnektorFault_reusesConnection() {
+    var factory = new CountingFactory(buildConfig(Duration.ofMinutes(10)), new MutableClock());
+    factory.pinStatusFailure = new FaultMessage("card not found");
+
+    var first = factory.connect();
+    var cardService = first.cardService();
+    var request = new GetPinStatus();
+    assertThrows(FaultMessage.class, () -> cardService.getPinStatus(request));
+
+    var second = factory.connect();
+
+    assertSame(first, second);
+    assertEquals(1, factory.sdsLoads);
+  }
+
+  @Test
+  void invalidate_rebuildsConnection() {
+    var factory = new CountingFactory(buildConfig(Duration.ofMinutes(10)), new MutableClock());
+
+    var first = factory.connect();
+    factory.invalidate();
+    var second = factory.connect();
+
+    assertNotSame(first, second);
+  }
+
+  @Test
+  void createConnection_allPortsShareTransportConfiguration() {
+    var factory =
+        new KonnektorConnectionFactoryImpl(
+            buildConfig(
+                "https://konnektor.example.com",
+                "konnektor.konlan",
+                List.of(mock(X509ExtendedTrustManager.class))));
+
+    var connection = factory.createConnection(connectorServices());
+
+    var eventConduit = conduit(connection.eventService());
+    var conduits =
+        List.of(
+            conduit(connection.cardService()),
+            conduit(connection.certificateService()),
+            conduit(connection.authSignatureService()));
+
+    assertNotNull(eventConduit.getTlsClientParameters());
+    for (var c : conduits) {
+      assertSame(eventConduit.getTlsClientParameters(), c.getTlsClientParameters());
+      assertSame(eventConduit.getClient(), c.getClient());
+    }
+  }
+
+  @Test
+  void createConnection_countsFullHandshakes() {
+    var factory =
+        new KonnektorConnectionFactoryImpl(
+            buildConfig(
+                "https://konnektor.example.com",
+                null,
+                List.of(mock(X509ExtendedTrustManager.class))));
+
+    var connection = factory.createConnection(connectorServices());
+
+    var trustManagers =
+        conduit(connection.cardService()).getTlsClientParameters().getTrustManagers();
+    assertInstanceOf(HandshakeCountingTrustManager.class, trustManagers[0]);
+  }
+
+  @Test
+  void createConnection_setsTlsSessionTimeout() {
+    var factory = new KonnektorConnectionFactoryImpl(buildConfig("https://konnektor.example.com"));
+
+    var connection = factory.createConnection(connectorServices());
+
+    assertEquals(
+        Duration.ofHours(24).toSeconds(),
+        conduit(connection.cardService()).getTlsClientParameters().getSslCacheTimeout());
+  }
+
   // -- helpers --
 
+  private static HTTPConduit conduit(Object port) {
+    return (HTTPConduit) ClientProxy.getClient(port).getConduit();
+  }
+
+  private static ConnectorServices connectorServices() {
+    var services = new ServicesType();
+    services.getService().add(service("EventService", "7.2.0"));
+    services.getService().add(service("CardService", "8.1.2"));
+    services.getService().add(service("CertificateService", "6.0.1"));
+    services.getService().add(service("AuthSignatureService", "7.4.1"));
+
+    var connectorServices = new ConnectorServices();
+    connectorServices.setTLSMandatory(true);
+    connectorServices.setServiceInformation(services);
+    return connectorServices;
+  }
+
+  private static ServiceType service(String name, String version) {
+    var endpoint = new EndpointType();
+    endpoint.setLocation("https://konnektor.example.com/ws/" + name);
+
+    var versionType = new VersionType();
+    versionType.setVersion(version);
+    versionType.setEndpointTLS(endpoint);
+
+    var versions = new VersionsType();
+    versions.getVersion().add(versionType);
+
+    var service = new ServiceType();
+    service.setName(name);
+    service.setVersions(versions);
+    return service;
+  }
+
+  private static class CountingFactory extends KonnektorConnectionFactoryImpl {
+
+    int sdsLoads = 0;
+    int connectionsCreated = 0;
+    RuntimeException pinStatusFailure;
+
+    CountingFactory(KonnektorConnectionConfiguration config, Clock clock) {
+      super(config, clock);
+    }
+
+    @Override
+    ConnectorServices loadConnectorServices() {
+      sdsLoads++;
+      return new ConnectorServices();
+    }
+
+    @Override
+    KonnektorConnection createConnection(ConnectorServices connectorServices) {
+      connectionsCreated++;
+
+      var cardService = mock(CardServicePortType.class);
+      if (pinStatusFailure != null) {
+        when(cardService.getPinStatus(any())).thenThrow(pinStatusFailure);
+      }
+
+      return new KonnektorConnectionImpl(
+          mock(EventServicePortType.class),
+          cardService,
+          mock(CertificateServicePortType.class),
+          mock(AuthSignatureServicePortType.class));
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration d) {
+      now = now.plus(d);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static KonnektorConnectionConfiguration buildConfig(Duration connectionCacheTtl) {
+    var tlsConfig =
+        new KonnektorConnectionConfiguration.TlsConfig(List.of(), List.of(), List.of(), null, null);
+    return new KonnektorConnectionConfiguration(
+        URI.create("https://konnektor.example.com"), tlsConfig, null, connectionCacheTtl);
+  }
+
   private static KonnektorConnectionConfiguration buildConfig(String uriStr) {
     return buildConfig(uriStr, null, List.of());
   }
@@ -87,7 +340,9 @@ class KonnektorConnectionFactoryImplTest {
   private static KonnektorConnectionConfiguration buildConfig(
       String uriStr, String san, List<TrustManager> trustManagers) {
     var tlsConfig =
-        new KonnektorConnectionConfiguration.TlsConfig(List.of(), trustManagers, List.of(), san);
-    return new KonnektorConnectionConfiguration(URI.create(uriStr), tlsConfig, null);
+        new KonnektorConnectionConfiguration.TlsConfig(
+            List.of(), trustManagers, List.of(), san, Duration.ofHours(24));
+    return new KonnektorConnectionConfiguration(
+        URI.create(uriStr), tlsConfig, null, Duration.ofHours(1));
   }
 }
@@ -0,0 +1,152 @@
+package com.oviva.epa.simulator;
+
+import com.oviva.epa.simulator.internal.OperationBehaviour;
+import com.oviva.epa.simulator.internal.SdsHandler;
+import com.oviva.epa.simulator.internal.SimulatedAuthSignatureService;
+import com.oviva.epa.simulator.internal.SimulatedCardService;
+import com.oviva.epa.simulator.internal.SimulatedCertificateService;
+import com.oviva.epa.simulator.internal.SimulatedEventService;
+import com.oviva.epa.simulator.internal.UndertowHttpContext;
+import io.undertow.Handlers;
+import io.undertow.Undertow;
+import io.undertow.server.handlers.PathHandler;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An embedded Konnektor for load and latency tests without a real Konnektor and real cards.
+ *
+ * <p>Serves the <code>connector.sds</code> as well as the EventService, CardService,
+ * CertificateService and AuthSignatureService over plain HTTP. Signatures are created with the
+ * software keys of the {@link SimulatedCard}s. Each operation can be slowed down and made to fail
+ * with a SOAP fault, see {@link KonnektorSimulatorBuilder}.
+ *
+ * <p>Point a Konnektor client at {@link #uri()}, the <code>http</code> scheme makes it skip TLS.
+ */
+public class KonnektorSimulator implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(KonnektorSimulator.class);
+
+  private final String host;
+  private final int port;
+  private final int workerThreads;
+  private final List<SimulatedCard> cards;
+  private final OperationBehaviour behaviour;
+
+  private Bus bus;
+  private Undertow server;
+  private final List<EndpointImpl> endpoints = new ArrayList<>();
+  private URI uri;
+
+  KonnektorSimulator(
+      String host,
+      int port,
+      int workerThreads,
+      List<SimulatedCard> cards,
+      OperationBehaviour behaviour) {
+    this.host = host;
+    this.port = port;
+    this.workerThreads = workerThreads;
+    this.cards = List.copyOf(cards);
+    this.behaviour = behaviour;
+  }
+
+  public synchronized void start() {
+    if (server != null) {
+      throw new IllegalStateException("simulator already started");
+    }
+
+    bus = BusFactory.newInstance().createBus();
+
+    var routes = Handlers.path();
+    try {
+      publish(routes, SimulatedEventService.NAME, new SimulatedEventService(cards, behaviour));
+      publish(routes, SimulatedCardService.NAME, new SimulatedCardService(cards, behaviour));
+      publish(
+          routes,
+          SimulatedCertificateService.NAME,
+          new SimulatedCertificateService(cards, behaviour));
+      publish(
+          routes,
+          SimulatedAuthSignatureService.NAME,
+          new SimulatedAuthSignatureService(cards, behaviour));
+
+      server =
+          Undertow.builder()
+              .addHttpListener(port, host)
+              .setWorkerThreads(workerThreads)
+              .setHandler(routes)
+              .build();
+      server.start();
+
+      var address = (InetSocketAddress) server.getListenerInfo().get(0).getAddress();
+      uri = URI.create("http://%s:%d/".formatted(host, address.getPort()));
+
+      // the connector.sds contains the absolute endpoint addresses, they are known once bound
+      routes.addExactPath("/connector.sds", new SdsHandler(uri));
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+
+    log.atInfo().log("konnektor simulator listening on {}", uri);
+  }
+
+  /** The base URI of the simulator, the <code>connector.sds</code> is served right below it. */
+  public synchronized URI uri() {
+    if (uri == null) {
+      throw new IllegalStateException("simulator not started");
+    }
+    return uri;
+  }
+
+  public List<SimulatedCard> cards() {
+    return cards;
+  }
+
+  /**
+   * @param operation the operation name as in the WSDL, e.g. <code>ExternalAuthenticate</code>
+   * @return the number of calls to the operation so far, including the failed ones
+   */
+  public long invocations(String operation) {
+    return behaviour.invocations(operation);
+  }
+
+  @Override
+  public synchronized void close() {
+    if (server != null) {
+      server.stop();
+      server = null;
+    }
+
+    for (var e : endpoints) {
+      try {
+        e.stop();
+      } catch (RuntimeException ex) {
+        log.atDebug().setCause(ex).log("failed to stop simulator endpoint");
+      }
+    }
+    endpoints.clear();
+
+    if (bus != null) {
+      bus.shutdown(true);
+      bus = null;
+    }
+    uri = null;
+  }
+
+  private void publish(PathHandler routes, String serviceName, Object implementor) {
+    var context = new UndertowHttpContext(SdsHandler.path(serviceName));
+    var endpoint = new EndpointImpl(bus, implementor);
+    endpoint.publish(context);
+    endpoints.add(endpoint);
+    routes.addExactPath(context.getPath(), context);
+  }
+}
@@ -0,0 +1,137 @@
+package com.oviva.epa.simulator;
+
+import com.oviva.epa.simulator.internal.OperationBehaviour;
+import com.oviva.epa.simulator.internal.SoftwareCards;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+public class KonnektorSimulatorBuilder {
+
+  private String host = "localhost";
+  private int port = 0;
+  private int workerThreads = 64;
+  private final List<SimulatedCard> cards = new ArrayList<>();
+  private Duration defaultLatency = Duration.ZERO;
+  private final Map<String, Duration> latencies = new HashMap<>();
+  private final Map<String, Double> faultRates = new HashMap<>();
+  private RandomGenerator random = RandomGenerator.getDefault();
+
+  private KonnektorSimulatorBuilder() {}
+
+  public static KonnektorSimulatorBuilder newBuilder() {
+    return new KonnektorSimulatorBuilder();
+  }
+
+  /** The host to bind to, defaults to <code>localhost</code>. */
+  public KonnektorSimulatorBuilder host(String host) {
+    this.host = host;
+    return this;
+  }
+
+  /** The port to bind to, <code>0</code> picks a free one. */
+  public KonnektorSimulatorBuilder port(int port) {
+    this.port = port;
+    return this;
+  }
+
+  /**
+   * The number of threads serving requests, latency is simulated by blocking them. Defaults to
+   * <code>64</code>.
+   */
+  public KonnektorSimulatorBuilder workerThreads(int workerThreads) {
+    this.workerThreads = workerThreads;
+    return this;
+  }
+
+  /** Adds a SMC-B with freshly generated brainpoolP256r1 and RSA authentication keys. */
+  public KonnektorSimulatorBuilder addCard(String telematikId, String holderName) {
+    var handle = "SMC-B-%d".formatted(cards.size() + 1);
+    return addCard(SoftwareCards.generate(handle, telematikId, holderName));
+  }
+
+  public KonnektorSimulatorBuilder addCard(SimulatedCard card) {
+    this.cards.add(card);
+    return this;
+  }
+
+  /** The latency added to every operation without an explicit one. */
+  public KonnektorSimulatorBuilder defaultLatency(Duration latency) {
+    this.defaultLatency = latency;
+    return this;
+  }
+
+  /**
+   * The latency added to an operation.
+   *
+   * @param operation the operation name as in the WSDL, e.g. <code>ExternalAuthenticate</code>
+   */
+  public KonnektorSimulatorBuilder latency(String operation, Duration latency) {
+    this.latencies.put(operation, latency);
+    return this;
+  }
+
+  /**
+   * The share of calls to an operation which fail with a SOAP fault.
+   *
+   * @param operation the operation name as in the WSDL, e.g. <code>ExternalAuthenticate</code>
+   * @param rate between <code>0.0</code> (never) and <code>1.0</code> (always)
+   */
+  public KonnektorSimulatorBuilder faultRate(String operation, double rate) {
+    this.faultRates.put(operation, rate);
+    return this;
+  }
+
+  /** The source of randomness for fault injection, e.g. a seeded one for reproducible runs. */
+  public KonnektorSimulatorBuilder random(RandomGenerator random) {
+    this.random = random;
+    return this;
+  }
+
+  public KonnektorSimulator build() {
+
+    if (host == null || host.isBlank()) {
+      throw new IllegalArgumentException("host required");
+    }
+
+    if (port < 0 || port > 65535) {
+      throw new IllegalArgumentException("invalid port: %d".formatted(port));
+    }
+
+    if (workerThreads < 1) {
+      throw new IllegalArgumentException("workerThreads must be at least 1");
+    }
+
+    if (cards.isEmpty()) {
+      throw new IllegalArgumentException("at least one card required");
+    }
+
+    if (defaultLatency == null || defaultLatency.isNegative()) {
+      throw new IllegalArgumentException("defaultLatency must not be negative");
+    }
+
+    for (var e : latencies.entrySet()) {
+      if (e.getValue() == null || e.getValue().isNegative()) {
+        throw new IllegalArgumentException(
+            "latency of %s must not be negative".formatted(e.getKey()));
+      }
+    }
+
+    for (var e : faultRates.entrySet()) {
+      if (!(e.getValue() >= 0.0 && e.getValue() <= 1.0)) {
+        throw new IllegalArgumentException(
+            "fault rate of %s must be between 0 and 1".formatted(e.getKey()));
+      }
+    }
+
+    if (random == null) {
+      throw new IllegalArgumentException("random required");
+    }
+
+    var behaviour = new OperationBehaviour(defaultLatency, latencies, faultRates, random);
+    return new KonnektorSimulator(host, port, workerThreads, cards, behaviour);
+  }
+}
@@ -0,0 +1,17 @@
+package com.oviva.epa.simulator;
+
+import java.security.KeyPair;
+import java.security.cert.X509Certificate;
+
+/**
+ * A SMC-B backed by software keys, the authentication certificates carry the telematik ID in their
+ * admission extension just like the ones of a real card.
+ */
+public record SimulatedCard(
+    String handle,
+    String telematikId,
+    String holderName,
+    KeyPair eccKeyPair,
+    X509Certificate eccAuthCertificate,
+    KeyPair rsaKeyPair,
+    X509Certificate rsaAuthCertificate) {}
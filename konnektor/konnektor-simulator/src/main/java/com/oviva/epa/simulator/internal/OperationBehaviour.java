@@ -0,0 +1,115 @@
+package com.oviva.epa.simulator.internal;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.random.RandomGenerator;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import telematik.ws.conn.connectorcommon.xsd.v5_0.Status;
+import telematik.ws.tel.error.telematikerror.xsd.v2_0.Error;
+
+/** Counts the calls of each operation and injects the configured latency and faults. */
+public class OperationBehaviour {
+
+  /** The code a Konnektor uses for an internal error. */
+  private static final int INTERNAL_ERROR_CODE = 4011;
+
+  private static final DatatypeFactory DATATYPE_FACTORY = newDatatypeFactory();
+
+  private final Duration defaultLatency;
+  private final Map<String, Duration> latencies;
+  private final Map<String, Double> faultRates;
+  private final RandomGenerator random;
+  private final Map<String, LongAdder> invocations = new ConcurrentHashMap<>();
+
+  public OperationBehaviour(
+      Duration defaultLatency,
+      Map<String, Duration> latencies,
+      Map<String, Double> faultRates,
+      RandomGenerator random) {
+    this.defaultLatency = defaultLatency;
+    this.latencies = Map.copyOf(latencies);
+    this.faultRates = Map.copyOf(faultRates);
+    this.random = random;
+  }
+
+  /**
+   * Called first thing by every operation, delays the call and possibly fails it.
+   *
+   * @param newFault creates the fault declared by the port type from a message and the error
+   */
+  public <E extends Exception> void apply(String operation, BiFunction<String, Error, E> newFault)
+      throws E {
+    invocations.computeIfAbsent(operation, k -> new LongAdder()).increment();
+
+    sleep(latencies.getOrDefault(operation, defaultLatency));
+
+    var rate = faultRates.getOrDefault(operation, 0.0);
+    if (rate > 0.0 && random.nextDouble() < rate) {
+      var message = "injected fault in %s".formatted(operation);
+      throw newFault.apply(message, error(message));
+    }
+  }
+
+  public long invocations(String operation) {
+    var counter = invocations.get(operation);
+    return counter != null ? counter.sum() : 0;
+  }
+
+  public static Status ok() {
+    var status = new Status();
+    status.setResult("OK");
+    return status;
+  }
+
+  public static XMLGregorianCalendar toXmlCalendar(Instant instant) {
+    return DATATYPE_FACTORY.newXMLGregorianCalendar(
+        GregorianCalendar.from(instant.atZone(ZoneOffset.UTC)));
+  }
+
+  public static Error error(String message) {
+    var trace = new Error.Trace();
+    trace.setEventID(UUID.randomUUID().toString());
+    trace.setInstance(UUID.randomUUID().toString());
+    trace.setLogReference(UUID.randomUUID().toString());
+    trace.setCompType("KON");
+    trace.setCode(BigInteger.valueOf(INTERNAL_ERROR_CODE));
+    trace.setSeverity("Error");
+    trace.setErrorType("Technical");
+    trace.setErrorText(message);
+
+    var error = new Error();
+    error.setMessageID(UUID.randomUUID().toString());
+    error.setTimestamp(toXmlCalendar(Instant.now()));
+    error.getTrace().add(trace);
+    return error;
+  }
+
+  private static void sleep(Duration latency) {
+    if (latency.isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(latency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static DatatypeFactory newDatatypeFactory() {
+    try {
+      return DatatypeFactory.newInstance();
+    } catch (DatatypeConfigurationException e) {
+      throw new IllegalStateException("failed to initialize datatype factory", e);
+    }
+  }
+}
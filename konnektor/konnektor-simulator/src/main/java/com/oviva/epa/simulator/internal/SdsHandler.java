@@ -0,0 +1,85 @@
+package com.oviva.epa.simulator.internal;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import telematik.ws.conn.servicedirectory.xsd.v3_1.ConnectorServices;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.EndpointType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.ServiceType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.ServicesType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.VersionType;
+import telematik.ws.conn.serviceinformation.xsd.v2_0.VersionsType;
+
+/** Serves the <code>connector.sds</code> listing the simulated services, all without TLS. */
+public class SdsHandler implements HttpHandler {
+
+  private final byte[] body;
+
+  public SdsHandler(URI base) {
+    var services = new ServicesType();
+    services.getService().add(service(base, SimulatedEventService.NAME, "7.2.0"));
+    services.getService().add(service(base, SimulatedCardService.NAME, "8.1.2"));
+    services.getService().add(service(base, SimulatedCertificateService.NAME, "6.0.1"));
+    services.getService().add(service(base, SimulatedAuthSignatureService.NAME, "7.4.1"));
+
+    var connectorServices = new ConnectorServices();
+    connectorServices.setTLSMandatory(false);
+    connectorServices.setClientAutMandatory(false);
+    connectorServices.setServiceInformation(services);
+
+    this.body = marshal(connectorServices);
+  }
+
+  @Override
+  public void handleRequest(HttpServerExchange exchange) {
+    if (!Methods.GET.equals(exchange.getRequestMethod())) {
+      exchange.setStatusCode(StatusCodes.METHOD_NOT_ALLOWED);
+      exchange.endExchange();
+      return;
+    }
+
+    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/xml");
+    exchange.getResponseSender().send(ByteBuffer.wrap(body));
+  }
+
+  /** The path of the endpoint of a simulated service. */
+  public static String path(String serviceName) {
+    return "/ws/" + serviceName;
+  }
+
+  private static ServiceType service(URI base, String name, String version) {
+    var endpoint = new EndpointType();
+    endpoint.setLocation(base.resolve(path(name)).toString());
+
+    var versionType = new VersionType();
+    versionType.setVersion(version);
+    versionType.setEndpoint(endpoint);
+
+    var versions = new VersionsType();
+    versions.getVersion().add(versionType);
+
+    var service = new ServiceType();
+    service.setName(name);
+    service.setVersions(versions);
+    return service;
+  }
+
+  private static byte[] marshal(ConnectorServices connectorServices) {
+    try {
+      var out = new ByteArrayOutputStream();
+      JAXBContext.newInstance(ConnectorServices.class)
+          .createMarshaller()
+          .marshal(connectorServices, out);
+      return out.toByteArray();
+    } catch (JAXBException e) {
+      throw new IllegalStateException("failed to marshal connector.sds", e);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.oviva.epa.simulator.internal;
+
+import com.oviva.epa.simulator.SimulatedCard;
+import jakarta.jws.WebService;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import oasis.names.tc.dss._1_0.core.schema.Base64Signature;
+import oasis.names.tc.dss._1_0.core.schema.SignatureObject;
+import telematik.ws.conn.authsignatureservice.wsdl.v7_4.AuthSignatureServicePortType;
+import telematik.ws.conn.authsignatureservice.wsdl.v7_4.FaultMessage;
+import telematik.ws.conn.signatureservice.xsd.v7_4.ExternalAuthenticate;
+import telematik.ws.conn.signatureservice.xsd.v7_4.ExternalAuthenticateResponse;
+
+/**
+ * Signs with the software keys of the simulated cards, ECDSA on brainpoolP256r1 or RSASSA-PSS with
+ * SHA-256 depending on the requested signature type.
+ */
+@WebService(
+    serviceName = SimulatedAuthSignatureService.NAME,
+    portName = "AuthSignatureServicePort",
+    targetNamespace = "http://ws.gematik.de/conn/AuthSignatureService/WSDL/v7.4",
+    endpointInterface =
+        "telematik.ws.conn.authsignatureservice.wsdl.v7_4.AuthSignatureServicePortType")
+public class SimulatedAuthSignatureService implements AuthSignatureServicePortType {
+
+  public static final String NAME = "AuthSignatureService";
+
+  private static final String SIGNATURE_TYPE_ECDSA = "urn:bsi:tr:03111:ecdsa";
+  private static final String SIGNATURE_TYPE_RSA = "urn:ietf:rfc:3447";
+  private static final int HASH_LENGTH = 32;
+
+  private final List<SimulatedCard> cards;
+  private final OperationBehaviour behaviour;
+
+  public SimulatedAuthSignatureService(List<SimulatedCard> cards, OperationBehaviour behaviour) {
+    this.cards = cards;
+    this.behaviour = behaviour;
+  }
+
+  @Override
+  public ExternalAuthenticateResponse externalAuthenticate(ExternalAuthenticate parameter)
+      throws FaultMessage {
+    behaviour.apply("ExternalAuthenticate", FaultMessage::new);
+
+    var card =
+        cards.stream()
+            .filter(c -> c.handle().equals(parameter.getCardHandle()))
+            .findFirst()
+            .orElseThrow(() -> fault("unknown card handle: " + parameter.getCardHandle()));
+
+    var hash = parameter.getBinaryString().getBase64Data().getValue();
+    if (hash == null || hash.length != HASH_LENGTH) {
+      throw fault("expected a %d byte hash to sign".formatted(HASH_LENGTH));
+    }
+
+    // RSA is the default of the Konnektor
+    var signatureType =
+        parameter.getOptionalInputs() != null
+                && parameter.getOptionalInputs().getSignatureType() != null
+            ? parameter.getOptionalInputs().getSignatureType()
+            : SIGNATURE_TYPE_RSA;
+
+    byte[] signature;
+    try {
+      signature =
+          switch (signatureType) {
+            case SIGNATURE_TYPE_ECDSA ->
+                SoftwareCards.signEcdsa(card.eccKeyPair().getPrivate(), hash);
+            case SIGNATURE_TYPE_RSA ->
+                SoftwareCards.signRsaPss(card.rsaKeyPair().getPrivate(), hash);
+            default -> throw fault("unsupported signature type: " + signatureType);
+          };
+    } catch (GeneralSecurityException e) {
+      throw fault("signing failed: " + e.getMessage());
+    }
+
+    var base64Signature = new Base64Signature();
+    base64Signature.setType(signatureType);
+    base64Signature.setValue(signature);
+
+    var signatureObject = new SignatureObject();
+    signatureObject.setBase64Signature(base64Signature);
+
+    var response = new ExternalAuthenticateResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setSignatureObject(signatureObject);
+    return response;
+  }
+
+  private static FaultMessage fault(String message) {
+    return new FaultMessage(message, OperationBehaviour.error(message));
+  }
+}
@@ -0,0 +1,90 @@
+package com.oviva.epa.simulator.internal;
+
+import com.oviva.epa.simulator.SimulatedCard;
+import jakarta.jws.WebService;
+import java.util.List;
+import telematik.ws.conn.cardservice.wsdl.v8_1.CardServicePortType;
+import telematik.ws.conn.cardservice.wsdl.v8_1.FaultMessage;
+import telematik.ws.conn.cardservice.xsd.v8_1.ChangePin;
+import telematik.ws.conn.cardservice.xsd.v8_1.DisablePin;
+import telematik.ws.conn.cardservice.xsd.v8_1.EnablePin;
+import telematik.ws.conn.cardservice.xsd.v8_1.GetPinStatus;
+import telematik.ws.conn.cardservice.xsd.v8_1.GetPinStatusResponse;
+import telematik.ws.conn.cardservice.xsd.v8_1.PinStatusEnum;
+import telematik.ws.conn.cardservice.xsd.v8_1.UnblockPin;
+import telematik.ws.conn.cardservice.xsd.v8_1.VerifyPin;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.PinResponseType;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.PinResultEnum;
+
+/** The PINs of all simulated cards are verified. */
+@WebService(
+    serviceName = SimulatedCardService.NAME,
+    portName = "CardServicePort",
+    targetNamespace = "http://ws.gematik.de/conn/CardService/WSDL/v8.1",
+    endpointInterface = "telematik.ws.conn.cardservice.wsdl.v8_1.CardServicePortType")
+public class SimulatedCardService implements CardServicePortType {
+
+  public static final String NAME = "CardService";
+
+  private final List<SimulatedCard> cards;
+  private final OperationBehaviour behaviour;
+
+  public SimulatedCardService(List<SimulatedCard> cards, OperationBehaviour behaviour) {
+    this.cards = cards;
+    this.behaviour = behaviour;
+  }
+
+  @Override
+  public GetPinStatusResponse getPinStatus(GetPinStatus parameter) throws FaultMessage {
+    behaviour.apply("GetPinStatus", FaultMessage::new);
+    requireCard(parameter.getCardHandle());
+
+    var response = new GetPinStatusResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setPinStatus(PinStatusEnum.VERIFIED);
+    return response;
+  }
+
+  @Override
+  public PinResponseType verifyPin(VerifyPin parameter) throws FaultMessage {
+    behaviour.apply("VerifyPin", FaultMessage::new);
+    requireCard(parameter.getCardHandle());
+
+    var response = new PinResponseType();
+    response.setStatus(OperationBehaviour.ok());
+    response.setPinResult(PinResultEnum.OK);
+    return response;
+  }
+
+  @Override
+  public PinResponseType changePin(ChangePin parameter) throws FaultMessage {
+    throw unsupported("ChangePin");
+  }
+
+  @Override
+  public PinResponseType enablePin(EnablePin parameter) throws FaultMessage {
+    throw unsupported("EnablePin");
+  }
+
+  @Override
+  public PinResponseType disablePin(DisablePin parameter) throws FaultMessage {
+    throw unsupported("DisablePin");
+  }
+
+  @Override
+  public PinResponseType unblockPin(UnblockPin parameter) throws FaultMessage {
+    throw unsupported("UnblockPin");
+  }
+
+  private void requireCard(String handle) throws FaultMessage {
+    if (cards.stream().noneMatch(c -> c.handle().equals(handle))) {
+      var message = "unknown card handle: %s".formatted(handle);
+      throw new FaultMessage(message, OperationBehaviour.error(message));
+    }
+  }
+
+  private static FaultMessage unsupported(String operation) {
+    var message = "%s not supported by the simulator".formatted(operation);
+    return new FaultMessage(message, OperationBehaviour.error(message));
+  }
+}
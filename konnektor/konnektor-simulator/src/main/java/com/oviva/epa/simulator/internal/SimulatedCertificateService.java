@@ -0,0 +1,108 @@
+package com.oviva.epa.simulator.internal;
+
+import com.oviva.epa.simulator.SimulatedCard;
+import jakarta.jws.WebService;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import telematik.ws.conn.certificateservice.wsdl.v6_0.CertificateServicePortType;
+import telematik.ws.conn.certificateservice.wsdl.v6_0.FaultMessage;
+import telematik.ws.conn.certificateservice.xsd.v6_0.CheckCertificateExpiration;
+import telematik.ws.conn.certificateservice.xsd.v6_0.CheckCertificateExpirationResponse;
+import telematik.ws.conn.certificateservice.xsd.v6_0.CryptType;
+import telematik.ws.conn.certificateservice.xsd.v6_0.ReadCardCertificate;
+import telematik.ws.conn.certificateservice.xsd.v6_0.ReadCardCertificateResponse;
+import telematik.ws.conn.certificateservice.xsd.v6_0.VerifyCertificate;
+import telematik.ws.conn.certificateservice.xsd.v6_0.VerifyCertificateResponse;
+import telematik.ws.conn.certificateservicecommon.xsd.v2_0.CertRefEnum;
+import telematik.ws.conn.certificateservicecommon.xsd.v2_0.X509DataInfoListType;
+import telematik.ws.conn.certificateservicecommon.xsd.v2_0.X509DataInfoListType.X509DataInfo;
+import telematik.ws.conn.certificateservicecommon.xsd.v2_0.X509DataInfoListType.X509DataInfo.X509Data;
+import telematik.ws.conn.certificateservicecommon.xsd.v2_0.X509DataInfoListType.X509DataInfo.X509Data.X509IssuerSerial;
+
+/** Reads the authentication certificates of the simulated cards, other certificates are missing. */
+@WebService(
+    serviceName = SimulatedCertificateService.NAME,
+    portName = "CertificateServicePort",
+    targetNamespace = "http://ws.gematik.de/conn/CertificateService/WSDL/v6.0",
+    endpointInterface = "telematik.ws.conn.certificateservice.wsdl.v6_0.CertificateServicePortType")
+public class SimulatedCertificateService implements CertificateServicePortType {
+
+  public static final String NAME = "CertificateService";
+
+  private final List<SimulatedCard> cards;
+  private final OperationBehaviour behaviour;
+
+  public SimulatedCertificateService(List<SimulatedCard> cards, OperationBehaviour behaviour) {
+    this.cards = cards;
+    this.behaviour = behaviour;
+  }
+
+  @Override
+  public ReadCardCertificateResponse readCardCertificate(ReadCardCertificate parameter)
+      throws FaultMessage {
+    behaviour.apply("ReadCardCertificate", FaultMessage::new);
+
+    var card =
+        cards.stream()
+            .filter(c -> c.handle().equals(parameter.getCardHandle()))
+            .findFirst()
+            .orElseThrow(() -> fault("unknown card handle: " + parameter.getCardHandle()));
+
+    var list = new X509DataInfoListType();
+    for (var certRef : parameter.getCertRefList().getCertRef()) {
+      if (certRef != CertRefEnum.C_AUT) {
+        throw fault("%s not available on simulated card".formatted(certRef));
+      }
+
+      // RSA is the default of the Konnektor
+      var certificate =
+          parameter.getCrypt() == CryptType.ECC
+              ? card.eccAuthCertificate()
+              : card.rsaAuthCertificate();
+      list.getX509DataInfo().add(dataInfo(certRef, certificate));
+    }
+
+    var response = new ReadCardCertificateResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setX509DataInfoList(list);
+    return response;
+  }
+
+  @Override
+  public CheckCertificateExpirationResponse checkCertificateExpiration(
+      CheckCertificateExpiration parameter) throws FaultMessage {
+    throw fault("CheckCertificateExpiration not supported by the simulator");
+  }
+
+  @Override
+  public VerifyCertificateResponse verifyCertificate(VerifyCertificate parameter)
+      throws FaultMessage {
+    throw fault("VerifyCertificate not supported by the simulator");
+  }
+
+  private static X509DataInfo dataInfo(CertRefEnum certRef, X509Certificate certificate)
+      throws FaultMessage {
+    var issuerSerial = new X509IssuerSerial();
+    issuerSerial.setX509IssuerName(certificate.getIssuerX500Principal().getName());
+    issuerSerial.setX509SerialNumber(certificate.getSerialNumber().toString());
+
+    var data = new X509Data();
+    data.setX509IssuerSerial(issuerSerial);
+    data.setX509SubjectName(certificate.getSubjectX500Principal().getName());
+    try {
+      data.setX509Certificate(certificate.getEncoded());
+    } catch (CertificateEncodingException e) {
+      throw fault("failed to encode certificate: " + e.getMessage());
+    }
+
+    var info = new X509DataInfo();
+    info.setCertRef(certRef);
+    info.setX509Data(data);
+    return info;
+  }
+
+  private static FaultMessage fault(String message) {
+    return new FaultMessage(message, OperationBehaviour.error(message));
+  }
+}
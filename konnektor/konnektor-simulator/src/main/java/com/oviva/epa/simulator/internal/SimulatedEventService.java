@@ -0,0 +1,152 @@
+package com.oviva.epa.simulator.internal;
+
+import com.oviva.epa.simulator.SimulatedCard;
+import jakarta.jws.WebService;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import telematik.ws.conn.cardservice.xsd.v8_1.CardInfoType;
+import telematik.ws.conn.cardservice.xsd.v8_1.Cards;
+import telematik.ws.conn.cardservicecommon.xsd.v2_0.CardTypeType;
+import telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType;
+import telematik.ws.conn.eventservice.wsdl.v6_1.FaultMessage;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardTerminals;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardTerminalsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCards;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetCardsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetResourceInformation;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetResourceInformationResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetSubscription;
+import telematik.ws.conn.eventservice.xsd.v6_1.GetSubscriptionResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptions;
+import telematik.ws.conn.eventservice.xsd.v6_1.RenewSubscriptionsResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.Subscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscribeResponse;
+import telematik.ws.conn.eventservice.xsd.v6_1.SubscriptionRenewal;
+import telematik.ws.conn.eventservice.xsd.v6_1.Unsubscribe;
+import telematik.ws.conn.eventservice.xsd.v6_1.UnsubscribeResponse;
+
+/**
+ * Lists the simulated cards and keeps track of subscriptions. No events are pushed, the simulated
+ * cards are always inserted.
+ */
+@WebService(
+    serviceName = SimulatedEventService.NAME,
+    portName = "EventServicePort",
+    targetNamespace = "http://ws.gematik.de/conn/EventService/WSDL/v7.2",
+    endpointInterface = "telematik.ws.conn.eventservice.wsdl.v6_1.EventServicePortType")
+public class SimulatedEventService implements EventServicePortType {
+
+  public static final String NAME = "EventService";
+
+  private static final Duration SUBSCRIPTION_LIFETIME = Duration.ofHours(1);
+
+  private final List<SimulatedCard> cards;
+  private final OperationBehaviour behaviour;
+  private final Map<String, Instant> subscriptions = new ConcurrentHashMap<>();
+
+  public SimulatedEventService(List<SimulatedCard> cards, OperationBehaviour behaviour) {
+    this.cards = cards;
+    this.behaviour = behaviour;
+  }
+
+  @Override
+  public GetCardsResponse getCards(GetCards parameter) throws FaultMessage {
+    behaviour.apply("GetCards", FaultMessage::new);
+
+    var result = new Cards();
+    for (int i = 0; i < cards.size(); i++) {
+      var card = cards.get(i);
+      var info = new CardInfoType();
+      info.setCardHandle(card.handle());
+      info.setCardType(CardTypeType.SMC_B);
+      info.setCardHolderName(card.holderName());
+      info.setIccsn("80276%015d".formatted(i + 1));
+      info.setCtId("CT-SIMULATOR");
+      info.setSlotId(BigInteger.valueOf(i + 1));
+      info.setInsertTime(OperationBehaviour.toXmlCalendar(Instant.now()));
+      result.getCard().add(info);
+    }
+
+    var response = new GetCardsResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setCards(result);
+    return response;
+  }
+
+  @Override
+  public SubscribeResponse subscribe(Subscribe parameter) throws FaultMessage {
+    behaviour.apply("Subscribe", FaultMessage::new);
+
+    var id = UUID.randomUUID().toString();
+    var terminationTime = Instant.now().plus(SUBSCRIPTION_LIFETIME);
+    subscriptions.put(id, terminationTime);
+
+    var response = new SubscribeResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setSubscriptionID(id);
+    response.setTerminationTime(OperationBehaviour.toXmlCalendar(terminationTime));
+    return response;
+  }
+
+  @Override
+  public RenewSubscriptionsResponse renewSubscriptions(RenewSubscriptions parameter)
+      throws FaultMessage {
+    behaviour.apply("RenewSubscriptions", FaultMessage::new);
+
+    var renewals = new RenewSubscriptionsResponse.SubscribeRenewals();
+    for (var id : parameter.getSubscriptionID()) {
+      var terminationTime = Instant.now().plus(SUBSCRIPTION_LIFETIME);
+      if (subscriptions.replace(id, terminationTime) == null) {
+        continue;
+      }
+      var renewal = new SubscriptionRenewal();
+      renewal.setSubscriptionID(id);
+      renewal.setTerminationTime(OperationBehaviour.toXmlCalendar(terminationTime));
+      renewals.getSubscriptionRenewal().add(renewal);
+    }
+
+    var response = new RenewSubscriptionsResponse();
+    response.setStatus(OperationBehaviour.ok());
+    response.setSubscribeRenewals(renewals);
+    return response;
+  }
+
+  @Override
+  public UnsubscribeResponse unsubscribe(Unsubscribe parameter) throws FaultMessage {
+    behaviour.apply("Unsubscribe", FaultMessage::new);
+
+    if (parameter.getSubscriptionID() != null) {
+      subscriptions.remove(parameter.getSubscriptionID());
+    }
+
+    var response = new UnsubscribeResponse();
+    response.setStatus(OperationBehaviour.ok());
+    return response;
+  }
+
+  @Override
+  public GetResourceInformationResponse getResourceInformation(GetResourceInformation parameter)
+      throws FaultMessage {
+    throw unsupported("GetResourceInformation");
+  }
+
+  @Override
+  public GetSubscriptionResponse getSubscription(GetSubscription parameter) throws FaultMessage {
+    throw unsupported("GetSubscription");
+  }
+
+  @Override
+  public GetCardTerminalsResponse getCardTerminals(GetCardTerminals parameter) throws FaultMessage {
+    throw unsupported("GetCardTerminals");
+  }
+
+  private static FaultMessage unsupported(String operation) {
+    var message = "%s not supported by the simulator".formatted(operation);
+    return new FaultMessage(message, OperationBehaviour.error(message));
+  }
+}
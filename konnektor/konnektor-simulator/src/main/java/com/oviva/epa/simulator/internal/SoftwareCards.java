@@ -0,0 +1,132 @@
+package com.oviva.epa.simulator.internal;
+
+import com.oviva.epa.simulator.SimulatedCard;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.isismtt.ISISMTTObjectIdentifiers;
+import org.bouncycastle.asn1.isismtt.x509.AdmissionSyntax;
+import org.bouncycastle.asn1.isismtt.x509.Admissions;
+import org.bouncycastle.asn1.isismtt.x509.ProfessionInfo;
+import org.bouncycastle.asn1.x500.DirectoryString;
+import org.bouncycastle.asn1.x500.X500NameBuilder;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+/** Software replacements for the keys and operations of a SMC-B. */
+public class SoftwareCards {
+
+  private static final Provider BC = new BouncyCastleProvider();
+
+  /** Betriebsstätte Arzt, any SMC-B profession works for the client. */
+  private static final ASN1ObjectIdentifier PROFESSION_OID =
+      new ASN1ObjectIdentifier("1.2.276.0.76.4.50");
+
+  private static final Duration VALIDITY = Duration.ofDays(365);
+
+  private static final PSSParameterSpec RSA_PSS_SHA256 =
+      new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+
+  private SoftwareCards() {}
+
+  public static SimulatedCard generate(String handle, String telematikId, String holderName) {
+    try {
+      var ecc = KeyPairGenerator.getInstance("EC", BC);
+      ecc.initialize(new ECGenParameterSpec("brainpoolP256r1"));
+      var eccKeyPair = ecc.generateKeyPair();
+
+      var rsa = KeyPairGenerator.getInstance("RSA", BC);
+      rsa.initialize(2048);
+      var rsaKeyPair = rsa.generateKeyPair();
+
+      return new SimulatedCard(
+          handle,
+          telematikId,
+          holderName,
+          eccKeyPair,
+          selfSigned(eccKeyPair, "SHA256withECDSA", telematikId, holderName),
+          rsaKeyPair,
+          selfSigned(rsaKeyPair, "SHA256withRSA", telematikId, holderName));
+    } catch (GeneralSecurityException | OperatorCreationException | CertIOException e) {
+      throw new IllegalStateException("failed to generate simulated card", e);
+    }
+  }
+
+  /**
+   * Signs a hash like the card does for <code>urn:bsi:tr:03111:ecdsa</code>.
+   *
+   * @return the DER encoded signature
+   */
+  public static byte[] signEcdsa(PrivateKey key, byte[] hash) throws GeneralSecurityException {
+    var signature = Signature.getInstance("NONEwithECDSA", BC);
+    signature.initSign(key);
+    signature.update(hash);
+    return signature.sign();
+  }
+
+  /** Signs a SHA-256 hash with RSASSA-PSS like the card does for <code>urn:ietf:rfc:3447</code>. */
+  public static byte[] signRsaPss(PrivateKey key, byte[] hash) throws GeneralSecurityException {
+    var signature = Signature.getInstance("RAWRSASSA-PSS", BC);
+    signature.setParameter(RSA_PSS_SHA256);
+    signature.initSign(key);
+    signature.update(hash);
+    return signature.sign();
+  }
+
+  private static X509Certificate selfSigned(
+      KeyPair keyPair, String algorithm, String telematikId, String holderName)
+      throws GeneralSecurityException, OperatorCreationException, CertIOException {
+
+    var subject =
+        new X500NameBuilder(BCStyle.INSTANCE)
+            .addRDN(BCStyle.C, "DE")
+            .addRDN(BCStyle.O, "Konnektor Simulator")
+            .addRDN(BCStyle.CN, holderName)
+            .build();
+
+    var professionInfo =
+        new ProfessionInfo(
+            null,
+            new DirectoryString[] {new DirectoryString(holderName)},
+            new ASN1ObjectIdentifier[] {PROFESSION_OID},
+            telematikId,
+            null);
+    var admission =
+        new AdmissionSyntax(
+            null,
+            new DERSequence(new Admissions(null, null, new ProfessionInfo[] {professionInfo})));
+
+    var now = Instant.now();
+    var builder =
+        new JcaX509v3CertificateBuilder(
+            subject,
+            new BigInteger(64, new SecureRandom()),
+            Date.from(now.minus(Duration.ofDays(1))),
+            Date.from(now.plus(VALIDITY)),
+            subject,
+            keyPair.getPublic());
+    builder.addExtension(ISISMTTObjectIdentifiers.id_isismtt_at_admission, false, admission);
+
+    var signer = new JcaContentSignerBuilder(algorithm).setProvider(BC).build(keyPair.getPrivate());
+    return new JcaX509CertificateConverter().setProvider(BC).getCertificate(builder.build(signer));
+  }
+}
@@ -0,0 +1,51 @@
+package com.oviva.epa.simulator.internal;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import java.util.Set;
+
+/**
+ * Lets CXF publish a JAX-WS endpoint on a plain Undertow server through the JAX-WS HTTP SPI, see
+ * {@link org.apache.cxf.jaxws.EndpointImpl#publish(jakarta.xml.ws.spi.http.HttpContext)}.
+ *
+ * <p>Requests are handed to CXF on a worker thread in blocking mode.
+ */
+public class UndertowHttpContext extends jakarta.xml.ws.spi.http.HttpContext
+    implements HttpHandler {
+
+  private final String path;
+
+  public UndertowHttpContext(String path) {
+    this.path = path;
+  }
+
+  @Override
+  public void handleRequest(HttpServerExchange exchange) throws Exception {
+    if (exchange.isInIoThread()) {
+      exchange.dispatch(this);
+      return;
+    }
+
+    if (handler == null) {
+      throw new IllegalStateException("no endpoint published at " + path);
+    }
+
+    exchange.startBlocking();
+    handler.handle(new UndertowHttpExchange(exchange, this));
+  }
+
+  @Override
+  public String getPath() {
+    return path;
+  }
+
+  @Override
+  public Object getAttribute(String name) {
+    return null;
+  }
+
+  @Override
+  public Set<String> getAttributeNames() {
+    return Set.of();
+  }
+}
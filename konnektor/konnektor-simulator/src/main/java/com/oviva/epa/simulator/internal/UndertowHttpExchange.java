@@ -0,0 +1,147 @@
+package com.oviva.epa.simulator.internal;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HttpString;
+import jakarta.xml.ws.spi.http.HttpContext;
+import jakarta.xml.ws.spi.http.HttpExchange;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Exposes an Undertow exchange as JAX-WS HTTP SPI exchange, the exchange must be blocking. */
+class UndertowHttpExchange extends HttpExchange {
+
+  private final HttpServerExchange exchange;
+  private final HttpContext context;
+
+  UndertowHttpExchange(HttpServerExchange exchange, HttpContext context) {
+    this.exchange = exchange;
+    this.context = context;
+  }
+
+  @Override
+  public Map<String, List<String>> getRequestHeaders() {
+    return toMap(exchange.getRequestHeaders());
+  }
+
+  @Override
+  public String getRequestHeader(String name) {
+    return exchange.getRequestHeaders().getFirst(name);
+  }
+
+  @Override
+  public Map<String, List<String>> getResponseHeaders() {
+    return toMap(exchange.getResponseHeaders());
+  }
+
+  @Override
+  public void addResponseHeader(String name, String value) {
+    exchange.getResponseHeaders().add(HttpString.tryFromString(name), value);
+  }
+
+  @Override
+  public String getRequestURI() {
+    return exchange.getRequestURI();
+  }
+
+  @Override
+  public String getContextPath() {
+    return "";
+  }
+
+  @Override
+  public String getRequestMethod() {
+    return exchange.getRequestMethod().toString();
+  }
+
+  @Override
+  public HttpContext getHttpContext() {
+    return context;
+  }
+
+  @Override
+  public void close() {
+    exchange.endExchange();
+  }
+
+  @Override
+  public InputStream getRequestBody() {
+    return exchange.getInputStream();
+  }
+
+  @Override
+  public OutputStream getResponseBody() {
+    return exchange.getOutputStream();
+  }
+
+  @Override
+  public void setStatus(int status) {
+    exchange.setStatusCode(status);
+  }
+
+  @Override
+  public InetSocketAddress getRemoteAddress() {
+    return exchange.getSourceAddress();
+  }
+
+  @Override
+  public InetSocketAddress getLocalAddress() {
+    return exchange.getDestinationAddress();
+  }
+
+  @Override
+  public String getProtocol() {
+    return exchange.getProtocol().toString();
+  }
+
+  @Override
+  public String getScheme() {
+    return exchange.getRequestScheme();
+  }
+
+  @Override
+  public String getPathInfo() {
+    var relativePath = exchange.getRelativePath();
+    return relativePath == null || relativePath.isEmpty() ? null : relativePath;
+  }
+
+  @Override
+  public String getQueryString() {
+    var query = exchange.getQueryString();
+    return query == null || query.isEmpty() ? null : query;
+  }
+
+  @Override
+  public Object getAttribute(String name) {
+    return null;
+  }
+
+  @Override
+  public Set<String> getAttributeNames() {
+    return Set.of();
+  }
+
+  @Override
+  public Principal getUserPrincipal() {
+    return null;
+  }
+
+  @Override
+  public boolean isUserInRole(String role) {
+    return false;
+  }
+
+  private static Map<String, List<String>> toMap(HeaderMap headers) {
+    var map = new LinkedHashMap<String, List<String>>();
+    for (var values : headers) {
+      map.put(values.getHeaderName().toString(), List.copyOf(values));
+    }
+    return map;
+  }
+}
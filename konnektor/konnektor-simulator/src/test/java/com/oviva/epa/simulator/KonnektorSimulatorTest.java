@@ -0,0 +1,136 @@
+package com.oviva.epa.simulator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.oviva.epa.client.KonnektorService;
+import com.oviva.epa.client.KonnektorServiceBuilder;
+import com.oviva.epa.client.konn.KonnektorConnectionFactoryBuilder;
+import com.oviva.epa.client.model.KonnektorException;
+import com.oviva.epa.client.model.PinStatus;
+import java.nio.charset.StandardCharsets;
+import java.security.Signature;
+import java.time.Duration;
+import java.util.Random;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Test;
+
+class KonnektorSimulatorTest {
+
+  private static final String TELEMATIK_ID = "1-SMC-B-Testkarte-883110000118001";
+  private static final byte[] DATA = "hello world".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void listSmcbCards() {
+    try (var simulator = simulator().build()) {
+      simulator.start();
+
+      var cards = konnektorService(simulator).listSmcbCards();
+
+      assertEquals(1, cards.size());
+      var card = cards.get(0);
+      assertEquals(TELEMATIK_ID, card.telematikId());
+      assertEquals("Praxis Dr. Test", card.holderName());
+      assertTrue(card.pinVerified());
+      assertEquals(
+          simulator.cards().get(0).eccAuthCertificate().getPublicKey(),
+          card.authEccCertificate().getPublicKey());
+    }
+  }
+
+  @Test
+  void authSignEcdsa_verifiesWithCardCertificate() throws Exception {
+    try (var simulator = simulator().build()) {
+      simulator.start();
+      var konnektorService = konnektorService(simulator);
+      var card = konnektorService.listSmcbCards().get(0);
+
+      var signature = konnektorService.authSignEcdsa(card.handle(), DATA);
+
+      var verifier = Signature.getInstance("SHA256withPLAIN-ECDSA", new BouncyCastleProvider());
+      verifier.initVerify(card.authEccCertificate().getPublicKey());
+      verifier.update(DATA);
+      assertTrue(verifier.verify(signature));
+    }
+  }
+
+  @Test
+  void authSignRsaPss_verifiesWithCardCertificate() throws Exception {
+    try (var simulator = simulator().build()) {
+      simulator.start();
+      var konnektorService = konnektorService(simulator);
+      var card = konnektorService.listSmcbCards().get(0);
+
+      var signature = konnektorService.authSignRsaPss(card.handle(), DATA);
+
+      var verifier = Signature.getInstance("SHA256withRSAandMGF1", new BouncyCastleProvider());
+      verifier.initVerify(simulator.cards().get(0).rsaAuthCertificate().getPublicKey());
+      verifier.update(DATA);
+      assertTrue(verifier.verify(signature));
+    }
+  }
+
+  @Test
+  void latency_delaysOperation() {
+    try (var simulator =
+        simulator().latency("ExternalAuthenticate", Duration.ofMillis(200)).build()) {
+      simulator.start();
+      var konnektorService = konnektorService(simulator);
+      var card = konnektorService.listSmcbCards().get(0);
+
+      var start = System.nanoTime();
+      konnektorService.authSignEcdsa(card.handle(), DATA);
+      var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      assertTrue(elapsed.compareTo(Duration.ofMillis(200)) >= 0, "elapsed " + elapsed);
+    }
+  }
+
+  @Test
+  void faultRate_failsOperation() {
+    try (var simulator = simulator().faultRate("GetPinStatus", 1.0).build()) {
+      simulator.start();
+      var konnektorService = konnektorService(simulator);
+
+      var e = assertThrows(KonnektorException.class, () -> konnektorService.verifySmcPin("x"));
+
+      assertNotNull(e.getCause());
+      assertEquals(1, simulator.invocations("GetPinStatus"));
+    }
+  }
+
+  @Test
+  void verifySmcPin_unknownCard_faults() {
+    try (var simulator = simulator().build()) {
+      simulator.start();
+      var konnektorService = konnektorService(simulator);
+
+      assertThrows(KonnektorException.class, () -> konnektorService.verifySmcPin("unknown"));
+      assertEquals(
+          PinStatus.VERIFIED, konnektorService.verifySmcPin(simulator.cards().get(0).handle()));
+    }
+  }
+
+  @Test
+  void build_invalidFaultRate_throws() {
+    var builder = simulator().faultRate("GetCards", 1.5);
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void build_noCards_throws() {
+    var builder = KonnektorSimulatorBuilder.newBuilder();
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  private static KonnektorSimulatorBuilder simulator() {
+    return KonnektorSimulatorBuilder.newBuilder()
+        .addCard(TELEMATIK_ID, "Praxis Dr. Test")
+        .random(new Random(42));
+  }
+
+  private static KonnektorService konnektorService(KonnektorSimulator simulator) {
+    var factory =
+        KonnektorConnectionFactoryBuilder.newBuilder().konnektorUri(simulator.uri()).build();
+    return KonnektorServiceBuilder.newBuilder().connection(factory.connect()).build();
+  }
+}
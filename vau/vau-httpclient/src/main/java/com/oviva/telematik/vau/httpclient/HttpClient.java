@@ -1,10 +1,24 @@
 package com.oviva.telematik.vau.httpclient;
 
+import java.util.concurrent.CompletableFuture;
+
 /** Very basic interface for an HttpClient */
 public interface HttpClient {
 
   HttpResponse call(HttpRequest req);
 
+  /**
+   * Sends the request without blocking the caller. Failures complete the future exceptionally with
+   * an {@link HttpException}.
+   *
+   * <p>The default runs {@link #call(HttpRequest)} on a virtual thread, implementations able to
+   * send natively without blocking override it.
+   */
+  default CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+    return CompletableFuture.supplyAsync(
+        () -> call(req), command -> Thread.ofVirtual().name("vau-http-call").start(command));
+  }
+
   class HttpException extends RuntimeException {
     public HttpException(String message) {
       super(message);
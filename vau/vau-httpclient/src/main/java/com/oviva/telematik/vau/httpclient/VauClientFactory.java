@@ -1,8 +1,27 @@
 package com.oviva.telematik.vau.httpclient;
 
 import java.net.URI;
+import java.util.Optional;
 
 public interface VauClientFactory {
 
   HttpClient connect(URI vauBaseUri);
+
+  /**
+   * Continues a tunnel established earlier without a handshake. Whether the VAU still knows the
+   * tunnel only shows with the first request.
+   *
+   * @see #exportSession(HttpClient)
+   */
+  default HttpClient resume(VauSession session) {
+    throw new UnsupportedOperationException("resuming VAU sessions is not supported");
+  }
+
+  /**
+   * @return the session of a tunnel created by this factory, empty if the client is not a tunnel of
+   *     this factory
+   */
+  default Optional<VauSession> exportSession(HttpClient client) {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,14 @@
+package com.oviva.telematik.vau.httpclient;
+
+import de.gematik.vau.lib.data.VauClientSession;
+import java.net.URI;
+
+/**
+ * An established VAU tunnel, allows to continue the tunnel without a new handshake.
+ *
+ * <p>Contains the session keys, it must never be stored or sent anywhere in plain text.
+ *
+ * @param cid the VAU-CID assigned by the VAU during the handshake
+ * @param sessionUri the URI to send the messages of the tunnel to
+ */
+public record VauSession(String cid, URI sessionUri, VauClientSession state) {}
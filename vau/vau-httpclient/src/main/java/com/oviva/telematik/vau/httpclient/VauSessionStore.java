@@ -0,0 +1,245 @@
+package com.oviva.telematik.vau.httpclient;
+
+import de.gematik.vau.lib.data.VauClientSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the VAU tunnels of a process across a restart, so they can be continued without new
+ * handshakes.
+ *
+ * <p>The file contains the session keys of the tunnels and until when their user sessions are
+ * authorized, so neither handshakes nor authorizations are repeated. It is encrypted with AES-GCM.
+ * The key has to be provided by the application, e.g. from a secret shared by all instances of a
+ * deployment.
+ *
+ * <p>Sessions are taken from the store exactly once, a tunnel continued by two processes would fail
+ * in both due to the request counter.
+ */
+public class VauSessionStore {
+
+  private static final Logger log = LoggerFactory.getLogger(VauSessionStore.class);
+
+  // files of another version fail to decrypt and are discarded
+  private static final byte[] MAGIC = "VSS2".getBytes(StandardCharsets.US_ASCII);
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_BIT_LENGTH = 128;
+
+  /**
+   * @param endpoint the VAU the tunnel was established with
+   * @param insurantId the insurant the tunnel was used for, may be null
+   * @param authorizedUntil until when the user session of the tunnel is authorized, null if it is
+   *     not
+   */
+  public record Entry(
+      URI endpoint, String insurantId, VauSession session, Instant authorizedUntil) {
+
+    public Entry(URI endpoint, String insurantId, VauSession session) {
+      this(endpoint, insurantId, session, null);
+    }
+  }
+
+  private final Path file;
+  private final SecretKey key;
+  private final SecureRandom random = new SecureRandom();
+
+  private VauSessionStore(Path file, SecretKey key) {
+    this.file = file;
+    this.key = key;
+  }
+
+  /**
+   * @param key an AES key of 16, 24 or 32 bytes
+   */
+  public static VauSessionStore open(Path file, byte[] key) {
+    if (file == null) {
+      throw new IllegalArgumentException("file must not be null");
+    }
+    if (key == null || (key.length != 16 && key.length != 24 && key.length != 32)) {
+      throw new IllegalArgumentException("key must be an AES key of 16, 24 or 32 bytes");
+    }
+    return new VauSessionStore(file, new SecretKeySpec(key, "AES"));
+  }
+
+  /** Replaces the stored sessions. */
+  public synchronized void save(List<Entry> entries) {
+    try {
+      var parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+
+      var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+      Files.deleteIfExists(tmp);
+      createPrivateFile(tmp);
+      Files.write(tmp, encrypt(encode(entries)));
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to save VAU sessions to " + file, e);
+    }
+    log.atInfo().log("saved {} VAU sessions to {}", entries.size(), file);
+  }
+
+  /**
+   * Returns the stored sessions and removes them from the store.
+   *
+   * @return the stored sessions, empty if there are none or the file can not be decrypted
+   */
+  public synchronized List<Entry> takeAll() {
+    if (Files.notExists(file)) {
+      return List.of();
+    }
+
+    byte[] content;
+    try {
+      content = Files.readAllBytes(file);
+      Files.delete(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("failed to read VAU sessions from " + file, e);
+    }
+
+    try {
+      var entries = decode(decrypt(content));
+      log.atInfo().log("loaded {} VAU sessions from {}", entries.size(), file);
+      return entries;
+    } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+      // e.g. a different key, the tunnels are simply established again
+      log.atWarn().setCause(e).log("discarding unreadable VAU sessions in {}", file);
+      return List.of();
+    }
+  }
+
+  private static void createPrivateFile(Path path) throws IOException {
+    try {
+      Files.createFile(
+          path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } catch (UnsupportedOperationException e) {
+      Files.createFile(path);
+    }
+  }
+
+  private byte[] encrypt(byte[] plaintext) {
+    try {
+      var iv = new byte[IV_LENGTH];
+      random.nextBytes(iv);
+
+      var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BIT_LENGTH, iv));
+      cipher.updateAAD(MAGIC);
+      var ciphertext = cipher.doFinal(plaintext);
+
+      var out = new ByteArrayOutputStream(MAGIC.length + IV_LENGTH + ciphertext.length);
+      out.writeBytes(MAGIC);
+      out.writeBytes(iv);
+      out.writeBytes(ciphertext);
+      return out.toByteArray();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("failed to encrypt VAU sessions", e);
+    }
+  }
+
+  private byte[] decrypt(byte[] content) throws GeneralSecurityException {
+    if (content.length < MAGIC.length + IV_LENGTH
+        || !Arrays.equals(content, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+      throw new IllegalArgumentException("not a VAU session file");
+    }
+
+    var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(
+        Cipher.DECRYPT_MODE,
+        key,
+        new GCMParameterSpec(TAG_BIT_LENGTH, content, MAGIC.length, IV_LENGTH));
+    cipher.updateAAD(MAGIC);
+    var offset = MAGIC.length + IV_LENGTH;
+    return cipher.doFinal(content, offset, content.length - offset);
+  }
+
+  private static byte[] encode(List<Entry> entries) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(entries.size());
+      for (var entry : entries) {
+        out.writeUTF(entry.endpoint().toString());
+        out.writeBoolean(entry.insurantId() != null);
+        if (entry.insurantId() != null) {
+          out.writeUTF(entry.insurantId());
+        }
+
+        var session = entry.session();
+        out.writeUTF(session.cid());
+        out.writeUTF(session.sessionUri().toString());
+
+        var state = session.state();
+        writeBytes(out, state.keyId());
+        writeBytes(out, state.clientToServerAppData());
+        writeBytes(out, state.serverToClientAppData());
+        out.writeLong(state.requestCounter());
+        out.writeBoolean(state.isPu());
+
+        out.writeBoolean(entry.authorizedUntil() != null);
+        if (entry.authorizedUntil() != null) {
+          out.writeLong(entry.authorizedUntil().toEpochMilli());
+        }
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<Entry> decode(byte[] plaintext) throws IOException {
+    try (var in = new DataInputStream(new ByteArrayInputStream(plaintext))) {
+      var count = in.readInt();
+      var entries = new ArrayList<Entry>(count);
+      for (var i = 0; i < count; i++) {
+        var endpoint = URI.create(in.readUTF());
+        var insurantId = in.readBoolean() ? in.readUTF() : null;
+
+        var cid = in.readUTF();
+        var sessionUri = URI.create(in.readUTF());
+
+        var state =
+            new VauClientSession(
+                readBytes(in), readBytes(in), readBytes(in), in.readLong(), in.readBoolean());
+        var authorizedUntil = in.readBoolean() ? Instant.ofEpochMilli(in.readLong()) : null;
+        entries.add(
+            new Entry(
+                endpoint, insurantId, new VauSession(cid, sessionUri, state), authorizedUntil));
+      }
+      return entries;
+    }
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    var length = in.readInt();
+    if (length < 0 || length > in.available()) {
+      throw new IOException("invalid length " + length);
+    }
+    return in.readNBytes(length);
+  }
+}
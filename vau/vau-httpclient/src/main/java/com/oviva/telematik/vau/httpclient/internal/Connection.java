@@ -3,9 +3,14 @@ package com.oviva.telematik.vau.httpclient.internal;
 import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.HttpHeader;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import com.oviva.telematik.vau.httpclient.VauSession;
 import de.gematik.vau.lib.VauClientStateMachine;
+import de.gematik.vau.lib.exceptions.VauDecryptionException;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,11 +19,21 @@ public class Connection {
   private static final Logger log = LoggerFactory.getLogger("vau-messages");
   private static final String METHOD_POST = "POST";
 
+  // the VAU answers messages of an unknown VAU-CID, with a wrong request counter or failing to
+  // decrypt with 403, other client errors do not tell anything about the tunnel
+  private static final int STATUS_SESSION_REJECTED = 403;
+
   private final HttpClient outerClient;
   private final String cid;
   private final URI sessionUri;
   private final VauClientStateMachine client;
 
+  // not synchronized, a virtual thread blocking in a monitor pins its carrier thread
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // the last message sent through the tunnel, the next one is sent once it completed
+  private CompletableFuture<byte[]> tail = CompletableFuture.completedFuture(null);
+
   public Connection(
       HttpClient outerClient, String cid, URI sessionUri, VauClientStateMachine client) {
     this.outerClient = outerClient;
@@ -27,7 +42,55 @@ public class Connection {
     this.client = client;
   }
 
+  /**
+   * Calls within a tunnel are serialized, the request counter of the VAU messages has to reach the
+   * VAU in order.
+   */
   public byte[] call(byte[] requestBody) {
+    lock.lock();
+    try {
+      // wait for messages sent asynchronously before
+      tail.exceptionally(e -> null).join();
+
+      var res = outerClient.call(encrypt(requestBody));
+      return decrypt(res);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Sends the message once all messages sent before completed, without blocking the caller. The VAU
+   * requires the messages of a tunnel in order, so messages are not pipelined.
+   */
+  public CompletableFuture<byte[]> callAsync(byte[] requestBody) {
+    lock.lock();
+    try {
+      var next =
+          tail.handle((r, e) -> null)
+              .thenCompose(ignored -> outerClient.callAsync(encrypt(requestBody)))
+              .thenApply(this::decrypt);
+      tail = next;
+      return next;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the current state of the tunnel, once all messages sent before completed
+   */
+  public VauSession session() {
+    lock.lock();
+    try {
+      tail.exceptionally(e -> null).join();
+      return new VauSession(cid, sessionUri, client.exportSession());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private HttpRequest encrypt(byte[] requestBody) {
 
     // https://gemspec.gematik.de/docs/gemSpec/gemSpec_Krypt/latest/#A_24628-01
 
@@ -44,13 +107,22 @@ public class Connection {
     if (log.isDebugEnabled()) {
       log.atDebug().log("> VAU message: {} {}", req.method(), req.uri());
     }
+    return req;
+  }
 
-    var res = outerClient.call(req);
+  private byte[] decrypt(HttpResponse res) {
 
     if (log.isDebugEnabled()) {
       log.atDebug().log("< VAU message: status={}", res.status());
     }
 
+    if (res.status() == STATUS_SESSION_REJECTED) {
+      throw new VauSessionLostException(
+          res.status(),
+          METHOD_POST,
+          sessionUri,
+          "VAU rejected message, status code %d, cid=%s".formatted(res.status(), cid));
+    }
     if (res.status() != 200) {
       throw new HttpExceptionWithInfo(
           res.status(),
@@ -59,6 +131,12 @@ public class Connection {
           "bad status code %d != 200, cid=%s".formatted(res.status(), cid));
     }
     var ciphertextResponse = res.body();
-    return client.decryptVauMessage(ciphertextResponse);
+    try {
+      return client.decryptVauMessage(ciphertextResponse);
+    } catch (IllegalArgumentException | UnsupportedOperationException e) {
+      // the header does not match the tunnel, e.g. the request counter is out of sync
+      throw new VauDecryptionException(
+          "VAU response does not match the tunnel, cid=%s".formatted(cid), e);
+    }
   }
 }
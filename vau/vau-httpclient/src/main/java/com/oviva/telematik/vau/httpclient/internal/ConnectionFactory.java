@@ -10,6 +10,7 @@ import de.gematik.vau.lib.exceptions.VauProtocolException;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,12 +64,29 @@ public class ConnectionFactory implements VauClientFactory {
       log.atDebug().log("successful VAU handshake");
     }
 
-    var innerClient =
-        new VauHttpClientImpl(
-            new Connection(outerClient, result.cid(), result.sessionUri(), client));
+    return tunnel(new Connection(outerClient, result.cid(), result.sessionUri(), client));
+  }
+
+  @Override
+  public HttpClient resume(VauSession session) {
+    var client = VauClientStateMachine.restore(session.state());
+    return tunnel(new Connection(outerClient, session.cid(), session.sessionUri(), client));
+  }
+
+  @Override
+  public Optional<VauSession> exportSession(HttpClient client) {
+    if (client instanceof TunnelHttpClient tunnel) {
+      return Optional.of(tunnel.connection().session());
+    }
+    return Optional.empty();
+  }
+
+  private HttpClient tunnel(Connection connection) {
+    var innerClient = new VauHttpClientImpl(connection);
 
     // user-agent headers: A_24677 & A_22470
-    return new HeaderDecoratorHttpClient(innerClient, userAgentHeaders);
+    return new TunnelHttpClient(
+        new HeaderDecoratorHttpClient(innerClient, userAgentHeaders), connection);
   }
 
   /** does the handshake to initialize the trusted environment */
@@ -4,6 +4,7 @@ import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
 import com.oviva.telematik.vau.httpclient.HttpResponse;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 public class DowngradeHttpClient implements HttpClient {
 
@@ -15,18 +16,26 @@ public class DowngradeHttpClient implements HttpClient {
 
   @Override
   public HttpResponse call(HttpRequest req) {
+    return delegate.call(downgrade(req));
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+    return delegate.callAsync(downgrade(req));
+  }
+
+  private HttpRequest downgrade(HttpRequest req) {
 
     var port = req.uri().getPort();
     var scheme = req.uri().getScheme();
     if ("http".equals(scheme)) {
-      return delegate.call(req);
+      return req;
     }
 
     if (((port == 443) || (port == -1)) && "https".equals(scheme)) {
       var downgradedUri =
           URI.create("http://%s%s".formatted(req.uri().getHost(), req.uri().getPath()));
-      var downgraded = new HttpRequest(downgradedUri, req.method(), req.headers(), req.body());
-      return delegate.call(downgraded);
+      return new HttpRequest(downgradedUri, req.method(), req.headers(), req.body());
     }
 
     throw new UnsupportedOperationException("cannot downgrade request to: %s".formatted(req.uri()));
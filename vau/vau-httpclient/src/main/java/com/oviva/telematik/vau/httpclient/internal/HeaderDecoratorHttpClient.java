@@ -6,6 +6,7 @@ import com.oviva.telematik.vau.httpclient.HttpRequest;
 import com.oviva.telematik.vau.httpclient.HttpResponse;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class HeaderDecoratorHttpClient implements HttpClient {
 
@@ -19,6 +20,15 @@ public class HeaderDecoratorHttpClient implements HttpClient {
 
   @Override
   public HttpResponse call(HttpRequest req) {
+    return delegate.call(decorate(req));
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+    return delegate.callAsync(decorate(req));
+  }
+
+  private HttpRequest decorate(HttpRequest req) {
 
     var decorated = new ArrayList<>(extraHeaders);
     if (req.headers() != null) {
@@ -30,8 +40,7 @@ public class HeaderDecoratorHttpClient implements HttpClient {
       }
     }
 
-    var newRequest = new HttpRequest(req.uri(), req.method(), decorated, req.body());
-    return delegate.call(newRequest);
+    return new HttpRequest(req.uri(), req.method(), decorated, req.body());
   }
 
   private boolean isExtraHeader(HttpHeader h) {
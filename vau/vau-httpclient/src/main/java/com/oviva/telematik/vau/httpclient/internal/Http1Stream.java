@@ -0,0 +1,186 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import com.oviva.telematik.vau.httpclient.HttpHeader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads and writes HTTP/1.1 messages on a plain stream, for transports the JDK HttpClient does not
+ * support, e.g. Unix domain sockets.
+ *
+ * <p>Bodies are delimited by their content-length, the chunked transfer coding is not supported.
+ * The VAU tunnel can not handle it either. Input streams are read byte by byte up to the body, they
+ * should be buffered.
+ */
+public class Http1Stream {
+
+  private static final int MAX_LINE_LENGTH = 16 * 1024;
+  private static final int MAX_HEADERS = 200;
+
+  // set by the stream itself, never copied from a message
+  private static final Set<String> HOP_BY_HOP_HEADERS =
+      Set.of("content-length", "transfer-encoding", "connection", "keep-alive");
+
+  private static final byte[] CRLF = {'\r', '\n'};
+
+  private Http1Stream() {}
+
+  /**
+   * The start line and headers of a request or response.
+   *
+   * @param startLine e.g. {@code POST http://example.com/path HTTP/1.1} or {@code HTTP/1.1 200 OK}
+   */
+  public record Head(String startLine, List<HttpHeader> headers) {
+
+    public Optional<String> header(String name) {
+      return headers.stream()
+          .filter(h -> h.name().equalsIgnoreCase(name))
+          .map(HttpHeader::value)
+          .findFirst();
+    }
+
+    /**
+     * @return the declared length of the body, -1 if there is none
+     */
+    public long contentLength() throws IOException {
+      var value = header("Content-Length");
+      if (value.isEmpty()) {
+        return -1;
+      }
+      try {
+        var length = Long.parseLong(value.get());
+        if (length < 0) {
+          throw new IOException("invalid content-length: '%s'".formatted(value.get()));
+        }
+        return length;
+      } catch (NumberFormatException e) {
+        throw new IOException("invalid content-length: '%s'".formatted(value.get()), e);
+      }
+    }
+
+    public boolean isChunked() {
+      return header("Transfer-Encoding").isPresent();
+    }
+
+    public boolean keepAlive() {
+      return header("Connection").map(v -> !v.equalsIgnoreCase("close")).orElse(true);
+    }
+  }
+
+  /**
+   * @return the head of the next message, null if the stream ended in between two messages
+   */
+  public static Head readHead(InputStream in) throws IOException {
+    var startLine = readLine(in);
+    if (startLine == null) {
+      return null;
+    }
+
+    var headers = new ArrayList<HttpHeader>();
+    String line;
+    while (!(line = requireLine(in)).isEmpty()) {
+      if (headers.size() >= MAX_HEADERS) {
+        throw new IOException("too many headers");
+      }
+      var splits = line.split(":", 2);
+      if (splits.length != 2 || splits[0].isBlank()) {
+        throw new IOException("invalid header line: '%s'".formatted(line));
+      }
+      headers.add(new HttpHeader(splits[0].trim(), splits[1].trim()));
+    }
+    return new Head(startLine, headers);
+  }
+
+  /** Reads a body of the given length right into an array of its final size. */
+  public static byte[] readBody(InputStream in, long contentLength) throws IOException {
+    if (contentLength > Integer.MAX_VALUE - 8) {
+      throw new IOException("body too large: %d bytes".formatted(contentLength));
+    }
+    var body = new byte[(int) contentLength];
+    var read = in.readNBytes(body, 0, body.length);
+    if (read != body.length) {
+      throw new EOFException("body ended after %d of %d bytes".formatted(read, contentLength));
+    }
+    return body;
+  }
+
+  /**
+   * Writes a complete message. Hop-by-hop headers of the given ones are replaced by those of this
+   * stream.
+   */
+  public static void write(
+      OutputStream out, String startLine, List<HttpHeader> headers, byte[] body, boolean keepAlive)
+      throws IOException {
+
+    var length = body != null ? body.length : 0;
+
+    var head = new ByteArrayOutputStream(1024);
+    writeLine(head, startLine);
+    if (headers != null) {
+      for (var h : headers) {
+        if (HOP_BY_HOP_HEADERS.contains(h.name().toLowerCase())) {
+          continue;
+        }
+        writeLine(head, h.name() + ": " + h.value());
+      }
+    }
+    writeLine(head, "Content-Length: " + length);
+    if (!keepAlive) {
+      writeLine(head, "Connection: close");
+    }
+    head.writeBytes(CRLF);
+
+    head.writeTo(out);
+    if (length > 0) {
+      out.write(body);
+    }
+    out.flush();
+  }
+
+  private static void writeLine(ByteArrayOutputStream out, String line) {
+    out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+    out.writeBytes(CRLF);
+  }
+
+  private static String requireLine(InputStream in) throws IOException {
+    var line = readLine(in);
+    if (line == null) {
+      throw new EOFException("message ended within its head");
+    }
+    return line;
+  }
+
+  /**
+   * @return the line without its CRLF or LF terminator, null if the stream ended before the line
+   *     started
+   */
+  private static String readLine(InputStream in) throws IOException {
+    var line = new ByteArrayOutputStream(128);
+    int b;
+    while ((b = in.read()) != '\n') {
+      if (b == -1) {
+        if (line.size() == 0) {
+          return null;
+        }
+        throw new EOFException("line ended unexpectedly");
+      }
+      if (line.size() >= MAX_LINE_LENGTH) {
+        throw new IOException("line exceeds %d bytes".formatted(MAX_LINE_LENGTH));
+      }
+      line.write(b);
+    }
+
+    var bytes = line.toByteArray();
+    var length =
+        bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+  }
+}
@@ -4,7 +4,7 @@ import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.HttpHeader;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
 import com.oviva.telematik.vau.httpclient.HttpResponse;
-import java.io.*;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -25,88 +25,74 @@ public class HttpCodec {
 
   public static HttpResponse decode(byte[] bytes) {
 
-    try (var reader =
-        new BufferedReader(new StringReader(new String(bytes, StandardCharsets.UTF_8)))) {
-
-      // HTTP/1.1 404 Not Found
-      var statusLine = reader.readLine();
-      var status = parseStatusLine(statusLine);
-      var headers = parseHeaders(reader);
-
-      var baos = new ByteArrayOutputStream();
-      try (var bodyReader = reader;
-          var w = new OutputStreamWriter(baos)) {
-        bodyReader.transferTo(w);
-      }
-
-      var body = baos.toByteArray();
-      if (body.length != headers.contentLength()) {
-        /* IMPORTANT: At least RISE connectors don't actually set the `content-length`
-         * Argumentation:
-         *
-         * Wie Sie selbst festgestellt haben fehlt im inneren HTTP der Content-Length Header.
-         * Aus unserer Sicht haben wir nicht die Möglichkeit, diesen Header in jeder Situation zu setzen,
-         * weil das Aktensystem oft mit großen Datenmengen hantieren muss. Die Content-Length hier vorab zu
-         * bestimmen wäre zu speicherintensiv.
-         *
-         * Clients müssen somit aus unserer Sicht jedenfalls mit der Situation eines fehlenden Content-Length
-         * Headers umgehen können. Sie nennen selbst die bestehenden Möglichkeiten für einen Server, wie er in diesem
-         * Fall den Clients ermöglichen muss, den Response trotzdem erfolgreich zu parsen.
-         *
-         * Keine dieser Möglichkeiten ist aus unserer Sicht auf das spezielle Design des inneren HTTP anwendbar.
-         * Allerdings liefern wir das äußere HTTP von verschlüsseltem Nachrichten stets mit einem chunked
-         * Transfer-Encoding aus, womit die Längeninformationen indirekt über das äußere HTTP zu Verfügung stehen.
-         * Auch wenn wir damit sicherlich nicht vollständig HTTP-konform sind,
-         * ist dies aus unserer Sicht ausreichend, damit Clients die verschlüsselten Nachrichten
-         * trotzdem erfolgreich parsen können.
-         */
-
-        var riseBehaves = false;
-        if (riseBehaves) {
-          throw new HttpClient.HttpException(
-              "content-length '%d' != actual length '%d'"
-                  .formatted(headers.contentLength(), body.length));
-        }
+    // only the status line and headers are decoded as text, the body may be binary and several MB
+    var reader = new LineReader(bytes);
+
+    // HTTP/1.1 404 Not Found
+    var statusLine = reader.readLine();
+    var status = parseStatusLine(statusLine);
+    var headers = parseHeaders(reader);
+
+    var body = reader.remaining();
+    if (body.length != headers.contentLength()) {
+      /* IMPORTANT: At least RISE connectors don't actually set the `content-length`
+       * Argumentation:
+       *
+       * Wie Sie selbst festgestellt haben fehlt im inneren HTTP der Content-Length Header.
+       * Aus unserer Sicht haben wir nicht die Möglichkeit, diesen Header in jeder Situation zu setzen,
+       * weil das Aktensystem oft mit großen Datenmengen hantieren muss. Die Content-Length hier vorab zu
+       * bestimmen wäre zu speicherintensiv.
+       *
+       * Clients müssen somit aus unserer Sicht jedenfalls mit der Situation eines fehlenden Content-Length
+       * Headers umgehen können. Sie nennen selbst die bestehenden Möglichkeiten für einen Server, wie er in diesem
+       * Fall den Clients ermöglichen muss, den Response trotzdem erfolgreich zu parsen.
+       *
+       * Keine dieser Möglichkeiten ist aus unserer Sicht auf das spezielle Design des inneren HTTP anwendbar.
+       * Allerdings liefern wir das äußere HTTP von verschlüsseltem Nachrichten stets mit einem chunked
+       * Transfer-Encoding aus, womit die Längeninformationen indirekt über das äußere HTTP zu Verfügung stehen.
+       * Auch wenn wir damit sicherlich nicht vollständig HTTP-konform sind,
+       * ist dies aus unserer Sicht ausreichend, damit Clients die verschlüsselten Nachrichten
+       * trotzdem erfolgreich parsen können.
+       */
+
+      var riseBehaves = false;
+      if (riseBehaves) {
+        throw new HttpClient.HttpException(
+            "content-length '%d' != actual length '%d'"
+                .formatted(headers.contentLength(), body.length));
       }
-
-      return new HttpResponse(status, headers.all(), body);
-
-    } catch (IOException e) {
-      throw new HttpClient.HttpException("failed to decode response", e);
     }
+
+    return new HttpResponse(status, headers.all(), body);
   }
 
-  private static ResponseHeaders parseHeaders(BufferedReader reader) {
+  private static ResponseHeaders parseHeaders(LineReader reader) {
 
     var headers = new ArrayList<HttpHeader>();
     var contentLength = -1;
 
-    try {
-      var line = reader.readLine();
-      while (line != null) {
-        if (line.isEmpty()) {
-          contentLength = contentLength == -1 ? 0 : contentLength;
-          return new ResponseHeaders(headers, contentLength);
-        }
+    var line = reader.readLine();
+    while (line != null) {
+      if (line.isEmpty()) {
+        contentLength = contentLength == -1 ? 0 : contentLength;
+        return new ResponseHeaders(headers, contentLength);
+      }
 
-        var h = parseHeader(line);
-        if ("Content-Length".equals(h.name())) {
+      var h = parseHeader(line);
+      if ("Content-Length".equals(h.name())) {
 
-          // we've already set the content-length!
-          if (contentLength >= 0) {
-            throw new HttpClient.HttpException("content-length set more than once!");
-          }
-          contentLength = parseContentLength(h.value());
+        // we've already set the content-length!
+        if (contentLength >= 0) {
+          throw new HttpClient.HttpException("content-length set more than once!");
         }
-
-        headers.add(h);
-        line = reader.readLine();
+        contentLength = parseContentLength(h.value());
       }
-    } catch (IOException e) {
-      throw new HttpClient.HttpException("failed to parse headers", e);
+
+      headers.add(h);
+      line = reader.readLine();
     }
 
-    throw new IllegalStateException("unreachable");
+    throw new HttpClient.HttpException("failed to parse headers, missing empty line");
   }
 
   private static int parseContentLength(String headerValue) {
@@ -138,6 +124,9 @@ public class HttpCodec {
   private record ResponseHeaders(List<HttpHeader> all, int contentLength) {}
 
   private static int parseStatusLine(String statusLine) {
+    if (statusLine == null) {
+      throw new HttpClient.HttpException("missing status line");
+    }
     var splits = statusLine.split(" ", 3);
     if (splits.length != 3) {
       throw new HttpClient.HttpException("invalid status line: '%s'".formatted(statusLine));
@@ -155,20 +144,16 @@ public class HttpCodec {
 
     validateRequest(req);
 
-    var baos = new ByteArrayOutputStream(1024);
+    var head = new ByteArrayOutputStream(1024);
 
-    addRequestLine(baos, req.uri(), req.method());
-    writeHeaders(baos, req);
-    writeBody(baos, req.body());
-
-    return baos.toByteArray();
-  }
+    addRequestLine(head, req.uri(), req.method());
+    writeHeaders(head, req);
 
-  private static void writeBody(ByteArrayOutputStream buf, byte[] body) {
-    if (body == null || body.length == 0) {
-      return;
-    }
-    buf.writeBytes(body);
+    // the body is copied exactly once, right behind the headers
+    var body = req.body() != null ? req.body() : new byte[0];
+    var encoded = Arrays.copyOf(head.toByteArray(), head.size() + body.length);
+    System.arraycopy(body, 0, encoded, head.size(), body.length);
+    return encoded;
   }
 
   private static void writeHeaders(ByteArrayOutputStream buf, HttpRequest req) {
@@ -271,6 +256,43 @@ public class HttpCodec {
         .collect(Collectors.joining("-"));
   }
 
+  /** Reads lines terminated by CRLF or LF from the head of a message. */
+  private static class LineReader {
+
+    private final byte[] bytes;
+    private int position;
+
+    LineReader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    /**
+     * @return the next line without its terminator, null at the end of the message
+     */
+    String readLine() {
+      if (position >= bytes.length) {
+        return null;
+      }
+
+      var start = position;
+      var end = start;
+      while (end < bytes.length && bytes[end] != '\n') {
+        end++;
+      }
+      position = Math.min(end + 1, bytes.length);
+
+      if (end > start && bytes[end - 1] == '\r') {
+        end--;
+      }
+      return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /** Copies everything not read yet, i.e. the body. */
+    byte[] remaining() {
+      return Arrays.copyOfRange(bytes, position, bytes.length);
+    }
+  }
+
   private static byte[] asUtf8(String s) {
     if (s == null) {
       return new byte[0];
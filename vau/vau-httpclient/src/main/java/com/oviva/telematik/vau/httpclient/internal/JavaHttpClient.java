@@ -9,6 +9,8 @@ import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 public class JavaHttpClient implements HttpClient {
@@ -27,6 +29,40 @@ public class JavaHttpClient implements HttpClient {
   public com.oviva.telematik.vau.httpclient.HttpResponse call(
       com.oviva.telematik.vau.httpclient.HttpRequest req) {
 
+    try {
+      var res = httpClient.send(toRequest(req), BodyHandlers.ofByteArray());
+      return toResponse(res);
+    } catch (IOException e) {
+      throw httpFailCausedBy(req.method(), req.uri(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    return null;
+  }
+
+  @Override
+  public CompletableFuture<com.oviva.telematik.vau.httpclient.HttpResponse> callAsync(
+      com.oviva.telematik.vau.httpclient.HttpRequest req) {
+
+    return httpClient
+        .sendAsync(toRequest(req), BodyHandlers.ofByteArray())
+        .handle(
+            (res, e) -> {
+              if (e != null) {
+                throw httpFailCausedBy(req.method(), req.uri(), unwrap(e));
+              }
+              return toResponse(res);
+            });
+  }
+
+  private static Exception unwrap(Throwable t) {
+    var cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    return cause instanceof Exception e ? e : new IOException(cause);
+  }
+
+  private HttpRequest toRequest(com.oviva.telematik.vau.httpclient.HttpRequest req) {
+
     var builder = HttpRequest.newBuilder().uri(req.uri());
 
     Stream.ofNullable(req.headers())
@@ -38,17 +74,7 @@ public class JavaHttpClient implements HttpClient {
     } else {
       builder.method(req.method(), BodyPublishers.ofByteArray(req.body()));
     }
-
-    try {
-      var res = httpClient.send(builder.build(), BodyHandlers.ofByteArray());
-      return toResponse(res);
-    } catch (IOException e) {
-      throw httpFailCausedBy(req.method(), req.uri(), e);
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-    }
-
-    return null;
+    return builder.build();
   }
 
   private com.oviva.telematik.vau.httpclient.HttpResponse toResponse(
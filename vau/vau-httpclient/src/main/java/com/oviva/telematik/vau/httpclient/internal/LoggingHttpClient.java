@@ -4,6 +4,7 @@ import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
 import com.oviva.telematik.vau.httpclient.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 
 public class LoggingHttpClient implements HttpClient {
@@ -23,6 +24,31 @@ public class LoggingHttpClient implements HttpClient {
       return delegate.call(req);
     }
 
+    logRequest(req);
+    var res = delegate.call(req);
+    logResponse(req, res);
+
+    return res;
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+
+    if (!logger.isDebugEnabled()) {
+      return delegate.callAsync(req);
+    }
+
+    logRequest(req);
+    return delegate
+        .callAsync(req)
+        .thenApply(
+            res -> {
+              logResponse(req, res);
+              return res;
+            });
+  }
+
+  private void logRequest(HttpRequest req) {
     var raw = HttpCodec.encode(req);
 
     logger.atDebug().log(
@@ -30,13 +56,11 @@ public class LoggingHttpClient implements HttpClient {
         req.method(),
         req.uri(),
         new String(raw, StandardCharsets.UTF_8));
+  }
 
-    var res = delegate.call(req);
-
+  private void logResponse(HttpRequest req, HttpResponse res) {
     logger.atDebug().log(
         "< http response: {} {} \n===\n{}===", req.method(), req.uri(), stringify(res));
-
-    return res;
   }
 
   private String stringify(HttpResponse response) {
@@ -0,0 +1,32 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/** A client sending requests through a VAU tunnel, keeps track of the underlying connection. */
+final class TunnelHttpClient implements HttpClient {
+
+  private final HttpClient delegate;
+  private final Connection connection;
+
+  TunnelHttpClient(HttpClient delegate, Connection connection) {
+    this.delegate = delegate;
+    this.connection = connection;
+  }
+
+  Connection connection() {
+    return connection;
+  }
+
+  @Override
+  public HttpResponse call(HttpRequest req) {
+    return delegate.call(req);
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+    return delegate.callAsync(req);
+  }
+}
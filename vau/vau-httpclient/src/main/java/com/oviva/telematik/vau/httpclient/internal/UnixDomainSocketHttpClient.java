@@ -0,0 +1,168 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpHeader;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Talks to a VAU proxy listening on a Unix domain socket, e.g. one running as a sidecar. Requests
+ * are sent with their absolute URI, as to any HTTP proxy.
+ *
+ * <p>Connections are kept alive and re-used, one request at a time each. There are no ephemeral
+ * ports involved, so the number of connections is not limited by them. Failed requests are not
+ * retried, e.g. if the proxy was restarted while a connection was idle.
+ */
+public class UnixDomainSocketHttpClient implements HttpClient, AutoCloseable {
+
+  private final UnixDomainSocketAddress address;
+  private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+  private volatile boolean closed;
+
+  UnixDomainSocketHttpClient(UnixDomainSocketAddress address) {
+    this.address = address;
+  }
+
+  public static UnixDomainSocketHttpClient of(Path socket) {
+    return new UnixDomainSocketHttpClient(UnixDomainSocketAddress.of(socket));
+  }
+
+  @Override
+  public HttpResponse call(HttpRequest req) {
+    if (closed) {
+      throw new HttpClient.HttpException("client already closed");
+    }
+    if (req.uri() == null || !req.uri().isAbsolute()) {
+      throw new HttpClient.HttpException("request URI must be absolute: '%s'".formatted(req.uri()));
+    }
+
+    Connection connection = null;
+    try {
+      connection = checkout();
+      var res = exchange(connection, req);
+      if (res.keepAlive()) {
+        idle.push(connection);
+        if (closed) {
+          // closed while the request was in flight
+          closeIdle();
+        }
+      } else {
+        connection.close();
+      }
+      return res.response();
+    } catch (IOException e) {
+      if (connection != null) {
+        connection.close();
+      }
+      throw JavaHttpClient.httpFailCausedBy(req.method(), req.uri(), e);
+    }
+  }
+
+  /** Closes the idle connections, requests in flight complete and close theirs afterwards. */
+  @Override
+  public void close() {
+    closed = true;
+    closeIdle();
+  }
+
+  private void closeIdle() {
+    Connection connection;
+    while ((connection = idle.poll()) != null) {
+      connection.close();
+    }
+  }
+
+  private Connection checkout() throws IOException {
+    var connection = idle.poll();
+    if (connection != null) {
+      return connection;
+    }
+    var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    try {
+      channel.connect(address);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return new Connection(channel);
+  }
+
+  private Exchanged exchange(Connection connection, HttpRequest req) throws IOException {
+
+    var headers = new ArrayList<HttpHeader>();
+    headers.add(new HttpHeader("Host", req.uri().getAuthority()));
+    if (req.headers() != null) {
+      req.headers().stream().filter(h -> !h.name().equalsIgnoreCase("Host")).forEach(headers::add);
+    }
+
+    // e.g. POST http://epa-as-1.dev.epa4all.de/epa/xds-document/api/I_Document_Management HTTP/1.1
+    var requestLine = "%s %s HTTP/1.1".formatted(req.method(), req.uri().toASCIIString());
+    Http1Stream.write(connection.out(), requestLine, headers, req.body(), true);
+
+    var head = Http1Stream.readHead(connection.in());
+    if (head == null) {
+      throw new EOFException("connection closed without a response");
+    }
+    var status = parseStatus(head.startLine());
+
+    if (head.isChunked()) {
+      throw new IOException("chunked responses are not supported");
+    }
+    var contentLength = head.contentLength();
+    if (contentLength < 0) {
+      // delimited by the end of the connection
+      return new Exchanged(
+          new HttpResponse(status, head.headers(), connection.in().readAllBytes()), false);
+    }
+
+    var body = Http1Stream.readBody(connection.in(), contentLength);
+    return new Exchanged(new HttpResponse(status, head.headers(), body), head.keepAlive());
+  }
+
+  private static int parseStatus(String statusLine) throws IOException {
+    // HTTP/1.1 404 Not Found
+    var splits = statusLine.split(" ", 3);
+    if (splits.length < 2) {
+      throw new IOException("invalid status line: '%s'".formatted(statusLine));
+    }
+    try {
+      return Integer.parseInt(splits[1]);
+    } catch (NumberFormatException e) {
+      throw new IOException("invalid status line: '%s'".formatted(statusLine), e);
+    }
+  }
+
+  private record Exchanged(HttpResponse response, boolean keepAlive) {}
+
+  private record Connection(SocketChannel channel, InputStream in, OutputStream out) {
+
+    Connection(SocketChannel channel) {
+      this(
+          channel,
+          new BufferedInputStream(Channels.newInputStream(channel)),
+          new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // nothing left to do with it
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ import com.oviva.telematik.vau.httpclient.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,22 @@ public class VauHttpClientImpl implements HttpClient {
 
   @Override
   public HttpResponse call(HttpRequest req) {
+
+    var requestBytes = encode(req);
+    var rxBytes = conn.call(requestBytes);
+    return decode(rxBytes);
+  }
+
+  /**
+   * Sends the request through the tunnel without blocking. Requests of a tunnel are still sent one
+   * after the other, see {@link Connection#callAsync(byte[])}.
+   */
+  @Override
+  public CompletableFuture<HttpResponse> callAsync(HttpRequest req) {
+    return conn.callAsync(encode(req)).thenApply(this::decode);
+  }
+
+  private byte[] encode(HttpRequest req) {
     // https://datatracker.ietf.org/doc/html/rfc2616
 
     List<HttpHeader> headers = new ArrayList<>();
@@ -50,7 +67,10 @@ public class VauHttpClientImpl implements HttpClient {
           new String(requestBytes, StandardCharsets.UTF_8));
     }
 
-    var rxBytes = conn.call(requestBytes);
+    return requestBytes;
+  }
+
+  private HttpResponse decode(byte[] rxBytes) {
 
     if (log.isDebugEnabled()) {
       log.atDebug().log(
@@ -0,0 +1,15 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import java.net.URI;
+
+/**
+ * The VAU rejected a message of the tunnel, e.g. because it does not know the tunnel anymore or the
+ * request counter does not match. The message was not processed, it is safe to send it again
+ * through a new tunnel.
+ */
+public class VauSessionLostException extends HttpExceptionWithInfo {
+
+  public VauSessionLostException(int status, String method, URI uri, String message) {
+    super(status, method, uri, message);
+  }
+}
@@ -0,0 +1,113 @@
+package com.oviva.telematik.vau.httpclient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import de.gematik.vau.lib.data.VauClientSession;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VauSessionStoreTest {
+
+  private static final URI ENDPOINT = URI.create("https://epa-as-1.dev.epa4all.de");
+
+  @TempDir Path dir;
+
+  @Test
+  void save_takeAll_roundTrip() throws Exception {
+    var file = dir.resolve("sessions");
+    var store = VauSessionStore.open(file, key(1));
+
+    store.save(List.of(entry("A123456789"), entry(null)));
+
+    // the session keys are not stored in plain text
+    assertFalse(new String(Files.readAllBytes(file)).contains("/VAU/"));
+
+    var entries = store.takeAll();
+    assertEquals(2, entries.size());
+
+    var first = entries.get(0);
+    assertEquals(ENDPOINT, first.endpoint());
+    assertEquals("A123456789", first.insurantId());
+    assertEquals("/VAU/1234", first.session().cid());
+    assertEquals(ENDPOINT.resolve("/VAU/1234"), first.session().sessionUri());
+    assertArrayEquals(new byte[] {1, 2, 3}, first.session().state().keyId());
+    assertArrayEquals(new byte[] {4, 5}, first.session().state().clientToServerAppData());
+    assertArrayEquals(new byte[] {6}, first.session().state().serverToClientAppData());
+    assertEquals(42, first.session().state().requestCounter());
+    assertTrue(first.session().state().isPu());
+
+    assertNull(entries.get(1).insurantId());
+  }
+
+  @Test
+  void save_takeAll_keepsAuthorization() {
+    var store = VauSessionStore.open(dir.resolve("sessions"), key(1));
+    var authorizedUntil = Instant.parse("2025-01-01T10:20:00Z");
+    var authorized = entry("A123456789");
+
+    store.save(
+        List.of(
+            new VauSessionStore.Entry(
+                authorized.endpoint(),
+                authorized.insurantId(),
+                authorized.session(),
+                authorizedUntil),
+            entry("B123456789")));
+
+    var entries = store.takeAll();
+    assertEquals(authorizedUntil, entries.get(0).authorizedUntil());
+    assertNull(entries.get(1).authorizedUntil());
+  }
+
+  @Test
+  void takeAll_removesSessions() {
+    var store = VauSessionStore.open(dir.resolve("sessions"), key(1));
+    store.save(List.of(entry("A123456789")));
+
+    assertEquals(1, store.takeAll().size());
+    assertEquals(List.of(), store.takeAll());
+  }
+
+  @Test
+  void takeAll_differentKey_discardsSessions() {
+    var file = dir.resolve("sessions");
+    VauSessionStore.open(file, key(1)).save(List.of(entry("A123456789")));
+
+    var store = VauSessionStore.open(file, key(2));
+
+    assertEquals(List.of(), store.takeAll());
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void takeAll_noFile_isEmpty() {
+    var store = VauSessionStore.open(dir.resolve("missing"), key(1));
+    assertEquals(List.of(), store.takeAll());
+  }
+
+  @Test
+  void open_invalidKey_throws() {
+    var file = dir.resolve("sessions");
+    var key = new byte[10];
+    assertThrows(IllegalArgumentException.class, () -> VauSessionStore.open(file, key));
+    assertThrows(IllegalArgumentException.class, () -> VauSessionStore.open(file, null));
+  }
+
+  private static VauSessionStore.Entry entry(String insurantId) {
+    var state =
+        new VauClientSession(new byte[] {1, 2, 3}, new byte[] {4, 5}, new byte[] {6}, 42, true);
+    var session = new VauSession("/VAU/1234", ENDPOINT.resolve("/VAU/1234"), state);
+    return new VauSessionStore.Entry(ENDPOINT, insurantId, session);
+  }
+
+  private static byte[] key(int seed) {
+    var key = new byte[32];
+    key[0] = (byte) seed;
+    return key;
+  }
+}
@@ -8,7 +8,9 @@ import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.HttpHeader;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
 import com.oviva.telematik.vau.httpclient.HttpResponse;
+import com.oviva.telematik.vau.httpclient.VauSession;
 import de.gematik.vau.lib.VauClientStateMachine;
+import de.gematik.vau.lib.data.VauClientSession;
 import de.gematik.vau.lib.exceptions.VauProtocolException;
 import java.net.URI;
 import java.util.Collections;
@@ -262,4 +264,26 @@ class ConnectionFactoryTest {
 
     assertTrue(hasUserAgentHeader, "Request should contain proper User-Agent header");
   }
+
+  @Test
+  void resume_exportSession_roundTrip() {
+    var state = new VauClientSession(new byte[] {1}, new byte[32], new byte[32], 7, false);
+    var session = new VauSession("/VAU/1234", testVauUri.resolve("/VAU/1234"), state);
+
+    var client = connectionFactory.resume(session);
+    var exported = connectionFactory.exportSession(client).orElseThrow();
+
+    assertEquals(session.cid(), exported.cid());
+    assertEquals(session.sessionUri(), exported.sessionUri());
+    assertArrayEquals(state.keyId(), exported.state().keyId());
+    assertEquals(7, exported.state().requestCounter());
+
+    // no handshake
+    verifyNoInteractions(mockHttpClient, mockTrustValidatorFactory);
+  }
+
+  @Test
+  void exportSession_foreignClient_isEmpty() {
+    assertTrue(connectionFactory.exportSession(mockHttpClient).isEmpty());
+  }
 }
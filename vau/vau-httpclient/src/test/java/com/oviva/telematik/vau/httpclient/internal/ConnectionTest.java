@@ -0,0 +1,143 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import de.gematik.vau.lib.VauClientStateMachine;
+import de.gematik.vau.lib.exceptions.VauDecryptionException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ConnectionTest {
+
+  private static final URI SESSION_URI = URI.create("https://epa-as-1.dev.epa4all.de/VAU/1234");
+
+  private final HttpClient outerClient = mock(HttpClient.class);
+  private final VauClientStateMachine stateMachine = mock(VauClientStateMachine.class);
+  private final Connection connection =
+      new Connection(outerClient, "/VAU/1234", SESSION_URI, stateMachine);
+
+  @Test
+  void callAsync_sendsMessagesInOrder() throws Exception {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(stateMachine.decryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+
+    var pending = new ArrayList<CompletableFuture<HttpResponse>>();
+    when(outerClient.callAsync(any()))
+        .thenAnswer(
+            i -> {
+              var res = new CompletableFuture<HttpResponse>();
+              pending.add(res);
+              return res;
+            });
+
+    var first = connection.callAsync(bytes("first"));
+    var second = connection.callAsync(bytes("second"));
+
+    // the second message waits for the first one
+    assertEquals(1, pending.size());
+    verify(stateMachine, times(1)).encryptVauMessage(any());
+
+    pending.get(0).complete(new HttpResponse(200, List.of(), bytes("first response")));
+    assertEquals(2, pending.size());
+    pending.get(1).complete(new HttpResponse(200, List.of(), bytes("second response")));
+
+    assertArrayEquals(bytes("first response"), first.get());
+    assertArrayEquals(bytes("second response"), second.get());
+  }
+
+  @Test
+  void callAsync_failedMessage_doesNotBlockNext() throws Exception {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(stateMachine.decryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(outerClient.callAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(new HttpResponse(503, List.of(), null)))
+        .thenReturn(
+            CompletableFuture.completedFuture(new HttpResponse(200, List.of(), bytes("ok"))));
+
+    var failed = connection.callAsync(bytes("first"));
+    var next = connection.callAsync(bytes("second"));
+
+    var e = assertThrows(ExecutionException.class, failed::get);
+    assertInstanceOf(HttpExceptionWithInfo.class, e.getCause());
+    assertArrayEquals(bytes("ok"), next.get());
+  }
+
+  @Test
+  void call_waitsForAsyncMessages() {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(stateMachine.decryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+
+    var pending = new CompletableFuture<HttpResponse>();
+    when(outerClient.callAsync(any())).thenReturn(pending);
+    when(outerClient.call(any(HttpRequest.class)))
+        .thenReturn(new HttpResponse(200, List.of(), bytes("sync")));
+
+    connection.callAsync(bytes("async"));
+
+    var sync = Thread.ofVirtual().start(() -> connection.call(bytes("sync")));
+    assertDoesNotThrow(() -> assertFalse(sync.join(java.time.Duration.ofMillis(100))));
+    verify(outerClient, never()).call(any());
+
+    pending.complete(new HttpResponse(200, List.of(), bytes("async")));
+    assertDoesNotThrow(() -> assertTrue(sync.join(java.time.Duration.ofSeconds(10))));
+    verify(outerClient).call(any());
+  }
+
+  @Test
+  void call_rejectedMessage_isSessionLost() {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(outerClient.call(any(HttpRequest.class)))
+        .thenReturn(new HttpResponse(403, List.of(), null))
+        .thenReturn(new HttpResponse(503, List.of(), null));
+
+    var request = bytes("request");
+    var rejected = assertThrows(VauSessionLostException.class, () -> connection.call(request));
+    assertEquals(403, rejected.status());
+
+    // the VAU may have processed the message, the session is not known to be lost
+    var failed = assertThrows(HttpExceptionWithInfo.class, () -> connection.call(request));
+    assertFalse(failed instanceof VauSessionLostException);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {400, 404, 413, 429})
+  void call_otherClientError_isNotSessionLost(int status) {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(outerClient.call(any(HttpRequest.class)))
+        .thenReturn(new HttpResponse(status, List.of(), null));
+
+    var request = bytes("request");
+    var failed = assertThrows(HttpExceptionWithInfo.class, () -> connection.call(request));
+
+    assertFalse(failed instanceof VauSessionLostException);
+    assertEquals(status, failed.status());
+  }
+
+  @Test
+  void call_counterMismatch_isDecryptionFailure() {
+    when(stateMachine.encryptVauMessage(any())).thenAnswer(i -> i.getArgument(0));
+    when(stateMachine.decryptVauMessage(any()))
+        .thenThrow(new IllegalArgumentException("Invalid request counter. Expected 2, got 1"));
+    when(outerClient.call(any(HttpRequest.class)))
+        .thenReturn(new HttpResponse(200, List.of(), bytes("response")));
+
+    var request = bytes("request");
+    assertThrows(VauDecryptionException.class, () -> connection.call(request));
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+}
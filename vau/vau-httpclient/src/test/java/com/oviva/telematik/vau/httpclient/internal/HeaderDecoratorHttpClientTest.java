@@ -10,6 +10,7 @@ import com.oviva.telematik.vau.httpclient.HttpResponse;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -168,4 +169,23 @@ class HeaderDecoratorHttpClientTest {
       assertEquals(true, found, "Expected header not found: " + expected);
     }
   }
+
+  @Test
+  void callAsync_shouldAddExtraHeadersToRequest() throws Exception {
+    var originalRequest =
+        new HttpRequest(
+            URI.create("https://example.com"),
+            "GET",
+            List.of(new HttpHeader("Content-Type", "text/plain")),
+            null);
+
+    var captor = ArgumentCaptor.forClass(HttpRequest.class);
+    when(mockDelegate.callAsync(captor.capture()))
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+    var response = client.callAsync(originalRequest).get();
+
+    assertEquals(mockResponse, response);
+    assertEquals(extraHeaders, captor.getValue().headers());
+  }
 }
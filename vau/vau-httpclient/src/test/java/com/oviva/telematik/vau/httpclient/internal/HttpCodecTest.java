@@ -7,6 +7,7 @@ import com.oviva.telematik.vau.httpclient.HttpHeader;
 import com.oviva.telematik.vau.httpclient.HttpRequest;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -352,4 +353,37 @@ class HttpCodecTest {
     var decodedBodyString = new String(decodedResponse.body(), StandardCharsets.UTF_8);
     assertEquals(originalBodyString, decodedBodyString, "Body should match original");
   }
+
+  @Test
+  void decode_shouldKeepBinaryBody() {
+    // Given
+    var body = new byte[] {0, (byte) 0xff, (byte) 0xc3, '\r', '\n', (byte) 0x80, 42};
+    var head =
+        "HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\nContent-Length: 7\r\n\r\n"
+            .getBytes(StandardCharsets.UTF_8);
+    var responseBytes = new byte[head.length + body.length];
+    System.arraycopy(head, 0, responseBytes, 0, head.length);
+    System.arraycopy(body, 0, responseBytes, head.length, body.length);
+
+    // When
+    var response = HttpCodec.decode(responseBytes);
+
+    // Then
+    assertArrayEquals(body, response.body(), "Body should not be decoded as text");
+  }
+
+  @Test
+  void encode_shouldAppendBinaryBody() {
+    // Given
+    var body = new byte[] {0, (byte) 0xff, (byte) 0xc3, (byte) 0x80};
+    var request = new HttpRequest(TEST_URI, "POST", List.of(), body);
+
+    // When
+    var encoded = HttpCodec.encode(request);
+
+    // Then
+    var encodedBody = Arrays.copyOfRange(encoded, encoded.length - body.length, encoded.length);
+    assertArrayEquals(body, encodedBody);
+    assertTrue(new String(encoded, StandardCharsets.UTF_8).contains("Content-Length: 4\r\n\r\n"));
+  }
 }
@@ -12,6 +12,8 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -334,4 +336,40 @@ class JavaHttpClientTest {
         "Exception message should start with expected prefix");
     assertSame(cause, exception.getCause());
   }
+
+  @Test
+  void callAsync_sendsWithoutBlocking() throws Exception {
+    var request =
+        new com.oviva.telematik.vau.httpclient.HttpRequest(TEST_URI, "POST", List.of(), TEST_BODY);
+
+    when(mockResponse.statusCode()).thenReturn(201);
+    when(mockResponse.body()).thenReturn("created".getBytes());
+    when(mockResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (k, v) -> true));
+
+    ArgumentCaptor<HttpRequest> requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+    when(mockJavaClient.sendAsync(requestCaptor.capture(), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+    var response = client.callAsync(request).get();
+
+    assertEquals(201, response.status());
+    assertEquals("POST", requestCaptor.getValue().method());
+    verify(mockJavaClient, never()).send(any(), any());
+  }
+
+  @Test
+  void callAsync_failure_completesWithHttpException() {
+    var request =
+        new com.oviva.telematik.vau.httpclient.HttpRequest(TEST_URI, "GET", List.of(), null);
+
+    var cause = new IOException("connection reset");
+    when(mockJavaClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(CompletableFuture.failedFuture(cause));
+
+    var future = client.callAsync(request);
+
+    var e = assertThrows(ExecutionException.class, future::get);
+    assertInstanceOf(HttpExceptionWithInfo.class, e.getCause());
+    assertSame(cause, e.getCause().getCause());
+  }
 }
@@ -0,0 +1,170 @@
+package com.oviva.telematik.vau.httpclient.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpHeader;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UnixDomainSocketHttpClientTest {
+
+  @TempDir Path tempDir;
+
+  private Path socket;
+  private ServerSocketChannel server;
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicInteger closedConnections = new AtomicInteger();
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    socket = tempDir.resolve("proxy.sock");
+    server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socket));
+    Thread.ofVirtual().start(this::serve);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.close();
+  }
+
+  /** Echoes request bodies, closes the connection if the body is 'close'. */
+  private void serve() {
+    while (server.isOpen()) {
+      try {
+        var channel = server.accept();
+        connections.incrementAndGet();
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try (channel;
+                      var in = new BufferedInputStream(Channels.newInputStream(channel));
+                      var out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                    Http1Stream.Head head;
+                    while ((head = Http1Stream.readHead(in)) != null) {
+                      var body = Http1Stream.readBody(in, Math.max(0, head.contentLength()));
+                      requests.add(head.startLine() + " " + head.header("Host").orElse(""));
+                      var keepAlive = !"close".equals(new String(body, StandardCharsets.UTF_8));
+                      Http1Stream.write(
+                          out,
+                          "HTTP/1.1 201 Created",
+                          List.of(new HttpHeader("Content-Type", "text/plain")),
+                          body,
+                          keepAlive);
+                      if (!keepAlive) {
+                        return;
+                      }
+                    }
+                  } catch (IOException e) {
+                    // test ends
+                  } finally {
+                    closedConnections.incrementAndGet();
+                  }
+                });
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  @Test
+  void call_sendsAbsoluteUriAndReadsResponse() {
+    var client = UnixDomainSocketHttpClient.of(socket);
+
+    var body = new byte[] {0, 1, 2, (byte) 0xff};
+    var res =
+        client.call(
+            new HttpRequest(
+                URI.create("http://epa-as-1.example.com/epa/test"), "POST", List.of(), body));
+
+    assertEquals(201, res.status());
+    assertArrayEquals(body, res.body());
+    assertTrue(
+        res.headers().stream().anyMatch(h -> h.name().equalsIgnoreCase("Content-Type")),
+        "should keep the response headers");
+    assertEquals(
+        List.of("POST http://epa-as-1.example.com/epa/test HTTP/1.1 epa-as-1.example.com"),
+        requests);
+  }
+
+  @Test
+  void call_reusesConnection() {
+    var client = UnixDomainSocketHttpClient.of(socket);
+
+    for (var i = 0; i < 3; i++) {
+      var res =
+          client.call(
+              new HttpRequest(
+                  URI.create("http://epa-as-1.example.com/"),
+                  "GET",
+                  List.of(new HttpHeader("Accept", "*/*")),
+                  null));
+      assertEquals(201, res.status());
+    }
+
+    assertEquals(1, connections.get());
+  }
+
+  @Test
+  void call_closedByServer_opensNewConnection() {
+    var client = UnixDomainSocketHttpClient.of(socket);
+    var uri = URI.create("http://epa-as-1.example.com/");
+
+    client.call(new HttpRequest(uri, "POST", List.of(), "close".getBytes(StandardCharsets.UTF_8)));
+    client.call(new HttpRequest(uri, "POST", List.of(), "again".getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(2, connections.get());
+  }
+
+  @Test
+  void close_closesIdleConnections() throws InterruptedException {
+    var client = UnixDomainSocketHttpClient.of(socket);
+    client.call(
+        new HttpRequest(URI.create("http://epa-as-1.example.com/"), "GET", List.of(), null));
+    assertEquals(0, closedConnections.get());
+
+    client.close();
+
+    for (var i = 0; i < 100 && closedConnections.get() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, closedConnections.get());
+    var req = new HttpRequest(URI.create("http://epa-as-1.example.com/"), "GET", List.of(), null);
+    assertThrows(HttpClient.HttpException.class, () -> client.call(req));
+  }
+
+  @Test
+  void call_relativeUri() {
+    var client = UnixDomainSocketHttpClient.of(socket);
+    var req = new HttpRequest(URI.create("/epa/test"), "GET", List.of(), null);
+
+    assertThrows(HttpClient.HttpException.class, () -> client.call(req));
+  }
+
+  @Test
+  void call_noListener() throws IOException {
+    server.close();
+    var client = UnixDomainSocketHttpClient.of(tempDir.resolve("missing.sock"));
+    var req = new HttpRequest(URI.create("http://epa-as-1.example.com/"), "GET", List.of(), null);
+
+    assertThrows(HttpClient.HttpException.class, () -> client.call(req));
+  }
+}
@@ -10,6 +10,7 @@ import com.oviva.telematik.vau.httpclient.HttpRequest;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -264,4 +265,18 @@ class VauHttpClientImplTest {
             TEST_RESPONSE_BODY.length, new String(TEST_RESPONSE_BODY, StandardCharsets.UTF_8))
         .getBytes(StandardCharsets.UTF_8);
   }
+
+  @Test
+  void callAsync_shouldProcessRequestAndReturnResponse() throws Exception {
+    var request = new HttpRequest(TEST_URI, "GET", List.of(), null);
+
+    when(mockConnection.callAsync(any()))
+        .thenReturn(CompletableFuture.completedFuture(createEncodedResponse()));
+
+    var response = client.callAsync(request).get();
+
+    assertEquals(200, response.status());
+    assertArrayEquals(TEST_RESPONSE_BODY, response.body());
+    verify(mockConnection, never()).call(any());
+  }
 }
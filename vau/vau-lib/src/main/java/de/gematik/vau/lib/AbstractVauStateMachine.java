@@ -16,6 +16,7 @@
 
 package de.gematik.vau.lib;
 
+import static de.gematik.vau.lib.crypto.CryptoProviders.Primitive.AES_GCM;
 import static de.gematik.vau.lib.util.ArrayUtils.unionByteArrays;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -24,6 +25,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import de.gematik.vau.lib.crypto.CryptoProviders;
 import de.gematik.vau.lib.data.*;
 import de.gematik.vau.lib.exceptions.VauDecryptionException;
 import de.gematik.vau.lib.exceptions.VauEncryptionException;
@@ -37,6 +39,7 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.Getter;
@@ -59,6 +62,7 @@ public abstract class AbstractVauStateMachine {
       new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
   private static final String MESSAGE_TYPE = "MessageType";
   private static final int AUTHENTICATION_TAG_BIT_SIZE = 128; // A_24628
+  private static final int TAG_LENGTH = AUTHENTICATION_TAG_BIT_SIZE / Byte.SIZE;
   private byte[] keyId;
   private EncryptionVauKey encryptionVauKey;
   private byte[] decryptionVauKey;
@@ -122,9 +126,13 @@ public abstract class AbstractVauStateMachine {
 
     byte[] iv = unionByteArrays(a, reqCtrBytes);
 
-    byte[] ciphertext = encryptWithAesGcm(encryptionVauKey.appData(), iv, cleartext, header);
+    // header and IV are written first, the ciphertext is encrypted right behind them
+    final byte[] bytes = new byte[header.length + iv.length + cleartext.length + TAG_LENGTH];
+    System.arraycopy(header, 0, bytes, 0, header.length);
+    System.arraycopy(iv, 0, bytes, header.length, iv.length);
+    encryptWithAesGcm(
+        encryptionVauKey.appData(), iv, cleartext, header, bytes, header.length + iv.length);
 
-    final byte[] bytes = unionByteArrays(header, iv, ciphertext);
     if (log.isTraceEnabled()) {
       log.trace(
           "Encoded message: {} with key {} with iv {} with header {}",
@@ -140,25 +148,31 @@ public abstract class AbstractVauStateMachine {
 
   protected abstract byte getRequestByte();
 
-  private byte[] encryptWithAesGcm(
-      byte[] vauKey, byte[] iv, byte[] cleartext, byte[] associatedData) {
+  private void encryptWithAesGcm(
+      byte[] vauKey,
+      byte[] iv,
+      byte[] cleartext,
+      byte[] associatedData,
+      byte[] output,
+      int outputOffset) {
     try {
-      var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      var cipher = Cipher.getInstance("AES/GCM/NoPadding", CryptoProviders.provider(AES_GCM));
       cipher.init(
           Cipher.ENCRYPT_MODE,
           new SecretKeySpec(vauKey, "AES"),
           new GCMParameterSpec(AUTHENTICATION_TAG_BIT_SIZE, iv));
       cipher.updateAAD(associatedData);
-      byte[] ciphertext = cipher.doFinal(cleartext);
-      if (ciphertext.length != cleartext.length + AUTHENTICATION_TAG_BIT_SIZE / Byte.SIZE) {
+      int length = cipher.doFinal(cleartext, 0, cleartext.length, output, outputOffset);
+      if (length != cleartext.length + TAG_LENGTH) {
         throw new VauEncryptionException(
             String.format(
                 "Calculated Authentication tag must be %s Bytes, but it was %s Bytes.",
-                AUTHENTICATION_TAG_BIT_SIZE / Byte.SIZE, ciphertext.length - cleartext.length));
+                TAG_LENGTH, length - cleartext.length));
       }
-      return ciphertext;
     } catch (NoSuchAlgorithmException
+        | NoSuchProviderException
         | NoSuchPaddingException
+        | ShortBufferException
         | IllegalBlockSizeException
         | InvalidAlgorithmParameterException
         | BadPaddingException
@@ -167,19 +181,21 @@ public abstract class AbstractVauStateMachine {
     }
   }
 
-  private byte[] decryptWithAesGcm(byte[] secretKey, byte[] iv, byte[] cipherText, byte[] header)
+  private byte[] decryptWithAesGcm(
+      byte[] secretKey, byte[] iv, byte[] message, int offset, byte[] header)
       throws GeneralSecurityException {
     if (iv.length != 12) {
       throw new IllegalArgumentException("Length of IV must be 12 Bytes.");
     }
 
-    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding"); // NOSONAR
+    Cipher cipher =
+        Cipher.getInstance("AES/GCM/NoPadding", CryptoProviders.provider(AES_GCM)); // NOSONAR
     cipher.init(
         Cipher.DECRYPT_MODE,
         new SecretKeySpec(secretKey, "AES"),
         new GCMParameterSpec(AUTHENTICATION_TAG_BIT_SIZE, iv));
     cipher.updateAAD(header);
-    return cipher.doFinal(cipherText);
+    return cipher.doFinal(message, offset, message.length - offset);
   }
 
   /**
@@ -206,7 +222,11 @@ public abstract class AbstractVauStateMachine {
     try {
       var cleartext =
           decryptWithAesGcm(
-              decryptionVauKey, message.getIv(), message.getCt(), message.getHeader());
+              decryptionVauKey,
+              message.getIv(),
+              message.getMessage(),
+              EncryptedVauMessage.CIPHERTEXT_OFFSET,
+              message.getHeader());
       if (log.isTraceEnabled()) {
         log.trace("Successful decrypted ct as: \n {}", new String(cleartext));
       }
@@ -49,6 +49,31 @@ public class VauClientStateMachine extends AbstractVauStateMachine {
     this.signedPublicKeysTrustValidator = signedPublicKeysTrustValidator;
   }
 
+  /**
+   * Continues a session established earlier, e.g. by a previous instance of the application.
+   * Whether the server still knows the session only shows with the next request.
+   */
+  public static VauClientStateMachine restore(VauClientSession session) {
+    var client = new VauClientStateMachine(session.isPu(), null);
+    client.setKeyId(session.keyId());
+    client.setEncryptionVauKey(new EncryptionVauKey(session.clientToServerAppData()));
+    client.setDecryptionVauKey(session.serverToClientAppData());
+    client.requestCounter = session.requestCounter();
+    return client;
+  }
+
+  /**
+   * @return the state needed to {@link #restore(VauClientSession)} the session later on
+   * @throws IllegalStateException if the handshake did not complete yet
+   */
+  public VauClientSession exportSession() {
+    if (getKeyId() == null) {
+      throw new IllegalStateException("no VAU session established yet");
+    }
+    return new VauClientSession(
+        getKeyId(), getEncryptionVauKey().appData(), getDecryptionVauKey(), requestCounter, isPu());
+  }
+
   /**
    * Handshake Message 1: Generates Key Pairs, stores them in a Message1 and encodes it
    *
@@ -215,12 +240,13 @@ public class VauClientStateMachine extends AbstractVauStateMachine {
 
   @Override
   protected void checkRequestKeyId(byte[] keyId) {
-    if (!Arrays.equals(clientKey2.keyId(), keyId)) {
+    // the key ID of a restored session is known without the keys of the handshake
+    if (!Arrays.equals(getKeyId(), keyId)) {
       throw new IllegalArgumentException(
           "Key ID in the header "
               + Hex.toHexString(keyId)
               + " does not equals "
-              + Hex.toHexString(clientKey2.keyId())
+              + Hex.toHexString(getKeyId())
               + " stored on client side");
     }
   }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.vau.lib.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+
+/**
+ * Selects the JCA provider for each cryptographic primitive of the VAU protocol.
+ *
+ * <p>By default AES-GCM uses the JDK implementation, which is backed by CPU intrinsics and much
+ * faster than the BouncyCastle one, regardless of the order the providers are registered in. Kyber
+ * and ECDH use BouncyCastle.
+ *
+ * <p>A provider can also be selected with the system property {@code
+ * de.gematik.vau.crypto.<primitive>}, e.g. {@code -Dde.gematik.vau.crypto.AES_GCM=BC}.
+ */
+public final class CryptoProviders {
+
+  private static final String PROPERTY_PREFIX = "de.gematik.vau.crypto.";
+
+  public enum Primitive {
+    /** AES/GCM/NoPadding, for the handshake as well as for the VAU messages */
+    AES_GCM("SunJCE"),
+
+    /**
+     * Kyber768 key generation and encapsulation, the provider has to support the BouncyCastle KEM
+     * specs
+     */
+    KYBER("BCPQC"),
+
+    /** ECDH on secp256r1, the provider has to create BouncyCastle compatible keys */
+    ECDH("BC");
+
+    private final String defaultProvider;
+
+    Primitive(String defaultProvider) {
+      this.defaultProvider = defaultProvider;
+    }
+  }
+
+  // read on every encryption and key exchange, replaced as a whole so reads need no lock
+  private static volatile Map<Primitive, String> selected = fromSystemProperties();
+
+  private static Map<Primitive, String> fromSystemProperties() {
+    var fromProperties = new EnumMap<Primitive, String>(Primitive.class);
+    for (var primitive : Primitive.values()) {
+      var provider = System.getProperty(PROPERTY_PREFIX + primitive.name());
+      if (provider != null) {
+        fromProperties.put(primitive, provider);
+      }
+    }
+    return Map.copyOf(fromProperties);
+  }
+
+  private CryptoProviders() {}
+
+  /**
+   * Selects the provider for a primitive.
+   *
+   * @param providerName the name of a registered provider, null restores the default
+   * @throws IllegalArgumentException if the provider is not registered or does not implement the
+   *     primitive
+   */
+  public static synchronized void use(Primitive primitive, String providerName) {
+    if (providerName == null) {
+      update(primitive, null);
+      return;
+    }
+
+    if (Security.getProvider(providerName) == null) {
+      throw new IllegalArgumentException("provider '%s' not registered".formatted(providerName));
+    }
+    try {
+      switch (primitive) {
+        case AES_GCM -> Cipher.getInstance("AES/GCM/NoPadding", providerName);
+        case KYBER -> KeyGenerator.getInstance("KYBER", providerName);
+        case ECDH -> KeyPairGenerator.getInstance("ECDH", providerName);
+      }
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException(
+          "provider '%s' does not implement %s".formatted(providerName, primitive), e);
+    }
+    update(primitive, providerName);
+  }
+
+  private static void update(Primitive primitive, String providerName) {
+    var updated = new EnumMap<Primitive, String>(Primitive.class);
+    updated.putAll(selected);
+    if (providerName == null) {
+      updated.remove(primitive);
+    } else {
+      updated.put(primitive, providerName);
+    }
+    selected = Map.copyOf(updated);
+  }
+
+  /**
+   * @return the name of the provider to use for the primitive, the JCA resolves it on each use
+   */
+  public static String provider(Primitive primitive) {
+    return selected.getOrDefault(primitive, primitive.defaultProvider);
+  }
+}
@@ -16,6 +16,8 @@
 
 package de.gematik.vau.lib.crypto;
 
+import static de.gematik.vau.lib.crypto.CryptoProviders.Primitive.ECDH;
+
 import de.gematik.vau.lib.exceptions.VauKyberCryptoException;
 import java.math.BigInteger;
 import java.security.*;
@@ -27,7 +29,6 @@ import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.jce.ECNamedCurveTable;
 import org.bouncycastle.jce.interfaces.ECPrivateKey;
 import org.bouncycastle.jce.interfaces.ECPublicKey;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
 import org.bouncycastle.jce.spec.ECPublicKeySpec;
 import org.bouncycastle.math.ec.ECPoint;
@@ -37,7 +38,6 @@ public class EllipticCurve {
 
   private static final ECNamedCurveParameterSpec SEC_P256_CURVE_SPEC =
       ECNamedCurveTable.getParameterSpec("secp256r1");
-  private static final String BC_PROVIDER = BouncyCastleProvider.PROVIDER_NAME;
 
   private EllipticCurve() {}
 
@@ -48,7 +48,8 @@ public class EllipticCurve {
    */
   public static KeyPair generateKeyPair() {
     try {
-      KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("ECDH", BC_PROVIDER);
+      KeyPairGenerator keyPairGenerator =
+          KeyPairGenerator.getInstance("ECDH", CryptoProviders.provider(ECDH));
       keyPairGenerator.initialize(SEC_P256_CURVE_SPEC, new SecureRandom());
       return keyPairGenerator.generateKeyPair();
     } catch (NoSuchAlgorithmException
@@ -70,7 +71,7 @@ public class EllipticCurve {
       ECPoint ecPoint = SEC_P256_CURVE_SPEC.getCurve().createPoint(x, y);
 
       ECPublicKeySpec ecKeySpec = new ECPublicKeySpec(ecPoint, SEC_P256_CURVE_SPEC);
-      KeyFactory keyFactory = KeyFactory.getInstance("ECDH", BC_PROVIDER);
+      KeyFactory keyFactory = KeyFactory.getInstance("ECDH", CryptoProviders.provider(ECDH));
       return (ECPublicKey) keyFactory.generatePublic(ecKeySpec);
     } catch (NoSuchProviderException | NoSuchAlgorithmException | InvalidKeySpecException e) {
       throw new VauKyberCryptoException("failed to get public key coordinates", e);
@@ -16,6 +16,8 @@
 
 package de.gematik.vau.lib.crypto;
 
+import static de.gematik.vau.lib.crypto.CryptoProviders.Primitive.AES_GCM;
+
 import de.gematik.vau.lib.data.*;
 import de.gematik.vau.lib.util.ArrayUtils;
 import java.security.GeneralSecurityException;
@@ -203,7 +205,7 @@ public class KEM {
       GCMParameterSpec ivParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * Byte.SIZE, iv);
 
       SecretKey secretKey = new SecretKeySpec(key, "AES");
-      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding", CryptoProviders.provider(AES_GCM));
       cipher.init(Cipher.ENCRYPT_MODE, secretKey, ivParameterSpec);
 
       byte[] ciphertext = cipher.doFinal(plaintext);
@@ -232,7 +234,7 @@ public class KEM {
       GCMParameterSpec ivParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * Byte.SIZE, iv);
       SecretKey secretKey = new SecretKeySpec(key, "AES");
 
-      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+      Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding", CryptoProviders.provider(AES_GCM));
       cipher.init(Cipher.DECRYPT_MODE, secretKey, ivParameterSpec);
       return cipher.doFinal(ct);
     } catch (GeneralSecurityException e) {
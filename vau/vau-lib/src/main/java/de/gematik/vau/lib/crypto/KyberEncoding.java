@@ -16,6 +16,8 @@
 
 package de.gematik.vau.lib.crypto;
 
+import static de.gematik.vau.lib.crypto.CryptoProviders.Primitive.KYBER;
+
 import de.gematik.vau.lib.exceptions.VauKyberCryptoException;
 import de.gematik.vau.lib.util.ArrayUtils;
 import java.security.*;
@@ -26,12 +28,10 @@ import org.bouncycastle.crypto.digests.SHAKEDigest;
 import org.bouncycastle.jcajce.SecretKeyWithEncapsulation;
 import org.bouncycastle.jcajce.spec.KEMExtractSpec;
 import org.bouncycastle.jcajce.spec.KEMGenerateSpec;
-import org.bouncycastle.pqc.jcajce.provider.BouncyCastlePQCProvider;
 import org.bouncycastle.pqc.jcajce.spec.KyberParameterSpec;
 
 public class KyberEncoding {
   private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-  private static final String BC_PQC_PROVIDER = BouncyCastlePQCProvider.PROVIDER_NAME;
   private static final String ALGORITHM = "KYBER";
 
   private KyberEncoding() {}
@@ -44,7 +44,8 @@ public class KyberEncoding {
   public static KeyPair generateKeyPair() {
     try {
       KyberParameterSpec kyberParameterSpec = KyberParameterSpec.kyber768;
-      KeyPairGenerator kpg = KeyPairGenerator.getInstance(ALGORITHM, BC_PQC_PROVIDER);
+      KeyPairGenerator kpg =
+          KeyPairGenerator.getInstance(ALGORITHM, CryptoProviders.provider(KYBER));
       kpg.initialize(kyberParameterSpec, SECURE_RANDOM);
       return kpg.generateKeyPair();
     } catch (NoSuchAlgorithmException
@@ -62,7 +63,7 @@ public class KyberEncoding {
    */
   public static SecretKeyWithEncapsulation pqcGenerateEncryptionKey(PublicKey publicKey) {
     try {
-      var keyGen = KeyGenerator.getInstance(ALGORITHM, BC_PQC_PROVIDER);
+      var keyGen = KeyGenerator.getInstance(ALGORITHM, CryptoProviders.provider(KYBER));
       keyGen.init(new KEMGenerateSpec(publicKey, "AES"), SECURE_RANDOM);
 
       final var bcResult = (SecretKeyWithEncapsulation) keyGen.generateKey();
@@ -94,7 +95,7 @@ public class KyberEncoding {
    */
   public static byte[] pqcGenerateDecryptionKey(PrivateKey privateKey, byte[] ct) {
     try {
-      var keyGen = KeyGenerator.getInstance(ALGORITHM, BC_PQC_PROVIDER);
+      var keyGen = KeyGenerator.getInstance(ALGORITHM, CryptoProviders.provider(KYBER));
       keyGen.init(new KEMExtractSpec(privateKey, ct, "AES"), SECURE_RANDOM);
       SecretKeyWithEncapsulation secEnc2 = (SecretKeyWithEncapsulation) keyGen.generateKey();
 
@@ -1,5 +1,7 @@
 package de.gematik.vau.lib.crypto;
 
+import static de.gematik.vau.lib.crypto.CryptoProviders.Primitive.KYBER;
+
 import de.gematik.vau.lib.exceptions.VauKeyConversionException;
 import de.gematik.vau.lib.exceptions.VauKyberCryptoException;
 import de.gematik.vau.lib.util.ArrayUtils;
@@ -41,7 +43,7 @@ public class KyberKeys {
       var x509EncodedKeySpec =
           new X509EncodedKeySpec(
               ArrayUtils.unionByteArrays(KYBER_PUBLIC_KEY_ENCODING_HEADER, keyBytes));
-      var keyFactory = KeyFactory.getInstance("KYBER", "BCPQC");
+      var keyFactory = KeyFactory.getInstance("KYBER", CryptoProviders.provider(KYBER));
       return keyFactory.generatePublic(x509EncodedKeySpec);
     } catch (NoSuchProviderException | NoSuchAlgorithmException | InvalidKeySpecException e) {
       throw new VauKyberCryptoException("Kyber Public Key Bytes are not well formed.", e);
@@ -40,11 +40,13 @@ public class EncryptedVauMessage {
   private final byte[] keyId;
 
   private final byte[] iv;
-  private final byte[] ct;
 
   private final boolean isPu;
   private static final int MINIMUM_CIPHERTEXT_LENGTH = 1 + 1 + 1 + 8 + 32 + 12 + 1 + 16; // A_24628
 
+  /** Offset of the ciphertext and GMAC within the message, behind the header and IV. */
+  public static final int CIPHERTEXT_OFFSET = 43 + 12;
+
   public EncryptedVauMessage(byte[] message, boolean isPu) {
     this.isPu = isPu;
     if (message.length < MINIMUM_CIPHERTEXT_LENGTH) {
@@ -63,8 +65,15 @@ public class EncryptedVauMessage {
     this.request = header[2];
     this.requestCounter = ArrayUtils.subarray(header, 3, 3 + 8);
     this.keyId = ArrayUtils.subarray(header, 11, header.length);
-    this.iv = ArrayUtils.subarray(message, 43, 43 + 12);
-    this.ct = ArrayUtils.subarray(message, 55, message.length);
+    this.iv = ArrayUtils.subarray(message, 43, CIPHERTEXT_OFFSET);
+  }
+
+  /**
+   * @return a copy of the ciphertext and GMAC, decrypt directly from {@link #getMessage()} at
+   *     {@link #CIPHERTEXT_OFFSET} to avoid copying large messages
+   */
+  public byte[] getCt() {
+    return ArrayUtils.subarray(message, CIPHERTEXT_OFFSET, message.length);
   }
 
   public void checkCommonMessageParameters() {
@@ -107,6 +116,6 @@ public class EncryptedVauMessage {
         Hex.toHexString(requestCounter),
         Hex.toHexString(keyId),
         Hex.toHexString(iv),
-        Hex.toHexString(ct));
+        Hex.toHexString(getCt()));
   }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024 gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.vau.lib.data;
+
+/**
+ * The state of an established VAU session on the client side, enough to continue the session
+ * without a new handshake.
+ *
+ * @param requestCounter the counter of the last request sent
+ */
+@SuppressWarnings("java:S6218")
+public record VauClientSession(
+    byte[] keyId,
+    byte[] clientToServerAppData,
+    byte[] serverToClientAppData,
+    long requestCounter,
+    boolean isPu) {}
@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import de.gematik.vau.lib.VauClientStateMachine;
 import de.gematik.vau.lib.VauServerStateMachine;
+import de.gematik.vau.lib.crypto.CryptoProviders;
 import de.gematik.vau.lib.data.EccKyberKeyPair;
 import de.gematik.vau.lib.data.SignedPublicVauKeys;
 import de.gematik.vau.lib.data.VauPublicKeys;
@@ -49,6 +50,8 @@ import org.bouncycastle.util.encoders.Base64;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.io.pem.PemObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.LoggerFactory;
 
 class VauHandshakeTest {
@@ -101,6 +104,57 @@ class VauHandshakeTest {
     assertThat(decryptedServerVauMessage).isEqualTo(plaintextResponse.getBytes());
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"SunJCE", "BC"})
+  void testHandshake_aesGcmProvider(String provider) throws Exception {
+    CryptoProviders.use(CryptoProviders.Primitive.AES_GCM, provider);
+    try {
+      var server = setupServer();
+      var client = new VauClientStateMachine(false, s -> true);
+
+      var message2Encoded = server.receiveMessage(client.generateMessage1());
+      var message4Encoded = server.receiveMessage(client.receiveMessage2(message2Encoded));
+      client.receiveMessage4(message4Encoded);
+
+      var decryptedClientVauMessage =
+          server.decryptVauMessage(client.encryptVauMessage("Ping?".getBytes()));
+      assertThat(decryptedClientVauMessage).isEqualTo("Ping?".getBytes());
+
+      var decryptedServerVauMessage =
+          client.decryptVauMessage(server.encryptVauMessage("Pong!".getBytes()));
+      assertThat(decryptedServerVauMessage).isEqualTo("Pong!".getBytes());
+    } finally {
+      CryptoProviders.use(CryptoProviders.Primitive.AES_GCM, null);
+    }
+  }
+
+  @Test
+  void testHandshake_restoredClientContinuesSession() throws Exception {
+
+    var server = setupServer();
+    var client = new VauClientStateMachine(false, s -> true);
+
+    var message2Encoded = server.receiveMessage(client.generateMessage1());
+    var message4Encoded = server.receiveMessage(client.receiveMessage2(message2Encoded));
+    client.receiveMessage4(message4Encoded);
+
+    server.decryptVauMessage(client.encryptVauMessage("Ping?".getBytes()));
+    client.decryptVauMessage(server.encryptVauMessage("Pong!".getBytes()));
+
+    // when
+    var restored = VauClientStateMachine.restore(client.exportSession());
+
+    // then
+    var decryptedClientVauMessage =
+        server.decryptVauMessage(restored.encryptVauMessage("Ping again?".getBytes()));
+    assertThat(decryptedClientVauMessage).isEqualTo("Ping again?".getBytes());
+    assertThat(restored.getRequestCounter()).isEqualTo(2);
+
+    var decryptedServerVauMessage =
+        restored.decryptVauMessage(server.encryptVauMessage("Pong again!".getBytes()));
+    assertThat(decryptedServerVauMessage).isEqualTo("Pong again!".getBytes());
+  }
+
   private VauServerStateMachine setupServer()
       throws NoSuchAlgorithmException, IOException, InvalidKeySpecException {
 
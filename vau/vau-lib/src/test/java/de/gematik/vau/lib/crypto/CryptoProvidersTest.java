@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 gematik GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.gematik.vau.lib.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import de.gematik.vau.lib.crypto.CryptoProviders.Primitive;
+import java.security.Security;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.pqc.jcajce.provider.BouncyCastlePQCProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CryptoProvidersTest {
+
+  @BeforeEach
+  void addProviders() {
+    // other tests remove them
+    Security.addProvider(new BouncyCastlePQCProvider());
+    Security.addProvider(new BouncyCastleProvider());
+  }
+
+  @AfterEach
+  void reset() {
+    for (var primitive : Primitive.values()) {
+      CryptoProviders.use(primitive, null);
+    }
+  }
+
+  @Test
+  void defaults() {
+    assertThat(CryptoProviders.provider(Primitive.AES_GCM)).isEqualTo("SunJCE");
+    assertThat(CryptoProviders.provider(Primitive.KYBER)).isEqualTo("BCPQC");
+    assertThat(CryptoProviders.provider(Primitive.ECDH)).isEqualTo("BC");
+  }
+
+  @Test
+  void use_selectsProvider() {
+    CryptoProviders.use(Primitive.AES_GCM, "BC");
+
+    assertThat(CryptoProviders.provider(Primitive.AES_GCM)).isEqualTo("BC");
+
+    var key = new byte[32];
+    var plaintext = "plaintext".getBytes();
+    assertThat(KEM.decryptAead(key, KEM.encryptAead(key, plaintext))).isEqualTo(plaintext);
+  }
+
+  @Test
+  void use_unknownProvider_throws() {
+    assertThatThrownBy(() -> CryptoProviders.use(Primitive.AES_GCM, "Unknown"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not registered");
+  }
+
+  @Test
+  void use_providerWithoutPrimitive_throws() {
+    assertThatThrownBy(() -> CryptoProviders.use(Primitive.KYBER, "SunJCE"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("does not implement");
+  }
+}
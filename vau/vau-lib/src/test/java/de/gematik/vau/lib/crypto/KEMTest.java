@@ -30,7 +30,7 @@ class KEMTest {
   void encryptAeadThrowingIllegalArgumentException() {
     try (var cipherMock = mockStatic(Cipher.class)) {
       cipherMock
-          .when(() -> Cipher.getInstance(anyString()))
+          .when(() -> Cipher.getInstance(anyString(), anyString()))
           .thenThrow(new NoSuchAlgorithmException("Cannot find any provider supporting"));
 
       var key = new byte[32];
@@ -0,0 +1,140 @@
+package com.oviva.telematik.vau.proxy;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import java.net.URI;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records the VAU tunnels of the proxy: how many are open per provider, how long their handshakes
+ * take and how much is sent through them, as well as the latency and outcome of the proxied
+ * requests.
+ *
+ * <p>Only a handful of ePA providers exist, the provider is therefore fine as an attribute. The
+ * insurant of a tunnel is never recorded.
+ */
+final class ProxyMetrics {
+
+  private static final String INSTRUMENTATION_SCOPE = "com.oviva.telematik.vau.proxy";
+
+  static final AttributeKey<String> PROVIDER = AttributeKey.stringKey("vau.provider");
+  static final AttributeKey<String> DIRECTION = AttributeKey.stringKey("vau.direction");
+  static final AttributeKey<String> METHOD = AttributeKey.stringKey("http.request.method");
+  static final AttributeKey<Long> STATUS_CODE = AttributeKey.longKey("http.response.status_code");
+  static final AttributeKey<String> ERROR_TYPE = AttributeKey.stringKey("error.type");
+
+  private final Meter meter;
+  private final DoubleHistogram handshakeDuration;
+  private final DoubleHistogram requestDuration;
+  private final LongCounter tunnelBytes;
+
+  ProxyMetrics(Meter meter) {
+    this.meter = meter;
+    this.handshakeDuration =
+        meter
+            .histogramBuilder("vau.proxy.handshake.duration")
+            .setDescription("Duration of VAU handshakes establishing new tunnels")
+            .setUnit("s")
+            .build();
+    this.requestDuration =
+        meter
+            .histogramBuilder("vau.proxy.request.duration")
+            .setDescription("Duration of requests sent through VAU tunnels, including retries")
+            .setUnit("s")
+            .build();
+    this.tunnelBytes =
+        meter
+            .counterBuilder("vau.proxy.tunnel.io")
+            .setDescription("Bytes of request and response bodies encrypted and decrypted")
+            .setUnit("By")
+            .build();
+  }
+
+  static ProxyMetrics global() {
+    return new ProxyMetrics(GlobalOpenTelemetry.getMeter(INSTRUMENTATION_SCOPE));
+  }
+
+  /**
+   * Reports the open tunnels whenever metrics are collected.
+   *
+   * @param tunnelsByProvider the number of open tunnels per provider endpoint
+   * @return closing it stops reporting
+   */
+  ObservableLongGauge observeTunnels(Supplier<Map<URI, Long>> tunnelsByProvider) {
+    return meter
+        .gaugeBuilder("vau.proxy.tunnels")
+        .setDescription("Open VAU tunnels")
+        .setUnit("{tunnel}")
+        .ofLongs()
+        .buildWithCallback(
+            m ->
+                tunnelsByProvider
+                    .get()
+                    .forEach(
+                        (provider, count) ->
+                            m.record(count, Attributes.of(PROVIDER, host(provider)))));
+  }
+
+  /** Runs and measures a handshake with the provider. */
+  <T> T recordHandshake(URI provider, Supplier<T> handshake) {
+    var start = System.nanoTime();
+    String errorType = null;
+    try {
+      return handshake.get();
+    } catch (RuntimeException e) {
+      errorType = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      var attributes = Attributes.builder().put(PROVIDER, host(provider));
+      if (errorType != null) {
+        attributes.put(ERROR_TYPE, errorType);
+      }
+      handshakeDuration.record(seconds(System.nanoTime() - start), attributes.build());
+    }
+  }
+
+  /**
+   * @param status the status of the response, 0 if the request failed
+   * @param errorType the type of the failure, null if the request did not fail
+   */
+  void recordRequest(
+      URI provider, String method, int status, String errorType, long durationNanos) {
+    var attributes = Attributes.builder().put(PROVIDER, host(provider)).put(METHOD, method);
+    if (status > 0) {
+      attributes.put(STATUS_CODE, status);
+    }
+    if (errorType != null) {
+      attributes.put(ERROR_TYPE, errorType);
+    }
+    requestDuration.record(seconds(durationNanos), attributes.build());
+  }
+
+  void recordEncrypted(URI provider, byte[] body) {
+    recordBytes(provider, "encrypt", body);
+  }
+
+  void recordDecrypted(URI provider, byte[] body) {
+    recordBytes(provider, "decrypt", body);
+  }
+
+  private void recordBytes(URI provider, String direction, byte[] body) {
+    if (body == null || body.length == 0) {
+      return;
+    }
+    tunnelBytes.add(body.length, Attributes.of(PROVIDER, host(provider), DIRECTION, direction));
+  }
+
+  private static String host(URI provider) {
+    return provider.getHost() != null ? provider.getHost() : provider.toString();
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1_000_000_000.0;
+  }
+}
@@ -0,0 +1,42 @@
+package com.oviva.telematik.vau.proxy;
+
+/**
+ * Limits retries to a share of all requests, so a provider losing all tunnels at once does not
+ * receive every request twice.
+ *
+ * <p>Each request deposits {@code ratio} tokens, each retry takes a whole one. The budget starts
+ * full and holds at most {@code maxTokens}.
+ */
+final class RetryBudget {
+
+  private final double ratio;
+  private final double maxTokens;
+  private double tokens;
+
+  RetryBudget(double ratio, int maxTokens) {
+    if (ratio < 0 || ratio > 1) {
+      throw new IllegalArgumentException("ratio must be between 0 and 1");
+    }
+    if (maxTokens < 1) {
+      throw new IllegalArgumentException("maxTokens must be at least 1");
+    }
+    this.ratio = ratio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  synchronized void recordRequest() {
+    tokens = Math.min(maxTokens, tokens + ratio);
+  }
+
+  /**
+   * @return true if a retry is within the budget
+   */
+  synchronized boolean tryRetry() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens--;
+    return true;
+  }
+}
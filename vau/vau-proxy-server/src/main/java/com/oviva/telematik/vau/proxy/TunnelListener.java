@@ -0,0 +1,36 @@
+package com.oviva.telematik.vau.proxy;
+
+import java.net.URI;
+import java.time.Instant;
+
+/** Gets notified about changes of the VAU tunnels of the proxy. */
+@FunctionalInterface
+public interface TunnelListener {
+
+  /**
+   * A tunnel was lost and a new one established in its place. The user session of the new tunnel is
+   * not authorized yet. The request establishing the new tunnel is sent once this returns, either
+   * the replay of the request that found the tunnel lost or the next request for the tunnel.
+   *
+   * @param endpoint the VAU of the tunnel
+   * @param insurantId the insurant the tunnel is used for
+   */
+  void tunnelReplaced(URI endpoint, String insurantId);
+
+  /**
+   * A tunnel of a previous process was resumed, its user session may still be authorized.
+   *
+   * @param authorizedUntil until when the user session was authorized by the previous process, null
+   *     if it was not
+   */
+  default void tunnelResumed(URI endpoint, String insurantId, Instant authorizedUntil) {}
+
+  /**
+   * Asked for each tunnel saved for the next process.
+   *
+   * @return until when the user session of the tunnel is authorized, null if it is not
+   */
+  default Instant authorizedUntil(URI endpoint, String insurantId) {
+    return null;
+  }
+}
@@ -0,0 +1,246 @@
+package com.oviva.telematik.vau.proxy;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpHeader;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import com.oviva.telematik.vau.httpclient.internal.Http1Stream;
+import de.gematik.vau.lib.exceptions.VauException;
+import io.undertow.util.StatusCodes;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.URI;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the proxy on a Unix domain socket, for clients on the same host which can not use the
+ * proxy in-process, e.g. with the proxy as a sidecar. Undertow can not listen on Unix domain
+ * sockets, requests are read here and handled by the same {@link VauProxyHandler}.
+ *
+ * <p>Each connection is served by its own thread and kept alive until the client closes it, or does
+ * not send a complete request within the idle timeout.
+ */
+final class UnixSocketListener implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(UnixSocketListener.class);
+
+  private static final Set<String> SUPPORTED_METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+
+  static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+  private final Path path;
+  private final VauProxyHandler handler;
+  private final ThreadFactory threadFactory;
+  private final Duration idleTimeout;
+
+  // closes connections not sending a request in time, their threads are blocked reading
+  private final ScheduledExecutorService timeouts =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("vau-proxy-uds-timeout").daemon().factory());
+
+  private ServerSocketChannel server;
+
+  UnixSocketListener(Path path, VauProxyHandler handler, ThreadFactory threadFactory) {
+    this(path, handler, threadFactory, DEFAULT_IDLE_TIMEOUT);
+  }
+
+  UnixSocketListener(
+      Path path, VauProxyHandler handler, ThreadFactory threadFactory, Duration idleTimeout) {
+    this.path = path;
+    this.handler = handler;
+    this.threadFactory = threadFactory;
+    this.idleTimeout = idleTimeout;
+  }
+
+  void start() throws IOException {
+    // left over by a process which did not stop cleanly, binding fails otherwise
+    Files.deleteIfExists(path);
+
+    // the tunnels are authorized for the institution, other users must not use them. The socket is
+    // bound in a directory only the owner can enter and moved into place once it is restricted.
+    var parent = path.toAbsolutePath().getParent();
+    var privateDir = createPrivateDirectory(parent);
+    var bound = privateDir.resolve("proxy.sock");
+    try {
+      server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+      server.bind(UnixDomainSocketAddress.of(bound));
+      restrictToOwner(bound);
+      Files.move(bound, path, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      if (server != null) {
+        server.close();
+      }
+      throw e;
+    } finally {
+      Files.deleteIfExists(bound);
+      Files.deleteIfExists(privateDir);
+    }
+
+    Thread.ofPlatform().name("vau-proxy-uds-accept").daemon().start(this::accept);
+  }
+
+  private static Path createPrivateDirectory(Path parent) throws IOException {
+    try {
+      return Files.createTempDirectory(
+          parent,
+          ".vau-proxy-",
+          PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+    } catch (UnsupportedOperationException e) {
+      log.atWarn().log("unable to restrict access to {}", parent);
+      return Files.createTempDirectory(parent, ".vau-proxy-");
+    }
+  }
+
+  private static void restrictToOwner(Path path) throws IOException {
+    try {
+      Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+    } catch (UnsupportedOperationException e) {
+      log.atWarn().log("unable to restrict access to {}", path);
+    }
+  }
+
+  private void accept() {
+    while (server.isOpen()) {
+      try {
+        var channel = server.accept();
+        threadFactory.newThread(() -> serve(channel)).start();
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        log.atWarn().setCause(e).log("failed to accept connection on {}", path);
+      }
+    }
+  }
+
+  private void serve(SocketChannel channel) {
+    try (channel;
+        var in = new BufferedInputStream(Channels.newInputStream(channel));
+        var out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+
+      while (true) {
+        Http1Stream.Head head;
+        byte[] body;
+        var timeout =
+            timeouts.schedule(
+                () -> closeQuietly(channel), idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+          head = Http1Stream.readHead(in);
+          if (head == null) {
+            return;
+          }
+          if (head.isChunked()) {
+            // the body can not be skipped without decoding it
+            respond(out, StatusCodes.LENGTH_REQUIRED, List.of(), null, false);
+            return;
+          }
+          body = Http1Stream.readBody(in, Math.max(0, head.contentLength()));
+        } finally {
+          timeout.cancel(false);
+        }
+
+        var keepAlive = head.keepAlive();
+        var res = handle(head, body);
+        respond(out, res.status(), res.headers(), res.body(), keepAlive);
+        if (!keepAlive) {
+          return;
+        }
+      }
+    } catch (IOException e) {
+      log.atDebug().setCause(e).log("connection on {} failed", path);
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // closed anyway
+    }
+  }
+
+  private HttpResponse handle(Http1Stream.Head head, byte[] body) {
+
+    // e.g. POST http://epa-as-1.dev.epa4all.de/epa/xds-document/api/I_Document_Management HTTP/1.1
+    var requestLine = head.startLine().split(" ");
+    if (requestLine.length != 3) {
+      return new HttpResponse(StatusCodes.BAD_REQUEST, List.of(), null);
+    }
+
+    var method = requestLine[0];
+    if (!SUPPORTED_METHODS.contains(method)) {
+      return new HttpResponse(StatusCodes.METHOD_NOT_ALLOWED, List.of(), null);
+    }
+
+    URI target;
+    try {
+      target = URI.create(requestLine[1]);
+    } catch (IllegalArgumentException e) {
+      return new HttpResponse(StatusCodes.BAD_REQUEST, List.of(), null);
+    }
+
+    var host = target.getHost();
+    if (host == null) {
+      try {
+        host = head.header("Host").map(h -> URI.create("http://" + h).getHost()).orElse(null);
+      } catch (IllegalArgumentException e) {
+        return new HttpResponse(StatusCodes.BAD_REQUEST, List.of(), null);
+      }
+    }
+    if (host == null || target.getRawPath() == null) {
+      return new HttpResponse(StatusCodes.BAD_REQUEST, List.of(), null);
+    }
+
+    var key =
+        VauProxyHandler.cacheKey(
+            host, head.header(VauProxyHandler.INSURANT_ID_HEADER).orElse(null));
+
+    // we just use the same path, no upstream host set
+    var req = new HttpRequest(URI.create(target.getRawPath()), method, head.headers(), body);
+    try {
+      return handler.forward(key, req);
+    } catch (HttpClient.HttpException | VauException e) {
+      log.atDebug().setCause(e).log("upstream VAU call failed: %s".formatted(e.getMessage()));
+      return new HttpResponse(StatusCodes.BAD_GATEWAY, List.of(), null);
+    }
+  }
+
+  private static void respond(
+      OutputStream out, int status, List<HttpHeader> headers, byte[] body, boolean keepAlive)
+      throws IOException {
+    var statusLine = "HTTP/1.1 %d %s".formatted(status, StatusCodes.getReason(status));
+    Http1Stream.write(out, statusLine, headers, body, keepAlive);
+  }
+
+  @Override
+  public void close() {
+    timeouts.shutdownNow();
+    try {
+      if (server != null) {
+        server.close();
+      }
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.atWarn().setCause(e).log("failed to close listener on {}", path);
+    }
+  }
+}
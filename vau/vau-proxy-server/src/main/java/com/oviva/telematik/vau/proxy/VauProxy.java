@@ -2,17 +2,23 @@ package com.oviva.telematik.vau.proxy;
 
 import com.oviva.telematik.vau.httpclient.HttpClient;
 import com.oviva.telematik.vau.httpclient.VauClientFactoryBuilder;
+import com.oviva.telematik.vau.httpclient.VauSessionStore;
 import com.oviva.telematik.vau.httpclient.internal.JavaHttpClient;
 import com.oviva.telematik.vau.httpclient.internal.LoggingHttpClient;
 import com.oviva.telematik.vau.httpclient.internal.cert.TrustStoreValidator;
 import io.undertow.Undertow;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.RequestDumpingHandler;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.InetSocketAddress;
 import java.net.ProxySelector;
+import java.nio.file.Path;
 import java.security.*;
 import java.time.Duration;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import javax.net.ssl.SSLContext;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.pqc.jcajce.provider.BouncyCastlePQCProvider;
@@ -32,35 +38,124 @@ public class VauProxy {
   private final CountDownLatch startedCount = new CountDownLatch(1);
 
   private Undertow proxyServer;
+  private VauProxyHandler vauHandler;
+  private UnixSocketListener unixSocketListener;
 
   private final Configuration config;
+  private final TunnelListener tunnelListener;
 
   public VauProxy(Configuration config) {
+    this(config, (endpoint, insurantId) -> {});
+  }
+
+  /**
+   * @param tunnelListener notified when a lost tunnel was replaced, e.g. to authorize it again
+   */
+  public VauProxy(Configuration config, TunnelListener tunnelListener) {
     this.config = config;
+    this.tunnelListener = tunnelListener;
   }
 
+  /**
+   * @param outerHttpVersion the HTTP version towards the providers. HTTP/2 by default, which is
+   *     negotiated via ALPN with a fallback to HTTP/1.1. HTTP/1.1 pins it, e.g. for a provider with
+   *     a broken HTTP/2 stack.
+   * @param sessionStore keeps the VAU tunnels across restarts, tunnels are established anew on
+   *     every start if null
+   * @param threading the threads serving requests, {@link Threading#defaults()} if null
+   * @param unixSocket additionally listen on this Unix domain socket, e.g. for a client using the
+   *     proxy as a sidecar, not at all if null
+   */
   public record Configuration(
       InetSocketAddress upstreamProxy,
       int listenPort,
       boolean isPu,
       String xUserAgent,
       SSLContext outerVauSslContext,
-      KeyStore trustStore) {}
+      KeyStore trustStore,
+      java.net.http.HttpClient.Version outerHttpVersion,
+      VauSessionStore sessionStore,
+      Threading threading,
+      Path unixSocket) {
+
+    public Configuration {
+      if (outerHttpVersion == null) {
+        outerHttpVersion = java.net.http.HttpClient.Version.HTTP_2;
+      }
+      if (threading == null) {
+        threading = Threading.defaults();
+      }
+    }
 
-  public record ServerInfo(InetSocketAddress listenAddress) {}
+    public Configuration(
+        InetSocketAddress upstreamProxy,
+        int listenPort,
+        boolean isPu,
+        String xUserAgent,
+        SSLContext outerVauSslContext,
+        KeyStore trustStore) {
+      this(
+          upstreamProxy,
+          listenPort,
+          isPu,
+          xUserAgent,
+          outerVauSslContext,
+          trustStore,
+          null,
+          null,
+          null,
+          null);
+    }
+  }
 
-  public ServerInfo start() {
+  /**
+   * A request blocks its thread for the whole upstream call, including handshakes and the
+   * authorization of new tunnels. With virtual threads each request gets its own thread and
+   * concurrent requests to slow upstreams do not queue behind each other, the worker threads are
+   * then only used for short tasks of Undertow itself.
+   *
+   * @param ioThreads the threads handling the non-blocking I/O of the listener
+   * @param workerThreads the threads handling requests if {@code virtualThreads} is false
+   * @param virtualThreads whether requests are handled on virtual threads
+   */
+  public record Threading(int ioThreads, int workerThreads, boolean virtualThreads) {
+
+    private static final int DEFAULT_WORKER_THREADS = 4;
+
+    public Threading {
+      if (ioThreads < 1) {
+        throw new IllegalArgumentException("ioThreads must be at least 1");
+      }
+      if (workerThreads < 1) {
+        throw new IllegalArgumentException("workerThreads must be at least 1");
+      }
+    }
 
-    var outerVauClientBuilder =
-        java.net.http.HttpClient.newBuilder()
-            .sslContext(config.outerVauSslContext())
-            .connectTimeout(Duration.ofSeconds(10));
+    /** Handles requests on virtual threads. */
+    public static Threading defaults() {
+      return new Threading(
+          Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_WORKER_THREADS, true);
+    }
 
-    if (config.upstreamProxy() != null) {
-      outerVauClientBuilder.proxy(ProxySelector.of(config.upstreamProxy()));
+    /** Handles requests on a fixed pool of platform threads, at most one request per thread. */
+    public static Threading platformThreads(int ioThreads, int workerThreads) {
+      return new Threading(ioThreads, workerThreads, false);
     }
+  }
+
+  /**
+   * @param unixSocket the Unix domain socket the proxy listens on as well, null if none
+   */
+  public record ServerInfo(InetSocketAddress listenAddress, Path unixSocket) {
+
+    public ServerInfo(InetSocketAddress listenAddress) {
+      this(listenAddress, null);
+    }
+  }
+
+  public ServerInfo start() {
 
-    HttpClient outerVauClient = JavaHttpClient.from(outerVauClientBuilder.build());
+    HttpClient outerVauClient = JavaHttpClient.from(buildOuterVauClient(config));
 
     if (log.isDebugEnabled()) {
       outerVauClient = new LoggingHttpClient(outerVauClient, log);
@@ -75,17 +170,30 @@ public class VauProxy {
             .trustValidator(new TrustStoreValidator(config.trustStore()))
             .build();
 
-    HttpHandler handler = new VauProxyHandler(clientFactory);
+    var threading = config.threading();
+    Executor requestExecutor = null;
+    ThreadFactory connectionThreads = Thread.ofPlatform().name("vau-proxy-uds-", 0).factory();
+    if (threading.virtualThreads()) {
+      var threadFactory = Thread.ofVirtual().name("vau-proxy-", 0).factory();
+      requestExecutor = command -> threadFactory.newThread(command).start();
+      connectionThreads = threadFactory;
+    }
+
+    vauHandler = new VauProxyHandler(clientFactory, tunnelListener, requestExecutor);
+    if (config.sessionStore() != null) {
+      vauHandler.resumeSessions(config.sessionStore().takeAll());
+    }
+
+    HttpHandler handler = vauHandler;
     if (log.isDebugEnabled()) {
       handler = new RequestDumpingHandler(handler);
     }
 
     proxyServer =
         Undertow.builder()
-            // TODO: configurable
             .addHttpListener(config.listenPort(), "localhost")
-            .setIoThreads(2)
-            .setWorkerThreads(4)
+            .setIoThreads(threading.ioThreads())
+            .setWorkerThreads(threading.workerThreads())
             .setHandler(handler)
             .build();
 
@@ -95,13 +203,49 @@ public class VauProxy {
     var addr = (InetSocketAddress) listener.getAddress();
     log.info("VAU proxy started at {}", addr);
 
+    if (config.unixSocket() != null) {
+      unixSocketListener =
+          new UnixSocketListener(config.unixSocket(), vauHandler, connectionThreads);
+      try {
+        unixSocketListener.start();
+      } catch (IOException e) {
+        stop();
+        throw new UncheckedIOException("failed to listen on " + config.unixSocket(), e);
+      }
+      log.info("VAU proxy listening on {}", config.unixSocket());
+    }
+
     Signal.handle(new Signal("INT"), signal -> startedCount.countDown());
-    return new ServerInfo(addr);
+    return new ServerInfo(addr, config.unixSocket());
+  }
+
+  static java.net.http.HttpClient buildOuterVauClient(Configuration config) {
+    var builder =
+        java.net.http.HttpClient.newBuilder()
+            .sslContext(config.outerVauSslContext())
+            // HTTP/2 is the default of the JDK client anyway, set to allow pinning HTTP/1.1
+            .version(config.outerHttpVersion())
+            .connectTimeout(Duration.ofSeconds(10));
+
+    if (config.upstreamProxy() != null) {
+      builder.proxy(ProxySelector.of(config.upstreamProxy()));
+    }
+    return builder.build();
   }
 
   public void stop() {
+    if (unixSocketListener != null) {
+      unixSocketListener.close();
+    }
     if (proxyServer != null) {
       proxyServer.stop();
     }
+    if (vauHandler != null && config.sessionStore() != null) {
+      // no more requests, the request counters of the tunnels are final
+      config.sessionStore().save(vauHandler.exportSessions());
+    }
+    if (vauHandler != null) {
+      vauHandler.close();
+    }
   }
 }
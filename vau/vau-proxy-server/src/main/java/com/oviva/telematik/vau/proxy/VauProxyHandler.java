@@ -1,32 +1,90 @@
 package com.oviva.telematik.vau.proxy;
 
 import com.oviva.telematik.vau.httpclient.*;
+import com.oviva.telematik.vau.httpclient.internal.VauSessionLostException;
+import de.gematik.vau.lib.exceptions.VauDecryptionException;
+import de.gematik.vau.lib.exceptions.VauException;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
-import io.undertow.util.AttachmentKey;
 import io.undertow.util.HttpString;
 import io.undertow.util.Methods;
 import io.undertow.util.StatusCodes;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class VauProxyHandler implements HttpHandler {
+public class VauProxyHandler implements HttpHandler, AutoCloseable {
 
-  private static final AttachmentKey<HttpClient> UPSTREAM_KEY =
-      AttachmentKey.create(HttpClient.class);
   private static final Logger log = LoggerFactory.getLogger(VauProxyHandler.class);
 
+  // requests safe to send again even if the lost tunnel may have processed them already
+  private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT", "DELETE");
+  private static final String AUTHORIZATION_PATH = "/epa/authz/";
+
+  static final String INSURANT_ID_HEADER = "x-insurantid";
+
+  // up to 10 retries in a row, afterwards one per 10 requests
+  private static final double RETRY_RATIO = 0.1;
+  private static final int MAX_RETRIES = 10;
+
+  // the largest array the JVM can allocate
+  private static final long MAX_BODY_LENGTH = Integer.MAX_VALUE - 8;
+
   private final ConcurrentHashMap<CacheKey, HttpClient> clientCache = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<CacheKey, ReentrantLock> connectLocks = new ConcurrentHashMap<>();
+
+  // tunnels lost and not replaced yet, their replacement is not authorized
+  private final Set<CacheKey> lostTunnels = ConcurrentHashMap.newKeySet();
 
   private final VauClientFactory vauClientFactory;
+  private final TunnelListener tunnelListener;
+  private final Executor requestExecutor;
+  private final RetryBudget retryBudget = new RetryBudget(RETRY_RATIO, MAX_RETRIES);
+  private final ProxyMetrics metrics;
+  private final ObservableLongGauge tunnelGauge;
 
   public VauProxyHandler(VauClientFactory vauClientFactory) {
+    this(vauClientFactory, (endpoint, insurantId) -> {});
+  }
+
+  /**
+   * @param tunnelListener notified when a lost tunnel was replaced, e.g. to authorize it again
+   */
+  public VauProxyHandler(VauClientFactory vauClientFactory, TunnelListener tunnelListener) {
+    this(vauClientFactory, tunnelListener, null);
+  }
+
+  /**
+   * @param tunnelListener notified when a lost tunnel was replaced, e.g. to authorize it again
+   * @param requestExecutor runs the blocking part of requests, e.g. on virtual threads. Requests
+   *     run on the worker threads of the server if null.
+   */
+  public VauProxyHandler(
+      VauClientFactory vauClientFactory, TunnelListener tunnelListener, Executor requestExecutor) {
+    this(vauClientFactory, tunnelListener, requestExecutor, ProxyMetrics.global());
+  }
+
+  VauProxyHandler(
+      VauClientFactory vauClientFactory,
+      TunnelListener tunnelListener,
+      Executor requestExecutor,
+      ProxyMetrics metrics) {
     this.vauClientFactory = vauClientFactory;
+    this.tunnelListener = tunnelListener;
+    this.requestExecutor = requestExecutor;
+    this.metrics = metrics;
+    this.tunnelGauge = metrics.observeTunnels(this::tunnelsByProvider);
   }
 
   @Override
@@ -38,57 +96,254 @@ public class VauProxyHandler implements HttpHandler {
       return;
     }
 
-    var blocking = exchange.startBlocking();
+    exchange.startBlocking();
     if (exchange.isInIoThread()) {
-      exchange.dispatch(this);
+      if (requestExecutor != null) {
+        exchange.dispatch(requestExecutor, this);
+      } else {
+        exchange.dispatch(this);
+      }
       return;
     }
 
-    blocking
-        .getReceiver()
-        .receiveFullBytes(
-            (fbex, requestBytes) -> {
-
-              // open or re-use a VAU tunnel
-              var httpClient = getOrCreateUpstream(fbex);
-              var req = prepareRequest(fbex, requestBytes);
-              HttpResponse res = null;
-              try {
-                res = httpClient.call(req);
-              } catch (HttpClient.HttpException e) {
-                log.atDebug()
-                    .setCause(e)
-                    .log("upstream VAU call failed: %s".formatted(e.getMessage()));
-                fbex.setStatusCode(StatusCodes.BAD_GATEWAY).endExchange();
-                return;
-              }
-              sendResponse(fbex, res);
-            });
-  }
-
-  private synchronized HttpClient getOrCreateUpstream(HttpServerExchange exchange) {
-
-    var client = exchange.getAttachment(UPSTREAM_KEY);
-    // TODO should we verify that the client is for the right upstream AND insurantId?
-    if (client != null) {
-      return client;
+    var req = prepareRequest(exchange, readBody(exchange));
+    HttpResponse res = null;
+    try {
+      res = forward(cacheKey(exchange), req);
+    } catch (HttpClient.HttpException | VauException e) {
+      log.atDebug().setCause(e).log("upstream VAU call failed: %s".formatted(e.getMessage()));
+      exchange.setStatusCode(StatusCodes.BAD_GATEWAY).endExchange();
+      return;
+    }
+    sendResponse(exchange, res);
+  }
+
+  /**
+   * Reads the request body, e.g. an MTOM document of several MB. The input stream reads through the
+   * pooled buffers of the connection, the body is copied from them right into an array of its final
+   * size.
+   */
+  private static byte[] readBody(HttpServerExchange exchange) throws IOException {
+    var in = exchange.getInputStream();
+
+    var contentLength = exchange.getRequestContentLength();
+    if (contentLength < 0) {
+      // chunked, the chunks are only joined once the body is complete
+      return in.readAllBytes();
+    }
+    if (contentLength > MAX_BODY_LENGTH) {
+      throw new IOException("request body too large: %d bytes".formatted(contentLength));
+    }
+
+    var body = new byte[(int) contentLength];
+    var read = in.readNBytes(body, 0, body.length);
+    if (read != body.length) {
+      throw new IOException(
+          "request body ended after %d of %d bytes".formatted(read, contentLength));
+    }
+    return body;
+  }
+
+  /**
+   * Sends the request through the VAU tunnel of the upstream and insurant. If the tunnel is lost,
+   * it is replaced by a new one. Other failures, e.g. an overloaded upstream, keep the tunnel.
+   * Requests the VAU did not process or which are idempotent are sent once more, as long as the
+   * retry budget allows. Others fail, the next request establishes a new tunnel if needed.
+   */
+  HttpResponse forward(CacheKey key, HttpRequest req) {
+    var start = System.nanoTime();
+    var status = 0;
+    String errorType = null;
+    try {
+      var res = callThroughTunnel(key, req);
+      status = res.status();
+      metrics.recordDecrypted(key.uri(), res.body());
+      return res;
+    } catch (RuntimeException e) {
+      errorType = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      metrics.recordRequest(key.uri(), req.method(), status, errorType, System.nanoTime() - start);
+    }
+  }
+
+  private HttpResponse callThroughTunnel(CacheKey key, HttpRequest req) {
+
+    // open or re-use a VAU tunnel
+    var client = getOrCreateUpstream(key, req);
+    retryBudget.recordRequest();
+
+    try {
+      metrics.recordEncrypted(key.uri(), req.body());
+      return client.call(req);
+    } catch (HttpClient.HttpException | VauException e) {
+
+      var lost = isTunnelLost(e);
+      if (lost) {
+        // the tunnel is unusable, the next request establishes a new one
+        evict(key, client);
+      }
+
+      var replayable =
+          e instanceof VauSessionLostException || IDEMPOTENT_METHODS.contains(req.method());
+      if (!replayable || !retryBudget.tryRetry()) {
+        throw e;
+      }
+
+      log.atInfo()
+          .addKeyValue("upstream", key.uri())
+          .setCause(e)
+          .log(
+              lost
+                  ? "VAU tunnel to '{}' lost, retrying through a new tunnel"
+                  : "VAU call to '{}' failed, retrying",
+              key.uri());
+
+      var retry = getOrCreateUpstream(key, req);
+      metrics.recordEncrypted(key.uri(), req.body());
+      return retry.call(req);
+    }
+  }
+
+  /**
+   * Only the VAU rejecting the tunnel or a response not matching it break the tunnel. Failures of
+   * the transport or the load balancer of the upstream, e.g. a 503, leave it intact.
+   */
+  private static boolean isTunnelLost(RuntimeException e) {
+    return e instanceof VauSessionLostException || e instanceof VauDecryptionException;
+  }
+
+  private void notifyTunnelReplaced(CacheKey key, HttpRequest req) {
+    if (key.insurantId() == null || req.uri().getPath().startsWith(AUTHORIZATION_PATH)) {
+      // not bound to an insurant, or the request is authorizing the tunnel itself
+      return;
     }
+    try {
+      tunnelListener.tunnelReplaced(key.uri(), key.insurantId());
+    } catch (RuntimeException e) {
+      // the request is sent nevertheless, the upstream tells whether it needed authorization
+      log.atWarn()
+          .addKeyValue("upstream", key.uri())
+          .setCause(e)
+          .log("tunnel listener failed for '{}'", key.uri());
+    }
+  }
 
+  /**
+   * Continues tunnels of a previous process, without handshakes. A tunnel is only validated with
+   * its first request, if the VAU dropped it in the meantime it is replaced like any lost tunnel.
+   * The tunnel listener learns about the authorization of each resumed tunnel.
+   */
+  public void resumeSessions(List<VauSessionStore.Entry> entries) {
+    for (var entry : entries) {
+      var key = new CacheKey(entry.endpoint(), entry.insurantId());
+      if (clientCache.putIfAbsent(key, vauClientFactory.resume(entry.session())) != null
+          || key.insurantId() == null) {
+        continue;
+      }
+      try {
+        tunnelListener.tunnelResumed(key.uri(), key.insurantId(), entry.authorizedUntil());
+      } catch (RuntimeException e) {
+        // the session is authorized again on its first use
+        log.atWarn()
+            .addKeyValue("upstream", key.uri())
+            .setCause(e)
+            .log("tunnel listener failed for '{}'", key.uri());
+      }
+    }
+  }
+
+  /**
+   * @return the sessions of all open tunnels and their authorization, to be resumed by the next
+   *     process
+   */
+  public List<VauSessionStore.Entry> exportSessions() {
+    var entries = new ArrayList<VauSessionStore.Entry>();
+    for (Map.Entry<CacheKey, HttpClient> e : clientCache.entrySet()) {
+      var key = e.getKey();
+      var session = vauClientFactory.exportSession(e.getValue());
+      if (session.isEmpty()) {
+        continue;
+      }
+      var authorizedUntil =
+          key.insurantId() != null
+              ? tunnelListener.authorizedUntil(key.uri(), key.insurantId())
+              : null;
+      entries.add(
+          new VauSessionStore.Entry(key.uri(), key.insurantId(), session.get(), authorizedUntil));
+    }
+    return entries;
+  }
+
+  private Map<URI, Long> tunnelsByProvider() {
+    return clientCache.keySet().stream()
+        .collect(Collectors.groupingBy(CacheKey::uri, Collectors.counting()));
+  }
+
+  /** Stops reporting metrics of the tunnels. */
+  @Override
+  public void close() {
+    tunnelGauge.close();
+  }
+
+  private CacheKey cacheKey(HttpServerExchange exchange) {
     var requestUri = URI.create(exchange.getRequestURI());
+    var insurantId = exchange.getRequestHeaders().getFirst(INSURANT_ID_HEADER);
+    return cacheKey(requestUri.getHost(), insurantId);
+  }
 
+  static CacheKey cacheKey(String host, String insurantId) {
     // IMPORTANT: upgrades to HTTPS -> this only works if the original one was downgraded! I.e. this
     // does not work for local tests.
-    var upstreamEndpoint = URI.create("https://%s".formatted(requestUri.getHost()));
-    var insurantId = exchange.getRequestHeaders().getFirst("x-insurantid");
-    var key = new CacheKey(upstreamEndpoint, insurantId);
-
-    return clientCache.computeIfAbsent(
-        key,
-        upstream -> {
-          var newClient = vauClientFactory.connect(upstream.uri());
-          exchange.putAttachment(UPSTREAM_KEY, newClient);
-          return newClient;
-        });
+    var upstreamEndpoint = URI.create("https://%s".formatted(host));
+    return new CacheKey(upstreamEndpoint, insurantId);
+  }
+
+  /**
+   * Returns the tunnel for the key, establishes it if there is none. If it replaces a lost tunnel,
+   * the listener is told before the request is sent through it.
+   */
+  private HttpClient getOrCreateUpstream(CacheKey key, HttpRequest req) {
+
+    var client = clientCache.get(key);
+    if (client != null) {
+      return client;
+    }
+
+    // a handshake takes a while, only requests for the same tunnel wait for it
+    var lock = connectLocks.computeIfAbsent(key, k -> new ReentrantLock());
+    boolean replaced;
+    lock.lock();
+    try {
+      client = clientCache.get(key);
+      if (client != null) {
+        return client;
+      }
+      client = metrics.recordHandshake(key.uri(), () -> vauClientFactory.connect(key.uri()));
+      clientCache.put(key, client);
+      replaced = lostTunnels.remove(key);
+    } finally {
+      lock.unlock();
+    }
+
+    // outside the lock, authorizing sends requests through the new tunnel
+    if (replaced) {
+      notifyTunnelReplaced(key, req);
+    }
+    return client;
+  }
+
+  /** Drops the tunnel, unless another request replaced it already. */
+  private void evict(CacheKey key, HttpClient client) {
+    var lock = connectLocks.computeIfAbsent(key, k -> new ReentrantLock());
+    lock.lock();
+    try {
+      if (clientCache.remove(key, client)) {
+        lostTunnels.add(key);
+      }
+    } finally {
+      lock.unlock();
+    }
   }
 
   private void sendResponse(HttpServerExchange exchange, HttpResponse res) {
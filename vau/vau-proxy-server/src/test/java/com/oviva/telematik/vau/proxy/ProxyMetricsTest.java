@@ -0,0 +1,210 @@
+package com.oviva.telematik.vau.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import com.oviva.telematik.vau.httpclient.VauClientFactory;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleGaugeBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongCounterBuilder;
+import io.opentelemetry.api.metrics.LongGaugeBuilder;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class ProxyMetricsTest {
+
+  private static final URI PROVIDER = URI.create("https://epa-as-1.dev.epa4all.de");
+  private static final String INSURANT_ID = "X123456789";
+
+  private final DoubleHistogram handshakeDuration = mock(DoubleHistogram.class);
+  private final DoubleHistogram requestDuration = mock(DoubleHistogram.class);
+  private final LongCounter tunnelBytes = mock(LongCounter.class);
+  private final LongGaugeBuilder gaugeBuilder = mock(LongGaugeBuilder.class, RETURNS_SELF);
+  private ProxyMetrics metrics;
+
+  @BeforeEach
+  void setUp() {
+    var meter = mock(Meter.class);
+
+    var handshakeBuilder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+    when(handshakeBuilder.build()).thenReturn(handshakeDuration);
+    when(meter.histogramBuilder("vau.proxy.handshake.duration")).thenReturn(handshakeBuilder);
+
+    var requestBuilder = mock(DoubleHistogramBuilder.class, RETURNS_SELF);
+    when(requestBuilder.build()).thenReturn(requestDuration);
+    when(meter.histogramBuilder("vau.proxy.request.duration")).thenReturn(requestBuilder);
+
+    var counterBuilder = mock(LongCounterBuilder.class, RETURNS_SELF);
+    when(counterBuilder.build()).thenReturn(tunnelBytes);
+    when(meter.counterBuilder("vau.proxy.tunnel.io")).thenReturn(counterBuilder);
+
+    var doubleGaugeBuilder = mock(DoubleGaugeBuilder.class, RETURNS_SELF);
+    when(doubleGaugeBuilder.ofLongs()).thenReturn(gaugeBuilder);
+    when(gaugeBuilder.buildWithCallback(any())).thenReturn(mock(ObservableLongGauge.class));
+    when(meter.gaugeBuilder("vau.proxy.tunnels")).thenReturn(doubleGaugeBuilder);
+
+    metrics = new ProxyMetrics(meter);
+  }
+
+  @Test
+  void recordRequest_success() {
+    metrics.recordRequest(PROVIDER, "POST", 200, null, 1_500_000_000L);
+
+    verify(requestDuration)
+        .record(
+            1.5,
+            Attributes.of(
+                ProxyMetrics.PROVIDER,
+                "epa-as-1.dev.epa4all.de",
+                ProxyMetrics.METHOD,
+                "POST",
+                ProxyMetrics.STATUS_CODE,
+                200L));
+  }
+
+  @Test
+  void recordRequest_failure() {
+    metrics.recordRequest(PROVIDER, "GET", 0, "HttpException", 1_000_000L);
+
+    verify(requestDuration)
+        .record(
+            anyDouble(),
+            eq(
+                Attributes.of(
+                    ProxyMetrics.PROVIDER,
+                    "epa-as-1.dev.epa4all.de",
+                    ProxyMetrics.METHOD,
+                    "GET",
+                    ProxyMetrics.ERROR_TYPE,
+                    "HttpException")));
+  }
+
+  @Test
+  void recordHandshake_success() {
+    var result = metrics.recordHandshake(PROVIDER, () -> "tunnel");
+
+    assertEquals("tunnel", result);
+    verify(handshakeDuration)
+        .record(anyDouble(), eq(Attributes.of(ProxyMetrics.PROVIDER, "epa-as-1.dev.epa4all.de")));
+  }
+
+  @Test
+  void recordHandshake_failure() {
+    var e = new HttpClient.HttpException("handshake failed");
+
+    var thrown =
+        assertThrows(
+            HttpClient.HttpException.class,
+            () ->
+                metrics.recordHandshake(
+                    PROVIDER,
+                    () -> {
+                      throw e;
+                    }));
+
+    assertEquals(e, thrown);
+    verify(handshakeDuration)
+        .record(
+            anyDouble(),
+            eq(
+                Attributes.of(
+                    ProxyMetrics.PROVIDER,
+                    "epa-as-1.dev.epa4all.de",
+                    ProxyMetrics.ERROR_TYPE,
+                    "HttpException")));
+  }
+
+  @Test
+  void recordBytes_perDirection() {
+    metrics.recordEncrypted(PROVIDER, new byte[10]);
+    metrics.recordDecrypted(PROVIDER, new byte[3]);
+    metrics.recordDecrypted(PROVIDER, null);
+    metrics.recordEncrypted(PROVIDER, new byte[0]);
+
+    verify(tunnelBytes)
+        .add(
+            10,
+            Attributes.of(
+                ProxyMetrics.PROVIDER,
+                "epa-as-1.dev.epa4all.de",
+                ProxyMetrics.DIRECTION,
+                "encrypt"));
+    verify(tunnelBytes)
+        .add(
+            3,
+            Attributes.of(
+                ProxyMetrics.PROVIDER,
+                "epa-as-1.dev.epa4all.de",
+                ProxyMetrics.DIRECTION,
+                "decrypt"));
+    verifyNoMoreInteractions(tunnelBytes);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void observeTunnels_perProvider() {
+    metrics.observeTunnels(() -> Map.of(PROVIDER, 3L));
+
+    var callback = ArgumentCaptor.forClass(Consumer.class);
+    verify(gaugeBuilder).buildWithCallback(callback.capture());
+    var measurement = mock(ObservableLongMeasurement.class);
+    callback.getValue().accept(measurement);
+
+    verify(measurement).record(3, Attributes.of(ProxyMetrics.PROVIDER, "epa-as-1.dev.epa4all.de"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void forward_neverRecordsInsurant() {
+    var factory = mock(VauClientFactory.class);
+    var tunnel = mock(HttpClient.class);
+    when(factory.connect(any())).thenReturn(tunnel);
+    when(tunnel.call(any())).thenReturn(new HttpResponse(200, List.of(), new byte[] {1}));
+
+    var handler = new VauProxyHandler(factory, (endpoint, insurantId) -> {}, null, metrics);
+    var key = VauProxyHandler.cacheKey("epa-as-1.dev.epa4all.de", INSURANT_ID);
+    handler.forward(key, new HttpRequest(URI.create("/epa/test"), "POST", List.of(), new byte[2]));
+
+    var recorded = new ArrayList<Attributes>();
+    var attributes = ArgumentCaptor.forClass(Attributes.class);
+    verify(handshakeDuration).record(anyDouble(), attributes.capture());
+    verify(requestDuration).record(anyDouble(), attributes.capture());
+    verify(tunnelBytes, times(2)).add(anyLong(), attributes.capture());
+    recorded.addAll(attributes.getAllValues());
+
+    var callback = ArgumentCaptor.forClass(Consumer.class);
+    verify(gaugeBuilder).buildWithCallback(callback.capture());
+    var measurement = mock(ObservableLongMeasurement.class);
+    callback.getValue().accept(measurement);
+    verify(measurement).record(eq(1L), attributes.capture());
+    recorded.add(attributes.getValue());
+
+    assertEquals(5, recorded.size());
+    for (var a : recorded) {
+      a.forEach(
+          (k, v) -> {
+            assertFalse(k.getKey().contains("insurant"), "should not record " + k);
+            assertNotEquals(INSURANT_ID, v);
+          });
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.oviva.telematik.vau.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  void startsFull() {
+    var budget = new RetryBudget(0.1, 3);
+
+    assertTrue(budget.tryRetry());
+    assertTrue(budget.tryRetry());
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+  }
+
+  @Test
+  void requestsRefill() {
+    var budget = new RetryBudget(0.5, 1);
+    assertTrue(budget.tryRetry());
+
+    budget.recordRequest();
+    assertFalse(budget.tryRetry());
+
+    budget.recordRequest();
+    assertTrue(budget.tryRetry());
+  }
+
+  @Test
+  void capped() {
+    var budget = new RetryBudget(1, 2);
+    for (var i = 0; i < 10; i++) {
+      budget.recordRequest();
+    }
+
+    assertTrue(budget.tryRetry());
+    assertTrue(budget.tryRetry());
+    assertFalse(budget.tryRetry());
+  }
+
+  @Test
+  void invalidConfiguration_throws() {
+    assertThrows(IllegalArgumentException.class, () -> new RetryBudget(-0.1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new RetryBudget(1.1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new RetryBudget(0.1, 0));
+  }
+}
@@ -0,0 +1,86 @@
+package com.oviva.telematik.vau.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.oviva.telematik.vau.httpclient.VauClientFactory;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UnixSocketListenerTest {
+
+  @TempDir Path dir;
+
+  private Path socket;
+  private UnixSocketListener listener;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    socket = dir.resolve("proxy.sock");
+    listener =
+        new UnixSocketListener(
+            socket,
+            new VauProxyHandler(mock(VauClientFactory.class)),
+            Thread.ofVirtual().factory(),
+            Duration.ofMillis(200));
+    listener.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    listener.close();
+  }
+
+  @Test
+  void start_restrictsSocketToOwner() throws IOException {
+    assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(socket)));
+    try (var files = Files.list(dir)) {
+      assertEquals(1, files.count(), "should not leave the private directory behind");
+    }
+  }
+
+  @Test
+  void malformedHost_badRequest() throws IOException {
+    try (var channel = connect()) {
+      send(channel, "GET /epa/test HTTP/1.1\r\nHost: not a host\r\n\r\n");
+
+      assertTrue(readAll(channel).startsWith("HTTP/1.1 400 "));
+    }
+  }
+
+  @Test
+  void idleConnection_closed() throws IOException {
+    try (var channel = connect()) {
+      // nothing sent, the listener gives up after the idle timeout
+      assertEquals("", readAll(channel));
+    }
+  }
+
+  private SocketChannel connect() throws IOException {
+    var channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.connect(UnixDomainSocketAddress.of(socket));
+    return channel;
+  }
+
+  private static void send(SocketChannel channel, String request) throws IOException {
+    channel.write(ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /** Reads until the listener closes the connection. */
+  private static String readAll(SocketChannel channel) throws IOException {
+    var in = java.nio.channels.Channels.newInputStream(channel);
+    return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,248 @@
+package com.oviva.telematik.vau.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.oviva.telematik.vau.httpclient.HttpClient;
+import com.oviva.telematik.vau.httpclient.HttpRequest;
+import com.oviva.telematik.vau.httpclient.HttpResponse;
+import com.oviva.telematik.vau.httpclient.VauClientFactory;
+import com.oviva.telematik.vau.httpclient.VauSession;
+import com.oviva.telematik.vau.httpclient.VauSessionStore;
+import com.oviva.telematik.vau.httpclient.internal.HttpExceptionWithInfo;
+import com.oviva.telematik.vau.httpclient.internal.VauSessionLostException;
+import de.gematik.vau.lib.data.VauClientSession;
+import de.gematik.vau.lib.exceptions.VauDecryptionException;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class VauProxyHandlerTest {
+
+  private static final String INSURANT_ID = "X123456789";
+  private static final VauProxyHandler.CacheKey KEY =
+      VauProxyHandler.cacheKey("epa-as-1.dev.epa4all.de", INSURANT_ID);
+  private static final URI ENDPOINT = KEY.uri();
+
+  private static final HttpResponse OK = new HttpResponse(200, List.of(), null);
+
+  private final VauClientFactory factory = mock(VauClientFactory.class);
+  private final TunnelListener listener = mock(TunnelListener.class);
+  private final Deque<HttpClient> tunnels = new ArrayDeque<>();
+
+  private final VauProxyHandler handler = new VauProxyHandler(factory, listener);
+
+  {
+    when(factory.connect(ENDPOINT)).thenAnswer(i -> tunnels.removeFirst());
+  }
+
+  @Test
+  void forward_reusesTunnel() {
+    var tunnel = tunnel(OK);
+
+    handler.forward(KEY, request("POST", "/epa/xds-document/api/I_Document_Management"));
+    handler.forward(KEY, request("POST", "/epa/xds-document/api/I_Document_Management"));
+
+    verify(factory, times(1)).connect(ENDPOINT);
+    verify(tunnel, times(2)).call(any());
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  void forward_idempotentRequest_replayedThroughNewTunnel() {
+    var lost = tunnel(decryptionFailure());
+    var replacement = tunnel(OK);
+    var req = request("GET", "/epa/basic/api/v1/ps/entitlements");
+
+    var res = handler.forward(KEY, req);
+
+    assertEquals(200, res.status());
+    verify(lost).call(req);
+    var inOrder = inOrder(listener, replacement);
+    inOrder.verify(listener).tunnelReplaced(ENDPOINT, INSURANT_ID);
+    inOrder.verify(replacement).call(req);
+  }
+
+  @Test
+  void forward_sessionLost_replayed() {
+    tunnel(new VauSessionLostException(403, "POST", ENDPOINT, "unknown session"));
+    var replacement = tunnel(OK);
+    var req = request("POST", "/epa/xds-document/api/I_Document_Management");
+
+    var res = handler.forward(KEY, req);
+
+    assertEquals(200, res.status());
+    verify(replacement).call(req);
+    verify(listener).tunnelReplaced(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void forward_nonIdempotentRequest_notReplayed_nextRequestNotifies() {
+    tunnel(decryptionFailure());
+    var replacement = tunnel(OK);
+    var req = request("POST", "/epa/xds-document/api/I_Document_Management");
+
+    assertThrows(VauDecryptionException.class, () -> handler.forward(KEY, req));
+    verifyNoInteractions(listener);
+
+    handler.forward(KEY, req);
+
+    // the new tunnel is authorized before the next request is sent through it
+    var inOrder = inOrder(listener, replacement);
+    inOrder.verify(listener).tunnelReplaced(ENDPOINT, INSURANT_ID);
+    inOrder.verify(replacement).call(req);
+  }
+
+  @Test
+  void forward_retryBudgetExhausted_everyReplacementNotifies() {
+    var failure = decryptionFailure();
+    var req = request("GET", "/epa/basic/api/v1/ps/entitlements");
+    for (var i = 0; i < 40; i++) {
+      tunnel(failure);
+    }
+
+    var failed = 0;
+    for (var i = 0; i < 20; i++) {
+      try {
+        handler.forward(KEY, req);
+      } catch (VauDecryptionException e) {
+        failed++;
+      }
+    }
+
+    assertEquals(20, failed);
+    var connects = 40 - tunnels.size();
+    // without budget left, requests fail without a replay
+    assertTrue(connects < 40, "should stop replaying once the budget is used up");
+    verify(listener, times(connects - 1)).tunnelReplaced(ENDPOINT, INSURANT_ID);
+  }
+
+  @Test
+  void forward_upstreamUnavailable_keepsTunnel() {
+    var tunnel = mock(HttpClient.class);
+    when(tunnel.call(any()))
+        .thenThrow(new HttpExceptionWithInfo(503, "POST", ENDPOINT, "bad status code 503 != 200"))
+        .thenReturn(OK);
+    tunnels.add(tunnel);
+    var req = request("POST", "/epa/xds-document/api/I_Document_Management");
+
+    assertThrows(HttpExceptionWithInfo.class, () -> handler.forward(KEY, req));
+    assertEquals(200, handler.forward(KEY, req).status());
+
+    verify(factory, times(1)).connect(ENDPOINT);
+    verify(tunnel, times(2)).call(req);
+    verify(listener, never()).tunnelReplaced(any(), any());
+  }
+
+  @Test
+  void forward_idempotentRequest_transportFailure_replayedThroughSameTunnel() {
+    var tunnel = mock(HttpClient.class);
+    when(tunnel.call(any())).thenThrow(new HttpClient.HttpException("timeout")).thenReturn(OK);
+    tunnels.add(tunnel);
+    var req = request("GET", "/epa/basic/api/v1/ps/entitlements");
+
+    assertEquals(200, handler.forward(KEY, req).status());
+
+    verify(factory, times(1)).connect(ENDPOINT);
+    verify(tunnel, times(2)).call(req);
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  void forward_authorizationRequest_doesNotNotify() {
+    tunnel(decryptionFailure());
+    tunnel(OK);
+
+    handler.forward(KEY, request("GET", "/epa/authz/v1/getNonce"));
+
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  void forward_withoutInsurant_doesNotNotify() {
+    tunnel(decryptionFailure());
+    tunnel(OK);
+    var key = VauProxyHandler.cacheKey("epa-as-1.dev.epa4all.de", null);
+
+    handler.forward(key, request("GET", "/epa/authz/v1/freshness"));
+
+    verifyNoInteractions(listener);
+  }
+
+  @Test
+  void forward_listenerFails_sendsRequestNevertheless() {
+    tunnel(decryptionFailure());
+    var replacement = tunnel(OK);
+    doThrow(new IllegalStateException("no authorization"))
+        .when(listener)
+        .tunnelReplaced(any(), any());
+    var req = request("GET", "/epa/basic/api/v1/ps/entitlements");
+
+    assertEquals(200, handler.forward(KEY, req).status());
+    verify(replacement).call(req);
+  }
+
+  @Test
+  void resumeSessions_passesAuthorizationToListener() {
+    var authorizedUntil = Instant.parse("2025-01-01T10:20:00Z");
+    var session = session();
+    var resumed = mock(HttpClient.class);
+    when(factory.resume(session)).thenReturn(resumed);
+    when(resumed.call(any())).thenReturn(OK);
+
+    handler.resumeSessions(
+        List.of(new VauSessionStore.Entry(ENDPOINT, INSURANT_ID, session, authorizedUntil)));
+    handler.forward(KEY, request("POST", "/epa/xds-document/api/I_Document_Management"));
+
+    verify(listener).tunnelResumed(ENDPOINT, INSURANT_ID, authorizedUntil);
+    verify(factory, never()).connect(any());
+  }
+
+  @Test
+  void exportSessions_includesAuthorization() {
+    var authorizedUntil = Instant.parse("2025-01-01T10:20:00Z");
+    var session = session();
+    var tunnel = tunnel(OK);
+    when(factory.exportSession(tunnel)).thenReturn(Optional.of(session));
+    when(listener.authorizedUntil(ENDPOINT, INSURANT_ID)).thenReturn(authorizedUntil);
+    handler.forward(KEY, request("POST", "/epa/xds-document/api/I_Document_Management"));
+
+    var entries = handler.exportSessions();
+
+    assertEquals(
+        List.of(new VauSessionStore.Entry(ENDPOINT, INSURANT_ID, session, authorizedUntil)),
+        entries);
+  }
+
+  private HttpClient tunnel(HttpResponse response) {
+    var tunnel = mock(HttpClient.class);
+    when(tunnel.call(any())).thenReturn(response);
+    tunnels.add(tunnel);
+    return tunnel;
+  }
+
+  private HttpClient tunnel(RuntimeException failure) {
+    var tunnel = mock(HttpClient.class);
+    when(tunnel.call(any())).thenThrow(failure);
+    tunnels.add(tunnel);
+    return tunnel;
+  }
+
+  private static VauDecryptionException decryptionFailure() {
+    return new VauDecryptionException("Tag mismatch", null);
+  }
+
+  private static HttpRequest request(String method, String path) {
+    return new HttpRequest(URI.create(path), method, List.of(), null);
+  }
+
+  private static VauSession session() {
+    var state = new VauClientSession(new byte[] {1}, new byte[] {2}, new byte[] {3}, 7, false);
+    return new VauSession("/VAU/1234", ENDPOINT.resolve("/VAU/1234"), state);
+  }
+}
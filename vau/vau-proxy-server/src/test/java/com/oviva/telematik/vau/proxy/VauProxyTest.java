@@ -0,0 +1,40 @@
+package com.oviva.telematik.vau.proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import javax.net.ssl.SSLContext;
+import org.junit.jupiter.api.Test;
+
+class VauProxyTest {
+
+  @Test
+  void buildOuterVauClient_defaultsToHttp2() throws NoSuchAlgorithmException {
+    var config = new VauProxy.Configuration(null, 0, false, "test", SSLContext.getDefault(), null);
+
+    var client = VauProxy.buildOuterVauClient(config);
+
+    assertEquals(HttpClient.Version.HTTP_2, client.version());
+  }
+
+  @Test
+  void buildOuterVauClient_pinsHttp11() throws NoSuchAlgorithmException {
+    var config =
+        new VauProxy.Configuration(
+            null,
+            0,
+            false,
+            "test",
+            SSLContext.getDefault(),
+            null,
+            HttpClient.Version.HTTP_1_1,
+            null,
+            null,
+            null);
+
+    var client = VauProxy.buildOuterVauClient(config);
+
+    assertEquals(HttpClient.Version.HTTP_1_1, client.version());
+  }
+}